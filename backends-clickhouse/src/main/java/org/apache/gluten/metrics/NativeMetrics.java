@@ -22,6 +22,9 @@ import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -33,11 +36,19 @@ public class NativeMetrics implements IMetrics {
   public List<MetricsData> metricsDataList;
   public String metricsJson;
 
+  private static final int HAS_MARKS = 1;
+  private static final int HAS_CACHE_HITS = 2;
+
   public NativeMetrics(String metricsJson) {
     this.metricsJson = metricsJson;
     this.metricsDataList = NativeMetrics.deserializeMetricsJson(this.metricsJson);
   }
 
+  /** Create an instance from the binary layout written by native RelMetricSerializer. */
+  public NativeMetrics(byte[] metricsBinary) {
+    this.metricsDataList = NativeMetrics.deserializeMetricsBinary(metricsBinary);
+  }
+
   public void setFinalOutputMetrics(long outputRowCount, long outputVectorCount) {
     if (CollectionUtils.isNotEmpty(this.metricsDataList)) {
       int listSize = this.metricsDataList.size();
@@ -70,4 +81,84 @@ public class NativeMetrics implements IMetrics {
     }
     return new ArrayList<MetricsData>();
   }
+
+  /**
+   * Deserialize the binary metrics layout to MetricsData. It carries the same content as the json
+   * layout without the cost of generating and parsing text for every task.
+   */
+  public static List<MetricsData> deserializeMetricsBinary(byte[] metricsBinary) {
+    List<MetricsData> metricsDataList = new ArrayList<>();
+    if (metricsBinary == null || metricsBinary.length == 0) {
+      return metricsDataList;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(metricsBinary).order(ByteOrder.LITTLE_ENDIAN);
+    try {
+      while (buffer.hasRemaining()) {
+        metricsDataList.add(readMetricsData(buffer));
+      }
+    } catch (Exception e) {
+      LOG.error("Deserialize metrics binary error:", e);
+      return new ArrayList<MetricsData>();
+    }
+    Collections.reverse(metricsDataList);
+    return metricsDataList;
+  }
+
+  private static MetricsData readMetricsData(ByteBuffer buffer) {
+    MetricsData data = new MetricsData();
+    data.id = buffer.getLong();
+    data.name = readString(buffer);
+    data.time = buffer.getLong();
+    data.inputWaitTime = buffer.getLong();
+    data.outputWaitTime = buffer.getLong();
+    int numSteps = buffer.getInt();
+    if (numSteps > 0) {
+      data.steps = new ArrayList<>(numSteps);
+      for (int i = 0; i < numSteps; i++) {
+        data.steps.add(readMetricsStep(buffer));
+      }
+    }
+    return data;
+  }
+
+  private static MetricsStep readMetricsStep(ByteBuffer buffer) {
+    MetricsStep step = new MetricsStep();
+    step.name = readString(buffer);
+    step.description = readString(buffer);
+    int numProcessors = buffer.getInt();
+    step.processors = new ArrayList<>(numProcessors);
+    for (int i = 0; i < numProcessors; i++) {
+      MetricsProcessor processor = new MetricsProcessor();
+      processor.name = readString(buffer);
+      processor.time = buffer.getLong();
+      processor.outputRows = buffer.getLong();
+      processor.outputBytes = buffer.getLong();
+      processor.inputRows = buffer.getLong();
+      processor.inputBytes = buffer.getLong();
+      step.processors.add(processor);
+    }
+    int flags = buffer.get();
+    if ((flags & HAS_MARKS) != 0) {
+      step.selectedMarksPk = buffer.getLong();
+      step.selectedMarks = buffer.getLong();
+      step.totalMarksPk = buffer.getLong();
+    }
+    if ((flags & HAS_CACHE_HITS) != 0) {
+      step.readCacheHits = buffer.getLong();
+      step.missCacheHits = buffer.getLong();
+      step.readCacheBytes = buffer.getLong();
+      step.readMissBytes = buffer.getLong();
+      step.readCacheMillisecond = buffer.getLong();
+      step.missCacheMillisecond = buffer.getLong();
+    }
+    return step;
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    int offset = buffer.arrayOffset() + buffer.position();
+    String value = new String(buffer.array(), offset, length, StandardCharsets.UTF_8);
+    buffer.position(buffer.position() + length);
+    return value;
+  }
 }
@@ -40,7 +40,7 @@ public class BatchIterator extends ClosableIterator {
 
   private native void nativeCancel(long nativeHandle);
 
-  private native String nativeFetchMetrics(long nativeHandle);
+  private native byte[] nativeFetchMetrics(long nativeHandle);
 
   @Override
   public boolean hasNext0() {
@@ -17,20 +17,43 @@
 package org.apache.gluten.vectorized;
 
 import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DataTypes;
 import org.apache.spark.sql.types.Decimal;
 import org.apache.spark.sql.vectorized.ColumnVector;
 import org.apache.spark.sql.vectorized.ColumnarArray;
 import org.apache.spark.sql.vectorized.ColumnarMap;
+import org.apache.spark.unsafe.Platform;
 import org.apache.spark.unsafe.types.UTF8String;
 
+/**
+ * A read-only view over one column of a ClickHouse block.
+ *
+ * <p>For materialized columns, the null map and the fixed-width values are read directly from
+ * native memory with {@link Platform}, provided the column's type is the one the accessor reads.
+ * Other columns (const, sparse, low cardinality, variable width, or read through another type's
+ * accessor, which converts the value natively) fall back to one JNI call per value.
+ */
 public class CHColumnVector extends ColumnVector {
   private final int columnPosition;
   private final long blockAddress;
+  private final boolean directAccess;
+
+  // Lazily resolved direct addresses. See the native methods below.
+  private boolean addressesResolved = false;
+  private long nullMapAddress;
+  private long dataAddress;
+  private int valueSize;
 
   public CHColumnVector(DataType type, long blockAddress, int columnPosition) {
+    this(type, blockAddress, columnPosition, true);
+  }
+
+  // With directAccess disabled, every value is read through JNI. For tests.
+  CHColumnVector(DataType type, long blockAddress, int columnPosition, boolean directAccess) {
     super(type);
     this.blockAddress = blockAddress;
     this.columnPosition = columnPosition;
+    this.directAccess = directAccess;
   }
 
   public long getBlockAddress() {
@@ -56,10 +79,57 @@ public class CHColumnVector extends ColumnVector {
     return nativeNumNulls(blockAddress, columnPosition);
   }
 
+  // Address of the null map, 0 if the column can't contain nulls, -1 if there's no null map to
+  // read from.
+  private native long nativeNullMapAddress(long blockAddress, int columnPosition);
+
+  // Address of the fixed-width values, or 0 if they are not stored contiguously one per row.
+  private native long nativeDataAddress(long blockAddress, int columnPosition);
+
+  // Width of the values at nativeDataAddress, or 0 if there is no such address.
+  private native int nativeValueSize(long blockAddress, int columnPosition);
+
+  private void resolveAddresses() {
+    if (addressesResolved) {
+      return;
+    }
+    nullMapAddress = nativeNullMapAddress(blockAddress, columnPosition);
+    dataAddress = nativeDataAddress(blockAddress, columnPosition);
+    valueSize = nativeValueSize(blockAddress, columnPosition);
+    addressesResolved = true;
+  }
+
+  /**
+   * Returns the address of the values if they can be read directly with the given width, by an
+   * accessor that reads the column's type as is.
+   */
+  private long dataAddress(int width, boolean typeMatches) {
+    if (!typeMatches || !directAccess) {
+      return 0L;
+    }
+    resolveAddresses();
+    return valueSize == width ? dataAddress : 0L;
+  }
+
+  // Dates are stored as days since epoch, which getInt returns as is.
+  private boolean isIntType() {
+    return type == DataTypes.IntegerType || type == DataTypes.DateType;
+  }
+
   private native boolean nativeIsNullAt(int rowId, long blockAddress, int columnPosition);
 
   @Override
   public boolean isNullAt(int rowId) {
+    if (!directAccess) {
+      return nativeIsNullAt(rowId, blockAddress, columnPosition);
+    }
+    resolveAddresses();
+    if (nullMapAddress > 0) {
+      return Platform.getByte(null, nullMapAddress + rowId) != 0;
+    }
+    if (nullMapAddress == 0) {
+      return false;
+    }
     return nativeIsNullAt(rowId, blockAddress, columnPosition);
   }
 
@@ -67,6 +137,10 @@ public class CHColumnVector extends ColumnVector {
 
   @Override
   public boolean getBoolean(int rowId) {
+    final long address = dataAddress(1, type == DataTypes.BooleanType);
+    if (address != 0) {
+      return Platform.getByte(null, address + rowId) != 0;
+    }
     return nativeGetBoolean(rowId, blockAddress, columnPosition);
   }
 
@@ -74,44 +148,135 @@ public class CHColumnVector extends ColumnVector {
 
   @Override
   public byte getByte(int rowId) {
+    final long address = dataAddress(1, type == DataTypes.ByteType);
+    if (address != 0) {
+      return Platform.getByte(null, address + rowId);
+    }
     return nativeGetByte(rowId, blockAddress, columnPosition);
   }
 
+  @Override
+  public byte[] getBytes(int rowId, int count) {
+    final long address = dataAddress(1, type == DataTypes.ByteType);
+    if (address == 0) {
+      return super.getBytes(rowId, count);
+    }
+    final byte[] res = new byte[count];
+    Platform.copyMemory(null, address + rowId, res, Platform.BYTE_ARRAY_OFFSET, count);
+    return res;
+  }
+
   private native short nativeGetShort(int rowId, long blockAddress, int columnPosition);
 
   @Override
   public short getShort(int rowId) {
+    final long address = dataAddress(2, type == DataTypes.ShortType);
+    if (address != 0) {
+      return Platform.getShort(null, address + 2L * rowId);
+    }
     return nativeGetShort(rowId, blockAddress, columnPosition);
   }
 
+  @Override
+  public short[] getShorts(int rowId, int count) {
+    final long address = dataAddress(2, type == DataTypes.ShortType);
+    if (address == 0) {
+      return super.getShorts(rowId, count);
+    }
+    final short[] res = new short[count];
+    Platform.copyMemory(null, address + 2L * rowId, res, Platform.SHORT_ARRAY_OFFSET, 2L * count);
+    return res;
+  }
+
   private native int nativeGetInt(int rowId, long blockAddress, int columnPosition);
 
   @Override
   public int getInt(int rowId) {
+    final long address = dataAddress(4, isIntType());
+    if (address != 0) {
+      return Platform.getInt(null, address + 4L * rowId);
+    }
     return nativeGetInt(rowId, blockAddress, columnPosition);
   }
 
+  @Override
+  public int[] getInts(int rowId, int count) {
+    final long address = dataAddress(4, isIntType());
+    if (address == 0) {
+      return super.getInts(rowId, count);
+    }
+    final int[] res = new int[count];
+    Platform.copyMemory(null, address + 4L * rowId, res, Platform.INT_ARRAY_OFFSET, 4L * count);
+    return res;
+  }
+
   private native long nativeGetLong(int rowId, long blockAddress, int columnPosition);
 
   @Override
   public long getLong(int rowId) {
+    final long address = dataAddress(8, type == DataTypes.LongType);
+    if (address != 0) {
+      return Platform.getLong(null, address + 8L * rowId);
+    }
     return nativeGetLong(rowId, blockAddress, columnPosition);
   }
 
+  @Override
+  public long[] getLongs(int rowId, int count) {
+    final long address = dataAddress(8, type == DataTypes.LongType);
+    if (address == 0) {
+      return super.getLongs(rowId, count);
+    }
+    final long[] res = new long[count];
+    Platform.copyMemory(null, address + 8L * rowId, res, Platform.LONG_ARRAY_OFFSET, 8L * count);
+    return res;
+  }
+
   private native float nativeGetFloat(int rowId, long blockAddress, int columnPosition);
 
   @Override
   public float getFloat(int rowId) {
+    final long address = dataAddress(4, type == DataTypes.FloatType);
+    if (address != 0) {
+      return Platform.getFloat(null, address + 4L * rowId);
+    }
     return nativeGetFloat(rowId, blockAddress, columnPosition);
   }
 
+  @Override
+  public float[] getFloats(int rowId, int count) {
+    final long address = dataAddress(4, type == DataTypes.FloatType);
+    if (address == 0) {
+      return super.getFloats(rowId, count);
+    }
+    final float[] res = new float[count];
+    Platform.copyMemory(null, address + 4L * rowId, res, Platform.FLOAT_ARRAY_OFFSET, 4L * count);
+    return res;
+  }
+
   private native double nativeGetDouble(int rowId, long blockAddress, int columnPosition);
 
   @Override
   public double getDouble(int rowId) {
+    final long address = dataAddress(8, type == DataTypes.DoubleType);
+    if (address != 0) {
+      return Platform.getDouble(null, address + 8L * rowId);
+    }
     return nativeGetDouble(rowId, blockAddress, columnPosition);
   }
 
+  @Override
+  public double[] getDoubles(int rowId, int count) {
+    final long address = dataAddress(8, type == DataTypes.DoubleType);
+    if (address == 0) {
+      return super.getDoubles(rowId, count);
+    }
+    final double[] res = new double[count];
+    Platform.copyMemory(
+        null, address + 8L * rowId, res, Platform.DOUBLE_ARRAY_OFFSET, 8L * count);
+    return res;
+  }
+
   @Override
   public ColumnarArray getArray(int rowId) {
     return null;
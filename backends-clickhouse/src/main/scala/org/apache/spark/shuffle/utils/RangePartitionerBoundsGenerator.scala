@@ -26,15 +26,21 @@ import org.apache.gluten.substrait.rel.{RelBuilder, RelNode}
 
 import org.apache.spark.RangePartitioner
 import org.apache.spark.rdd.{PartitionPruningRDD, RDD}
-import org.apache.spark.sql.catalyst.expressions.{Attribute, NamedExpression, SortOrder, UnsafeRow}
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.catalyst.expressions.{Attribute, NamedExpression, SortOrder}
 import org.apache.spark.sql.catalyst.plans.physical.RangePartitioning
 import org.apache.spark.sql.execution.SparkPlan
 import org.apache.spark.sql.types._
+import org.apache.spark.sql.vectorized.ColumnarBatch
+import org.apache.spark.util.random.XORShiftRandom
 
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.node.ArrayNode
 
+import java.io.ByteArrayOutputStream
+import java.nio.{ByteBuffer, ByteOrder}
 import java.util
+import java.util.Base64
 
 import scala.collection.mutable
 import scala.collection.mutable.ArrayBuffer
@@ -46,15 +52,20 @@ import scala.util.hashing.byteswap32
  * In spark RangePartitioner, the rangeBounds is private, so we make a copied-implementation here.
  * It is based on the fact that, there has been a pre-projection before the range partition and
  * remove all function expressions in the sort ordering expressions.
+ *
+ * Unlike spark's, sampling works on the columnar batches directly: row positions are sampled per
+ * batch and only the sampled rows are converted to keys by `keysOf`.
  */
-class RangePartitionerBoundsGenerator[K: Ordering: ClassTag, V](
+class RangePartitionerBoundsGenerator[K: Ordering: ClassTag](
     partitions: Int,
-    rdd: RDD[_ <: Product2[K, V]],
+    rdd: RDD[ColumnarBatch],
+    keysOf: (ColumnarBatch, Array[Int]) => Array[K],
     ordering: Seq[SortOrder],
     inputAttributes: Seq[Attribute],
     private var ascending: Boolean = true,
     val samplePointsPerPartitionHint: Int = 20
 ) {
+  import RangePartitionerBoundsGenerator._
 
   private def getRangeBounds: Array[K] = {
     if (partitions <= 1) {
@@ -62,7 +73,7 @@ class RangePartitionerBoundsGenerator[K: Ordering: ClassTag, V](
     } else {
       val sampleSize = math.min(samplePointsPerPartitionHint.toDouble * partitions, 1e6)
       val sampleSizePerPartition = math.ceil(3.0 * sampleSize / rdd.partitions.length).toInt
-      val (numItems, sketched) = RangePartitioner.sketch(rdd.map(_._1), sampleSizePerPartition)
+      val (numItems, sketched) = sketch(rdd, keysOf, sampleSizePerPartition)
       if (numItems == 0L) {
         Array.empty
       } else {
@@ -81,9 +92,9 @@ class RangePartitionerBoundsGenerator[K: Ordering: ClassTag, V](
             }
         }
         if (imbalancedPartitions.nonEmpty) {
-          val imbalanced = new PartitionPruningRDD(rdd.map(_._1), imbalancedPartitions.contains)
+          val imbalanced = new PartitionPruningRDD(rdd, imbalancedPartitions.contains)
           val seed = byteswap32(-rdd.id - 1)
-          val reSampled = imbalanced.sample(withReplacement = false, fraction, seed).collect()
+          val reSampled = sample(imbalanced, keysOf, fraction, seed)
           val weight = (1.0 / fraction).toFloat
           candidates ++= reSampled.map(x => (x, weight))
         }
@@ -104,16 +115,8 @@ class RangePartitionerBoundsGenerator[K: Ordering: ClassTag, V](
       },
         ...
     ],
-    "range_bounds":[
-     {
-         "is_null":false,
-         "value": ...
-       },
-       {
-         "is_null":true
-       },
-       ...
-    ]
+    "range_bounds":"<base64 of encodeRangeBounds>",
+    "range_bounds_num":n
     }
    */
   private def getExpressionFieldReference(
@@ -169,55 +172,6 @@ class RangePartitionerBoundsGenerator[K: Ordering: ClassTag, V](
     }
   }
 
-  private def buildRangeBoundJson(
-      row: UnsafeRow,
-      orderings: Seq[SortOrder],
-      jsonMapper: ObjectMapper): ArrayNode = {
-    val arrayNode = jsonMapper.createArrayNode()
-    (0 until row.numFields).foreach {
-      i =>
-        if (row.isNullAt(i)) {
-          val node = jsonMapper.createObjectNode()
-          node.put("is_null", true)
-          arrayNode.add(node)
-        } else {
-          val ordering = orderings(i)
-          val node = jsonMapper.createObjectNode()
-          node.put("is_null", false)
-          ordering.dataType match {
-            case _: BooleanType => node.put("value", row.getBoolean(i))
-            case _: ByteType => node.put("value", row.getByte(i))
-            case _: ShortType => node.put("value", row.getShort(i))
-            case _: IntegerType => node.put("value", row.getInt(i))
-            case _: LongType => node.put("value", row.getLong(i))
-            case _: FloatType => node.put("value", row.getFloat(i))
-            case _: DoubleType => node.put("value", row.getDouble(i))
-            case _: StringType => node.put("value", row.getString(i))
-            case _: DateType => node.put("value", row.getInt(i))
-            case d: DecimalType =>
-              val decimal = row.getDecimal(i, d.precision, d.scale).toString()
-              node.put("value", decimal)
-            case _: TimestampType => node.put("value", row.getLong(i))
-            case _ =>
-              throw new IllegalArgumentException(
-                s"Unsupported data type ${ordering.dataType.toString}")
-          }
-          arrayNode.add(node)
-        }
-    }
-    arrayNode
-  }
-
-  private def buildRangeBoundsJson(jsonMapper: ObjectMapper, arrayNode: ArrayNode): Int = {
-    val bounds = getRangeBounds
-    bounds.foreach {
-      bound =>
-        val row = bound.asInstanceOf[UnsafeRow]
-        arrayNode.add(buildRangeBoundJson(row, ordering, jsonMapper))
-    }
-    bounds.length
-  }
-
   // Make a json structure that can be passed to native engine
   def getRangeBoundsJsonString: RangeBoundsInfo = {
     val context = new SubstraitContext()
@@ -225,15 +179,158 @@ class RangePartitionerBoundsGenerator[K: Ordering: ClassTag, V](
     val rootNode = mapper.createObjectNode
     val orderingArray = rootNode.putArray("ordering")
     buildOrderingJson(context, ordering, inputAttributes, mapper, orderingArray)
-    val boundArray = rootNode.putArray("range_bounds")
-    val boundLength = buildRangeBoundsJson(mapper, boundArray)
-    RangeBoundsInfo(mapper.writeValueAsString(rootNode), boundLength)
+    val bounds = getRangeBounds.map(_.asInstanceOf[InternalRow])
+    val encoded = encodeRangeBounds(bounds, ordering.map(_.dataType))
+    rootNode.put("range_bounds", Base64.getEncoder.encodeToString(encoded))
+    rootNode.put("range_bounds_num", bounds.length)
+    RangeBoundsInfo(mapper.writeValueAsString(rootNode), bounds.length)
   }
 }
 
 case class RangeBoundsInfo(json: String, boundsSize: Int)
 
 object RangePartitionerBoundsGenerator {
+
+  /** Columnar counterpart of [[RangePartitioner.sketch]]. */
+  private def sketch[K: ClassTag](
+      rdd: RDD[ColumnarBatch],
+      keysOf: (ColumnarBatch, Array[Int]) => Array[K],
+      sampleSizePerPartition: Int): (Long, Array[(Int, Long, Array[K])]) = {
+    val shift = rdd.id
+    val sketched = rdd
+      .mapPartitionsWithIndex {
+        (idx, iter) =>
+          val seed = byteswap32(idx ^ (shift << 16))
+          val (sample, n) = reservoirSampleAndCount(iter, keysOf, sampleSizePerPartition, seed)
+          Iterator((idx, n, sample))
+      }
+      .collect()
+    val numItems = sketched.map(_._2).sum
+    (numItems, sketched)
+  }
+
+  /**
+   * Reservoir sampling over the rows of `batches`, like spark's
+   * `SamplingUtils.reservoirSampleAndCount`. Only the rows that enter the reservoir are converted
+   * to keys, once per batch.
+   */
+  private[utils] def reservoirSampleAndCount[K: ClassTag](
+      batches: Iterator[ColumnarBatch],
+      keysOf: (ColumnarBatch, Array[Int]) => Array[K],
+      k: Int,
+      seed: Long): (Array[K], Long) = {
+    val reservoir = new Array[K](k)
+    val rand = new XORShiftRandom(seed)
+    var filled = 0
+    var seen = 0L
+    batches.foreach {
+      batch =>
+        // Reservoir slot -> row of this batch. A later row may take over a slot picked earlier in
+        // the same batch, in which case the earlier row is never converted.
+        val rowOfSlot = mutable.HashMap.empty[Int, Int]
+        val numRows = batch.numRows()
+        var i = 0
+        while (i < numRows) {
+          if (filled < k) {
+            rowOfSlot(filled) = i
+            filled += 1
+          } else {
+            val replacementIndex = (rand.nextDouble() * (seen + 1)).toLong
+            if (replacementIndex < k) {
+              rowOfSlot(replacementIndex.toInt) = i
+            }
+          }
+          seen += 1
+          i += 1
+        }
+        if (rowOfSlot.nonEmpty) {
+          val picks = rowOfSlot.toArray.sortBy(_._2)
+          val keys = keysOf(batch, picks.map(_._2))
+          picks.indices.foreach(j => reservoir(picks(j)._1) = keys(j))
+        }
+    }
+    if (filled < k) {
+      (reservoir.take(filled), seen)
+    } else {
+      (reservoir, seen)
+    }
+  }
+
+  /**
+   * Encodes the bounds for the native range selector, row by row. Each field is a null flag byte
+   * followed, unless null, by the value in little-endian: strings are prefixed with their byte
+   * length, decimals are their unscaled value on 8 bytes up to 18 digits and on 16 bytes above.
+   */
+  private[utils] def encodeRangeBounds(
+      bounds: Seq[InternalRow],
+      dataTypes: Seq[DataType]): Array[Byte] = {
+    val out = new ByteArrayOutputStream()
+    val buffer = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN)
+    def flush(): Unit = {
+      out.write(buffer.array(), 0, buffer.position())
+      buffer.clear()
+    }
+    bounds.foreach {
+      row =>
+        dataTypes.zipWithIndex.foreach {
+          case (dataType, i) =>
+            if (row.isNullAt(i)) {
+              out.write(1)
+            } else {
+              out.write(0)
+              dataType match {
+                case _: BooleanType => buffer.put((if (row.getBoolean(i)) 1 else 0).toByte)
+                case _: ByteType => buffer.put(row.getByte(i))
+                case _: ShortType => buffer.putShort(row.getShort(i))
+                case _: IntegerType | _: DateType => buffer.putInt(row.getInt(i))
+                case _: LongType | _: TimestampType => buffer.putLong(row.getLong(i))
+                case _: FloatType => buffer.putFloat(row.getFloat(i))
+                case _: DoubleType => buffer.putDouble(row.getDouble(i))
+                case _: StringType =>
+                  val bytes = row.getUTF8String(i).getBytes
+                  buffer.putInt(bytes.length)
+                  flush()
+                  out.write(bytes)
+                case d: DecimalType if d.precision <= Decimal.MAX_LONG_DIGITS =>
+                  buffer.putLong(row.getDecimal(i, d.precision, d.scale).toUnscaledLong)
+                case d: DecimalType =>
+                  val unscaled =
+                    row.getDecimal(i, d.precision, d.scale).toJavaBigDecimal.unscaledValue
+                  // Two's complement, low half first.
+                  buffer.putLong(unscaled.longValue).putLong(unscaled.shiftRight(64).longValue)
+                case other =>
+                  throw new IllegalArgumentException(s"Unsupported data type $other")
+              }
+              flush()
+            }
+        }
+    }
+    out.toByteArray
+  }
+
+  /** Bernoulli sampling over the rows of `rdd`, converting only the sampled rows to keys. */
+  private def sample[K: ClassTag](
+      rdd: RDD[ColumnarBatch],
+      keysOf: (ColumnarBatch, Array[Int]) => Array[K],
+      fraction: Double,
+      seed: Long): Array[K] = {
+    rdd
+      .mapPartitionsWithIndex {
+        (idx, iter) =>
+          val rand = new XORShiftRandom(seed + idx)
+          iter.flatMap {
+            batch =>
+              val rows = (0 until batch.numRows()).filter(_ => rand.nextDouble() < fraction)
+              if (rows.isEmpty) {
+                Iterator.empty
+              } else {
+                keysOf(batch, rows.toArray).iterator
+              }
+          }
+      }
+      .collect()
+  }
+
   def supportedFieldType(dataType: DataType): Boolean = {
     dataType match {
       case _: BooleanType => true
@@ -30,7 +30,7 @@ import org.apache.spark.serializer.Serializer
 import org.apache.spark.shuffle.{ColumnarShuffleDependency, GlutenShuffleUtils, HashPartitioningWrapper}
 import org.apache.spark.shuffle.utils.RangePartitionerBoundsGenerator
 import org.apache.spark.sql.catalyst.InternalRow
-import org.apache.spark.sql.catalyst.expressions.{Attribute, BindReferences, BoundReference, UnsafeProjection, UnsafeRow}
+import org.apache.spark.sql.catalyst.expressions.{Attribute, BindReferences, BoundReference, SortOrder, UnsafeProjection, UnsafeRow}
 import org.apache.spark.sql.catalyst.expressions.codegen.LazilyGeneratedOrdering
 import org.apache.spark.sql.catalyst.plans.physical._
 import org.apache.spark.sql.execution.SparkPlan
@@ -39,7 +39,6 @@ import org.apache.spark.sql.execution.metric.{SQLMetric, SQLShuffleWriteMetricsR
 import org.apache.spark.sql.internal.SQLConf
 import org.apache.spark.sql.types._
 import org.apache.spark.sql.vectorized.ColumnarBatch
-import org.apache.spark.util.MutablePair
 
 import io.substrait.proto.Type
 
@@ -103,25 +102,25 @@ object CHExecUtil extends Logging {
       .mapPartitionsInternal(iter => toBytes(dataSize, iter, isNullAware, keyColumnIndex))
   }
 
-  private def buildRangePartitionSampleRDD(
-      rdd: RDD[ColumnarBatch],
-      rangePartitioning: RangePartitioning,
-      outputAttributes: Seq[Attribute]): RDD[MutablePair[InternalRow, Null]] = {
-    rangePartitioning match {
-      case RangePartitioning(sortingExpressions, _) =>
-        val sampleRDD = rdd.mapPartitionsInternal {
-          iter =>
-            iter.flatMap(
-              batch => {
-                // generate rows from a columnar batch
-                val rowItr: Iterator[InternalRow] = c2r(batch)
-                val projection =
-                  UnsafeProjection.create(sortingExpressions.map(_.child), outputAttributes)
-                val mutablePair = new MutablePair[InternalRow, Null]()
-                rowItr.map(row => mutablePair.update(projection(row).copy(), null))
-              })
-        }
-        sampleRDD
+  /**
+   * Extracts the range partitioning keys of the given rows of a columnar batch. Only those rows
+   * are converted to spark rows. The projection is created lazily on the executor.
+   */
+  private class RangePartitionKeyExtractor(
+      sortingExpressions: Seq[SortOrder],
+      outputAttributes: Seq[Attribute])
+    extends ((ColumnarBatch, Array[Int]) => Array[InternalRow])
+    with Serializable {
+    @transient private lazy val projection =
+      UnsafeProjection.create(sortingExpressions.map(_.child), outputAttributes)
+
+    override def apply(batch: ColumnarBatch, rowIds: Array[Int]): Array[InternalRow] = {
+      val rowInfo = CHBlockConverterJniWrapper.convertColumnarToRow(
+        CHNativeBlock.fromColumnarBatch(batch).blockAddress(),
+        rowIds)
+      getRowIterFromSparkRowInfo(rowInfo, batch.numCols(), rowIds.length)
+        .map(row => projection(row).copy())
+        .toArray
     }
   }
 
@@ -295,11 +294,6 @@ object CHExecUtil extends Logging {
           childOutputAttributes,
           projectOutputAttributes)
       case RangePartitioning(sortingExpressions, numPartitions) =>
-        val rddForSampling = buildRangePartitionSampleRDD(
-          rdd,
-          RangePartitioning(sortingExpressions, numPartitions),
-          childOutputAttributes)
-
         // we let spark compute the range bounds here, and then pass to CH.
         val orderingAttributes = sortingExpressions.zipWithIndex.map {
           case (ord, i) =>
@@ -307,9 +301,10 @@ object CHExecUtil extends Logging {
         }
         implicit val ordering: LazilyGeneratedOrdering =
           new LazilyGeneratedOrdering(orderingAttributes)
-        val generator = new RangePartitionerBoundsGenerator(
+        val generator = new RangePartitionerBoundsGenerator[InternalRow](
           numPartitions,
-          rddForSampling,
+          rdd,
+          new RangePartitionKeyExtractor(sortingExpressions, childOutputAttributes),
           sortingExpressions,
           childOutputAttributes)
         val rangeBoundsInfo = generator.getRangeBoundsJsonString
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class NativeMetricsTest {
+  private static final String METRICS_JSON =
+      "[{\"id\":1,\"name\":\"kAggregate\",\"time\":30,\"input_wait_time\":4,"
+          + "\"output_wait_time\":5,\"steps\":[{\"name\":\"Aggregating\",\"description\":"
+          + "\"Aggregat\u00e9\",\"processors\":[{\"name\":\"AggregatingTransform\",\"time\":30,"
+          + "\"output_rows\":2,\"output_bytes\":16,\"input_rows\":100,\"input_bytes\":800}]}]},"
+          + "{\"id\":0,\"name\":\"kRead\",\"time\":70,\"input_wait_time\":1,"
+          + "\"output_wait_time\":2,\"steps\":[{\"name\":\"ReadFromMergeTree\",\"description\":"
+          + "\"\",\"processors\":[{\"name\":\"MergeTreeSelect\",\"time\":40,\"output_rows\":100,"
+          + "\"output_bytes\":800,\"input_rows\":0,\"input_bytes\":0},"
+          + "{\"name\":\"MergeTreeSelect\",\"time\":30,\"output_rows\":0,\"output_bytes\":0,"
+          + "\"input_rows\":0,\"input_bytes\":0}],"
+          + "\"selected_marks_pk\":3,\"selected_marks\":2,\"total_marks_pk\":9,"
+          + "\"read_cache_hits\":11,\"miss_cache_hits\":12,\"read_cache_bytes\":13,"
+          + "\"read_miss_bytes\":14,\"read_cache_millisecond\":15,"
+          + "\"miss_cache_millisecond\":16}]},{\"id\":2,\"name\":\"kFetch\",\"time\":0,"
+          + "\"input_wait_time\":0,\"output_wait_time\":0}]";
+
+  @Test
+  public void testBinaryMatchesJson() {
+    assertRoundTrip(METRICS_JSON);
+  }
+
+  @Test
+  public void testRecordedMetrics() throws Exception {
+    String json =
+        new String(
+            Files.readAllBytes(
+                Paths.get(
+                    getClass()
+                        .getResource("/metrics-json/tpch-q2-wholestage-1-metrics.json")
+                        .toURI())),
+            StandardCharsets.UTF_8);
+    assertRoundTrip(json);
+  }
+
+  @Test
+  public void testEmptyAndTruncated() {
+    Assert.assertTrue(NativeMetrics.deserializeMetricsBinary(null).isEmpty());
+    Assert.assertTrue(NativeMetrics.deserializeMetricsBinary(new byte[0]).isEmpty());
+    byte[] binary = serialize(NativeMetrics.deserializeMetricsJson(METRICS_JSON));
+    byte[] truncated = new byte[binary.length - 1];
+    System.arraycopy(binary, 0, truncated, 0, truncated.length);
+    Assert.assertTrue(NativeMetrics.deserializeMetricsBinary(truncated).isEmpty());
+  }
+
+  private static void assertRoundTrip(String json) {
+    List<MetricsData> expected = NativeMetrics.deserializeMetricsJson(json);
+    Assert.assertFalse(expected.isEmpty());
+    List<MetricsData> actual = new NativeMetrics(serialize(expected)).metricsDataList;
+    Assert.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertMetricsDataEquals(expected.get(i), actual.get(i));
+    }
+  }
+
+  private static void assertMetricsDataEquals(MetricsData expected, MetricsData actual) {
+    Assert.assertEquals(expected.id, actual.id);
+    Assert.assertEquals(expected.name, actual.name);
+    Assert.assertEquals(expected.time, actual.time);
+    Assert.assertEquals(expected.inputWaitTime, actual.inputWaitTime);
+    Assert.assertEquals(expected.outputWaitTime, actual.outputWaitTime);
+    if (expected.steps == null) {
+      Assert.assertNull(actual.steps);
+      return;
+    }
+    Assert.assertEquals(expected.steps.size(), actual.steps.size());
+    for (int i = 0; i < expected.steps.size(); i++) {
+      MetricsStep expectedStep = expected.steps.get(i);
+      MetricsStep actualStep = actual.steps.get(i);
+      Assert.assertEquals(expectedStep.name, actualStep.name);
+      Assert.assertEquals(expectedStep.description, actualStep.description);
+      Assert.assertEquals(expectedStep.selectedMarksPk, actualStep.selectedMarksPk);
+      Assert.assertEquals(expectedStep.selectedMarks, actualStep.selectedMarks);
+      Assert.assertEquals(expectedStep.totalMarksPk, actualStep.totalMarksPk);
+      Assert.assertEquals(expectedStep.readCacheHits, actualStep.readCacheHits);
+      Assert.assertEquals(expectedStep.missCacheHits, actualStep.missCacheHits);
+      Assert.assertEquals(expectedStep.readCacheBytes, actualStep.readCacheBytes);
+      Assert.assertEquals(expectedStep.readMissBytes, actualStep.readMissBytes);
+      Assert.assertEquals(expectedStep.readCacheMillisecond, actualStep.readCacheMillisecond);
+      Assert.assertEquals(expectedStep.missCacheMillisecond, actualStep.missCacheMillisecond);
+      Assert.assertEquals(expectedStep.processors.size(), actualStep.processors.size());
+      for (int j = 0; j < expectedStep.processors.size(); j++) {
+        MetricsProcessor expectedProcessor = expectedStep.processors.get(j);
+        MetricsProcessor actualProcessor = actualStep.processors.get(j);
+        Assert.assertEquals(expectedProcessor.name, actualProcessor.name);
+        Assert.assertEquals(expectedProcessor.time, actualProcessor.time);
+        Assert.assertEquals(expectedProcessor.outputRows, actualProcessor.outputRows);
+        Assert.assertEquals(expectedProcessor.outputBytes, actualProcessor.outputBytes);
+        Assert.assertEquals(expectedProcessor.inputRows, actualProcessor.inputRows);
+        Assert.assertEquals(expectedProcessor.inputBytes, actualProcessor.inputBytes);
+      }
+    }
+  }
+
+  /** Writes the layout of native RelMetricSerializer::serializeRelMetricBinary. */
+  private static byte[] serialize(List<MetricsData> metricsDataList) {
+    // native writes the rels in the order before deserialization reverses them
+    List<MetricsData> rels = new ArrayList<>(metricsDataList);
+    Collections.reverse(rels);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (MetricsData data : rels) {
+      writeLong(out, data.id);
+      writeString(out, data.name);
+      writeLong(out, data.time);
+      writeLong(out, data.inputWaitTime);
+      writeLong(out, data.outputWaitTime);
+      List<MetricsStep> steps = data.steps == null ? Collections.emptyList() : data.steps;
+      writeInt(out, steps.size());
+      for (MetricsStep step : steps) {
+        writeString(out, step.name);
+        writeString(out, step.description);
+        writeInt(out, step.processors.size());
+        for (MetricsProcessor processor : step.processors) {
+          writeString(out, processor.name);
+          writeLong(out, processor.time);
+          writeLong(out, processor.outputRows);
+          writeLong(out, processor.outputBytes);
+          writeLong(out, processor.inputRows);
+          writeLong(out, processor.inputBytes);
+        }
+        boolean hasMarks = step.name.equals("ReadFromMergeTree");
+        boolean hasCacheHits = hasMarks || step.name.equals("ReadFromStorage");
+        out.write((hasMarks ? 1 : 0) | (hasCacheHits ? 2 : 0));
+        if (hasMarks) {
+          writeLong(out, step.selectedMarksPk);
+          writeLong(out, step.selectedMarks);
+          writeLong(out, step.totalMarksPk);
+        }
+        if (hasCacheHits) {
+          writeLong(out, step.readCacheHits);
+          writeLong(out, step.missCacheHits);
+          writeLong(out, step.readCacheBytes);
+          writeLong(out, step.readMissBytes);
+          writeLong(out, step.readCacheMillisecond);
+          writeLong(out, step.missCacheMillisecond);
+        }
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeLong(ByteArrayOutputStream out, long value) {
+    out.write(
+        ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(value).array(),
+        0,
+        Long.BYTES);
+  }
+
+  private static void writeInt(ByteArrayOutputStream out, int value) {
+    out.write(
+        ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array(),
+        0,
+        Integer.BYTES);
+  }
+
+  private static void writeString(ByteArrayOutputStream out, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeInt(out, bytes.length);
+    out.write(bytes, 0, bytes.length);
+  }
+}
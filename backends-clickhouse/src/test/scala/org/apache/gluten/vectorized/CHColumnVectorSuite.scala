@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.vectorized
+
+import org.apache.gluten.execution.GlutenClickHouseWholeStageTransformerSuite
+import org.apache.gluten.vectorized.CHColumnVectorSuite.sameValue
+
+import org.apache.spark.sql.execution.RemoveTopColumnarToRow
+import org.apache.spark.sql.types._
+
+class CHColumnVectorSuite extends GlutenClickHouseWholeStageTransformerSuite {
+
+  test("direct reads match the JNI getters") {
+    withTempPath {
+      dir =>
+        spark
+          .range(0, 10000)
+          .selectExpr(
+            "id % 3 = 0 as b",
+            "cast(id as byte) as t",
+            "cast(id as short) as s",
+            "cast(id as int) as i",
+            "id * 1000000007 as l",
+            "cast(id / 7 as float) as f",
+            "id / 7 as d",
+            "date_add(date'2020-01-01', cast(id as int)) as dt",
+            "if(id % 5 = 0, null, id) as n"
+          )
+          .write
+          .parquet(dir.getCanonicalPath)
+        val df = spark.read.parquet(dir.getCanonicalPath)
+        val plan = RemoveTopColumnarToRow(df.queryExecution.executedPlan)
+        val mismatches = plan
+          .executeColumnar()
+          .mapPartitions {
+            batches =>
+              batches.flatMap {
+                batch =>
+                  (0 until batch.numCols()).flatMap {
+                    col =>
+                      val direct = batch.column(col).asInstanceOf[CHColumnVector]
+                      val jni = new CHColumnVector(
+                        direct.dataType(),
+                        direct.getBlockAddress,
+                        col,
+                        false)
+                      (0 until batch.numRows())
+                        .filterNot(row => sameValue(direct, jni, row))
+                        .map(row => s"column $col, row $row")
+                  }.toList
+              }
+          }
+          .collect()
+        assert(mismatches.isEmpty, mismatches.take(10).mkString("\n"))
+    }
+  }
+}
+
+object CHColumnVectorSuite {
+  private def sameValue(direct: CHColumnVector, jni: CHColumnVector, row: Int): Boolean = {
+    if (direct.isNullAt(row) || jni.isNullAt(row)) {
+      return direct.isNullAt(row) == jni.isNullAt(row)
+    }
+    direct.dataType() match {
+      case BooleanType => direct.getBoolean(row) == jni.getBoolean(row)
+      case ByteType => direct.getByte(row) == jni.getByte(row)
+      case ShortType => direct.getShort(row) == jni.getShort(row)
+      case IntegerType | DateType => direct.getInt(row) == jni.getInt(row)
+      case LongType => direct.getLong(row) == jni.getLong(row)
+      case FloatType => java.lang.Float.compare(direct.getFloat(row), jni.getFloat(row)) == 0
+      case DoubleType => java.lang.Double.compare(direct.getDouble(row), jni.getDouble(row)) == 0
+      case other => throw new IllegalArgumentException(s"Unexpected type $other")
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.spark.shuffle.utils
+
+import org.apache.spark.SparkFunSuite
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.execution.vectorized.OnHeapColumnVector
+import org.apache.spark.sql.types._
+import org.apache.spark.sql.vectorized.ColumnarBatch
+import org.apache.spark.unsafe.types.UTF8String
+import org.apache.spark.util.random.SamplingUtils
+
+import java.nio.{ByteBuffer, ByteOrder}
+
+import scala.collection.mutable.ArrayBuffer
+
+class RangePartitionerBoundsGeneratorSuite extends SparkFunSuite {
+  import RangePartitionerBoundsGenerator._
+
+  // Batches of the given sizes over consecutive longs starting at 0.
+  private def batches(sizes: Int*): Seq[ColumnarBatch] = {
+    var next = 0L
+    sizes.map {
+      size =>
+        val vector = new OnHeapColumnVector(size, LongType)
+        (0 until size).foreach {
+          i =>
+            vector.putLong(i, next)
+            next += 1
+        }
+        new ColumnarBatch(Array(vector), size)
+    }
+  }
+
+  private def keysOf(batch: ColumnarBatch, rows: Array[Int]): Array[Long] =
+    rows.map(batch.column(0).getLong)
+
+  test("reservoirSampleAndCount keeps all rows when fewer than the sample size") {
+    val (sample, count) = reservoirSampleAndCount(batches(3, 0, 4).iterator, keysOf, 10, 42L)
+    assert(count == 7L)
+    assert(sample.toSeq == (0L until 7L))
+  }
+
+  test("reservoirSampleAndCount matches spark's row-based sampling") {
+    Seq(1L, 42L, 1234567L).foreach {
+      seed =>
+        val input = batches(7, 100, 1, 0, 53, 250)
+        val (sample, count) = reservoirSampleAndCount(input.iterator, keysOf, 20, seed)
+        val (expected, expectedCount) =
+          SamplingUtils.reservoirSampleAndCount((0L until 411L).iterator, 20, seed)
+        assert(count == expectedCount)
+        assert(sample.toSeq == expected.toSeq)
+    }
+  }
+
+  test("reservoirSampleAndCount only converts the sampled rows") {
+    val calls = ArrayBuffer.empty[Array[Int]]
+    val (sample, _) = reservoirSampleAndCount(
+      batches(50, 50, 50).iterator,
+      (batch: ColumnarBatch, rows: Array[Int]) => {
+        calls += rows
+        keysOf(batch, rows)
+      },
+      5,
+      7L)
+    assert(calls.size <= 3)
+    calls.foreach(rows => assert(rows.toSeq == rows.sorted.distinct.toSeq))
+    assert(calls.map(_.length).sum < 150)
+    assert(sample.length == 5)
+  }
+
+  test("encodeRangeBounds") {
+    val dataTypes = Seq(IntegerType, StringType, DecimalType(10, 2), DecimalType(30, 0))
+    val bounds = Seq(
+      InternalRow(
+        -2,
+        UTF8String.fromString("ab"),
+        Decimal(BigDecimal("12.34"), 10, 2),
+        Decimal(BigDecimal("-1"), 30, 0)),
+      InternalRow(null, null, null, null)
+    )
+    val encoded = ByteBuffer
+      .wrap(encodeRangeBounds(bounds, dataTypes))
+      .order(ByteOrder.LITTLE_ENDIAN)
+    assert(encoded.get() == 0 && encoded.getInt() == -2)
+    assert(encoded.get() == 0 && encoded.getInt() == 2)
+    assert(encoded.get() == 'a' && encoded.get() == 'b')
+    assert(encoded.get() == 0 && encoded.getLong() == 1234L)
+    assert(encoded.get() == 0 && encoded.getLong() == -1L && encoded.getLong() == -1L)
+    (0 until 4).foreach(_ => assert(encoded.get() == 1))
+    assert(!encoded.hasRemaining)
+  }
+}
@@ -36,6 +36,15 @@ public class VeloxColumnarBatchJniWrapper implements RuntimeAware {
 
   public native long slice(long veloxBatchHandle, int offset, int limit);
 
+  /**
+   * Collects per-column statistics of a Velox batch. Returns 4 slots per column: a flag that is 1
+   * when the bounds are set, the lower bound, the upper bound and the null count. The bounds are
+   * only set for boolean, integral, floating point and timestamp columns having at least one
+   * non-null value. Floating point bounds are the raw bits of the double value and timestamp
+   * bounds are in microseconds.
+   */
+  public native long[] collectStats(long veloxBatchHandle);
+
   @Override
   public long rtHandle() {
     return runtime.getHandle();
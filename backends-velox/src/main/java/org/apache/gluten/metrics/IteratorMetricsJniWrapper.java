@@ -39,8 +39,18 @@ public class IteratorMetricsJniWrapper implements RuntimeAware {
     return nativeFetchMetrics(out.itrHandle());
   }
 
+  /**
+   * Fetches the metrics of a pipeline that may still be running. Returns null if the native
+   * pipeline has not produced comparable metrics yet.
+   */
+  public Metrics fetchSnapshot(ColumnarBatchOutIterator out) {
+    return nativeFetchMetricsSnapshot(out.itrHandle());
+  }
+
   private native Metrics nativeFetchMetrics(long itrHandle);
 
+  private native Metrics nativeFetchMetricsSnapshot(long itrHandle);
+
   @Override
   public long rtHandle() {
     return runtime.getHandle();
@@ -181,6 +181,114 @@ public class Metrics implements IMetrics {
         numWrittenFiles[index]);
   }
 
+  /**
+   * Returns the element-wise difference between this snapshot and a previous one of the same
+   * pipeline, or all of this snapshot if there is no previous one. Since metrics updaters
+   * accumulate what they are given, reporting successive differences adds up to the same values as
+   * reporting the final metrics once.
+   *
+   * <p>Peak memory is not a counter, and the updaters take its maximum over the operators of a plan
+   * node, so it can't be reported in differences. The result holds the absolute peak memory of this
+   * snapshot if {@code withPeakMemory} is set, which is meant for the final metrics only, and no
+   * peak memory otherwise.
+   */
+  public Metrics minus(Metrics previous, boolean withPeakMemory) {
+    if (previous == null) {
+      previous = empty(inputRows.length);
+    }
+    if (previous.inputRows.length != inputRows.length) {
+      throw new GlutenException("Cannot diff metrics of different pipelines.");
+    }
+    return new Metrics(
+        minus(inputRows, previous.inputRows),
+        minus(inputVectors, previous.inputVectors),
+        minus(inputBytes, previous.inputBytes),
+        minus(rawInputRows, previous.rawInputRows),
+        minus(rawInputBytes, previous.rawInputBytes),
+        minus(outputRows, previous.outputRows),
+        minus(outputVectors, previous.outputVectors),
+        minus(outputBytes, previous.outputBytes),
+        minus(cpuCount, previous.cpuCount),
+        minus(wallNanos, previous.wallNanos),
+        singleMetric.veloxToArrow - previous.singleMetric.veloxToArrow,
+        withPeakMemory ? peakMemoryBytes.clone() : new long[peakMemoryBytes.length],
+        minus(numMemoryAllocations, previous.numMemoryAllocations),
+        minus(spilledInputBytes, previous.spilledInputBytes),
+        minus(spilledBytes, previous.spilledBytes),
+        minus(spilledRows, previous.spilledRows),
+        minus(spilledPartitions, previous.spilledPartitions),
+        minus(spilledFiles, previous.spilledFiles),
+        minus(numDynamicFiltersProduced, previous.numDynamicFiltersProduced),
+        minus(numDynamicFiltersAccepted, previous.numDynamicFiltersAccepted),
+        minus(numReplacedWithDynamicFilterRows, previous.numReplacedWithDynamicFilterRows),
+        minus(flushRowCount, previous.flushRowCount),
+        minus(loadedToValueHook, previous.loadedToValueHook),
+        minus(scanTime, previous.scanTime),
+        minus(skippedSplits, previous.skippedSplits),
+        minus(processedSplits, previous.processedSplits),
+        minus(skippedStrides, previous.skippedStrides),
+        minus(processedStrides, previous.processedStrides),
+        minus(remainingFilterTime, previous.remainingFilterTime),
+        minus(ioWaitTime, previous.ioWaitTime),
+        minus(storageReadBytes, previous.storageReadBytes),
+        minus(localReadBytes, previous.localReadBytes),
+        minus(ramReadBytes, previous.ramReadBytes),
+        minus(preloadSplits, previous.preloadSplits),
+        minus(physicalWrittenBytes, previous.physicalWrittenBytes),
+        minus(writeIOTime, previous.writeIOTime),
+        minus(numWrittenFiles, previous.numWrittenFiles));
+  }
+
+  private static Metrics empty(int numMetrics) {
+    final long[] zeros = new long[numMetrics];
+    return new Metrics(
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        0L,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros,
+        zeros);
+  }
+
+  private static long[] minus(long[] current, long[] previous) {
+    final long[] delta = new long[current.length];
+    for (int i = 0; i < current.length; i++) {
+      delta[i] = current[i] - previous[i];
+    }
+    return delta;
+  }
+
   public SingleMetric getSingleMetrics() {
     return singleMetric;
   }
@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.utils;
+
+import org.apache.gluten.columnarbatch.ColumnarBatchJniWrapper;
+import org.apache.gluten.columnarbatch.ColumnarBatches;
+import org.apache.gluten.config.GlutenCoreConfig;
+import org.apache.gluten.exception.GlutenException;
+import org.apache.gluten.memory.memtarget.MemoryTarget;
+import org.apache.gluten.memory.memtarget.MemoryTargets;
+import org.apache.gluten.memory.memtarget.NoopMemoryTarget;
+import org.apache.gluten.memory.memtarget.Spillers;
+
+import org.apache.spark.TaskContext;
+import org.apache.spark.TaskKilledException;
+import org.apache.spark.sql.execution.metric.SQLMetric;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+import org.apache.spark.util.SparkTaskUtil;
+import org.apache.spark.util.TaskCompletionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pulls batches from an upstream iterator on a background thread and keeps up to a fixed number of
+ * them queued, so that upstream work like shuffle fetch or decompression overlaps with the native
+ * pipeline consuming them.
+ *
+ * <p>Queued batches are retained by the prefetcher and reserved against the task's memory target
+ * tree until they are handed to the consumer, so that spilling and OOM handling see them. Once
+ * another batch would exceed the budget or can't be reserved, prefetching pauses until the queue
+ * drains, i.e. falls back to lockstep. Upstream errors are re-thrown on the consuming thread. On
+ * task completion the producer is stopped and waited for, since the upstream iterator is released
+ * along with the task, and all queued batches are released.
+ */
+public final class VeloxBatchPrefetcher implements Iterator<ColumnarBatch> {
+  private static final Logger LOG = LoggerFactory.getLogger(VeloxBatchPrefetcher.class);
+  private static final AtomicInteger THREAD_ID = new AtomicInteger(0);
+  private static final long POLL_INTERVAL_MS = 100L;
+  private static final long PAUSE_INTERVAL_NS = TimeUnit.MICROSECONDS.toNanos(100L);
+  private static final long CLOSE_WARN_INTERVAL_MS = 5000L;
+
+  private final String backendName;
+  private final Iterator<ColumnarBatch> in;
+  private final TaskContext context;
+  private final BlockingQueue<Entry> queue;
+  private final long maxBytes;
+  // Borrowed from by the producer and repaid by the consumer. Guarded by itself since memory
+  // targets are not thread-safe.
+  private final MemoryTarget target;
+  private final AtomicLong queuedBytes = new AtomicLong(0L);
+  private final SQLMetric producerWaitTime;
+  private final SQLMetric consumerWaitTime;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  private Thread producer = null;
+  private Entry head = null;
+  private ColumnarBatch current = null;
+
+  private VeloxBatchPrefetcher(
+      String backendName,
+      Iterator<ColumnarBatch> in,
+      TaskContext context,
+      int numBatches,
+      long maxBytes,
+      MemoryTarget target,
+      SQLMetric producerWaitTime,
+      SQLMetric consumerWaitTime) {
+    this.backendName = backendName;
+    this.in = in;
+    this.context = context;
+    this.queue = new ArrayBlockingQueue<>(numBatches);
+    this.maxBytes = maxBytes;
+    this.target = target;
+    this.producerWaitTime = producerWaitTime;
+    this.consumerWaitTime = consumerWaitTime;
+  }
+
+  public static Iterator<ColumnarBatch> create(
+      String backendName,
+      Iterator<ColumnarBatch> in,
+      int numBatches,
+      long maxBytes,
+      SQLMetric producerWaitTime,
+      SQLMetric consumerWaitTime) {
+    final TaskContext context = TaskContext.get();
+    final MemoryTarget target =
+        GlutenCoreConfig.get().memoryUntracked()
+            ? new NoopMemoryTarget()
+            : MemoryTargets.newConsumer(
+                context.taskMemoryManager(),
+                "VeloxBatchPrefetcher",
+                Spillers.NOOP,
+                Collections.emptyMap());
+    final VeloxBatchPrefetcher prefetcher =
+        new VeloxBatchPrefetcher(
+            backendName,
+            in,
+            context,
+            numBatches,
+            maxBytes,
+            target,
+            producerWaitTime,
+            consumerWaitTime);
+    // Task completion listeners run in reverse order of registration, so this runs before the
+    // task's native resources are released.
+    context.addTaskCompletionListener((TaskCompletionListener) ctx -> prefetcher.close());
+    return prefetcher;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (head == null && closed.get()) {
+      return false;
+    }
+    if (head == null) {
+      if (producer == null) {
+        producer =
+            new Thread(
+                this::produce,
+                String.format("Gluten-VeloxBatchPrefetcher-%d", THREAD_ID.getAndIncrement()));
+        producer.setDaemon(true);
+        producer.start();
+      }
+      head = take();
+    }
+    if (head.error != null) {
+      final Throwable error = head.error;
+      close();
+      if (error instanceof RuntimeException) {
+        throw (RuntimeException) error;
+      }
+      if (error instanceof Error) {
+        throw (Error) error;
+      }
+      throw new GlutenException(error);
+    }
+    return head.batch != null;
+  }
+
+  @Override
+  public ColumnarBatch next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    // Native code is done with the previous batch once it asks for the next one.
+    releaseCurrent();
+    current = head.batch;
+    queuedBytes.addAndGet(-head.bytes);
+    repay(head.reserved);
+    head = null;
+    return current;
+  }
+
+  private Entry take() {
+    final long start = System.nanoTime();
+    try {
+      while (true) {
+        if (context.isInterrupted()) {
+          throw new TaskKilledException("Task interrupted while waiting for prefetched batches");
+        }
+        final Entry entry = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (entry != null) {
+          return entry;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GlutenException(e);
+    } finally {
+      consumerWaitTime.add(System.nanoTime() - start);
+    }
+  }
+
+  private void produce() {
+    SparkTaskUtil.setTaskContext(context);
+    try {
+      while (!closed.get() && in.hasNext()) {
+        final ColumnarBatch batch = in.next();
+        // The upstream iterator may close the batch as soon as it's asked for the next one.
+        ColumnarBatches.retain(batch);
+        final long bytes = sizeOf(batch);
+        awaitRoom(bytes);
+        final long reserved = reserve(bytes);
+        queuedBytes.addAndGet(bytes);
+        put(new Entry(batch, bytes, reserved, null));
+      }
+      put(new Entry(null, 0L, 0L, null));
+    } catch (Throwable t) {
+      put(new Entry(null, 0L, 0L, t));
+    } finally {
+      SparkTaskUtil.unsetTaskContext();
+    }
+  }
+
+  private long sizeOf(ColumnarBatch batch) {
+    if (batch.numCols() == 0) {
+      return 0L;
+    }
+    return ColumnarBatchJniWrapper.numBytes(ColumnarBatches.getNativeHandle(backendName, batch));
+  }
+
+  // Waits for the consumer to catch up while another batch of `bytes` would exceed the budget.
+  // A batch is always admitted to an empty queue, so batches larger than the budget still flow.
+  private void awaitRoom(long bytes) {
+    if (queuedBytes.get() + bytes <= maxBytes || queue.isEmpty()) {
+      return;
+    }
+    final long start = System.nanoTime();
+    while (!closed.get() && !queue.isEmpty() && queuedBytes.get() + bytes > maxBytes) {
+      LockSupport.parkNanos(PAUSE_INTERVAL_NS);
+    }
+    producerWaitTime.add(System.nanoTime() - start);
+  }
+
+  // Reserves the batch against the task's memory target. If that fails, waits until the queue is
+  // empty and queues the batch without a reservation, as pulling it in lockstep would anyway.
+  private long reserve(long bytes) {
+    if (bytes == 0L) {
+      return 0L;
+    }
+    final long granted;
+    synchronized (target) {
+      granted = target.borrow(bytes);
+      if (granted >= bytes) {
+        return granted;
+      }
+      target.repay(granted);
+    }
+    final long start = System.nanoTime();
+    while (!closed.get() && !queue.isEmpty()) {
+      LockSupport.parkNanos(PAUSE_INTERVAL_NS);
+    }
+    producerWaitTime.add(System.nanoTime() - start);
+    return 0L;
+  }
+
+  private void repay(long reserved) {
+    if (reserved == 0L) {
+      return;
+    }
+    synchronized (target) {
+      target.repay(reserved);
+    }
+  }
+
+  long reservedBytes() {
+    synchronized (target) {
+      return target.usedBytes();
+    }
+  }
+
+  private void put(Entry entry) {
+    final long start = System.nanoTime();
+    try {
+      while (!closed.get()) {
+        if (queue.offer(entry, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      }
+      // Closed while waiting. Nobody is going to consume the entry.
+      discard(entry);
+    } catch (InterruptedException e) {
+      discard(entry);
+      Thread.currentThread().interrupt();
+    } finally {
+      producerWaitTime.add(System.nanoTime() - start);
+    }
+  }
+
+  private void discard(Entry entry) {
+    if (entry.batch != null) {
+      entry.batch.close();
+      queuedBytes.addAndGet(-entry.bytes);
+      repay(entry.reserved);
+    }
+  }
+
+  private void drain() {
+    Entry entry;
+    while ((entry = queue.poll()) != null) {
+      discard(entry);
+    }
+  }
+
+  private void releaseCurrent() {
+    if (current != null) {
+      current.close();
+      current = null;
+    }
+  }
+
+  private void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    if (producer != null) {
+      producer.interrupt();
+      // The upstream iterator is released right after this listener, so the producer must not be
+      // inside it anymore. It discards what it still puts once it sees the close.
+      boolean interrupted = false;
+      while (producer.isAlive()) {
+        try {
+          producer.join(CLOSE_WARN_INTERVAL_MS);
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+        if (producer.isAlive()) {
+          LOG.warn("Still waiting for prefetcher thread {} to stop", producer.getName());
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    // An end or error marker stays in place so that later calls see the same outcome.
+    if (head != null && head.batch != null) {
+      discard(head);
+      head = null;
+    }
+    drain();
+    releaseCurrent();
+  }
+
+  private static final class Entry {
+    // Null for the end marker and for errors.
+    private final ColumnarBatch batch;
+    private final long bytes;
+    // Bytes borrowed from the memory target, 0 if the batch was queued without a reservation.
+    private final long reserved;
+    private final Throwable error;
+
+    private Entry(ColumnarBatch batch, long bytes, long reserved, Throwable error) {
+      this.batch = batch;
+      this.bytes = bytes;
+      this.reserved = reserved;
+      this.error = error;
+    }
+  }
+}
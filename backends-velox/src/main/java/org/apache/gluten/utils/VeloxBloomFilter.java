@@ -19,17 +19,22 @@ package org.apache.gluten.utils;
 import org.apache.gluten.backendsapi.BackendsApiManager;
 import org.apache.gluten.runtime.Runtimes;
 
+import org.apache.arrow.memory.util.MemoryUtil;
+import org.apache.arrow.vector.BigIntVector;
 import org.apache.commons.io.IOUtils;
 import org.apache.spark.util.sketch.BloomFilter;
 import org.apache.spark.util.sketch.IncompatibleMergeException;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 public class VeloxBloomFilter extends BloomFilter {
+  // Velox sets 4 bits of a 64-bit word for each item.
+  private static final int NUM_HASH_FUNCTIONS = 4;
+
   private final VeloxBloomFilterJniWrapper jni =
       VeloxBloomFilterJniWrapper.create(
           Runtimes.contextInstance(BackendsApiManager.getBackendName(), "VeloxBloomFilter"));
@@ -43,6 +48,10 @@ public class VeloxBloomFilter extends BloomFilter {
     handle = jni.empty(capacity);
   }
 
+  private VeloxBloomFilter(long address, int size) {
+    handle = jni.initFromAddress(address, size);
+  }
+
   public static VeloxBloomFilter empty(int capacity) {
     return new VeloxBloomFilter(capacity);
   }
@@ -57,11 +66,23 @@ public class VeloxBloomFilter extends BloomFilter {
   }
 
   public static VeloxBloomFilter readFrom(byte[] data) {
-    try (ByteArrayInputStream in = new ByteArrayInputStream(data)) {
-      return readFrom(in);
-    } catch (IOException e) {
-      throw new RuntimeException(e);
+    return new VeloxBloomFilter(data);
+  }
+
+  /** Reads a serialized filter from the remaining bytes, without copying a direct buffer. */
+  public static VeloxBloomFilter readFrom(ByteBuffer buffer) {
+    if (buffer.isDirect()) {
+      final long address = MemoryUtil.getByteBufferAddress(buffer) + buffer.position();
+      return readFrom(address, buffer.remaining());
     }
+    final byte[] data = new byte[buffer.remaining()];
+    buffer.duplicate().get(data);
+    return new VeloxBloomFilter(data);
+  }
+
+  /** Reads a serialized filter of {@code size} bytes from off-heap memory. */
+  public static VeloxBloomFilter readFrom(long address, int size) {
+    return new VeloxBloomFilter(address, size);
   }
 
   public byte[] serialize() {
@@ -75,12 +96,12 @@ public class VeloxBloomFilter extends BloomFilter {
 
   @Override
   public double expectedFpp() {
-    throw new UnsupportedOperationException("Not yet implemented");
+    return Math.pow((double) jni.cardinality(handle) / bitSize(), NUM_HASH_FUNCTIONS);
   }
 
   @Override
   public long bitSize() {
-    throw new UnsupportedOperationException("Not yet implemented");
+    return jni.bitSize(handle);
   }
 
   @Override
@@ -99,6 +120,25 @@ public class VeloxBloomFilter extends BloomFilter {
     return true;
   }
 
+  public void putLongs(long[] items) {
+    putLongs(items, items.length);
+  }
+
+  /** Inserts the first {@code length} items, crossing JNI once. */
+  public void putLongs(long[] items, int length) {
+    checkLength(items.length, length);
+    jni.insertLongs(handle, items, length);
+  }
+
+  /** Inserts the non-null values of the vector, reading its buffers in place. */
+  public void putLongs(BigIntVector vector) {
+    jni.insertLongsFromAddress(
+        handle,
+        vector.getDataBufferAddress(),
+        vector.getNullCount() == 0 ? 0L : vector.getValidityBufferAddress(),
+        vector.getValueCount());
+  }
+
   @Override
   public boolean putBinary(byte[] item) {
     throw new UnsupportedOperationException("Not yet implemented");
@@ -145,6 +185,37 @@ public class VeloxBloomFilter extends BloomFilter {
     return jni.mightContainLong(handle, item);
   }
 
+  public boolean[] mightContainLongs(long[] items) {
+    final boolean[] out = new boolean[items.length];
+    mightContainLongs(items, items.length, out);
+    return out;
+  }
+
+  /** Probes the first {@code length} items into {@code out}, crossing JNI once. */
+  public void mightContainLongs(long[] items, int length, boolean[] out) {
+    checkLength(items.length, length);
+    checkLength(out.length, length);
+    jni.mightContainLongs(handle, items, length, out);
+  }
+
+  /** Probes the values of the vector into {@code out}. Null values are never contained. */
+  public void mightContainLongs(BigIntVector vector, boolean[] out) {
+    checkLength(out.length, vector.getValueCount());
+    jni.mightContainLongsFromAddress(
+        handle,
+        vector.getDataBufferAddress(),
+        vector.getNullCount() == 0 ? 0L : vector.getValidityBufferAddress(),
+        vector.getValueCount(),
+        out);
+  }
+
+  private static void checkLength(int arrayLength, int length) {
+    if (length < 0 || length > arrayLength) {
+      throw new IndexOutOfBoundsException(
+          String.format("Length %d is out of array bounds [0, %d]", length, arrayLength));
+    }
+  }
+
   @Override
   public boolean mightContainBinary(byte[] item) {
     throw new UnsupportedOperationException("Not yet implemented");
@@ -39,10 +39,30 @@ public class VeloxBloomFilterJniWrapper implements RuntimeAware {
 
   public native long init(byte[] data);
 
+  // Reads the serialized filter at the off-heap address without copying it to heap.
+  public native long initFromAddress(long address, int size);
+
   public native void insertLong(long handle, long item);
 
   public native boolean mightContainLong(long handle, long item);
 
+  public native void insertLongs(long handle, long[] items, int length);
+
+  public native void mightContainLongs(long handle, long[] items, int length, boolean[] out);
+
+  // The addresses are of Arrow data and validity buffers, validityAddress is 0 if all values are
+  // valid. Null values are skipped by insertion and never contained.
+  public native void insertLongsFromAddress(
+      long handle, long dataAddress, long validityAddress, int numValues);
+
+  public native void mightContainLongsFromAddress(
+      long handle, long dataAddress, long validityAddress, int numValues, boolean[] out);
+
+  public native long bitSize(long handle);
+
+  // Number of bits set.
+  public native long cardinality(long handle);
+
   public native void mergeFrom(long handle, long other);
 
   public native byte[] serialize(long handle);
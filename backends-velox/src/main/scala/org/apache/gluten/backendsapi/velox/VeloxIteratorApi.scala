@@ -18,19 +18,22 @@ package org.apache.gluten.backendsapi.velox
 
 import org.apache.gluten.backendsapi.{BackendsApiManager, IteratorApi}
 import org.apache.gluten.backendsapi.velox.VeloxIteratorApi.unescapePathName
-import org.apache.gluten.config.GlutenNumaBindingInfo
+import org.apache.gluten.config.{GlutenNumaBindingInfo, VeloxConfig}
 import org.apache.gluten.execution._
 import org.apache.gluten.iterator.Iterators
-import org.apache.gluten.metrics.{IMetrics, IteratorMetricsJniWrapper}
+import org.apache.gluten.metrics.{IMetrics, LiveMetricsReporter}
 import org.apache.gluten.sql.shims.SparkShimLoader
 import org.apache.gluten.substrait.plan.PlanNode
 import org.apache.gluten.substrait.rel.{LocalFilesBuilder, LocalFilesNode, SplitInfo}
 import org.apache.gluten.substrait.rel.LocalFilesNode.ReadFileFormat
+import org.apache.gluten.utils.VeloxBatchPrefetcher
 import org.apache.gluten.vectorized._
 
 import org.apache.spark.{SparkConf, TaskContext}
 import org.apache.spark.internal.Logging
-import org.apache.spark.softaffinity.SoftAffinity
+import org.apache.spark.rdd.RDD
+import org.apache.spark.softaffinity.{CacheDigestTracker, SoftAffinity}
+import org.apache.spark.sql.SparkSession
 import org.apache.spark.sql.catalyst.catalog.ExternalCatalogUtils
 import org.apache.spark.sql.catalyst.util.{DateFormatter, TimestampFormatter}
 import org.apache.spark.sql.connector.read.InputPartition
@@ -41,6 +44,8 @@ import org.apache.spark.sql.utils.SparkInputMetricsUtil.InputMetricsWrapper
 import org.apache.spark.sql.vectorized.ColumnarBatch
 import org.apache.spark.util.{ExecutorManager, SparkDirectoryUtil}
 
+import io.substrait.proto.ReadRel
+
 import java.lang.{Long => JLong}
 import java.nio.charset.StandardCharsets
 import java.time.ZoneOffset
@@ -139,15 +144,54 @@ class VeloxIteratorApi extends IteratorApi with Logging {
       leaves: Seq[LeafTransformSupport]): Seq[BaseGlutenPartition] = {
     // Only serialize plan once, save lots time when plan is complex.
     val planByteArray = wsCtx.root.toProtobuf.toByteArray
+    val broadcastThreshold = VeloxConfig.get.veloxPlanBroadcastThreshold
+    // Tasks are serialized one by one, so a large plan embedded in every partition is shipped
+    // and deserialized once per task. Broadcast it once for the stage instead.
+    val shouldBroadcast = broadcastThreshold >= 0 &&
+      planByteArray.length >= broadcastThreshold && splitInfos.size > 1
+    val planBroadcast = if (shouldBroadcast) {
+      Some(SparkSession.active.sparkContext.broadcast(planByteArray))
+    } else {
+      None
+    }
 
     splitInfos.zipWithIndex.map {
       case (splitInfos, index) =>
-        GlutenPartition(
-          index,
-          planByteArray,
-          splitInfos.map(_.asInstanceOf[LocalFilesNode].toProtobuf.toByteArray).toArray,
-          splitInfos.flatMap(_.preferredLocations().asScala).toArray
-        )
+        val splitInfosByteArray =
+          splitInfos.map(_.asInstanceOf[LocalFilesNode].toProtobuf.toByteArray).toArray
+        val locations = splitInfos.flatMap(_.preferredLocations().asScala).toArray
+        planBroadcast match {
+          case Some(broadcast) =>
+            BroadcastPlanGlutenPartition(index, broadcast, splitInfosByteArray, locations)
+          case None =>
+            GlutenPartition(index, planByteArray, splitInfosByteArray, locations)
+        }
+    }
+  }
+
+  override def genInputIteratorRDD(
+      rdd: RDD[ColumnarBatch],
+      metrics: Map[String, SQLMetric]): RDD[ColumnarBatch] = {
+    val numBatches = VeloxConfig.get.veloxInputPrefetchBatches
+    if (numBatches == 0) {
+      rdd
+    } else {
+      val backendName = BackendsApiManager.getBackendName
+      val maxBytes = VeloxConfig.get.veloxInputPrefetchMaxBytes
+      val producerWaitTime = metrics("prefetchProducerWaitTime")
+      val consumerWaitTime = metrics("prefetchConsumerWaitTime")
+      rdd.mapPartitions(
+        iter =>
+          VeloxBatchPrefetcher
+            .create(
+              backendName,
+              iter.asJava,
+              numBatches,
+              maxBytes,
+              producerWaitTime,
+              consumerWaitTime)
+            .asScala,
+        preservesPartitioning = true)
     }
   }
 
@@ -230,9 +274,18 @@ class VeloxIteratorApi extends IteratorApi with Logging {
       partitionIndex: Int,
       inputIterators: Seq[Iterator[ColumnarBatch]] = Seq(),
       enableCudf: Boolean = false): Iterator[ColumnarBatch] = {
-    assert(
-      inputPartition.isInstanceOf[GlutenPartition],
-      "Velox backend only accept GlutenPartition.")
+    val splitInfoByteArray = inputPartition match {
+      case p: GlutenPartition => p.splitInfosByteArray
+      case p: BroadcastPlanGlutenPartition => p.splitInfosByteArray
+      case other =>
+        throw new IllegalArgumentException(
+          s"Velox backend only accept GlutenPartition or BroadcastPlanGlutenPartition: $other")
+    }
+    if (CacheDigestTracker.isEnabled) {
+      CacheDigestTracker.recordRead(
+        splitInfoByteArray.flatMap(
+          ReadRel.LocalFiles.parseFrom(_).getItemsList.asScala.map(_.getUriFile)))
+    }
 
     val columnarNativeIterators =
       new JArrayList[ColumnarBatchInIterator](inputIterators.map {
@@ -240,9 +293,6 @@ class VeloxIteratorApi extends IteratorApi with Logging {
       }.asJava)
     val transKernel = NativePlanEvaluator.create(BackendsApiManager.getBackendName)
 
-    val splitInfoByteArray = inputPartition
-      .asInstanceOf[GlutenPartition]
-      .splitInfosByteArray
     val spillDirPath = SparkDirectoryUtil
       .get()
       .namespace("gluten-spill")
@@ -257,13 +307,17 @@ class VeloxIteratorApi extends IteratorApi with Logging {
         BackendsApiManager.getSparkPlanExecApiInstance.rewriteSpillPath(spillDirPath),
         enableCudf
       )
-    val itrMetrics = IteratorMetricsJniWrapper.create()
+    val metricsReporter = LiveMetricsReporter(resIter, updateNativeMetrics)
 
     Iterators
-      .wrap(resIter.asScala)
+      .wrap(resIter.asScala.map {
+        batch =>
+          metricsReporter.onBatch()
+          batch
+      })
       .protectInvocationFlow()
       .recycleIterator {
-        updateNativeMetrics(itrMetrics.fetch(resIter))
+        metricsReporter.onComplete()
         updateInputMetrics(context.taskMetrics().inputMetrics)
         resIter.close()
       }
@@ -310,13 +364,17 @@ class VeloxIteratorApi extends IteratorApi with Logging {
         BackendsApiManager.getSparkPlanExecApiInstance.rewriteSpillPath(spillDirPath),
         enableCudf
       )
-    val itrMetrics = IteratorMetricsJniWrapper.create()
+    val metricsReporter = LiveMetricsReporter(nativeResultIterator, updateNativeMetrics)
 
     Iterators
-      .wrap(nativeResultIterator.asScala)
+      .wrap(nativeResultIterator.asScala.map {
+        batch =>
+          metricsReporter.onBatch()
+          batch
+      })
       .protectInvocationFlow()
       .recycleIterator {
-        updateNativeMetrics(itrMetrics.fetch(nativeResultIterator))
+        metricsReporter.onComplete()
         nativeResultIterator.close()
       }
       .recyclePayload(batch => batch.close())
@@ -62,7 +62,13 @@ class VeloxMetricsApi extends MetricsApi with Logging {
 
     Map(
       "cpuCount" -> SQLMetrics.createMetric(sparkContext, "cpu wall time count"),
-      "wallNanos" -> SQLMetrics.createNanoTimingMetric(sparkContext, "time of input iterator")
+      "wallNanos" -> SQLMetrics.createNanoTimingMetric(sparkContext, "time of input iterator"),
+      "prefetchProducerWaitTime" -> SQLMetrics.createNanoTimingMetric(
+        sparkContext,
+        "time of input prefetcher waiting for consumer"),
+      "prefetchConsumerWaitTime" -> SQLMetrics.createNanoTimingMetric(
+        sparkContext,
+        "time of waiting for prefetched input")
     ) ++ outputMetrics
   }
 
@@ -308,6 +314,8 @@ class VeloxMetricsApi extends MetricsApi with Logging {
       "compressTime" -> SQLMetrics.createNanoTimingMetric(sparkContext, "time to compress"),
       "decompressTime" -> SQLMetrics.createNanoTimingMetric(sparkContext, "time to decompress"),
       "deserializeTime" -> SQLMetrics.createNanoTimingMetric(sparkContext, "time to deserialize"),
+      "numOnHeapReadStreams" -> SQLMetrics
+        .createMetric(sparkContext, "number of shuffle read streams copied through heap"),
       "shuffleWallTime" -> SQLMetrics.createNanoTimingMetric(sparkContext, "shuffle wall time"),
       // For hash shuffle writer, the peak bytes represents the maximum split buffer size.
       // For sort shuffle writer, the peak bytes represents the maximum
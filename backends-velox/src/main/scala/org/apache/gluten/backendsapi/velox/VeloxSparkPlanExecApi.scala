@@ -608,6 +608,7 @@ class VeloxSparkPlanExecApi extends SparkPlanExecApi {
     val deserializeTime = metrics("deserializeTime")
     val readBatchNumRows = metrics("avgReadBatchNumRows")
     val decompressTime = metrics("decompressTime")
+    val numOnHeapReadStreams = metrics("numOnHeapReadStreams")
     if (GlutenConfig.get.isUseCelebornShuffleManager) {
       val clazz = ClassUtils.getClass("org.apache.spark.shuffle.CelebornColumnarBatchSerializer")
       val constructor =
@@ -620,6 +621,7 @@ class VeloxSparkPlanExecApi extends SparkPlanExecApi {
         numOutputRows,
         deserializeTime,
         decompressTime,
+        numOnHeapReadStreams,
         isSort)
     }
   }
@@ -61,6 +61,10 @@ class VeloxConfig(conf: SQLConf) extends GlutenConfig(conf) {
   def enableBroadcastBuildRelationInOffheap: Boolean =
     getConf(VELOX_BROADCAST_BUILD_RELATION_USE_OFFHEAP)
 
+  def broadcastBuildSideCacheEnabled: Boolean = getConf(VELOX_BROADCAST_BUILD_SIDE_CACHE_ENABLED)
+
+  def broadcastBuildSideCacheMaxBytes: Long = getConf(VELOX_BROADCAST_BUILD_SIDE_CACHE_MAX_BYTES)
+
   def veloxOrcScanEnabled: Boolean =
     getConf(VELOX_ORC_SCAN_ENABLED)
 
@@ -69,6 +73,19 @@ class VeloxConfig(conf: SQLConf) extends GlutenConfig(conf) {
 
   def floatingPointMode: String = getConf(FLOATING_POINT_MODE)
 
+  def veloxRowToColumnarMaxBatchBytes: Long =
+    getConf(COLUMNAR_VELOX_ROW_TO_COLUMNAR_MAX_BATCH_BYTES)
+
+  def veloxPlanBroadcastThreshold: Long = getConf(COLUMNAR_VELOX_PLAN_BROADCAST_THRESHOLD)
+
+  def veloxInputPrefetchBatches: Int = getConf(COLUMNAR_VELOX_INPUT_PREFETCH_BATCHES)
+
+  def veloxInputPrefetchMaxBytes: Long = getConf(COLUMNAR_VELOX_INPUT_PREFETCH_MAX_BYTES)
+
+  def veloxLiveMetricsIntervalBatches: Int = getConf(COLUMNAR_VELOX_LIVE_METRICS_INTERVAL_BATCHES)
+
+  def veloxLiveMetricsIntervalMs: Long = getConf(COLUMNAR_VELOX_LIVE_METRICS_INTERVAL)
+
   def enableEnhancedFeatures(): Boolean = ConfigJniWrapper.isEnhancedFeaturesEnabled
 }
 
@@ -283,6 +300,60 @@ object VeloxConfig {
       .bytesConf(ByteUnit.BYTE)
       .createWithDefaultString("100G")
 
+  val COLUMNAR_VELOX_ROW_TO_COLUMNAR_MAX_BATCH_BYTES =
+    buildConf("spark.gluten.sql.columnar.backend.velox.rowToColumnar.maxBatchBytes")
+      .internal()
+      .doc("The max total size of the unsafe rows converted into one batch by row to columnar.")
+      .bytesConf(ByteUnit.BYTE)
+      .checkValue(_ > 0, "must be positive.")
+      .createWithDefaultString("64MB")
+
+  val COLUMNAR_VELOX_PLAN_BROADCAST_THRESHOLD =
+    buildConf("spark.gluten.sql.columnar.backend.velox.planBroadcastThreshold")
+      .internal()
+      .doc(
+        "Substrait plans of at least this size are broadcast once per stage instead of being " +
+          "serialized into every task. Set to -1 to disable.")
+      .bytesConf(ByteUnit.BYTE)
+      .createWithDefaultString("64KB")
+
+  val COLUMNAR_VELOX_INPUT_PREFETCH_BATCHES =
+    buildConf("spark.gluten.sql.columnar.backend.velox.inputPrefetchBatches")
+      .doc(
+        "Number of input batches that are pulled ahead of the native pipeline on a background " +
+          "thread, so that e.g. shuffle fetch overlaps with native compute. 0 disables it.")
+      .intConf
+      .checkValue(_ >= 0, "must not be negative.")
+      .createWithDefault(0)
+
+  val COLUMNAR_VELOX_INPUT_PREFETCH_MAX_BYTES =
+    buildConf("spark.gluten.sql.columnar.backend.velox.inputPrefetchMaxBytes")
+      .doc(
+        "Maximum total size of the input batches pulled ahead of the native pipeline. A batch " +
+          "is always pulled ahead when none is queued.")
+      .bytesConf(ByteUnit.BYTE)
+      .checkValue(_ > 0, "must be positive.")
+      .createWithDefaultString("64MB")
+
+  val COLUMNAR_VELOX_LIVE_METRICS_INTERVAL_BATCHES =
+    buildConf("spark.gluten.sql.columnar.backend.velox.liveMetrics.intervalBatches")
+      .doc(
+        "Update the SQL metrics of native operators while a task runs, every this many output " +
+          "batches of its native pipeline. 0 disables the batch based updates.")
+      .intConf
+      .checkValue(_ >= 0, "must not be negative.")
+      .createWithDefault(0)
+
+  val COLUMNAR_VELOX_LIVE_METRICS_INTERVAL =
+    buildConf("spark.gluten.sql.columnar.backend.velox.liveMetrics.interval")
+      .doc(
+        "Update the SQL metrics of native operators while a task runs, at this interval, also " +
+          "when the native pipeline outputs no batches meanwhile. 0 disables the time based " +
+          "updates.")
+      .timeConf(TimeUnit.MILLISECONDS)
+      .checkValue(_ >= 0, "must not be negative.")
+      .createWithDefault(0L)
+
   val MAX_PARTITION_PER_WRITERS_SESSION =
     buildConf("spark.gluten.sql.columnar.backend.velox.maxPartitionsPerWritersSession")
       .internal()
@@ -560,6 +631,23 @@ object VeloxConfig {
       .booleanConf
       .createWithDefault(false)
 
+  val VELOX_BROADCAST_BUILD_SIDE_CACHE_ENABLED =
+    buildConf("spark.gluten.sql.columnar.backend.velox.broadcastBuildSideCache.enabled")
+      .doc(
+        "Deserialize the build side of a broadcast join once per executor and share the native " +
+          "batches among the tasks of the executor, instead of deserializing it in every task. " +
+          "The batches are kept in Spark's global off-heap memory.")
+      .booleanConf
+      .createWithDefault(false)
+
+  val VELOX_BROADCAST_BUILD_SIDE_CACHE_MAX_BYTES =
+    buildConf("spark.gluten.sql.columnar.backend.velox.broadcastBuildSideCache.maxBytes")
+      .doc(
+        "Maximum size of the deserialized broadcast build sides cached per executor. The least " +
+          "recently used build sides that no task is reading are evicted beyond this size.")
+      .bytesConf(ByteUnit.BYTE)
+      .createWithDefaultString("1GB")
+
   val QUERY_TRACE_ENABLED = buildConf("spark.gluten.sql.columnar.backend.velox.queryTraceEnabled")
     .doc("Enable query tracing flag.")
     .internal()
@@ -18,7 +18,7 @@ package org.apache.gluten.execution
 
 import org.apache.gluten.backendsapi.BackendsApiManager
 import org.apache.gluten.columnarbatch.ColumnarBatches
-import org.apache.gluten.config.GlutenConfig
+import org.apache.gluten.config.{GlutenConfig, VeloxConfig}
 import org.apache.gluten.iterator.Iterators
 import org.apache.gluten.memory.arrow.alloc.ArrowBufferAllocators
 import org.apache.gluten.runtime.Runtimes
@@ -35,13 +35,12 @@ import org.apache.spark.sql.internal.SQLConf
 import org.apache.spark.sql.types.StructType
 import org.apache.spark.sql.utils.SparkArrowUtil
 import org.apache.spark.sql.vectorized.ColumnarBatch
-import org.apache.spark.task.TaskResources
 import org.apache.spark.unsafe.Platform
 
 import org.apache.arrow.c.ArrowSchema
 import org.apache.arrow.memory.ArrowBuf
 
-import scala.collection.mutable.ListBuffer
+import java.util.concurrent.TimeUnit
 
 case class RowToVeloxColumnarExec(child: SparkPlan) extends RowToColumnarExecBase(child = child) {
   override def doExecuteColumnarInternal(): RDD[ColumnarBatch] = {
@@ -49,6 +48,7 @@ case class RowToVeloxColumnarExec(child: SparkPlan) extends RowToColumnarExecBas
     val numOutputBatches = longMetric("numOutputBatches")
     val convertTime = longMetric("convertTime")
     val numRows = GlutenConfig.get.maxBatchSize
+    val numBytes = VeloxConfig.get.veloxRowToColumnarMaxBatchBytes
     // This avoids calling `schema` in the RDD closure, so that we don't need to include the entire
     // plan (this) in the closure.
     val localSchema = schema
@@ -60,7 +60,8 @@ case class RowToVeloxColumnarExec(child: SparkPlan) extends RowToColumnarExecBas
           numInputRows,
           numOutputBatches,
           convertTime,
-          numRows)
+          numRows,
+          numBytes)
     }
   }
 
@@ -69,6 +70,7 @@ case class RowToVeloxColumnarExec(child: SparkPlan) extends RowToColumnarExecBas
     val numOutputBatches = longMetric("numOutputBatches")
     val convertTime = longMetric("convertTime")
     val numRows = GlutenConfig.get.maxBatchSize
+    val numBytes = VeloxConfig.get.veloxRowToColumnarMaxBatchBytes
     val mode = BroadcastUtils.getBroadcastMode(outputPartitioning)
     val relation = child.executeBroadcast()
     BroadcastUtils.sparkToVeloxUnsafe(
@@ -83,7 +85,8 @@ case class RowToVeloxColumnarExec(child: SparkPlan) extends RowToColumnarExecBas
           numInputRows,
           numOutputBatches,
           convertTime,
-          numRows))
+          numRows,
+          numBytes))
   }
 
   // For spark 3.2.
@@ -106,7 +109,8 @@ object RowToVeloxColumnarExec {
       numInputRows,
       numOutputBatches,
       convertTime,
-      columnBatchSize)
+      columnBatchSize,
+      VeloxConfig.get.veloxRowToColumnarMaxBatchBytes)
   }
 
   def toColumnarBatchIterator(
@@ -116,6 +120,29 @@ object RowToVeloxColumnarExec {
       numOutputBatches: SQLMetric,
       convertTime: SQLMetric,
       columnBatchSize: Int): Iterator[ColumnarBatch] = {
+    RowToVeloxColumnarExec.toColumnarBatchIterator(
+      it,
+      schema,
+      numInputRows,
+      numOutputBatches,
+      convertTime,
+      columnBatchSize,
+      VeloxConfig.get.veloxRowToColumnarMaxBatchBytes)
+  }
+
+  /**
+   * Converts the rows into batches of at most `columnBatchSize` rows and about `columnBatchBytes`
+   * bytes of unsafe rows. The row lengths and the off-heap row buffer are reused across batches
+   * of the same iterator, the buffer only grows when a batch doesn't fit in it.
+   */
+  def toColumnarBatchIterator(
+      it: Iterator[InternalRow],
+      schema: StructType,
+      numInputRows: SQLMetric,
+      numOutputBatches: SQLMetric,
+      convertTime: SQLMetric,
+      columnBatchSize: Int,
+      columnBatchBytes: Long): Iterator[ColumnarBatch] = {
     if (it.isEmpty) {
       return Iterator.empty
     }
@@ -136,6 +163,10 @@ object RowToVeloxColumnarExec {
         cSchema.close()
       }
 
+    // Reused by all the batches of this iterator, released when the iterator is completed.
+    var arrowBuf: ArrowBuf = null
+    val rowLength = new Array[Long](columnBatchSize)
+
     val res: Iterator[ColumnarBatch] = new Iterator[ColumnarBatch] {
       var finished = false
 
@@ -155,43 +186,43 @@ object RowToVeloxColumnarExec {
         }
       }
 
-      override def next(): ColumnarBatch = {
-        var arrowBuf: ArrowBuf = null
-        TaskResources.addRecycler("RowToColumnar_arrowBuf", 100) {
-          if (arrowBuf != null && arrowBuf.refCnt() != 0) {
-            arrowBuf.close()
-          }
+      def ensureCapacity(used: Long, required: Long): Unit = {
+        if (required > arrowBuf.capacity()) {
+          val tmpBuf = arrowAllocator.buffer(Math.max(required, arrowBuf.capacity() * 2))
+          tmpBuf.setBytes(0, arrowBuf, 0, used)
+          arrowBuf.close()
+          arrowBuf = tmpBuf
         }
-        val rowLength = new ListBuffer[Long]()
+      }
+
+      override def next(): ColumnarBatch = {
+        // Timed once per batch, so the time includes pulling the rows from the child iterator.
+        val start = System.nanoTime()
         var rowCount = 0
         var offset = 0L
-        while (rowCount < columnBatchSize && !finished) {
+        while (rowCount < columnBatchSize && offset < columnBatchBytes && !finished) {
           if (!it.hasNext) {
             finished = true
           } else {
             val row = it.next()
-            val start = System.currentTimeMillis()
             val unsafeRow = convertToUnsafeRow(row)
             val sizeInBytes = unsafeRow.getSizeInBytes
 
-            // allocate buffer based on first row
-            if (rowCount == 0) {
+            // allocate buffer based on first row, the buffer is reused by the following batches
+            if (arrowBuf == null) {
               // allocate buffer based on 1st row, but if first row is very big, this will cause OOM
               // maybe we should optimize to list ArrayBuf to native to avoid buf close and allocate
               // 31760L origins from BaseVariableWidthVector.lastValueAllocationSizeInBytes
               // experimental value
-              val estimatedBufSize = Math.max(
-                Math.min(sizeInBytes.toDouble * columnBatchSize * 1.2, 31760L * columnBatchSize),
-                sizeInBytes.toDouble * 10)
+              val estimatedBufSize = Math.min(
+                Math.max(
+                  Math.min(sizeInBytes.toDouble * columnBatchSize * 1.2, 31760L * columnBatchSize),
+                  sizeInBytes.toDouble * 10),
+                columnBatchBytes.toDouble + sizeInBytes)
               arrowBuf = arrowAllocator.buffer(estimatedBufSize.toLong)
             }
 
-            if ((offset + sizeInBytes) > arrowBuf.capacity()) {
-              val tmpBuf = arrowAllocator.buffer((offset + sizeInBytes) * 2)
-              tmpBuf.setBytes(0, arrowBuf, 0, offset)
-              arrowBuf.close()
-              arrowBuf = tmpBuf
-            }
+            ensureCapacity(offset, offset + sizeInBytes)
             Platform.copyMemory(
               unsafeRow.getBaseObject,
               unsafeRow.getBaseOffset,
@@ -199,30 +230,26 @@ object RowToVeloxColumnarExec {
               arrowBuf.memoryAddress() + offset,
               sizeInBytes)
             offset += sizeInBytes
-            rowLength += sizeInBytes.toLong
+            rowLength(rowCount) = sizeInBytes.toLong
             rowCount += 1
-            convertTime += System.currentTimeMillis() - start
           }
         }
         numInputRows += rowCount
         numOutputBatches += 1
-        val startNative = System.currentTimeMillis()
-        try {
-          val handle = jniWrapper
-            .nativeConvertRowToColumnar(r2cHandle, rowLength.toArray, arrowBuf.memoryAddress())
-          val cb = ColumnarBatches.create(handle)
-          convertTime += System.currentTimeMillis() - startNative
-          cb
-        } finally {
-          arrowBuf.close()
-          arrowBuf = null
-        }
+        val handle = jniWrapper
+          .nativeConvertRowToColumnar(r2cHandle, rowLength, rowCount, arrowBuf.memoryAddress())
+        val cb = ColumnarBatches.create(handle)
+        convertTime += TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+        cb
       }
     }
     Iterators
       .wrap(res)
       .protectInvocationFlow()
       .recycleIterator {
+        if (arrowBuf != null && arrowBuf.refCnt() != 0) {
+          arrowBuf.close()
+        }
         jniWrapper.close(r2cHandle)
       }
       .recyclePayload(_.close())
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.execution
+
+import org.apache.gluten.backendsapi.BackendsApiManager
+import org.apache.gluten.columnarbatch.{ColumnarBatches, ColumnarBatchJniWrapper}
+import org.apache.gluten.config.VeloxConfig
+import org.apache.gluten.iterator.Iterators
+import org.apache.gluten.runtime.{Runtime, Runtimes}
+
+import org.apache.spark.{SparkContext, SparkEnv}
+import org.apache.spark.internal.Logging
+import org.apache.spark.sql.execution.metric.{SQLMetric, SQLMetrics}
+import org.apache.spark.sql.vectorized.ColumnarBatch
+import org.apache.spark.storage.BroadcastBlockId
+
+import java.util
+
+/**
+ * Executor-wide cache of the deserialized build sides of broadcast joins, keyed by broadcast id.
+ *
+ * The native batches are deserialized once with a runtime shared by all tasks of the executor, and
+ * their memory is reserved from Spark's global off-heap memory. Each task reads its own zero-copy
+ * views of the cached batches. An entry is reference counted by the tasks reading it. Entries that
+ * no task reads are evicted once their broadcast is removed from the executor, and least recently
+ * used first when the cache exceeds its size.
+ */
+object VeloxBroadcastBuildSideCache extends Logging {
+  val HITS = "broadcastBuildSideCacheHits"
+  val MISSES = "broadcastBuildSideCacheMisses"
+  val BUILD_TIME = "broadcastBuildSideCacheBuildTime"
+
+  def genMetrics(sparkContext: SparkContext): Map[String, SQLMetric] = Map(
+    HITS -> SQLMetrics.createMetric(sparkContext, "number of broadcast build side cache hits"),
+    MISSES -> SQLMetrics.createMetric(sparkContext, "number of broadcast build side cache misses"),
+    BUILD_TIME -> SQLMetrics.createTimingMetric(
+      sparkContext,
+      "time of deserializing broadcast build side")
+  )
+
+  private class Entry(val handles: Seq[Long], val bytes: Long) {
+    var refCnt: Int = 0
+  }
+
+  // Access-ordered, so eviction starts from the least recently used entries.
+  private val entries = new util.LinkedHashMap[Long, Entry](16, 0.75f, true)
+  private var totalBytes: Long = 0L
+
+  // Striped locks to deserialize a build side only once, without blocking the other build sides.
+  private val buildLocks = Array.fill(64)(new Object)
+
+  /**
+   * Returns the batches of the build side, deserializing it if not cached. The entry is released
+   * once the returned iterator completes.
+   */
+  def iterator(
+      broadcastId: Long,
+      metrics: Map[String, SQLMetric],
+      deserialize: Runtime => Seq[Long]): Iterator[ColumnarBatch] = {
+    val entry = acquire(broadcastId, metrics, deserialize)
+    val jniWrapper = ColumnarBatchJniWrapper.create(
+      Runtimes.contextInstance(BackendsApiManager.getBackendName, "VeloxBroadcastBuildSideCache"))
+    Iterators
+      .wrap(entry.handles.iterator.map {
+        handle =>
+          val columnIndices = (0 until ColumnarBatchJniWrapper.numColumns(handle).toInt).toArray
+          ColumnarBatches.create(jniWrapper.select(handle, columnIndices))
+      })
+      .protectInvocationFlow()
+      .recyclePayload(batch => batch.close())
+      .recycleIterator {
+        release(entry)
+      }
+      .create()
+  }
+
+  private def acquire(
+      broadcastId: Long,
+      metrics: Map[String, SQLMetric],
+      deserialize: Runtime => Seq[Long]): Entry = {
+    val buildLock = buildLocks(java.lang.Math.floorMod(broadcastId, buildLocks.length.toLong).toInt)
+    buildLock.synchronized {
+      val cached = this.synchronized {
+        val entry = entries.get(broadcastId)
+        if (entry != null) {
+          entry.refCnt += 1
+        }
+        entry
+      }
+      if (cached != null) {
+        metrics.get(HITS).foreach(_ += 1)
+        return cached
+      }
+      val start = System.nanoTime()
+      // Looked up for every build, as the runtime is shared only by tasks with the same native
+      // configurations.
+      val runtime =
+        Runtimes.globalInstance(BackendsApiManager.getBackendName, "VeloxBroadcastBuildSideCache")
+      val handles = deserialize(runtime)
+      val bytes = handles.map(ColumnarBatchJniWrapper.numBytes).sum
+      metrics.get(MISSES).foreach(_ += 1)
+      metrics.get(BUILD_TIME).foreach(_ += (System.nanoTime() - start) / 1000000)
+      logDebug(s"Cached broadcast build side $broadcastId, ${handles.size} batches, $bytes bytes")
+      this.synchronized {
+        val entry = new Entry(handles, bytes)
+        entry.refCnt += 1
+        entries.put(broadcastId, entry)
+        totalBytes += bytes
+        evict()
+        entry
+      }
+    }
+  }
+
+  private def release(entry: Entry): Unit = this.synchronized {
+    entry.refCnt -= 1
+    evict()
+  }
+
+  // Evicts the entries that no task reads of removed broadcasts, and the least recently used ones
+  // until the cache fits in its size.
+  private def evict(): Unit = {
+    val maxBytes = VeloxConfig.get.broadcastBuildSideCacheMaxBytes
+    val it = entries.entrySet().iterator()
+    while (it.hasNext) {
+      val e = it.next()
+      val entry = e.getValue
+      if (entry.refCnt == 0 && (totalBytes > maxBytes || isRemoved(e.getKey))) {
+        it.remove()
+        totalBytes -= entry.bytes
+        // Views of the batches that are still alive keep the native vectors alive.
+        entry.handles.foreach(ColumnarBatchJniWrapper.close)
+        logDebug(s"Evicted broadcast build side ${e.getKey}, ${entry.bytes} bytes")
+      }
+    }
+  }
+
+  // The driver removes the blocks of a broadcast from the executors once it is destroyed or cleaned
+  // up, after which no task reads the build side any more.
+  private def isRemoved(broadcastId: Long): Boolean = {
+    SparkEnv.get.blockManager.getStatus(BroadcastBlockId(broadcastId)).isEmpty
+  }
+}
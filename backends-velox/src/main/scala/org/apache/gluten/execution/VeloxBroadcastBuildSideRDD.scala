@@ -16,22 +16,43 @@
  */
 package org.apache.gluten.execution
 
+import org.apache.gluten.config.VeloxConfig
 import org.apache.gluten.iterator.Iterators
+import org.apache.gluten.runtime.Runtime
 
 import org.apache.spark.{broadcast, SparkContext}
+import org.apache.spark.sql.execution.ColumnarBuildSideRelation
 import org.apache.spark.sql.execution.joins.BuildSideRelation
+import org.apache.spark.sql.execution.metric.SQLMetric
+import org.apache.spark.sql.execution.unsafe.UnsafeColumnarBuildSideRelation
 import org.apache.spark.sql.vectorized.ColumnarBatch
 
 case class VeloxBroadcastBuildSideRDD(
     @transient private val sc: SparkContext,
-    broadcasted: broadcast.Broadcast[BuildSideRelation])
+    broadcasted: broadcast.Broadcast[BuildSideRelation],
+    cacheMetrics: Map[String, SQLMetric] = Map.empty)
   extends BroadcastBuildSideRDD(sc, broadcasted) {
 
   override def genBroadcastBuildSideIterator(): Iterator[ColumnarBatch] = {
     val relation = broadcasted.value.asReadOnlyCopy()
-    Iterators
-      .wrap(relation.deserialized)
-      .recyclePayload(batch => batch.close())
-      .create()
+    val deserializeToHandles: Option[Runtime => Seq[Long]] =
+      if (VeloxConfig.get.broadcastBuildSideCacheEnabled) {
+        relation match {
+          case r: ColumnarBuildSideRelation => Some(r.deserializeToHandles)
+          case r: UnsafeColumnarBuildSideRelation => Some(r.deserializeToHandles)
+          case _ => None
+        }
+      } else {
+        None
+      }
+    deserializeToHandles match {
+      case Some(deserialize) =>
+        VeloxBroadcastBuildSideCache.iterator(broadcasted.id, cacheMetrics, deserialize)
+      case None =>
+        Iterators
+          .wrap(relation.deserialized)
+          .recyclePayload(batch => batch.close())
+          .create()
+    }
   }
 }
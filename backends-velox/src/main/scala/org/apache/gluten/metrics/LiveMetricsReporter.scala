@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.metrics
+
+import org.apache.gluten.config.VeloxConfig
+import org.apache.gluten.vectorized.ColumnarBatchOutIterator
+
+import org.apache.spark.TaskContext
+import org.apache.spark.internal.Logging
+import org.apache.spark.task.TaskResources
+
+import java.util.concurrent.{Executors, ScheduledExecutorService, ScheduledFuture, TimeUnit}
+
+import scala.util.control.NonFatal
+
+/**
+ * Reports the metrics of a native pipeline while it is still running, so that long-running tasks
+ * show progress in the Spark UI instead of only on completion.
+ *
+ * Every `intervalBatches` output batches of the pipeline, and every `intervalMs` milliseconds on a
+ * timer thread, a snapshot is fetched from native and the difference to the previously reported
+ * snapshot is fed to `updateNativeMetrics`. The timer keeps reporting while the pipeline is busy
+ * without output, e.g. in an aggregation. When the pipeline finishes, the remainder up to the
+ * final metrics is reported, along with the peak memory of the operators. Both intervals being 0
+ * disables live reporting and the final metrics are reported once as before.
+ */
+class LiveMetricsReporter(
+    snapshot: () => Metrics,
+    finalMetrics: () => Metrics,
+    updateNativeMetrics: IMetrics => Unit,
+    intervalBatches: Int,
+    intervalMs: Long)
+  extends Logging {
+  // the metrics updaters look up the task's metrics from the task context
+  private val taskContext = TaskContext.get()
+  private var batchesSinceReport = 0
+  // guarded by this, like the native metrics calls, which must not run once the pipeline is closed
+  private var reported: Metrics = _
+  private var closed = false
+  private val timerReports: Option[ScheduledFuture[_]] = if (intervalMs > 0) {
+    Some(
+      LiveMetricsReporter.timer.scheduleWithFixedDelay(
+        new Runnable {
+          override def run(): Unit = onTimer()
+        },
+        intervalMs,
+        intervalMs,
+        TimeUnit.MILLISECONDS))
+  } else {
+    None
+  }
+
+  /** Called after each output batch of the pipeline. */
+  def onBatch(): Unit = {
+    if (intervalBatches > 0) {
+      batchesSinceReport += 1
+      if (batchesSinceReport >= intervalBatches) {
+        batchesSinceReport = 0
+        reportSnapshot()
+      }
+    }
+  }
+
+  /** Called once the pipeline is finished, before the native iterator is closed. */
+  def onComplete(): Unit = synchronized {
+    closed = true
+    timerReports.foreach(_.cancel(false))
+    val metrics = finalMetrics()
+    if (reported == null || reported.inputRows.length == metrics.inputRows.length) {
+      updateNativeMetrics(metrics.minus(reported, true))
+    } else {
+      logWarning(
+        s"Native pipeline has ${metrics.inputRows.length} operators at completion, but " +
+          s"${reported.inputRows.length} in the last live metrics, reporting all final metrics.")
+      updateNativeMetrics(metrics.minus(null, true))
+    }
+  }
+
+  private def reportSnapshot(): Unit = synchronized {
+    if (!closed) {
+      val metrics = snapshot()
+      if (
+        metrics != null &&
+        (reported == null || reported.inputRows.length == metrics.inputRows.length)
+      ) {
+        updateNativeMetrics(metrics.minus(reported, false))
+        reported = metrics
+      }
+    }
+  }
+
+  private def onTimer(): Unit = {
+    try {
+      if (taskContext == null) {
+        reportSnapshot()
+      } else {
+        TaskResources.runAs(taskContext)(reportSnapshot())
+      }
+    } catch {
+      case NonFatal(e) =>
+        logWarning("Failed to report live metrics of native pipeline, stop reporting them.", e)
+        synchronized {
+          closed = true
+        }
+    }
+  }
+}
+
+object LiveMetricsReporter {
+  // one daemon thread for the timed reports of all tasks of the executor
+  private lazy val timer: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor {
+    runnable =>
+      val thread = new Thread(runnable, "gluten-live-metrics")
+      thread.setDaemon(true)
+      thread
+  }
+
+  def apply(
+      out: ColumnarBatchOutIterator,
+      updateNativeMetrics: IMetrics => Unit): LiveMetricsReporter = {
+    val itrMetrics = IteratorMetricsJniWrapper.create()
+    new LiveMetricsReporter(
+      () => itrMetrics.fetchSnapshot(out),
+      () => itrMetrics.fetch(out),
+      updateNativeMetrics,
+      VeloxConfig.get.veloxLiveMetricsIntervalBatches,
+      VeloxConfig.get.veloxLiveMetricsIntervalMs)
+  }
+}
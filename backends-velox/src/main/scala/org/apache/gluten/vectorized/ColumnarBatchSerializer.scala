@@ -51,6 +51,7 @@ class ColumnarBatchSerializer(
     numOutputRows: SQLMetric,
     deserializeTime: SQLMetric,
     decompressTime: SQLMetric,
+    numOnHeapReadStreams: SQLMetric,
     isSort: Boolean)
   extends Serializer
   with Serializable {
@@ -66,6 +67,7 @@ class ColumnarBatchSerializer(
       numOutputRows,
       deserializeTime,
       decompressTime,
+      numOnHeapReadStreams,
       shuffleWriterType)
   }
 
@@ -78,6 +80,7 @@ private class ColumnarBatchSerializerInstance(
     numOutputRows: SQLMetric,
     deserializeTime: SQLMetric,
     decompressTime: SQLMetric,
+    numOnHeapReadStreams: SQLMetric,
     shuffleWriterType: String)
   extends SerializerInstance
   with Logging {
@@ -139,6 +142,10 @@ private class ColumnarBatchSerializerInstance(
     extends DeserializationStream
     with TaskResource {
     private val byteIn: JniByteInputStream = JniByteInputStreams.create(in)
+    // Tells whether the shuffle reads missed the low-copy paths.
+    if (byteIn.isInstanceOf[OnHeapJniByteInputStream]) {
+      numOnHeapReadStreams += 1
+    }
     private val runtime =
       Runtimes.contextInstance(BackendsApiManager.getBackendName, "ShuffleReader")
     private val wrappedOut: ClosableIterator = new ColumnarBatchOutIterator(
@@ -176,17 +176,22 @@ class ColumnarShuffleWriter[K, V](
 
           runtime
             .memoryManager()
-            .addSpiller(new Spiller() {
-              override def spill(self: MemoryTarget, phase: Spiller.Phase, size: Long): Long = {
-                if (!Spillers.PHASE_SET_SPILL_ONLY.contains(phase)) {
-                  return 0L
+            .addSpiller(Spillers.withCost(
+              new Spiller() {
+                override def spill(self: MemoryTarget, phase: Spiller.Phase, size: Long): Long = {
+                  if (!Spillers.PHASE_SET_SPILL_ONLY.contains(phase)) {
+                    return 0L
+                  }
+                  logInfo(s"Gluten shuffle writer: Trying to spill $size bytes of data")
+                  val spilled = shuffleWriterJniWrapper.reclaim(nativeShuffleWriter, size)
+                  logInfo(s"Gluten shuffle writer: Spilled $spilled / $size bytes of data")
+                  spilled
                 }
-                logInfo(s"Gluten shuffle writer: Trying to spill $size bytes of data")
-                val spilled = shuffleWriterJniWrapper.reclaim(nativeShuffleWriter, size)
-                logInfo(s"Gluten shuffle writer: Spilled $spilled / $size bytes of data")
-                spilled
-              }
-            })
+              },
+              // Partition buffers are flushed out sequentially and never read back by this task.
+              Spillers.CHEAP_COST_PER_BYTE,
+              0L
+            ))
         }
 
         val rows = cb.numRows()
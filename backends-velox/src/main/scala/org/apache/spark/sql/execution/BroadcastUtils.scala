@@ -17,23 +17,30 @@
 package org.apache.spark.sql.execution
 
 import org.apache.gluten.backendsapi.BackendsApiManager
-import org.apache.gluten.columnarbatch.ColumnarBatches
+import org.apache.gluten.columnarbatch.{ColumnarBatches, ColumnarBatchJniWrapper}
 import org.apache.gluten.config.VeloxConfig
-import org.apache.gluten.runtime.Runtimes
+import org.apache.gluten.memory.arrow.alloc.ArrowBufferAllocators
+import org.apache.gluten.runtime.{Runtime, Runtimes}
 import org.apache.gluten.sql.shims.SparkShimLoader
+import org.apache.gluten.utils.ArrowAbiUtil
 import org.apache.gluten.vectorized.{ColumnarBatchSerializeResult, ColumnarBatchSerializerJniWrapper}
 
 import org.apache.spark.SparkContext
 import org.apache.spark.broadcast.Broadcast
 import org.apache.spark.sql.catalyst.InternalRow
-import org.apache.spark.sql.catalyst.expressions.UnsafeRow
+import org.apache.spark.sql.catalyst.expressions.{Attribute, UnsafeRow}
 import org.apache.spark.sql.catalyst.plans.physical.{BroadcastMode, BroadcastPartitioning, IdentityBroadcastMode, Partitioning}
 import org.apache.spark.sql.execution.joins.{BuildSideRelation, EmptyHashedRelation, HashedRelation, HashedRelationBroadcastMode, LongHashedRelation}
 import org.apache.spark.sql.execution.unsafe.UnsafeColumnarBuildSideRelation
+import org.apache.spark.sql.internal.SQLConf
 import org.apache.spark.sql.types.StructType
+import org.apache.spark.sql.utils.SparkArrowUtil
 import org.apache.spark.sql.vectorized.ColumnarBatch
 import org.apache.spark.task.TaskResources
 
+import org.apache.arrow.c.ArrowSchema
+
+import scala.collection.mutable
 import scala.collection.mutable.ArrayBuffer
 
 // Utility methods to convert Vanilla broadcast relations from/to Velox broadcast relations.
@@ -207,4 +214,57 @@ object BroadcastUtils {
       case other => other.valuesWithKeyIndex().map(_.getValue)
     }
   }
+
+  /**
+   * Returns the distinct keys in the order they first appear. Only the distinct keys are copied, so
+   * the driver memory scales with the number of distinct keys instead of the size of the broadcast
+   * relation. The keys may be one reused row.
+   */
+  def distinctKeys(keys: Iterator[InternalRow]): Array[InternalRow] = {
+    val distinct = mutable.LinkedHashSet[InternalRow]()
+    keys.foreach {
+      key =>
+        if (!distinct.contains(key)) {
+          distinct += key.copy()
+        }
+    }
+    distinct.toArray
+  }
+
+  /**
+   * Deserializes the `numBatches` serialized batches of a build side relation with the given
+   * runtime, and returns the handles of the native batches. The caller is responsible for closing
+   * them.
+   *
+   * @param deserializeBatch
+   *   deserializes the batch of the given index with the given serializer
+   */
+  def deserializeToHandles(runtime: Runtime, output: Seq[Attribute], numBatches: Int)(
+      deserializeBatch: (ColumnarBatchSerializerJniWrapper, Long, Int) => Long): Seq[Long] = {
+    val jniWrapper = ColumnarBatchSerializerJniWrapper.create(runtime)
+    val serializeHandle: Long = {
+      val allocator = ArrowBufferAllocators.contextInstance()
+      val cSchema = ArrowSchema.allocateNew(allocator)
+      val arrowSchema = SparkArrowUtil.toArrowSchema(
+        SparkShimLoader.getSparkShims.structFromAttributes(output),
+        SQLConf.get.sessionLocalTimeZone)
+      ArrowAbiUtil.exportSchema(allocator, arrowSchema, cSchema)
+      val handle = jniWrapper.init(cSchema.memoryAddress())
+      cSchema.close()
+      handle
+    }
+    val handles = ArrayBuffer[Long]()
+    try {
+      (0 until numBatches).foreach {
+        batchId => handles += deserializeBatch(jniWrapper, serializeHandle, batchId)
+      }
+      handles.toSeq
+    } catch {
+      case t: Throwable =>
+        handles.foreach(ColumnarBatchJniWrapper.close)
+        throw t
+    } finally {
+      jniWrapper.close(serializeHandle)
+    }
+  }
 }
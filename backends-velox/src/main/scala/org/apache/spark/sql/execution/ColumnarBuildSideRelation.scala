@@ -20,7 +20,7 @@ import org.apache.gluten.backendsapi.BackendsApiManager
 import org.apache.gluten.columnarbatch.ColumnarBatches
 import org.apache.gluten.iterator.Iterators
 import org.apache.gluten.memory.arrow.alloc.ArrowBufferAllocators
-import org.apache.gluten.runtime.Runtimes
+import org.apache.gluten.runtime.{Runtime, Runtimes}
 import org.apache.gluten.sql.shims.SparkShimLoader
 import org.apache.gluten.utils.ArrowAbiUtil
 import org.apache.gluten.vectorized.{ColumnarBatchSerializerJniWrapper, NativeColumnarToRowInfo, NativeColumnarToRowJniWrapper}
@@ -94,6 +94,17 @@ case class ColumnarBuildSideRelation(
       .create()
   }
 
+  /**
+   * Deserializes all the batches with the given runtime, and returns the handles of the native
+   * batches. The caller is responsible for closing them.
+   */
+  def deserializeToHandles(runtime: Runtime): Seq[Long] = {
+    BroadcastUtils.deserializeToHandles(runtime, output, batches.length) {
+      (jniWrapper, serializeHandle, batchId) =>
+        jniWrapper.deserialize(serializeHandle, batches(batchId))
+    }
+  }
+
   override def asReadOnlyCopy(): ColumnarBuildSideRelation = this
 
   /**
@@ -102,6 +113,7 @@ case class ColumnarBuildSideRelation(
    * NOTE:
    *   - This method was called in Spark Driver, should manage resources carefully.
    *   - The "key" must be already been bound reference.
+   *   - The returned keys are distinct.
    */
   override def transform(key: Expression): Array[InternalRow] = TaskResources.runUnsafe {
     val runtime =
@@ -123,6 +135,7 @@ case class ColumnarBuildSideRelation(
     var closed = false
 
     val proj = UnsafeProjection.create(Seq(key))
+    val transformProj = transformProjection
 
     // Convert columnar to Row.
     val jniWrapper = NativeColumnarToRowJniWrapper.create(runtime)
@@ -189,7 +202,7 @@ case class ColumnarBuildSideRelation(
                 rowId += 1
                 row
               }
-            }.map(transformProjection).map(proj).map(_.copy())
+            }.map(transformProj).map(proj)
           }
         }
       }
@@ -197,6 +210,6 @@ case class ColumnarBuildSideRelation(
     } else {
       Iterator.empty
     }
-    iterator.toArray
+    BroadcastUtils.distinctKeys(iterator)
   }
 }
@@ -17,7 +17,7 @@
 package org.apache.spark.sql.execution
 
 import org.apache.gluten.backendsapi.BackendsApiManager
-import org.apache.gluten.columnarbatch.{ColumnarBatches, VeloxColumnarBatches}
+import org.apache.gluten.columnarbatch.{ColumnarBatches, VeloxColumnarBatches, VeloxColumnarBatchJniWrapper}
 import org.apache.gluten.config.GlutenConfig
 import org.apache.gluten.execution.{RowToVeloxColumnarExec, VeloxColumnarToRowExec}
 import org.apache.gluten.iterator.Iterators
@@ -29,11 +29,11 @@ import org.apache.gluten.vectorized.ColumnarBatchSerializerJniWrapper
 import org.apache.spark.internal.Logging
 import org.apache.spark.rdd.RDD
 import org.apache.spark.sql.catalyst.InternalRow
-import org.apache.spark.sql.catalyst.expressions.{Attribute, Expression}
-import org.apache.spark.sql.columnar.{CachedBatch, CachedBatchSerializer}
+import org.apache.spark.sql.catalyst.expressions.{Attribute, Expression, GenericInternalRow, IsNotNull, IsNull}
+import org.apache.spark.sql.columnar.{CachedBatch, CachedBatchSerializer, SimpleMetricsCachedBatch}
 import org.apache.spark.sql.execution.columnar.DefaultCachedBatchSerializer
 import org.apache.spark.sql.internal.SQLConf
-import org.apache.spark.sql.types.{StructField, StructType}
+import org.apache.spark.sql.types._
 import org.apache.spark.sql.utils.SparkArrowUtil
 import org.apache.spark.sql.vectorized.ColumnarBatch
 import org.apache.spark.storage.StorageLevel
@@ -43,14 +43,15 @@ import org.apache.arrow.c.ArrowSchema
 case class CachedColumnarBatch(
     override val numRows: Int,
     override val sizeInBytes: Long,
-    bytes: Array[Byte])
-  extends CachedBatch {}
+    bytes: Array[Byte],
+    stats: InternalRow)
+  extends SimpleMetricsCachedBatch {}
 
 // format: off
 /**
  * Feature:
  * 1. This serializer supports column pruning
- * 2. TODO: support push down filter
+ * 2. This serializer supports filter push down, using per batch statistics collected natively
  * 3. Super TODO: support store offheap object directly
  *
  * The data transformation pipeline:
@@ -169,15 +170,18 @@ class ColumnarCachedBatchSerializer extends CachedBatchSerializer with Logging {
 
           override def next(): CachedBatch = {
             val batch = veloxBatches.next()
-            val results =
-              ColumnarBatchSerializerJniWrapper
-                .create(
-                  Runtimes.contextInstance(
-                    BackendsApiManager.getBackendName,
-                    "ColumnarCachedBatchSerializer#serialize"))
-                .serialize(
-                  ColumnarBatches.getNativeHandle(BackendsApiManager.getBackendName, batch))
-            CachedColumnarBatch(batch.numRows(), results.length, results)
+            val runtime = Runtimes.contextInstance(
+              BackendsApiManager.getBackendName,
+              "ColumnarCachedBatchSerializer#serialize")
+            val handle =
+              ColumnarBatches.getNativeHandle(BackendsApiManager.getBackendName, batch)
+            val results = ColumnarBatchSerializerJniWrapper.create(runtime).serialize(handle)
+            val stats = VeloxColumnarBatchJniWrapper.create(runtime).collectStats(handle)
+            CachedColumnarBatch(
+              batch.numRows(),
+              results.length,
+              results,
+              ColumnarCachedBatchSerializer.toStatsRow(stats, schema, batch.numRows()))
           }
         }
     }
@@ -246,7 +250,61 @@ class ColumnarCachedBatchSerializer extends CachedBatchSerializer with Logging {
   override def buildFilter(
       predicates: Seq[Expression],
       cachedAttributes: Seq[Attribute]): (Int, Iterator[CachedBatch]) => Iterator[CachedBatch] = {
-    // TODO, support build filter as we did not support collect min/max value for columnar batch
-    (_, it) => it
+    if (!validateSchema(cachedAttributes)) {
+      rowBasedCachedBatchSerializer.buildFilter(predicates, cachedAttributes)
+    } else {
+      // The stats have the same layout as vanilla Spark's, so its filter is reused. Bounds are only
+      // collected for some types, predicates that may need other bounds are not used for pruning.
+      val supportedPredicates = predicates.filter {
+        case IsNull(_: Attribute) | IsNotNull(_: Attribute) => true
+        case p => p.references.forall(a => ColumnarCachedBatchSerializer.hasBounds(a.dataType))
+      }
+      rowBasedCachedBatchSerializer.buildFilter(supportedPredicates, cachedAttributes)
+    }
+  }
+}
+
+object ColumnarCachedBatchSerializer {
+  private val NUM_STATS_SLOTS = 4
+
+  /** Whether [[VeloxColumnarBatchJniWrapper#collectStats]] collects bounds for the type. */
+  def hasBounds(dataType: DataType): Boolean = dataType match {
+    case BooleanType | ByteType | ShortType | IntegerType | LongType | FloatType | DoubleType |
+        DateType | TimestampType =>
+      true
+    case _ => false
+  }
+
+  /**
+   * Converts the native stats to a row laid out as vanilla Spark's `PartitionStatistics`: lower
+   * bound, upper bound, null count, row count and size in bytes for each column.
+   */
+  private[execution] def toStatsRow(
+      stats: Array[Long],
+      schema: Seq[Attribute],
+      numRows: Int): InternalRow = {
+    val values = schema.zipWithIndex.flatMap {
+      case (attr, i) =>
+        val offset = i * NUM_STATS_SLOTS
+        val (lower, upper) = if (hasBounds(attr.dataType) && stats(offset) == 1) {
+          (
+            decodeBound(stats(offset + 1), attr.dataType),
+            decodeBound(stats(offset + 2), attr.dataType))
+        } else {
+          (null, null)
+        }
+        Seq(lower, upper, stats(offset + 3).toInt, numRows, 0L)
+    }
+    new GenericInternalRow(values.toArray[Any])
+  }
+
+  private def decodeBound(value: Long, dataType: DataType): Any = dataType match {
+    case BooleanType => value != 0
+    case ByteType => value.toByte
+    case ShortType => value.toShort
+    case IntegerType | DateType => value.toInt
+    case LongType | TimestampType => value
+    case FloatType => java.lang.Double.longBitsToDouble(value).toFloat
+    case DoubleType => java.lang.Double.longBitsToDouble(value)
   }
 }
@@ -20,7 +20,7 @@ import org.apache.gluten.backendsapi.BackendsApiManager
 import org.apache.gluten.columnarbatch.ColumnarBatches
 import org.apache.gluten.iterator.Iterators
 import org.apache.gluten.memory.arrow.alloc.ArrowBufferAllocators
-import org.apache.gluten.runtime.Runtimes
+import org.apache.gluten.runtime.{Runtime, Runtimes}
 import org.apache.gluten.sql.shims.SparkShimLoader
 import org.apache.gluten.utils.ArrowAbiUtil
 import org.apache.gluten.vectorized.{ColumnarBatchSerializerJniWrapper, NativeColumnarToRowInfo, NativeColumnarToRowJniWrapper}
@@ -30,6 +30,7 @@ import org.apache.spark.internal.Logging
 import org.apache.spark.sql.catalyst.InternalRow
 import org.apache.spark.sql.catalyst.expressions.{Attribute, Expression, UnsafeProjection, UnsafeRow}
 import org.apache.spark.sql.catalyst.plans.physical.{BroadcastMode, IdentityBroadcastMode}
+import org.apache.spark.sql.execution.BroadcastUtils
 import org.apache.spark.sql.execution.joins.{BuildSideRelation, HashedRelationBroadcastMode}
 import org.apache.spark.sql.internal.SQLConf
 import org.apache.spark.sql.utils.SparkArrowUtil
@@ -203,6 +204,18 @@ case class UnsafeColumnarBuildSideRelation(
       .create()
   }
 
+  /**
+   * Deserializes all the batches with the given runtime, and returns the handles of the native
+   * batches. The caller is responsible for closing them.
+   */
+  def deserializeToHandles(runtime: Runtime): Seq[Long] = {
+    BroadcastUtils.deserializeToHandles(runtime, output, batches.arraySize) {
+      (jniWrapper, serializeHandle, batchId) =>
+        val (offset, length) = batches.getBytesBufferOffsetAndLength(batchId)
+        jniWrapper.deserializeDirect(serializeHandle, offset, length)
+    }
+  }
+
   override def asReadOnlyCopy(): UnsafeColumnarBuildSideRelation = this
 
   override def transform(key: Expression): Array[InternalRow] = TaskResources.runUnsafe {
@@ -227,6 +240,7 @@ case class UnsafeColumnarBuildSideRelation(
     var closed = false
 
     val proj = UnsafeProjection.create(Seq(key))
+    val transformProj = transformProjection
 
     // Convert columnar to Row.
     val jniWrapper = NativeColumnarToRowJniWrapper.create(runtime)
@@ -293,7 +307,7 @@ case class UnsafeColumnarBuildSideRelation(
                 rowId += 1
                 row
               }
-            }.map(transformProjection).map(proj).map(_.copy())
+            }.map(transformProj).map(proj)
           }
         }
       }
@@ -301,6 +315,6 @@ case class UnsafeColumnarBuildSideRelation(
     } else {
       Iterator.empty
     }
-    iterator.toArray
+    BroadcastUtils.distinctKeys(iterator)
   }
 }
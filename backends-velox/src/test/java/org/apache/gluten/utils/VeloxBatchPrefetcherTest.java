@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.utils;
+
+import org.apache.gluten.backendsapi.BackendsApiManager;
+import org.apache.gluten.columnarbatch.ColumnarBatches;
+import org.apache.gluten.memory.arrow.alloc.ArrowBufferAllocators;
+import org.apache.gluten.test.VeloxBackendTestBase;
+import org.apache.gluten.vectorized.ArrowWritableColumnVector;
+
+import org.apache.spark.sql.execution.metric.SQLMetric;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+import org.apache.spark.task.TaskResources$;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+public class VeloxBatchPrefetcherTest extends VeloxBackendTestBase {
+  private static final String THREAD_NAME_PREFIX = "Gluten-VeloxBatchPrefetcher-";
+
+  @Test
+  public void testPrefetchAllBatches() {
+    TaskResources$.MODULE$.runUnsafe(
+        () -> {
+          final Upstream upstream = new Upstream(10);
+          final Iterator<ColumnarBatch> it = prefetch(upstream, 2, Long.MAX_VALUE, newMetric());
+          for (int i = 1; i <= 10; i++) {
+            Assert.assertTrue(it.hasNext());
+            Assert.assertEquals(i, it.next().numRows());
+          }
+          Assert.assertFalse(it.hasNext());
+          Assert.assertFalse(it.hasNext());
+          upstream.closeLast();
+          return null;
+        });
+  }
+
+  @Test
+  public void testQueueIsBounded() {
+    TaskResources$.MODULE$.runUnsafe(
+        () -> {
+          final Upstream upstream = new Upstream(100);
+          final Iterator<ColumnarBatch> it = prefetch(upstream, 2, Long.MAX_VALUE, newMetric());
+          Assert.assertTrue(it.hasNext());
+          waitFor(() -> upstream.pulled.get() >= 3);
+          sleep(200L);
+          // The batch handed to the consumer, the queued ones and one waiting to be queued.
+          Assert.assertTrue(upstream.pulled.get() <= 4);
+          checkRemaining(it, 100);
+          upstream.closeLast();
+          return null;
+        });
+  }
+
+  @Test
+  public void testQueuedBytesAreBounded() {
+    TaskResources$.MODULE$.runUnsafe(
+        () -> {
+          final Upstream upstream = new Upstream(20);
+          final SQLMetric producerWaitTime = newMetric();
+          final Iterator<ColumnarBatch> it = prefetch(upstream, 8, 1L, producerWaitTime);
+          Assert.assertTrue(it.hasNext());
+          waitFor(() -> upstream.pulled.get() >= 3);
+          sleep(200L);
+          // Only one batch is queued at a time since each one exceeds the budget on its own.
+          Assert.assertTrue(upstream.pulled.get() <= 3);
+          Assert.assertTrue(producerWaitTime.value() > 0);
+          checkRemaining(it, 20);
+          upstream.closeLast();
+          return null;
+        });
+  }
+
+  @Test
+  public void testUpstreamError() {
+    TaskResources$.MODULE$.runUnsafe(
+        () -> {
+          final Upstream upstream =
+              new Upstream(10) {
+                @Override
+                public ColumnarBatch next() {
+                  if (pulled.get() == 3) {
+                    throw new IllegalStateException("upstream failure");
+                  }
+                  return super.next();
+                }
+              };
+          final Iterator<ColumnarBatch> it = prefetch(upstream, 2, Long.MAX_VALUE, newMetric());
+          for (int i = 1; i <= 3; i++) {
+            Assert.assertEquals(i, it.next().numRows());
+          }
+          Assert.assertThrows("upstream failure", IllegalStateException.class, it::hasNext);
+          upstream.closeLast();
+          return null;
+        });
+  }
+
+  @Test
+  public void testStopOnTaskCompletion() {
+    final AtomicBoolean blocked = new AtomicBoolean(false);
+    final Upstream upstream =
+        new Upstream(Integer.MAX_VALUE) {
+          @Override
+          public ColumnarBatch next() {
+            if (pulled.get() == 2) {
+              // Blocks until the prefetcher interrupts the producer on task completion.
+              blocked.set(true);
+              sleep(TimeUnit.MINUTES.toMillis(10));
+            }
+            return super.next();
+          }
+        };
+    final long start = System.nanoTime();
+    TaskResources$.MODULE$.runUnsafe(
+        () -> {
+          final Iterator<ColumnarBatch> it = prefetch(upstream, 4, Long.MAX_VALUE, newMetric());
+          Assert.assertEquals(1, it.next().numRows());
+          waitFor(blocked::get);
+          upstream.closeLast();
+          return null;
+        });
+    // The producer was interrupted rather than waited for until the upstream returned.
+    Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    Assert.assertTrue(
+        Thread.getAllStackTraces().keySet().stream()
+            .noneMatch(t -> t.getName().startsWith(THREAD_NAME_PREFIX) && t.isAlive()));
+  }
+
+  @Test
+  public void testCloseWaitsForUpstream() {
+    final AtomicBoolean inNext = new AtomicBoolean(false);
+    final Upstream upstream =
+        new Upstream(Integer.MAX_VALUE) {
+          @Override
+          public ColumnarBatch next() {
+            if (pulled.get() == 2) {
+              // Ignores the interrupt, like a native call would.
+              inNext.set(true);
+              final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+              while (System.nanoTime() < deadline) {
+                Thread.interrupted();
+              }
+              inNext.set(false);
+              throw new IllegalStateException("upstream was closed");
+            }
+            return super.next();
+          }
+        };
+    TaskResources$.MODULE$.runUnsafe(
+        () -> {
+          final Iterator<ColumnarBatch> it = prefetch(upstream, 4, Long.MAX_VALUE, newMetric());
+          Assert.assertEquals(1, it.next().numRows());
+          waitFor(inNext::get);
+          upstream.closeLast();
+          return null;
+        });
+    // The task's resources are only released once the producer left the upstream iterator.
+    Assert.assertFalse(inNext.get());
+  }
+
+  @Test
+  public void testReserveQueuedBatches() {
+    TaskResources$.MODULE$.runUnsafe(
+        () -> {
+          final Upstream upstream = new Upstream(10);
+          final VeloxBatchPrefetcher it =
+              (VeloxBatchPrefetcher) prefetch(upstream, 2, Long.MAX_VALUE, newMetric());
+          Assert.assertTrue(it.hasNext());
+          waitFor(() -> it.reservedBytes() > 0);
+          checkRemaining(it, 10);
+          Assert.assertEquals(0L, it.reservedBytes());
+          upstream.closeLast();
+          return null;
+        });
+  }
+
+  private static Iterator<ColumnarBatch> prefetch(
+      Iterator<ColumnarBatch> upstream,
+      int numBatches,
+      long maxBytes,
+      SQLMetric producerWaitTime) {
+    return VeloxBatchPrefetcher.create(
+        BackendsApiManager.getBackendName(),
+        upstream,
+        numBatches,
+        maxBytes,
+        producerWaitTime,
+        newMetric());
+  }
+
+  private static void checkRemaining(Iterator<ColumnarBatch> it, int numBatches) {
+    for (int i = 1; i <= numBatches; i++) {
+      Assert.assertTrue(it.hasNext());
+      Assert.assertEquals(i, it.next().numRows());
+    }
+    Assert.assertFalse(it.hasNext());
+  }
+
+  private static SQLMetric newMetric() {
+    return new SQLMetric("nsTiming", 0L);
+  }
+
+  private static void waitFor(BooleanSupplier condition) {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!condition.getAsBoolean()) {
+      Assert.assertTrue("Timed out waiting for the prefetcher", System.nanoTime() < deadline);
+      sleep(10L);
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+
+  /** Emits batches of 1, 2, 3... rows and closes each one once the next one is asked for. */
+  private static class Upstream implements Iterator<ColumnarBatch> {
+    protected final AtomicInteger pulled = new AtomicInteger(0);
+    private final int numBatches;
+    private ColumnarBatch last = null;
+
+    private Upstream(int numBatches) {
+      this.numBatches = numBatches;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return pulled.get() < numBatches;
+    }
+
+    @Override
+    public ColumnarBatch next() {
+      closeLast();
+      last = newBatch(pulled.incrementAndGet());
+      return last;
+    }
+
+    private void closeLast() {
+      if (last != null) {
+        last.close();
+        last = null;
+      }
+    }
+  }
+
+  private static ColumnarBatch newBatch(int numRows) {
+    final ArrowWritableColumnVector[] columns =
+        ArrowWritableColumnVector.allocateColumns(numRows, StructType.fromDDL("a bigint"));
+    for (ArrowWritableColumnVector col : columns) {
+      col.setValueCount(numRows);
+    }
+    final ColumnarBatch batch = new ColumnarBatch(columns);
+    batch.setNumRows(numRows);
+    return ColumnarBatches.offload(ArrowBufferAllocators.contextInstance(), batch);
+  }
+}
@@ -16,8 +16,10 @@
  */
 package org.apache.gluten.utils;
 
+import org.apache.gluten.memory.arrow.alloc.ArrowBufferAllocators;
 import org.apache.gluten.test.VeloxBackendTestBase;
 
+import org.apache.arrow.vector.BigIntVector;
 import org.apache.spark.task.TaskResources$;
 import org.apache.spark.util.sketch.BloomFilter;
 import org.apache.spark.util.sketch.IncompatibleMergeException;
@@ -26,6 +28,7 @@ import org.junit.Test;
 import org.junit.function.ThrowingRunnable;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 public class VeloxBloomFilterTest extends VeloxBackendTestBase {
   @Test
@@ -154,6 +157,114 @@ public class VeloxBloomFilterTest extends VeloxBackendTestBase {
         });
   }
 
+  @Test
+  public void testBatch() {
+    TaskResources$.MODULE$.runUnsafe(
+        () -> {
+          final VeloxBloomFilter filter = VeloxBloomFilter.empty(10000);
+          final long[] items = new long[2000];
+          for (int i = 0; i < items.length; i++) {
+            items[i] = i - 1000;
+          }
+          // Only the first half is inserted.
+          filter.putLongs(items, 1000);
+          final boolean[] out = filter.mightContainLongs(items);
+          for (int i = 0; i < items.length; i++) {
+            Assert.assertEquals(filter.mightContainLong(items[i]), out[i]);
+          }
+          for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(out[i]);
+          }
+          return null;
+        });
+  }
+
+  @Test
+  public void testArrowVector() {
+    TaskResources$.MODULE$.runUnsafe(
+        () -> {
+          final VeloxBloomFilter filter = VeloxBloomFilter.empty(10000);
+          try (BigIntVector vector =
+              new BigIntVector("items", ArrowBufferAllocators.contextInstance())) {
+            vector.allocateNew(1000);
+            for (int i = 0; i < 1000; i++) {
+              if (i % 2 == 0) {
+                vector.set(i, i);
+              } else {
+                vector.setNull(i);
+              }
+            }
+            vector.setValueCount(1000);
+            filter.putLongs(vector);
+            final boolean[] out = new boolean[1000];
+            filter.mightContainLongs(vector, out);
+            for (int i = 0; i < 1000; i++) {
+              if (i % 2 == 0) {
+                Assert.assertTrue(filter.mightContainLong(i));
+                Assert.assertTrue(out[i]);
+              } else {
+                Assert.assertFalse(out[i]);
+              }
+            }
+          }
+          return null;
+        });
+  }
+
+  @Test
+  public void testReadFromDirectBuffer() {
+    TaskResources$.MODULE$.runUnsafe(
+        () -> {
+          final VeloxBloomFilter filter = VeloxBloomFilter.empty(10000);
+          for (int i = 0; i < 1000; i++) {
+            filter.putLong(i);
+          }
+          final byte[] data = filter.serialize();
+          final ByteBuffer buf = ByteBuffer.allocateDirect(data.length);
+          buf.put(data);
+          buf.flip();
+
+          final VeloxBloomFilter filter2 = VeloxBloomFilter.readFrom(buf);
+          Assert.assertArrayEquals(data, filter2.serialize());
+          return null;
+        });
+  }
+
+  @Test
+  public void testReadTruncated() {
+    TaskResources$.MODULE$.runUnsafe(
+        () -> {
+          final VeloxBloomFilter filter = VeloxBloomFilter.empty(10000);
+          filter.putLong(1);
+          final byte[] data = filter.serialize();
+          // The header announces one more word than the bytes hold.
+          final byte[] truncated = Arrays.copyOf(data, data.length - 8);
+          final ByteBuffer buf = ByteBuffer.allocateDirect(truncated.length);
+          buf.put(truncated);
+          buf.flip();
+          Assert.assertThrows(RuntimeException.class, () -> VeloxBloomFilter.readFrom(buf));
+          Assert.assertThrows(RuntimeException.class, () -> VeloxBloomFilter.readFrom(truncated));
+          return null;
+        });
+  }
+
+  @Test
+  public void testBitSizeAndExpectedFpp() {
+    TaskResources$.MODULE$.runUnsafe(
+        () -> {
+          final VeloxBloomFilter filter = VeloxBloomFilter.empty(10000);
+          Assert.assertTrue(filter.bitSize() > 0);
+          Assert.assertEquals(filter.bitSize() % 64, 0);
+          Assert.assertEquals(0.0, filter.expectedFpp(), 0.0);
+          for (int i = 0; i < 1000; i++) {
+            filter.putLong(i);
+          }
+          final double fpp = filter.expectedFpp();
+          Assert.assertTrue(fpp > 0.0 && fpp < 1.0);
+          return null;
+        });
+  }
+
   private static void checkFalsePositives(BloomFilter filter, int start) {
     final int attemptStart = start;
     final int attemptCount = 5000000;
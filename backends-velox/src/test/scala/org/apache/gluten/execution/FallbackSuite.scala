@@ -270,4 +270,38 @@ class FallbackSuite extends VeloxWholeStageTransformerSuite with AdaptiveSparkPl
       }
     }
   }
+
+  test("reuse native validation results of repeated queries") {
+    NativeValidationCache.invalidateAll()
+    runQueryAndCompare("select c1, c2 + 1 from tmp1 where c2 > 10") { _ => }
+    val stats = NativeValidationCache.stats()
+    runQueryAndCompare("select c1, c2 + 1 from tmp1 where c2 > 10") { _ => }
+    val newStats = NativeValidationCache.stats()
+    assert(newStats.hitCount() > stats.hitCount())
+    assert(newStats.missCount() == stats.missCount())
+  }
+
+  test("reuse native validation results of queries differing in compared literals") {
+    NativeValidationCache.invalidateAll()
+    runQueryAndCompare("select c1, c2 + 1 from tmp1 where c2 > 10") { _ => }
+    val stats = NativeValidationCache.stats()
+    runQueryAndCompare("select c1, c2 + 2 from tmp1 where c2 > 20") { _ => }
+    val newStats = NativeValidationCache.stats()
+    assert(newStats.hitCount() > stats.hitCount())
+    assert(newStats.missCount() == stats.missCount())
+  }
+
+  test("don't reuse native validation results of plans differing in a checked literal") {
+    NativeValidationCache.invalidateAll()
+    def collectProjectTransformer(plan: SparkPlan): Int = {
+      collect(plan) { case p: ProjectExecTransformer => p }.size
+    }
+    runQueryAndCompare("select c1, round(c1, 2) from tmp1") {
+      df => assert(collectProjectTransformer(df.queryExecution.executedPlan) == 1)
+    }
+    // Velox rejects a negative scale of round, so the cached result of the first plan won't do
+    runQueryAndCompare("select c1, round(c1, -1) from tmp1") {
+      df => assert(collectProjectTransformer(df.queryExecution.executedPlan) == 0)
+    }
+  }
 }
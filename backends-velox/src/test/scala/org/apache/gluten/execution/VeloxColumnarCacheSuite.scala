@@ -21,9 +21,10 @@ import org.apache.gluten.utils.PlanUtil
 
 import org.apache.spark.SparkConf
 import org.apache.spark.sql.Row
-import org.apache.spark.sql.execution.{ColumnarToRowExec, SparkPlan}
+import org.apache.spark.sql.catalyst.expressions.{EqualTo, Literal}
+import org.apache.spark.sql.execution.{CachedColumnarBatch, ColumnarToRowExec, SparkPlan}
 import org.apache.spark.sql.execution.adaptive.AdaptiveSparkPlanHelper
-import org.apache.spark.sql.execution.columnar.InMemoryTableScanExec
+import org.apache.spark.sql.execution.columnar.{InMemoryRelation, InMemoryTableScanExec}
 import org.apache.spark.sql.types.{LongType, Metadata, MetadataBuilder, StructType}
 import org.apache.spark.storage.StorageLevel
 
@@ -236,4 +237,45 @@ class VeloxColumnarCacheSuite extends VeloxWholeStageTransformerSuite with Adapt
       }
     }
   }
+
+  test("Prune cached batches by statistics") {
+    withTempPath {
+      path =>
+        spark
+          .range(1000)
+          .selectExpr("id as c1", "cast(id as double) as c2", "cast(id as string) as c3")
+          .coalesce(1)
+          .write
+          .parquet(path.getCanonicalPath)
+
+        withSQLConf(GlutenConfig.COLUMNAR_MAX_BATCH_SIZE.key -> "100") {
+          val df = spark.read.parquet(path.getCanonicalPath).cache()
+          try {
+            checkAnswer(df.filter("c1 = 150"), Row(150L, 150.0, "150"))
+            checkAnswer(
+              df.filter("c2 > 997.5"),
+              Row(998L, 998.0, "998") :: Row(999L, 999.0, "999") :: Nil)
+            checkAnswer(df.filter("c3 = '150'"), Row(150L, 150.0, "150"))
+
+            val relation = df.queryExecution.withCachedData.collectFirst {
+              case r: InMemoryRelation => r
+            }.get
+            val batches = relation.cacheBuilder.cachedColumnBuffers.collect()
+            assert(batches.length > 1)
+            assert(batches.forall(_.isInstanceOf[CachedColumnarBatch]))
+
+            val serializer = relation.cacheBuilder.serializer
+            val Seq(c1, _, c3) = relation.output
+            val byLong = serializer.buildFilter(Seq(EqualTo(c1, Literal(150L))), relation.output)
+            assert(byLong(0, batches.iterator).size < batches.length)
+            // No bounds are collected for strings.
+            val byString =
+              serializer.buildFilter(Seq(EqualTo(c3, Literal("150"))), relation.output)
+            assert(byString(0, batches.iterator).size == batches.length)
+          } finally {
+            df.unpersist()
+          }
+        }
+    }
+  }
 }
@@ -21,9 +21,11 @@ import org.apache.gluten.sql.shims.SparkShimLoader
 
 import org.apache.spark.SparkConf
 import org.apache.spark.sql.Row
-import org.apache.spark.sql.catalyst.expressions.{Alias, AttributeReference}
+import org.apache.spark.sql.catalyst.expressions.{Alias, AttributeReference, BoundReference}
 import org.apache.spark.sql.execution.{ColumnarBroadcastExchangeExec, ColumnarSubqueryBroadcastExec, InputIteratorTransformer}
 import org.apache.spark.sql.execution.exchange.{BroadcastExchangeExec, ReusedExchangeExec}
+import org.apache.spark.sql.execution.joins.BuildSideRelation
+import org.apache.spark.sql.types.LongType
 
 class VeloxHashJoinSuite extends VeloxWholeStageTransformerSuite {
   override protected val resourcePath: String = "/tpch-data-parquet"
@@ -154,6 +156,41 @@ class VeloxHashJoinSuite extends VeloxWholeStageTransformerSuite {
         })
   }
 
+  test("Broadcast build side cache") {
+    Seq("true", "false").foreach(
+      enabledOffheapBroadcast =>
+        Seq("1GB", "1B").foreach(
+          maxBytes =>
+            withSQLConf(
+              VeloxConfig.VELOX_BROADCAST_BUILD_RELATION_USE_OFFHEAP.key -> enabledOffheapBroadcast,
+              VeloxConfig.VELOX_BROADCAST_BUILD_SIDE_CACHE_ENABLED.key -> "true",
+              VeloxConfig.VELOX_BROADCAST_BUILD_SIDE_CACHE_MAX_BYTES.key -> maxBytes
+            ) {
+              withTable("t1", "t2") {
+                spark.range(100).selectExpr("id as c1").repartition(4).write.saveAsTable("t1")
+                spark.range(10).selectExpr("id as c1", "id * 2 as c2").write.saveAsTable("t2")
+
+                val df = spark.sql("SELECT t1.c1, t2.c2 FROM t1 JOIN t2 ON t1.c1 = t2.c1")
+                checkAnswer(df, (0 until 10).map(i => Row(i.toLong, i.toLong * 2)))
+
+                val join = collect(df.queryExecution.executedPlan) {
+                  case j: BroadcastHashJoinExecTransformer => j
+                }.head
+                val hits = join.metrics(VeloxBroadcastBuildSideCache.HITS).value
+                val misses = join.metrics(VeloxBroadcastBuildSideCache.MISSES).value
+                // Every task either hits or misses the cache.
+                assert(hits + misses >= df.queryExecution.executedPlan.execute().getNumPartitions)
+                if (maxBytes == "1GB") {
+                  // Deserialized once, then shared by the other tasks.
+                  assert(misses == 1)
+                } else {
+                  // Evicted once no task reads it.
+                  assert(misses >= 1)
+                }
+              }
+            }))
+  }
+
   test("ColumnarBuildSideRelation with small columnar to row memory") {
     Seq("true", "false").foreach(
       enabledOffheapBroadcast =>
@@ -230,6 +267,34 @@ class VeloxHashJoinSuite extends VeloxWholeStageTransformerSuite {
         })
   }
 
+  test("ColumnarBuildSideRelation transform returns distinct keys in order") {
+    Seq("true", "false").foreach(
+      enabledOffheapBroadcast =>
+        withSQLConf(
+          VeloxConfig.VELOX_BROADCAST_BUILD_RELATION_USE_OFFHEAP.key -> enabledOffheapBroadcast) {
+          withTable("t1", "t2") {
+            spark.range(10).selectExpr("id as c1").write.saveAsTable("t1")
+            // Keys 2, 0, 1, 2, 0, 1, ... in a single file, so the build side keeps this order.
+            spark
+              .range(12)
+              .selectExpr("(id + 2) % 3 as c1", "id as c2")
+              .coalesce(1)
+              .write
+              .saveAsTable("t2")
+
+            val df = spark.sql(
+              "SELECT /*+ BROADCAST(t2) */ t1.c1, t2.c2 FROM t1 JOIN t2 ON t1.c1 = t2.c1")
+            df.collect()
+            val exchange = collect(df.queryExecution.executedPlan) {
+              case e: ColumnarBroadcastExchangeExec => e
+            }.head
+            val relation = exchange.executeBroadcast[BuildSideRelation]().value
+            val keys = relation.transform(BoundReference(0, LongType, nullable = true))
+            assert(keys.map(_.getLong(0)).toSeq == Seq(2L, 0L, 1L))
+          }
+        })
+  }
+
   test("pull out duplicate projections for HashProbe and FilterProject") {
     withTable("t1", "t2", "t3") {
       Seq((1, 1), (2, 2)).toDF("c1", "c2").write.saveAsTable("t1")
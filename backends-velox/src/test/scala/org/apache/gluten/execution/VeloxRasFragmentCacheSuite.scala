@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.execution
+
+import org.apache.gluten.config.{GlutenConfig, GlutenCoreConfig}
+import org.apache.gluten.extension.columnar.enumerated.EnumeratedTransform
+
+import org.apache.spark.SparkConf
+import org.apache.spark.sql.execution.adaptive.{AdaptiveSparkPlanExec, QueryStageExec}
+import org.apache.spark.sql.functions.col
+import org.apache.spark.sql.internal.SQLConf
+
+class VeloxRasFragmentCacheSuite extends VeloxWholeStageTransformerSuite {
+  override protected val resourcePath: String = "/tpch-data-parquet"
+  override protected val fileFormat: String = "parquet"
+
+  override def beforeAll(): Unit = {
+    super.beforeAll()
+    spark
+      .range(100)
+      .selectExpr("cast(id % 3 as int) as c1", "id as c2")
+      .write
+      .format("parquet")
+      .saveAsTable("tmp1")
+  }
+
+  override protected def afterAll(): Unit = {
+    spark.sql("drop table tmp1")
+    super.afterAll()
+  }
+
+  override protected def sparkConf: SparkConf = super.sparkConf
+    .set(GlutenConfig.RAS_ENABLED.key, "true")
+    .set(GlutenCoreConfig.RAS_FRAGMENT_CACHE_ENABLED.key, "true")
+    .set(SQLConf.ADAPTIVE_EXECUTION_ENABLED.key, "true")
+
+  test("reuse the best plans of unchanged stages during AQE re-planning") {
+    val df = spark
+      .table("tmp1")
+      .where("c2 > 10")
+      .selectExpr("c1", "c2 + 1 as c3")
+      .repartition(4, col("c1"))
+    val expected = df.collect().toSeq
+
+    // A new query over the same analyzed plan, so AQE plans the same stages again.
+    val hits = EnumeratedTransform.fragmentCacheHits()
+    val replanned = df.select(df.columns.map(df.col): _*)
+    checkAnswer(replanned, expected)
+    assert(EnumeratedTransform.fragmentCacheHits() > hits)
+
+    // The stages built from the reused plans were submitted and ran.
+    val finalPlan = replanned.queryExecution.executedPlan match {
+      case aqe: AdaptiveSparkPlanExec => aqe.executedPlan
+    }
+    val stages = finalPlan.collect { case stage: QueryStageExec => stage }
+    assert(stages.nonEmpty)
+    assert(stages.forall(_.isMaterialized))
+  }
+}
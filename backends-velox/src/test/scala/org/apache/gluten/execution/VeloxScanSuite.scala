@@ -18,7 +18,7 @@ package org.apache.gluten.execution
 
 import org.apache.gluten.backendsapi.velox.VeloxBackendSettings
 import org.apache.gluten.benchmarks.RandomParquetDataGenerator
-import org.apache.gluten.config.GlutenConfig
+import org.apache.gluten.config.{GlutenConfig, VeloxConfig}
 import org.apache.gluten.utils.VeloxFileSystemValidationJniWrapper
 
 import org.apache.spark.SparkConf
@@ -207,4 +207,51 @@ class VeloxScanSuite extends VeloxWholeStageTransformerSuite {
         }
     }
   }
+
+  test("broadcast substrait plan around the threshold") {
+    withTempDir {
+      dir =>
+        val path = dir.getCanonicalPath
+        spark
+          .range(1000)
+          .selectExpr("id", "id % 7 as c")
+          .repartition(4)
+          .write
+          .mode("overwrite")
+          .parquet(path)
+
+        withSQLConf(SQLConf.FILES_MAX_PARTITION_BYTES.key -> "4k") {
+          val df = spark.read.parquet(path).filter("c > 2").selectExpr("id + c")
+          val expected = spark.range(1000).filter("id % 7 > 2").selectExpr("id + id % 7").collect()
+
+          def partitionsWithThreshold(threshold: Long): Seq[BaseGlutenPartition] = {
+            val thresholdKey = VeloxConfig.COLUMNAR_VELOX_PLAN_BROADCAST_THRESHOLD.key
+            var partitions: Seq[BaseGlutenPartition] = Seq.empty
+            withSQLConf(thresholdKey -> s"$threshold") {
+              val wst = getExecutedPlan(df).collectFirst { case w: WholeStageTransformer => w }.get
+              partitions = wst.executeColumnar().partitions.toSeq.map {
+                case p: FirstZippedPartitionsPartition =>
+                  p.inputPartition.asInstanceOf[BaseGlutenPartition]
+              }
+              checkAnswer(df, expected)
+            }
+            partitions
+          }
+
+          val disabled = partitionsWithThreshold(-1)
+          assert(disabled.size > 1)
+          assert(disabled.forall(_.isInstanceOf[GlutenPartition]))
+          val planSize = disabled.head.plan.length
+
+          // The plan is just below the threshold.
+          val below = partitionsWithThreshold(planSize + 1)
+          assert(below.forall(_.isInstanceOf[GlutenPartition]))
+
+          // The plan is just above the threshold.
+          val above = partitionsWithThreshold(planSize - 1)
+          assert(above.forall(_.isInstanceOf[BroadcastPlanGlutenPartition]))
+          assert(above.forall(_.plan.sameElements(disabled.head.plan)))
+        }
+    }
+  }
 }
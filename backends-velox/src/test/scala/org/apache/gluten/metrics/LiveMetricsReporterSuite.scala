@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.metrics
+
+import org.apache.gluten.exception.GlutenException
+
+import org.scalatest.funsuite.AnyFunSuite
+
+import java.util.concurrent.{CountDownLatch, TimeUnit}
+
+import scala.collection.mutable.ArrayBuffer
+
+class LiveMetricsReporterSuite extends AnyFunSuite {
+
+  /** Metrics with the given value per operator for every metric, peak memory included. */
+  private def metrics(values: Long*): Metrics = {
+    def a = values.toArray
+    new Metrics(a, a, a, a, a, a, a, a, a, a, 0L, a, a, a, a, a, a, a, a, a, a, a, a, a, a, a, a,
+      a, a, a, a, a, a, a, a, a, a)
+  }
+
+  private def sum(updates: Seq[Metrics], metric: Metrics => Array[Long]): Seq[Long] = {
+    updates.map(metric(_).toSeq).reduce((a, b) => a.zip(b).map { case (x, y) => x + y })
+  }
+
+  test("minus diffs counters and reports peak memory as an absolute value") {
+    val previous = metrics(2, 3)
+    val current = metrics(5, 7)
+
+    val delta = current.minus(previous, false)
+    assert(delta.inputRows.toSeq == Seq(3, 4))
+    assert(delta.spilledBytes.toSeq == Seq(3, 4))
+    assert(delta.peakMemoryBytes.toSeq == Seq(0, 0))
+
+    val last = current.minus(previous, true)
+    assert(last.outputRows.toSeq == Seq(3, 4))
+    assert(last.peakMemoryBytes.toSeq == Seq(5, 7))
+
+    val first = current.minus(null, false)
+    assert(first.inputRows.toSeq == Seq(5, 7))
+    assert(first.peakMemoryBytes.toSeq == Seq(0, 0))
+    assert(current.inputRows.toSeq == Seq(5, 7))
+  }
+
+  test("minus rejects metrics of a different pipeline") {
+    intercept[GlutenException](metrics(1, 2, 3).minus(metrics(1, 2), false))
+  }
+
+  test("live reports add up to the final metrics") {
+    val snapshots = Iterator(null, metrics(1, 1), metrics(3, 2))
+    val updates = new ArrayBuffer[Metrics]()
+    val reporter = new LiveMetricsReporter(
+      () => snapshots.next(),
+      () => metrics(4, 6),
+      m => updates += m.asInstanceOf[Metrics],
+      1,
+      0)
+    (0 until 3).foreach(_ => reporter.onBatch())
+    assert(updates.size == 2)
+    reporter.onComplete()
+
+    assert(updates.size == 3)
+    assert(sum(updates, _.inputRows) == Seq(4, 6))
+    assert(sum(updates, _.wallNanos) == Seq(4, 6))
+    assert(sum(updates, _.peakMemoryBytes) == Seq(4, 6))
+  }
+
+  test("report on a timer while the pipeline outputs no batches") {
+    val reported = new CountDownLatch(2)
+    val updates = new ArrayBuffer[Metrics]()
+    val reporter = new LiveMetricsReporter(
+      () => metrics(1),
+      () => metrics(1),
+      m =>
+        updates.synchronized {
+          updates += m.asInstanceOf[Metrics]
+          reported.countDown()
+        },
+      0,
+      10)
+    assert(reported.await(10, TimeUnit.SECONDS))
+    reporter.onComplete()
+    val count = updates.synchronized(updates.size)
+    Thread.sleep(50)
+
+    updates.synchronized {
+      // the timer stopped on completion
+      assert(updates.size == count)
+      // a single snapshot of 1 row and the final metrics of 1 row
+      assert(sum(updates, _.inputRows) == Seq(1))
+      assert(updates.last.peakMemoryBytes.toSeq == Seq(1))
+    }
+  }
+
+  test("fall back to a full final report for a different number of operators") {
+    val updates = new ArrayBuffer[Metrics]()
+    val reporter = new LiveMetricsReporter(
+      () => metrics(1, 1),
+      () => metrics(2, 2, 2),
+      m => updates += m.asInstanceOf[Metrics],
+      1,
+      0)
+    reporter.onBatch()
+    reporter.onComplete()
+
+    assert(updates.size == 2)
+    assert(updates.last.inputRows.toSeq == Seq(2, 2, 2))
+    assert(updates.last.peakMemoryBytes.toSeq == Seq(2, 2, 2))
+  }
+}
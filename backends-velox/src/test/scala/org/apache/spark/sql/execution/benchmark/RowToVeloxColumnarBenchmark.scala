@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.spark.sql.execution.benchmark
+
+import org.apache.gluten.execution.RowToVeloxColumnarExec
+
+import org.apache.spark.benchmark.Benchmark
+import org.apache.spark.sql.SparkSession
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.catalyst.expressions.{GenericInternalRow, UnsafeProjection}
+import org.apache.spark.sql.types._
+import org.apache.spark.task.TaskResources
+import org.apache.spark.unsafe.types.UTF8String
+
+/**
+ * Benchmark to measure performance of row to Velox columnar conversion over narrow and wide
+ * schemas. To run this benchmark:
+ * {{{
+ *   1. without sbt:
+ *      bin/spark-submit --class <this class> --jars <spark core test jar> <sql core test jar>
+ * }}}
+ */
+object RowToVeloxColumnarBenchmark extends SqlBasedBenchmark {
+  private val batchSize = 4096
+
+  override def getSparkSession: SparkSession = {
+    SparkSession
+      .builder()
+      .master("local[1]")
+      .appName(this.getClass.getCanonicalName)
+      .config("spark.plugins", "org.apache.gluten.GlutenPlugin")
+      .config("spark.ui.enabled", "false")
+      .config("spark.gluten.ui.enabled", "false")
+      .config("spark.memory.offHeap.enabled", "true")
+      .config("spark.memory.offHeap.size", "2g")
+      .getOrCreate()
+  }
+
+  private def schemaOf(numColumns: Int): StructType = {
+    val types = Seq(IntegerType, LongType, DoubleType, StringType)
+    StructType((0 until numColumns).map(i => StructField(s"c$i", types(i % types.size))))
+  }
+
+  private def generateRows(schema: StructType, numRows: Int): Array[InternalRow] = {
+    val projection = UnsafeProjection.create(schema)
+    (0 until numRows).map {
+      i =>
+        val values: Array[Any] = schema.fields.map {
+          field =>
+            field.dataType match {
+              case IntegerType => i
+              case LongType => i.toLong
+              case DoubleType => i.toDouble
+              case StringType => UTF8String.fromString(s"value_$i")
+            }
+        }
+        projection(new GenericInternalRow(values)).copy(): InternalRow
+    }.toArray
+  }
+
+  private def doBenchmark(name: String, numColumns: Int, numRows: Int): Unit = {
+    val schema = schemaOf(numColumns)
+    val rows = generateRows(schema, numRows)
+    val benchmark = new Benchmark(name, numRows, output = output)
+    benchmark.addCase(s"row to velox columnar, $numColumns columns", 3) {
+      _ =>
+        TaskResources.runUnsafe {
+          RowToVeloxColumnarExec
+            .toColumnarBatchIterator(rows.iterator, schema, batchSize)
+            .foreach(_ => ())
+        }
+    }
+    benchmark.run()
+  }
+
+  override def runBenchmarkSuite(mainArgs: Array[String]): Unit = {
+    doBenchmark("narrow schema", numColumns = 4, numRows = 2 * 1000 * 1000)
+    doBenchmark("wide schema", numColumns = 200, numRows = 100 * 1000)
+  }
+}
@@ -16,7 +16,7 @@
  */
 package org.apache.spark.sql.execution.benchmark
 
-import org.apache.gluten.config.GlutenConfig
+import org.apache.gluten.config.{GlutenConfig, GlutenCoreConfig}
 import org.apache.gluten.execution.Table
 import org.apache.gluten.utils.Arm
 
@@ -77,10 +77,11 @@ object VeloxRasBenchmark extends SqlBasedBenchmark {
       .getOrCreate()
   }
 
-  private def createRasSession(): SparkSession = {
+  private def createRasSession(parallelism: Int = 1): SparkSession = {
     SparkSession.cleanupAnyExistingSession()
     sessionBuilder()
       .config(GlutenConfig.RAS_ENABLED.key, true)
+      .config(GlutenCoreConfig.RAS_PARALLELISM.key, parallelism)
       .getOrCreate()
   }
 
@@ -125,7 +126,49 @@ object VeloxRasBenchmark extends SqlBasedBenchmark {
     "q22"
   )
 
+  // A join graph of many independent sub-plans, where RAS parallel exploration pays off.
+  private val wideJoinWidths: Seq[Int] = Seq(8, 16, 24)
+
+  private def wideJoinSQL(width: Int): String = {
+    val tables = (0 until width).map(i => s"lineitem l$i")
+    val conditions = (1 until width).map(i => s"l0.l_orderkey = l$i.l_orderkey")
+    s"SELECT count(*) FROM ${tables.mkString(", ")} WHERE ${conditions.mkString(" AND ")}"
+  }
+
   override def runBenchmarkSuite(mainArgs: Array[String]): Unit = {
+    runTpchBenchmark()
+    runWideJoinBenchmark()
+  }
+
+  private def runWideJoinBenchmark(): Unit = {
+    val parallelism = Runtime.getRuntime.availableProcessors()
+    val benchmark = new Benchmark(
+      this.getClass.getCanonicalName + " - wide joins",
+      wideJoinWidths.size,
+      output = output,
+      warmupTime = 15.seconds,
+      minTime = 60.seconds)
+    Seq(1, parallelism).distinct.foreach {
+      p =>
+        benchmark.addTimerCase(s"RAS Planner, parallelism $p") {
+          timer =>
+            val spark = createRasSession(p)
+            createTpchTables(spark)
+            timer.startTiming()
+            wideJoinWidths.foreach {
+              width =>
+                val plan = spark.sql(wideJoinSQL(width)).queryExecution.executedPlan
+                // scalastyle:off println
+                println(s"[RAS, parallelism $p] Optimized query plan: " + plan.toString())
+                // scalastyle:on println
+            }
+            timer.stopTiming()
+        }
+    }
+    benchmark.run()
+  }
+
+  private def runTpchBenchmark(): Unit = {
     val benchmark = new Benchmark(
       this.getClass.getCanonicalName,
       allQueryIds.size,
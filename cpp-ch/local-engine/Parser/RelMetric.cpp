@@ -16,14 +16,15 @@
  */
 #include "RelMetric.h"
 
+#include <stack>
+#include <IO/WriteBufferFromString.h>
+#include <IO/WriteHelpers.h>
 #include <Processors/IProcessor.h>
 #include <Processors/QueryPlan/AggregatingStep.h>
 #include <Processors/QueryPlan/ReadFromMergeTree.h>
 #include <Storages/SubstraitSource/SubstraitFileSourceStep.h>
 #include <Common/QueryContext.h>
 
-using namespace rapidjson;
-
 namespace ProfileEvents
 {
 extern const Event FileSegmentWaitReadBufferMicroseconds;
@@ -47,29 +48,38 @@ extern const Event CachedReadBufferReadFromCacheMisses;
 namespace local_engine
 {
 
-static void writeCacheHits(Writer<StringBuffer> & writer)
+struct CacheHits
+{
+    UInt64 read_cache_hits;
+    UInt64 miss_cache_hits;
+    UInt64 read_cache_bytes;
+    UInt64 read_miss_bytes;
+    UInt64 read_cache_millisecond;
+    UInt64 miss_cache_millisecond;
+};
+
+static CacheHits getCacheHits()
 {
     const auto thread_group = QueryContext::currentThreadGroup();
     auto & counters = thread_group->performance_counters;
-    auto read_cache_hits = counters[ProfileEvents::CachedReadBufferReadFromCacheHits].load();
-    auto miss_cache_hits = counters[ProfileEvents::CachedReadBufferReadFromCacheMisses].load();
-    auto read_cache_bytes = counters[ProfileEvents::CachedReadBufferReadFromCacheBytes].load();
-    auto read_miss_bytes = counters[ProfileEvents::CachedReadBufferReadFromSourceBytes].load();
-    auto read_cache_millisecond = counters[ProfileEvents::CachedReadBufferReadFromCacheMicroseconds].load() / 1000;
-    auto miss_cache_millisecond = counters[ProfileEvents::CachedReadBufferReadFromSourceMicroseconds].load() / 1000;
-
-    writer.Key("read_cache_hits");
-    writer.Uint64(read_cache_hits);
-    writer.Key("miss_cache_hits");
-    writer.Uint64(miss_cache_hits);
-    writer.Key("read_cache_bytes");
-    writer.Uint64(read_cache_bytes);
-    writer.Key("read_miss_bytes");
-    writer.Uint64(read_miss_bytes);
-    writer.Key("read_cache_millisecond");
-    writer.Uint64(read_cache_millisecond);
-    writer.Key("miss_cache_millisecond");
-    writer.Uint64(miss_cache_millisecond);
+    return CacheHits{
+        counters[ProfileEvents::CachedReadBufferReadFromCacheHits].load(),
+        counters[ProfileEvents::CachedReadBufferReadFromCacheMisses].load(),
+        counters[ProfileEvents::CachedReadBufferReadFromCacheBytes].load(),
+        counters[ProfileEvents::CachedReadBufferReadFromSourceBytes].load(),
+        counters[ProfileEvents::CachedReadBufferReadFromCacheMicroseconds].load() / 1000,
+        counters[ProfileEvents::CachedReadBufferReadFromSourceMicroseconds].load() / 1000};
+}
+
+static void writeUInt64(UInt64 value, DB::WriteBuffer & out)
+{
+    DB::writeBinaryLittleEndian(value, out);
+}
+
+static void writeString(const String & value, DB::WriteBuffer & out)
+{
+    DB::writeBinaryLittleEndian(static_cast<UInt32>(value.size()), out);
+    out.write(value.data(), value.size());
 }
 
 RelMetric::RelMetric(size_t id_, const String & name_, std::vector<DB::IQueryPlanStep *> & steps_) : id(id_), name(name_), steps(steps_)
@@ -119,75 +129,59 @@ RelMetricTimes RelMetric::getTotalTime() const
     return timeMetrics;
 }
 
-void RelMetric::serialize(Writer<StringBuffer> & writer, bool) const
+void RelMetric::serializeBinary(DB::WriteBuffer & out) const
 {
-    writer.StartObject();
-    writer.Key("id");
-    writer.Uint64(id);
-    writer.Key("name");
-    writer.String(name.c_str());
+    static constexpr UInt8 HAS_MARKS = 1;
+    static constexpr UInt8 HAS_CACHE_HITS = 2;
+
+    writeUInt64(id, out);
+    writeString(name, out);
     RelMetricTimes timeMetrics = getTotalTime();
-    writer.Key("time");
-    writer.Uint64(timeMetrics.time);
-    writer.Key("input_wait_time");
-    writer.Uint64(timeMetrics.input_wait_elapsed_us);
-    writer.Key("output_wait_time");
-    writer.Uint64(timeMetrics.output_wait_elapsed_us);
-    if (!steps.empty())
+    writeUInt64(timeMetrics.time, out);
+    writeUInt64(timeMetrics.input_wait_elapsed_us, out);
+    writeUInt64(timeMetrics.output_wait_elapsed_us, out);
+    DB::writeBinaryLittleEndian(static_cast<UInt32>(steps.size()), out);
+    for (const auto & step : steps)
     {
-        writer.Key("steps");
-        writer.StartArray();
-        for (const auto & step : steps)
+        writeString(step->getName(), out);
+        writeString(step->getStepDescription(), out);
+        DB::writeBinaryLittleEndian(static_cast<UInt32>(step->getProcessors().size()), out);
+        for (const auto & processor : step->getProcessors())
         {
-            writer.StartObject();
-            writer.Key("name");
-            writer.String(step->getName().c_str());
-            writer.Key("description");
-            writer.String(step->getStepDescription().c_str());
-            writer.Key("processors");
-            writer.StartArray();
-            for (const auto & processor : step->getProcessors())
-            {
-                writer.StartObject();
-                writer.Key("name");
-                writer.String(processor->getName().c_str());
-                writer.Key("time");
-                writer.Uint64(processor->getElapsedNs() / 1000U);
-                writer.Key("output_rows");
-                writer.Uint64(processor->getProcessorDataStats().output_rows);
-                writer.Key("output_bytes");
-                writer.Uint64(processor->getProcessorDataStats().output_bytes);
-                writer.Key("input_rows");
-                writer.Uint64(processor->getProcessorDataStats().input_rows);
-                writer.Key("input_bytes");
-                writer.Uint64(processor->getProcessorDataStats().input_bytes);
-                writer.EndObject();
-            }
-            writer.EndArray();
+            writeString(processor->getName(), out);
+            writeUInt64(processor->getElapsedNs() / 1000U, out);
+            writeUInt64(processor->getProcessorDataStats().output_rows, out);
+            writeUInt64(processor->getProcessorDataStats().output_bytes, out);
+            writeUInt64(processor->getProcessorDataStats().input_rows, out);
+            writeUInt64(processor->getProcessorDataStats().input_bytes, out);
+        }
 
-            if (auto read_mergetree = dynamic_cast<DB::ReadFromMergeTree *>(step))
-            {
-                auto selected_marks_pk = read_mergetree->getAnalysisResult().selected_marks_pk;
-                auto selected_marks = read_mergetree->getAnalysisResult().selected_marks;
-                auto total_marks_pk = read_mergetree->getAnalysisResult().total_marks_pk;
-                writer.Key("selected_marks_pk");
-                writer.Uint64(selected_marks_pk);
-                writer.Key("selected_marks");
-                writer.Uint64(selected_marks);
-                writer.Key("total_marks_pk");
-                writer.Uint64(total_marks_pk);
-                writeCacheHits(writer);
-            }
-            else if (dynamic_cast<SubstraitFileSourceStep *>(step))
-            {
-                writeCacheHits(writer);
-            }
+        auto read_mergetree = dynamic_cast<DB::ReadFromMergeTree *>(step);
+        UInt8 flags = 0;
+        if (read_mergetree)
+            flags = HAS_MARKS | HAS_CACHE_HITS;
+        else if (dynamic_cast<SubstraitFileSourceStep *>(step))
+            flags = HAS_CACHE_HITS;
+        DB::writeBinaryLittleEndian(flags, out);
 
-            writer.EndObject();
+        if (flags & HAS_MARKS)
+        {
+            const auto & analysis_result = read_mergetree->getAnalysisResult();
+            writeUInt64(analysis_result.selected_marks_pk, out);
+            writeUInt64(analysis_result.selected_marks, out);
+            writeUInt64(analysis_result.total_marks_pk, out);
+        }
+        if (flags & HAS_CACHE_HITS)
+        {
+            const auto hits = getCacheHits();
+            writeUInt64(hits.read_cache_hits, out);
+            writeUInt64(hits.miss_cache_hits, out);
+            writeUInt64(hits.read_cache_bytes, out);
+            writeUInt64(hits.read_miss_bytes, out);
+            writeUInt64(hits.read_cache_millisecond, out);
+            writeUInt64(hits.miss_cache_millisecond, out);
         }
-        writer.EndArray();
     }
-    writer.EndObject();
 }
 
 const String & RelMetric::getName() const
@@ -195,26 +189,20 @@ const String & RelMetric::getName() const
     return name;
 }
 
-std::string RelMetricSerializer::serializeRelMetric(const RelMetricPtr & rel_metric, bool flatten)
+std::string RelMetricSerializer::serializeRelMetricBinary(const RelMetricPtr & rel_metric)
 {
-    StringBuffer result;
-    Writer<StringBuffer> writer(result);
-    if (flatten)
+    DB::WriteBufferFromOwnString out;
+    std::stack<RelMetricPtr> metrics;
+    metrics.push(rel_metric);
+    while (!metrics.empty())
     {
-        writer.StartArray();
-        std::stack<RelMetricPtr> metrics;
-        metrics.push(rel_metric);
-        while (!metrics.empty())
-        {
-            auto metric = metrics.top();
-            metrics.pop();
-            for (const auto & item : metric->getInputs())
-                metrics.push(item);
-            metric->serialize(writer);
-        }
-        writer.EndArray();
+        auto metric = metrics.top();
+        metrics.pop();
+        for (const auto & item : metric->getInputs())
+            metrics.push(item);
+        metric->serializeBinary(out);
     }
-    return result.GetString();
+    return out.str();
 }
 
 }
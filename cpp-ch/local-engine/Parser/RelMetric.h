@@ -15,8 +15,8 @@
  * limitations under the License.
  */
 #pragma once
+#include <IO/WriteBuffer.h>
 #include <Processors/QueryPlan/IQueryPlanStep.h>
-#include <rapidjson/prettywriter.h>
 
 namespace local_engine
 {
@@ -45,7 +45,7 @@ public:
     const std::vector<DB::IQueryPlanStep *> & getSteps() const;
     const std::vector<RelMetricPtr> & getInputs() const;
     RelMetricTimes getTotalTime() const;
-    void serialize(rapidjson::Writer<rapidjson::StringBuffer> & writer, bool summary = true) const;
+    void serializeBinary(DB::WriteBuffer & out) const;
 
 private:
     size_t id;
@@ -58,6 +58,11 @@ private:
 class RelMetricSerializer
 {
 public:
-    static std::string serializeRelMetric(const RelMetricPtr & rel_metric, bool flatten = true);
+    /// Compact little-endian layout of the flattened metrics, decoded by NativeMetrics on the java side.
+    /// Each rel is: id, name, time, input wait, output wait, step count, steps. Each step is: name,
+    /// description, processor count, processors, a flags byte, then the marks (flag 1) and the cache
+    /// counters (flag 2) of reading steps. Each processor is: name, time, output rows, output bytes,
+    /// input rows, input bytes. Numbers are UInt64 and strings are a UInt32 byte length plus UTF-8 bytes.
+    static std::string serializeRelMetricBinary(const RelMetricPtr & rel_metric);
 };
 }
@@ -24,12 +24,15 @@
 #include <DataTypes/DataTypeNullable.h>
 #include <DataTypes/DataTypesDecimal.h>
 #include <Functions/FunctionFactory.h>
+#include <IO/ReadBufferFromString.h>
+#include <IO/ReadHelpers.h>
 #include <Parser/ExpressionParser.h>
 #include <Parser/ParserContext.h>
 #include <Parser/SerializedPlanParser.h>
 #include <Parser/TypeParser.h>
 #include <Poco/JSON/Parser.h>
 #include <Poco/MemoryStream.h>
+#include <Common/Base64.h>
 #include <Common/CHUtil.h>
 #include <Common/Exception.h>
 #include <Common/QueryContext.h>
@@ -170,7 +173,7 @@ RangeSelectorBuilder::RangeSelectorBuilder(const std::string & option, const siz
     auto info = parser.parse(option).extract<Poco::JSON::Object::Ptr>();
     auto ordering_infos = info->get("ordering").extract<Poco::JSON::Array::Ptr>();
     initSortInformation(ordering_infos);
-    initRangeBlock(info->get("range_bounds").extract<Poco::JSON::Array::Ptr>());
+    initRangeBlock(DB::base64Decode(info->get("range_bounds").convert<std::string>()), info->get("range_bounds_num").convert<UInt64>());
     partition_num = partition_num_;
 }
 
@@ -207,121 +210,86 @@ void RangeSelectorBuilder::initSortInformation(Poco::JSON::Array::Ptr orderings)
 }
 
 template <typename T>
-void RangeSelectorBuilder::safeInsertFloatValue(const Poco::Dynamic::Var & field_value, DB::MutableColumnPtr & col)
+static T readLittleEndian(DB::ReadBuffer & in)
 {
-    try
-    {
-        col->insert(field_value.convert<T>());
-    }
-    catch (const std::exception &)
+    T value;
+    DB::readBinaryLittleEndian(value, in);
+    return value;
+}
+
+/// Reads one non-null bound value as encoded by RangePartitionerBoundsGenerator.encodeRangeBounds.
+static void insertBoundValue(const DB::DataTypePtr & type, DB::ReadBuffer & in, DB::IColumn & col)
+{
+    const auto & type_name = type->getName();
+    if (type_name == "UInt8")
+        col.insert(readLittleEndian<UInt8>(in));
+    else if (type_name == "Int8")
+        col.insert(readLittleEndian<Int8>(in));
+    else if (type_name == "Int16")
+        col.insert(readLittleEndian<Int16>(in));
+    else if (type_name == "Int32" || type_name == "Date32")
+        col.insert(readLittleEndian<Int32>(in));
+    else if (type_name == "Int64")
+        col.insert(readLittleEndian<Int64>(in));
+    else if (type_name == "Float32")
+        col.insert(readLittleEndian<Float32>(in));
+    else if (type_name == "Float64")
+        col.insert(readLittleEndian<Float64>(in));
+    else if (type_name == "String")
     {
-        String val = Poco::toLower(field_value.convert<std::string>());
-        T res;
-        if (val == "nan")
-            res = std::numeric_limits<T>::quiet_NaN();
-        else if (val == "infinity")
-            res = std::numeric_limits<T>::infinity();
-        else if (val == "-infinity")
-            res = -std::numeric_limits<T>::infinity();
-        else
-            throw DB::Exception(DB::ErrorCodes::LOGICAL_ERROR, "Unsupported value: {}", val);
-        col->insert(res);
+        String value(readLittleEndian<UInt32>(in), '\0');
+        in.readStrict(value.data(), value.size());
+        col.insert(value);
     }
+    else if (dynamic_cast<const DB::DataTypeDateTime64 *>(type.get()))
+        col.insert(DB::DecimalField<DB::DateTime64>(readLittleEndian<Int64>(in), 6));
+    else if (const auto * decimal32 = dynamic_cast<const DB::DataTypeDecimal<DB::Decimal32> *>(type.get()))
+        col.insert(DB::DecimalField<DB::Decimal32>(static_cast<Int32>(readLittleEndian<Int64>(in)), decimal32->getScale()));
+    else if (const auto * decimal64 = dynamic_cast<const DB::DataTypeDecimal<DB::Decimal64> *>(type.get()))
+        col.insert(DB::DecimalField<DB::Decimal64>(readLittleEndian<Int64>(in), decimal64->getScale()));
+    else if (const auto * decimal128 = dynamic_cast<const DB::DataTypeDecimal<DB::Decimal128> *>(type.get()))
+        col.insert(DB::DecimalField<DB::Decimal128>(readLittleEndian<Int128>(in), decimal128->getScale()));
+    else
+        throw DB::Exception(DB::ErrorCodes::LOGICAL_ERROR, "Unsupported data type: {}", type_name);
 }
 
-void RangeSelectorBuilder::initRangeBlock(Poco::JSON::Array::Ptr range_bounds)
+void RangeSelectorBuilder::initRangeBlock(const String & encoded_bounds, size_t bounds_num)
 {
-    DB::ColumnsWithTypeAndName columns;
-    for (uint32_t i = 0; i < sort_field_types.size(); ++i)
+    DB::MutableColumns columns;
+    DB::DataTypes data_types;
+    for (const auto & type_info : sort_field_types)
     {
-        auto & type_info = sort_field_types[i];
-        auto inner_col = type_info.inner_type->createColumn();
-        auto data_type = type_info.inner_type;
-        DB::MutableColumnPtr col = std::move(inner_col);
+        DB::MutableColumnPtr col = type_info.inner_type->createColumn();
+        DB::DataTypePtr data_type = type_info.inner_type;
         if (type_info.is_nullable)
         {
             col = ColumnNullable::create(std::move(col), DB::ColumnUInt8::create(0, 0));
             data_type = std::make_shared<DB::DataTypeNullable>(data_type);
         }
-        for (uint32_t r = 0; r < range_bounds->size(); ++r)
+        col->reserve(bounds_num);
+        columns.emplace_back(std::move(col));
+        data_types.emplace_back(data_type);
+    }
+
+    // The bounds are laid out row by row, each field being a null flag followed by the value unless it is null.
+    DB::ReadBufferFromString in(encoded_bounds);
+    for (size_t r = 0; r < bounds_num; ++r)
+    {
+        for (size_t i = 0; i < sort_field_types.size(); ++i)
         {
-            auto row = range_bounds->get(r).extract<Poco::JSON::Array::Ptr>();
-            auto field_info = row->get(i).extract<Poco::JSON::Object::Ptr>();
-            if (field_info->get("is_null").convert<bool>())
-            {
-                col->insertData(nullptr, 0);
-            }
+            if (readLittleEndian<UInt8>(in))
+                columns[i]->insertData(nullptr, 0);
             else
-            {
-                const auto & type_name = type_info.inner_type->getName();
-                const auto & field_value = field_info->get("value");
-                if (type_name == "UInt8")
-                {
-                    col->insert(static_cast<UInt8>(field_value.convert<Int16>()));
-                }
-                else if (type_name == "Int8")
-                {
-                    col->insert(field_value.convert<Poco::Int8>());
-                }
-                else if (type_name == "Int16")
-                {
-                    col->insert(field_value.convert<Int16>());
-                }
-                else if (type_name == "Int32")
-                {
-                    col->insert(field_value.convert<Int32>());
-                }
-                else if (type_name == "Int64")
-                {
-                    col->insert(field_value.convert<Int64>());
-                }
-                else if (type_name == "Float32")
-                {
-                    safeInsertFloatValue<Float32>(field_value, col);
-                }
-                else if (type_name == "Float64")
-                {
-                    safeInsertFloatValue<Float64>(field_value, col);
-                }
-                else if (type_name == "String")
-                {
-                    col->insert(field_value.convert<std::string>());
-                }
-                else if (type_name == "Date32")
-                {
-                    int val = field_value.convert<Int32>();
-                    col->insert(val);
-                }
-                else if (const auto * timestamp = dynamic_cast<const DB::DataTypeDateTime64 *>(type_info.inner_type.get()))
-                {
-                    auto value = field_value.convert<Int64>();
-                    col->insert(DecimalField<DateTime64>(value, 6));
-                }
-                else if (const auto * decimal32 = dynamic_cast<const DB::DataTypeDecimal<DB::Decimal32> *>(type_info.inner_type.get()))
-                {
-                    auto value = decimal32->parseFromString(field_value.convert<std::string>());
-                    col->insert(DB::DecimalField<DB::Decimal32>(value, decimal32->getScale()));
-                }
-                else if (const auto * decimal64 = dynamic_cast<const DB::DataTypeDecimal<DB::Decimal64> *>(type_info.inner_type.get()))
-                {
-                    auto value = decimal64->parseFromString(field_value.convert<std::string>());
-                    col->insert(DB::DecimalField<DB::Decimal64>(value, decimal64->getScale()));
-                }
-                else if (const auto * decimal128 = dynamic_cast<const DB::DataTypeDecimal<DB::Decimal128> *>(type_info.inner_type.get()))
-                {
-                    auto value = decimal128->parseFromString(field_value.convert<std::string>());
-                    col->insert(DB::DecimalField<DB::Decimal128>(value, decimal128->getScale()));
-                }
-                else
-                {
-                    throw DB::Exception(DB::ErrorCodes::LOGICAL_ERROR, "Unsupported data type: {}", type_info.inner_type->getName());
-                }
-            }
+                insertBoundValue(sort_field_types[i].inner_type, in, *columns[i]);
         }
-        auto col_name = "sort_col_" + std::to_string(i);
-        columns.emplace_back(std::move(col), data_type, col_name);
     }
-    range_bounds_block = DB::Block(columns);
+    if (!in.eof())
+        throw DB::Exception(DB::ErrorCodes::LOGICAL_ERROR, "Unexpected trailing bytes after {} range bounds", bounds_num);
+
+    DB::ColumnsWithTypeAndName block_columns;
+    for (size_t i = 0; i < columns.size(); ++i)
+        block_columns.emplace_back(std::move(columns[i]), data_types[i], "sort_col_" + std::to_string(i));
+    range_bounds_block = DB::Block(block_columns);
 }
 
 void RangeSelectorBuilder::initActionsDAG(const DB::Block & block)
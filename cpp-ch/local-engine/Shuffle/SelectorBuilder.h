@@ -104,12 +104,9 @@ private:
     size_t partition_num;
 
     void initSortInformation(Poco::JSON::Array::Ptr orderings);
-    void initRangeBlock(Poco::JSON::Array::Ptr range_bounds);
+    void initRangeBlock(const String & encoded_bounds, size_t bounds_num);
     void initActionsDAG(const DB::Block & block);
 
-    template <typename T>
-    void safeInsertFloatValue(const Poco::Dynamic::Var & field_value, DB::MutableColumnPtr & col);
-
     void computePartitionIdByBinarySearch(DB::Block & block, DB::IColumn::Selector & selector);
     int compareRow(
         const DB::Columns & columns,
@@ -19,6 +19,7 @@
 #include <jni.h>
 
 #include <Builder/SerializedPlanBuilder.h>
+#include <Columns/ColumnConst.h>
 #include <Compression/CompressedReadBuffer.h>
 #include <DataTypes/DataTypeNullable.h>
 #include <Join/BroadCastJoinBuilder.h>
@@ -320,15 +321,16 @@ JNIEXPORT void Java_org_apache_gluten_vectorized_BatchIterator_nativeClose(JNIEn
     LOCAL_ENGINE_JNI_METHOD_END(env, )
 }
 
-JNIEXPORT jstring Java_org_apache_gluten_vectorized_BatchIterator_nativeFetchMetrics(JNIEnv * env, jobject /*obj*/, jlong executor_address)
+JNIEXPORT jbyteArray
+Java_org_apache_gluten_vectorized_BatchIterator_nativeFetchMetrics(JNIEnv * env, jobject /*obj*/, jlong executor_address)
 {
     LOCAL_ENGINE_JNI_METHOD_START
     /// Collect metrics only if optimizations are disabled, otherwise coredump would happen.
     const local_engine::LocalExecutor * executor = reinterpret_cast<local_engine::LocalExecutor *>(executor_address);
     const auto metric = executor->getMetric();
-    const String metrics_json = metric ? local_engine::RelMetricSerializer::serializeRelMetric(metric) : "";
+    const String metrics = metric ? local_engine::RelMetricSerializer::serializeRelMetricBinary(metric) : "";
 
-    return local_engine::charTojstring(env, metrics_json.c_str());
+    return local_engine::stringTojbyteArray(env, metrics);
     LOCAL_ENGINE_JNI_METHOD_END(env, nullptr)
 }
 
@@ -368,6 +370,57 @@ Java_org_apache_gluten_vectorized_CHColumnVector_nativeNumNulls(JNIEnv * env, jo
     LOCAL_ENGINE_JNI_METHOD_END(env, -1)
 }
 
+/// Whether the values of the column are laid out one per row, i.e. it is not const, sparse or low cardinality.
+static bool isMaterializedColumn(const DB::IColumn & column)
+{
+    return !DB::isColumnConst(column) && !column.isSparse() && !column.lowCardinality();
+}
+
+/// Address of the column's null map (one UInt8 per row, non-zero for null), 0 if the column can't contain nulls,
+/// or -1 if nulls can't be read from a null map.
+JNIEXPORT jlong Java_org_apache_gluten_vectorized_CHColumnVector_nativeNullMapAddress(
+    JNIEnv * env, jobject obj, jlong block_address, jint column_position)
+{
+    LOCAL_ENGINE_JNI_METHOD_START
+    auto col = getColumnFromColumnVector(env, obj, block_address, column_position);
+    if (!isMaterializedColumn(*col.column))
+        return -1;
+    if (const auto * nullable_col = checkAndGetColumn<DB::ColumnNullable>(col.column.get()))
+        return reinterpret_cast<jlong>(nullable_col->getNullMapData().data());
+    return 0;
+    LOCAL_ENGINE_JNI_METHOD_END(env, -1)
+}
+
+/// Address of the (nested) column's values if they are stored fixed-width and contiguous, one per row, or 0 otherwise.
+JNIEXPORT jlong Java_org_apache_gluten_vectorized_CHColumnVector_nativeDataAddress(
+    JNIEnv * env, jobject obj, jlong block_address, jint column_position)
+{
+    LOCAL_ENGINE_JNI_METHOD_START
+    auto col = getColumnFromColumnVector(env, obj, block_address, column_position);
+    DB::ColumnPtr nested_col = col.column;
+    if (const auto * nullable_col = checkAndGetColumn<DB::ColumnNullable>(nested_col.get()))
+        nested_col = nullable_col->getNestedColumnPtr();
+    if (!isMaterializedColumn(*nested_col) || !nested_col->isFixedAndContiguous())
+        return 0;
+    return reinterpret_cast<jlong>(nested_col->getRawData().data());
+    LOCAL_ENGINE_JNI_METHOD_END(env, 0)
+}
+
+/// Width in bytes of the values at nativeDataAddress, or 0 if there is no such address.
+JNIEXPORT jint Java_org_apache_gluten_vectorized_CHColumnVector_nativeValueSize(
+    JNIEnv * env, jobject obj, jlong block_address, jint column_position)
+{
+    LOCAL_ENGINE_JNI_METHOD_START
+    auto col = getColumnFromColumnVector(env, obj, block_address, column_position);
+    DB::ColumnPtr nested_col = col.column;
+    if (const auto * nullable_col = checkAndGetColumn<DB::ColumnNullable>(nested_col.get()))
+        nested_col = nullable_col->getNestedColumnPtr();
+    if (!isMaterializedColumn(*nested_col) || !nested_col->isFixedAndContiguous())
+        return 0;
+    return static_cast<jint>(nested_col->sizeOfValueIfFixed());
+    LOCAL_ENGINE_JNI_METHOD_END(env, 0)
+}
+
 JNIEXPORT jboolean Java_org_apache_gluten_vectorized_CHColumnVector_nativeIsNullAt(
     JNIEnv * env, jobject obj, jint row_id, jlong block_address, jint column_position)
 {
@@ -27,4 +27,11 @@ Metrics* ResultIterator::getMetrics() {
   return nullptr;
 }
 
+Metrics* ResultIterator::getMetricsSnapshot() {
+  if (runtime_) {
+    return runtime_->getMetricsSnapshot(getInputIter(), exportNanos_);
+  }
+  return nullptr;
+}
+
 } // namespace gluten
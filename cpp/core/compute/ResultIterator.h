@@ -59,6 +59,10 @@ class ResultIterator {
 
   Metrics* getMetrics();
 
+  // Metrics of the pipeline so far, while it may still be running. Returns nullptr if not available
+  // yet.
+  Metrics* getMetricsSnapshot();
+
   void setExportNanos(int64_t exportNanos) {
     exportNanos_ = exportNanos;
   }
@@ -138,6 +138,10 @@ class Runtime : public std::enable_shared_from_this<Runtime> {
     throw GlutenException("Not implemented");
   }
 
+  virtual Metrics* getMetricsSnapshot(ColumnarBatchIterator* rawIter, int64_t exportNanos) {
+    throw GlutenException("Not implemented");
+  }
+
   virtual std::shared_ptr<ShuffleReader> createShuffleReader(
       std::shared_ptr<arrow::Schema> schema,
       ShuffleReaderOptions options) {
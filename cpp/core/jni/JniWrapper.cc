@@ -190,6 +190,62 @@ void internalRuntimeReleaser(Runtime* runtime) {
   delete runtime;
 }
 
+jobject toJavaMetrics(JNIEnv* env, Metrics* metrics) {
+  unsigned int numMetrics = 0;
+  if (metrics) {
+    numMetrics = metrics->numMetrics;
+  }
+
+  jlongArray longArray[Metrics::kNum];
+  for (auto i = static_cast<int>(Metrics::kBegin); i != static_cast<int>(Metrics::kEnd); ++i) {
+    longArray[i] = env->NewLongArray(numMetrics);
+    if (metrics) {
+      env->SetLongArrayRegion(longArray[i], 0, numMetrics, metrics->get((Metrics::TYPE)i));
+    }
+  }
+
+  return env->NewObject(
+      metricsBuilderClass,
+      metricsBuilderConstructor,
+      longArray[Metrics::kInputRows],
+      longArray[Metrics::kInputVectors],
+      longArray[Metrics::kInputBytes],
+      longArray[Metrics::kRawInputRows],
+      longArray[Metrics::kRawInputBytes],
+      longArray[Metrics::kOutputRows],
+      longArray[Metrics::kOutputVectors],
+      longArray[Metrics::kOutputBytes],
+      longArray[Metrics::kCpuCount],
+      longArray[Metrics::kWallNanos],
+      metrics ? metrics->veloxToArrow : -1,
+      longArray[Metrics::kPeakMemoryBytes],
+      longArray[Metrics::kNumMemoryAllocations],
+      longArray[Metrics::kSpilledInputBytes],
+      longArray[Metrics::kSpilledBytes],
+      longArray[Metrics::kSpilledRows],
+      longArray[Metrics::kSpilledPartitions],
+      longArray[Metrics::kSpilledFiles],
+      longArray[Metrics::kNumDynamicFiltersProduced],
+      longArray[Metrics::kNumDynamicFiltersAccepted],
+      longArray[Metrics::kNumReplacedWithDynamicFilterRows],
+      longArray[Metrics::kFlushRowCount],
+      longArray[Metrics::kLoadedToValueHook],
+      longArray[Metrics::kScanTime],
+      longArray[Metrics::kSkippedSplits],
+      longArray[Metrics::kProcessedSplits],
+      longArray[Metrics::kSkippedStrides],
+      longArray[Metrics::kProcessedStrides],
+      longArray[Metrics::kRemainingFilterTime],
+      longArray[Metrics::kIoWaitTime],
+      longArray[Metrics::kStorageReadBytes],
+      longArray[Metrics::kLocalReadBytes],
+      longArray[Metrics::kRamReadBytes],
+      longArray[Metrics::kPreloadSplits],
+      longArray[Metrics::kPhysicalWrittenBytes],
+      longArray[Metrics::kWriteIOTime],
+      longArray[Metrics::kNumWrittenFiles]);
+}
+
 } // namespace
 
 #ifdef __cplusplus
@@ -489,61 +545,21 @@ JNIEXPORT jobject JNICALL Java_org_apache_gluten_metrics_IteratorMetricsJniWrapp
     jlong iterHandle) {
   JNI_METHOD_START
   auto iter = ObjectStore::retrieve<ResultIterator>(iterHandle);
-  auto metrics = iter->getMetrics();
-  unsigned int numMetrics = 0;
-  if (metrics) {
-    numMetrics = metrics->numMetrics;
-  }
+  return toJavaMetrics(env, iter->getMetrics());
+  JNI_METHOD_END(nullptr)
+}
 
-  jlongArray longArray[Metrics::kNum];
-  for (auto i = static_cast<int>(Metrics::kBegin); i != static_cast<int>(Metrics::kEnd); ++i) {
-    longArray[i] = env->NewLongArray(numMetrics);
-    if (metrics) {
-      env->SetLongArrayRegion(longArray[i], 0, numMetrics, metrics->get((Metrics::TYPE)i));
-    }
+JNIEXPORT jobject JNICALL Java_org_apache_gluten_metrics_IteratorMetricsJniWrapper_nativeFetchMetricsSnapshot( // NOLINT
+    JNIEnv* env,
+    jobject wrapper,
+    jlong iterHandle) {
+  JNI_METHOD_START
+  auto iter = ObjectStore::retrieve<ResultIterator>(iterHandle);
+  auto metrics = iter->getMetricsSnapshot();
+  if (metrics == nullptr) {
+    return nullptr;
   }
-
-  return env->NewObject(
-      metricsBuilderClass,
-      metricsBuilderConstructor,
-      longArray[Metrics::kInputRows],
-      longArray[Metrics::kInputVectors],
-      longArray[Metrics::kInputBytes],
-      longArray[Metrics::kRawInputRows],
-      longArray[Metrics::kRawInputBytes],
-      longArray[Metrics::kOutputRows],
-      longArray[Metrics::kOutputVectors],
-      longArray[Metrics::kOutputBytes],
-      longArray[Metrics::kCpuCount],
-      longArray[Metrics::kWallNanos],
-      metrics ? metrics->veloxToArrow : -1,
-      longArray[Metrics::kPeakMemoryBytes],
-      longArray[Metrics::kNumMemoryAllocations],
-      longArray[Metrics::kSpilledInputBytes],
-      longArray[Metrics::kSpilledBytes],
-      longArray[Metrics::kSpilledRows],
-      longArray[Metrics::kSpilledPartitions],
-      longArray[Metrics::kSpilledFiles],
-      longArray[Metrics::kNumDynamicFiltersProduced],
-      longArray[Metrics::kNumDynamicFiltersAccepted],
-      longArray[Metrics::kNumReplacedWithDynamicFilterRows],
-      longArray[Metrics::kFlushRowCount],
-      longArray[Metrics::kLoadedToValueHook],
-      longArray[Metrics::kScanTime],
-      longArray[Metrics::kSkippedSplits],
-      longArray[Metrics::kProcessedSplits],
-      longArray[Metrics::kSkippedStrides],
-      longArray[Metrics::kProcessedStrides],
-      longArray[Metrics::kRemainingFilterTime],
-      longArray[Metrics::kIoWaitTime],
-      longArray[Metrics::kStorageReadBytes],
-      longArray[Metrics::kLocalReadBytes],
-      longArray[Metrics::kRamReadBytes],
-      longArray[Metrics::kPreloadSplits],
-      longArray[Metrics::kPhysicalWrittenBytes],
-      longArray[Metrics::kWriteIOTime],
-      longArray[Metrics::kNumWrittenFiles]);
-
+  return toJavaMetrics(env, metrics);
   JNI_METHOD_END(nullptr)
 }
 
@@ -646,6 +662,7 @@ Java_org_apache_gluten_vectorized_NativeRowToColumnarJniWrapper_nativeConvertRow
     jobject wrapper,
     jlong r2cHandle,
     jlongArray rowLength,
+    jint numRows,
     jlong memoryAddress) {
   JNI_METHOD_START
   auto ctx = getRuntime(env, wrapper);
@@ -653,7 +670,9 @@ Java_org_apache_gluten_vectorized_NativeRowToColumnarJniWrapper_nativeConvertRow
   if (rowLength == nullptr) {
     throw GlutenException("Native convert row to columnar: buf_addrs can't be null");
   }
-  int numRows = env->GetArrayLength(rowLength);
+  if (numRows < 0 || numRows > env->GetArrayLength(rowLength)) {
+    throw GlutenException("Native convert row to columnar: numRows exceeds the row lengths");
+  }
   auto safeArray = getLongArrayElementsSafe(env, rowLength);
   uint8_t* address = reinterpret_cast<uint8_t*>(memoryAddress);
 
@@ -72,6 +72,11 @@ class VeloxRuntime final : public Runtime {
     return iter->getMetrics(exportNanos);
   }
 
+  Metrics* getMetricsSnapshot(ColumnarBatchIterator* rawIter, int64_t exportNanos) override {
+    auto iter = static_cast<WholeStageResultIterator*>(rawIter);
+    return iter->getMetricsSnapshot(exportNanos);
+  }
+
   std::shared_ptr<ShuffleReader> createShuffleReader(
       std::shared_ptr<arrow::Schema> schema,
       ShuffleReaderOptions options) override;
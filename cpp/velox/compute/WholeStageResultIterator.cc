@@ -337,15 +337,22 @@ void WholeStageResultIterator::collectMetrics() {
     // The metrics has already been created.
     return;
   }
+  metrics_ = buildMetrics(false);
+  snapshotMetrics_.reset();
+}
 
+std::unique_ptr<Metrics> WholeStageResultIterator::buildMetrics(bool snapshot) {
   const auto& taskStats = task_->taskStats();
   if (taskStats.executionStartTimeMs == 0) {
-    LOG(INFO) << "Skip collect task metrics since task did not call next().";
-    return;
+    if (!snapshot) {
+      LOG(INFO) << "Skip collect task metrics since task did not call next().";
+    }
+    return nullptr;
   }
 
-  if (veloxCfg_->get<bool>(kDebugModeEnabled, false) ||
-      veloxCfg_->get<bool>(kShowTaskMetricsWhenFinished, kShowTaskMetricsWhenFinishedDefault)) {
+  if (!snapshot &&
+      (veloxCfg_->get<bool>(kDebugModeEnabled, false) ||
+       veloxCfg_->get<bool>(kShowTaskMetricsWhenFinished, kShowTaskMetricsWhenFinishedDefault))) {
     auto planWithStats = velox::exec::printPlanWithStats(*veloxPlan_.get(), taskStats, true);
     std::ostringstream oss;
     oss << "Native Plan with stats for: " << taskInfo_;
@@ -360,6 +367,10 @@ void WholeStageResultIterator::collectMetrics() {
     const auto& nodeId = orderedNodeIds_[idx];
     if (planStats.find(nodeId) == planStats.end()) {
       if (omittedNodeIds_.find(nodeId) == omittedNodeIds_.end()) {
+        if (snapshot) {
+          // The operators of the node have not been created yet.
+          return nullptr;
+        }
         LOG(WARNING) << "Not found node id: " << nodeId;
         LOG(WARNING) << "Plan Node: " << std::endl << veloxPlan_->toString(true, true);
         throw std::runtime_error("Node id cannot be found in plan status.");
@@ -372,7 +383,7 @@ void WholeStageResultIterator::collectMetrics() {
     statsNum += planStats.at(nodeId).operatorStats.size();
   }
 
-  metrics_ = std::make_unique<Metrics>(statsNum);
+  auto metrics = std::make_unique<Metrics>(statsNum);
 
   int metricIndex = 0;
   for (int idx = 0; idx < orderedNodeIds_.size(); idx++) {
@@ -380,13 +391,13 @@ void WholeStageResultIterator::collectMetrics() {
     if (planStats.find(nodeId) == planStats.end()) {
       // Special handing for Filter over Project case. Filter metrics are
       // omitted.
-      metrics_->get(Metrics::kOutputRows)[metricIndex] = 0;
-      metrics_->get(Metrics::kOutputVectors)[metricIndex] = 0;
-      metrics_->get(Metrics::kOutputBytes)[metricIndex] = 0;
-      metrics_->get(Metrics::kCpuCount)[metricIndex] = 0;
-      metrics_->get(Metrics::kWallNanos)[metricIndex] = 0;
-      metrics_->get(Metrics::kPeakMemoryBytes)[metricIndex] = 0;
-      metrics_->get(Metrics::kNumMemoryAllocations)[metricIndex] = 0;
+      metrics->get(Metrics::kOutputRows)[metricIndex] = 0;
+      metrics->get(Metrics::kOutputVectors)[metricIndex] = 0;
+      metrics->get(Metrics::kOutputBytes)[metricIndex] = 0;
+      metrics->get(Metrics::kCpuCount)[metricIndex] = 0;
+      metrics->get(Metrics::kWallNanos)[metricIndex] = 0;
+      metrics->get(Metrics::kPeakMemoryBytes)[metricIndex] = 0;
+      metrics->get(Metrics::kNumMemoryAllocations)[metricIndex] = 0;
       metricIndex += 1;
       continue;
     }
@@ -395,56 +406,57 @@ void WholeStageResultIterator::collectMetrics() {
     // Add each operator stats into metrics.
     for (const auto& entry : stats.operatorStats) {
       const auto& second = entry.second;
-      metrics_->get(Metrics::kInputRows)[metricIndex] = second->inputRows;
-      metrics_->get(Metrics::kInputVectors)[metricIndex] = second->inputVectors;
-      metrics_->get(Metrics::kInputBytes)[metricIndex] = second->inputBytes;
-      metrics_->get(Metrics::kRawInputRows)[metricIndex] = second->rawInputRows;
-      metrics_->get(Metrics::kRawInputBytes)[metricIndex] = second->rawInputBytes;
-      metrics_->get(Metrics::kOutputRows)[metricIndex] = second->outputRows;
-      metrics_->get(Metrics::kOutputVectors)[metricIndex] = second->outputVectors;
-      metrics_->get(Metrics::kOutputBytes)[metricIndex] = second->outputBytes;
-      metrics_->get(Metrics::kCpuCount)[metricIndex] = second->cpuWallTiming.count;
-      metrics_->get(Metrics::kWallNanos)[metricIndex] = second->cpuWallTiming.wallNanos;
-      metrics_->get(Metrics::kPeakMemoryBytes)[metricIndex] = second->peakMemoryBytes;
-      metrics_->get(Metrics::kNumMemoryAllocations)[metricIndex] = second->numMemoryAllocations;
-      metrics_->get(Metrics::kSpilledInputBytes)[metricIndex] = second->spilledInputBytes;
-      metrics_->get(Metrics::kSpilledBytes)[metricIndex] = second->spilledBytes;
-      metrics_->get(Metrics::kSpilledRows)[metricIndex] = second->spilledRows;
-      metrics_->get(Metrics::kSpilledPartitions)[metricIndex] = second->spilledPartitions;
-      metrics_->get(Metrics::kSpilledFiles)[metricIndex] = second->spilledFiles;
-      metrics_->get(Metrics::kNumDynamicFiltersProduced)[metricIndex] =
+      metrics->get(Metrics::kInputRows)[metricIndex] = second->inputRows;
+      metrics->get(Metrics::kInputVectors)[metricIndex] = second->inputVectors;
+      metrics->get(Metrics::kInputBytes)[metricIndex] = second->inputBytes;
+      metrics->get(Metrics::kRawInputRows)[metricIndex] = second->rawInputRows;
+      metrics->get(Metrics::kRawInputBytes)[metricIndex] = second->rawInputBytes;
+      metrics->get(Metrics::kOutputRows)[metricIndex] = second->outputRows;
+      metrics->get(Metrics::kOutputVectors)[metricIndex] = second->outputVectors;
+      metrics->get(Metrics::kOutputBytes)[metricIndex] = second->outputBytes;
+      metrics->get(Metrics::kCpuCount)[metricIndex] = second->cpuWallTiming.count;
+      metrics->get(Metrics::kWallNanos)[metricIndex] = second->cpuWallTiming.wallNanos;
+      metrics->get(Metrics::kPeakMemoryBytes)[metricIndex] = second->peakMemoryBytes;
+      metrics->get(Metrics::kNumMemoryAllocations)[metricIndex] = second->numMemoryAllocations;
+      metrics->get(Metrics::kSpilledInputBytes)[metricIndex] = second->spilledInputBytes;
+      metrics->get(Metrics::kSpilledBytes)[metricIndex] = second->spilledBytes;
+      metrics->get(Metrics::kSpilledRows)[metricIndex] = second->spilledRows;
+      metrics->get(Metrics::kSpilledPartitions)[metricIndex] = second->spilledPartitions;
+      metrics->get(Metrics::kSpilledFiles)[metricIndex] = second->spilledFiles;
+      metrics->get(Metrics::kNumDynamicFiltersProduced)[metricIndex] =
           runtimeMetric("sum", second->customStats, kDynamicFiltersProduced);
-      metrics_->get(Metrics::kNumDynamicFiltersAccepted)[metricIndex] =
+      metrics->get(Metrics::kNumDynamicFiltersAccepted)[metricIndex] =
           runtimeMetric("sum", second->customStats, kDynamicFiltersAccepted);
-      metrics_->get(Metrics::kNumReplacedWithDynamicFilterRows)[metricIndex] =
+      metrics->get(Metrics::kNumReplacedWithDynamicFilterRows)[metricIndex] =
           runtimeMetric("sum", second->customStats, kReplacedWithDynamicFilterRows);
-      metrics_->get(Metrics::kFlushRowCount)[metricIndex] = runtimeMetric("sum", second->customStats, kFlushRowCount);
-      metrics_->get(Metrics::kLoadedToValueHook)[metricIndex] =
+      metrics->get(Metrics::kFlushRowCount)[metricIndex] = runtimeMetric("sum", second->customStats, kFlushRowCount);
+      metrics->get(Metrics::kLoadedToValueHook)[metricIndex] =
           runtimeMetric("sum", second->customStats, kLoadedToValueHook);
-      metrics_->get(Metrics::kScanTime)[metricIndex] = runtimeMetric("sum", second->customStats, kTotalScanTime);
-      metrics_->get(Metrics::kSkippedSplits)[metricIndex] = runtimeMetric("sum", second->customStats, kSkippedSplits);
-      metrics_->get(Metrics::kProcessedSplits)[metricIndex] =
+      metrics->get(Metrics::kScanTime)[metricIndex] = runtimeMetric("sum", second->customStats, kTotalScanTime);
+      metrics->get(Metrics::kSkippedSplits)[metricIndex] = runtimeMetric("sum", second->customStats, kSkippedSplits);
+      metrics->get(Metrics::kProcessedSplits)[metricIndex] =
           runtimeMetric("sum", second->customStats, kProcessedSplits);
-      metrics_->get(Metrics::kSkippedStrides)[metricIndex] = runtimeMetric("sum", second->customStats, kSkippedStrides);
-      metrics_->get(Metrics::kProcessedStrides)[metricIndex] =
+      metrics->get(Metrics::kSkippedStrides)[metricIndex] = runtimeMetric("sum", second->customStats, kSkippedStrides);
+      metrics->get(Metrics::kProcessedStrides)[metricIndex] =
           runtimeMetric("sum", second->customStats, kProcessedStrides);
-      metrics_->get(Metrics::kRemainingFilterTime)[metricIndex] =
+      metrics->get(Metrics::kRemainingFilterTime)[metricIndex] =
           runtimeMetric("sum", second->customStats, kRemainingFilterTime);
-      metrics_->get(Metrics::kIoWaitTime)[metricIndex] = runtimeMetric("sum", second->customStats, kIoWaitTime);
-      metrics_->get(Metrics::kStorageReadBytes)[metricIndex] =
+      metrics->get(Metrics::kIoWaitTime)[metricIndex] = runtimeMetric("sum", second->customStats, kIoWaitTime);
+      metrics->get(Metrics::kStorageReadBytes)[metricIndex] =
           runtimeMetric("sum", second->customStats, kStorageReadBytes);
-      metrics_->get(Metrics::kLocalReadBytes)[metricIndex] = runtimeMetric("sum", second->customStats, kLocalReadBytes);
-      metrics_->get(Metrics::kRamReadBytes)[metricIndex] = runtimeMetric("sum", second->customStats, kRamReadBytes);
-      metrics_->get(Metrics::kPreloadSplits)[metricIndex] =
+      metrics->get(Metrics::kLocalReadBytes)[metricIndex] = runtimeMetric("sum", second->customStats, kLocalReadBytes);
+      metrics->get(Metrics::kRamReadBytes)[metricIndex] = runtimeMetric("sum", second->customStats, kRamReadBytes);
+      metrics->get(Metrics::kPreloadSplits)[metricIndex] =
           runtimeMetric("sum", entry.second->customStats, kPreloadSplits);
-      metrics_->get(Metrics::kNumWrittenFiles)[metricIndex] =
+      metrics->get(Metrics::kNumWrittenFiles)[metricIndex] =
           runtimeMetric("sum", entry.second->customStats, kNumWrittenFiles);
-      metrics_->get(Metrics::kPhysicalWrittenBytes)[metricIndex] = second->physicalWrittenBytes;
-      metrics_->get(Metrics::kWriteIOTime)[metricIndex] = runtimeMetric("sum", second->customStats, kWriteIOTime);
+      metrics->get(Metrics::kPhysicalWrittenBytes)[metricIndex] = second->physicalWrittenBytes;
+      metrics->get(Metrics::kWriteIOTime)[metricIndex] = runtimeMetric("sum", second->customStats, kWriteIOTime);
 
       metricIndex += 1;
     }
   }
+  return metrics;
 }
 
 int64_t WholeStageResultIterator::runtimeMetric(
@@ -61,6 +61,19 @@ class WholeStageResultIterator : public ColumnarBatchIterator {
     return metrics_.get();
   }
 
+  /// Metrics of the operators so far, for a task that may still be running. Unlike getMetrics(), the
+  /// result is not kept for later calls. Returns nullptr if the metrics can't be collected yet.
+  Metrics* getMetricsSnapshot(int64_t exportNanos) {
+    if (metrics_) {
+      return getMetrics(exportNanos);
+    }
+    snapshotMetrics_ = buildMetrics(true);
+    if (snapshotMetrics_) {
+      snapshotMetrics_->veloxToArrow = exportNanos;
+    }
+    return snapshotMetrics_.get();
+  }
+
   const facebook::velox::exec::Task* task() const {
     return task_.get();
   }
@@ -95,6 +108,10 @@ class WholeStageResultIterator : public ColumnarBatchIterator {
   /// Collect Velox metrics.
   void collectMetrics();
 
+  /// Build metrics from the current task stats. A snapshot skips the plan nodes that have no stats
+  /// yet by returning nullptr, instead of failing.
+  std::unique_ptr<Metrics> buildMetrics(bool snapshot);
+
   /// Return a certain type of runtime metric. Supported metric types are: sum, count, min, max.
   static int64_t runtimeMetric(
       const std::string& type,
@@ -116,6 +133,7 @@ class WholeStageResultIterator : public ColumnarBatchIterator {
 
   /// Metrics
   std::unique_ptr<Metrics> metrics_{};
+  std::unique_ptr<Metrics> snapshotMetrics_{};
 
   /// All the children plan node ids with postorder traversal.
   std::vector<facebook::velox::core::PlanNodeId> orderedNodeIds_;
@@ -21,6 +21,7 @@
 #include <jni/JniCommon.h>
 #include <velox/connectors/hive/PartitionIdGenerator.h>
 #include <velox/exec/OperatorUtils.h>
+#include <velox/vector/DecodedVector.h>
 
 #include <exception>
 #include "JniUdf.h"
@@ -52,6 +53,100 @@ jmethodID infoClsInitMethod;
 
 jclass blockStripesClass;
 jmethodID blockStripesConstructor;
+
+// Per-column stats slots, see VeloxColumnarBatchJniWrapper#collectStats.
+constexpr int kNumStatsSlots = 4;
+constexpr int64_t kStatsHasBounds = 1;
+
+// NaN is greater than any other value, as in Spark.
+template <typename T>
+bool statsLessThan(T a, T b) {
+  if constexpr (std::is_floating_point_v<T>) {
+    if (std::isnan(a)) {
+      return false;
+    }
+    if (std::isnan(b)) {
+      return true;
+    }
+  }
+  return a < b;
+}
+
+template <typename T>
+int64_t encodeStatsBound(T value) {
+  if constexpr (std::is_floating_point_v<T>) {
+    double d = value;
+    int64_t bits;
+    std::memcpy(&bits, &d, sizeof(bits));
+    return bits;
+  } else if constexpr (std::is_same_v<T, velox::Timestamp>) {
+    return value.toMicros();
+  } else {
+    return static_cast<int64_t>(value);
+  }
+}
+
+template <typename T>
+void collectColumnStats(const velox::DecodedVector& decoded, velox::vector_size_t numRows, int64_t* out) {
+  int64_t nullCount = 0;
+  bool hasBounds = false;
+  T min{};
+  T max{};
+  for (velox::vector_size_t i = 0; i < numRows; ++i) {
+    if (decoded.isNullAt(i)) {
+      ++nullCount;
+      continue;
+    }
+    auto value = decoded.valueAt<T>(i);
+    if (!hasBounds) {
+      min = value;
+      max = value;
+      hasBounds = true;
+    } else if (statsLessThan(value, min)) {
+      min = value;
+    } else if (statsLessThan(max, value)) {
+      max = value;
+    }
+  }
+  out[0] = hasBounds ? kStatsHasBounds : 0;
+  out[1] = hasBounds ? encodeStatsBound(min) : 0;
+  out[2] = hasBounds ? encodeStatsBound(max) : 0;
+  out[3] = nullCount;
+}
+
+void collectColumnStats(const velox::VectorPtr& vector, int64_t* out) {
+  velox::DecodedVector decoded(*vector);
+  const auto numRows = vector->size();
+  switch (vector->typeKind()) {
+    case velox::TypeKind::BOOLEAN:
+      return collectColumnStats<bool>(decoded, numRows, out);
+    case velox::TypeKind::TINYINT:
+      return collectColumnStats<int8_t>(decoded, numRows, out);
+    case velox::TypeKind::SMALLINT:
+      return collectColumnStats<int16_t>(decoded, numRows, out);
+    case velox::TypeKind::INTEGER:
+      return collectColumnStats<int32_t>(decoded, numRows, out);
+    case velox::TypeKind::BIGINT:
+      return collectColumnStats<int64_t>(decoded, numRows, out);
+    case velox::TypeKind::REAL:
+      return collectColumnStats<float>(decoded, numRows, out);
+    case velox::TypeKind::DOUBLE:
+      return collectColumnStats<double>(decoded, numRows, out);
+    case velox::TypeKind::TIMESTAMP:
+      return collectColumnStats<velox::Timestamp>(decoded, numRows, out);
+    default: {
+      // No bounds for other types, only the null count.
+      int64_t nullCount = 0;
+      for (velox::vector_size_t i = 0; i < numRows; ++i) {
+        nullCount += decoded.isNullAt(i) ? 1 : 0;
+      }
+      out[0] = 0;
+      out[1] = 0;
+      out[2] = 0;
+      out[3] = nullCount;
+    }
+  }
+}
 } // namespace
 
 #ifdef __cplusplus
@@ -207,13 +302,98 @@ JNIEXPORT jlong JNICALL Java_org_apache_gluten_columnarbatch_VeloxColumnarBatchJ
   JNI_METHOD_END(kInvalidObjectHandle)
 }
 
+namespace {
+// The serialized form of a bloom-filter is a version byte and an int32 word count, followed by the
+// 64-bit words.
+constexpr int64_t kBloomFilterHeaderSize = 1 + sizeof(int32_t);
+
+// Where the words of a bloom-filter live, see WordsTrackingAllocator.
+struct BloomFilterWords {
+  const uint64_t* data{nullptr};
+  size_t size{0};
+};
+
+// Allocates like std::allocator and remembers the last allocation of 64-bit words, so the set bits
+// of a velox::BloomFilter can be counted in place although the filter doesn't expose its words.
+template <typename T>
+struct WordsTrackingAllocator {
+  using value_type = T;
+
+  WordsTrackingAllocator() : words(std::make_shared<BloomFilterWords>()) {}
+
+  template <typename U>
+  WordsTrackingAllocator(const WordsTrackingAllocator<U>& other) : words(other.words) {}
+
+  T* allocate(size_t n) {
+    T* p = std::allocator<T>().allocate(n);
+    if constexpr (std::is_same_v<T, uint64_t>) {
+      words->data = p;
+      words->size = n;
+    }
+    return p;
+  }
+
+  void deallocate(T* p, size_t n) {
+    if (static_cast<const void*>(p) == words->data) {
+      words->data = nullptr;
+      words->size = 0;
+    }
+    std::allocator<T>().deallocate(p, n);
+  }
+
+  std::shared_ptr<BloomFilterWords> words;
+};
+
+template <typename T, typename U>
+bool operator==(const WordsTrackingAllocator<T>& a, const WordsTrackingAllocator<U>& b) {
+  return a.words == b.words;
+}
+
+template <typename T, typename U>
+bool operator!=(const WordsTrackingAllocator<T>& a, const WordsTrackingAllocator<U>& b) {
+  return !(a == b);
+}
+
+class JniBloomFilter : public velox::BloomFilter<WordsTrackingAllocator<uint64_t>> {
+ public:
+  JniBloomFilter() : JniBloomFilter(WordsTrackingAllocator<uint64_t>()) {}
+
+  // Number of bits set, counted over the words of the filter in place.
+  int64_t cardinality() const {
+    const size_t numWords = std::min<size_t>(
+        words_->size, (static_cast<int64_t>(serializedSize()) - kBloomFilterHeaderSize) / sizeof(uint64_t));
+    int64_t cardinality = 0;
+    for (size_t i = 0; i < numWords; ++i) {
+      cardinality += __builtin_popcountll(words_->data[i]);
+    }
+    return cardinality;
+  }
+
+ private:
+  explicit JniBloomFilter(const WordsTrackingAllocator<uint64_t>& allocator)
+      : velox::BloomFilter<WordsTrackingAllocator<uint64_t>>(allocator), words_(allocator.words) {}
+
+  std::shared_ptr<BloomFilterWords> words_;
+};
+
+// Checks that `size` bytes hold the header and all the words it announces before merging them.
+void checkSerializedBloomFilter(const char* serialized, int64_t size) {
+  GLUTEN_CHECK(size >= kBloomFilterHeaderSize, "Serialized bloom-filter is truncated");
+  int32_t numWords;
+  std::memcpy(&numWords, serialized + 1, sizeof(numWords));
+  GLUTEN_CHECK(
+      numWords >= 0 && size - kBloomFilterHeaderSize >= static_cast<int64_t>(numWords) * sizeof(uint64_t),
+      "Serialized bloom-filter is truncated");
+}
+} // namespace
+
 JNIEXPORT jlong JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWrapper_empty( // NOLINT
     JNIEnv* env,
     jobject wrapper,
     jint capacity) {
   JNI_METHOD_START
   auto ctx = getRuntime(env, wrapper);
-  auto filter = std::make_shared<velox::BloomFilter<std::allocator<uint64_t>>>();
+  auto filter = std::make_shared<JniBloomFilter>();
   filter->reset(capacity);
   GLUTEN_CHECK(filter->isSet(), "Bloom-filter is not initialized");
   return ctx->saveObject(filter);
@@ -227,9 +407,10 @@ JNIEXPORT jlong JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWrapper_
   JNI_METHOD_START
   auto safeArray = getByteArrayElementsSafe(env, data);
   auto ctx = getRuntime(env, wrapper);
-  auto filter = std::make_shared<velox::BloomFilter<std::allocator<uint64_t>>>();
-  uint8_t* serialized = safeArray.elems();
-  filter->merge(reinterpret_cast<char*>(serialized));
+  auto filter = std::make_shared<JniBloomFilter>();
+  const auto* serialized = reinterpret_cast<const char*>(safeArray.elems());
+  checkSerializedBloomFilter(serialized, safeArray.length());
+  filter->merge(serialized);
   return ctx->saveObject(filter);
   JNI_METHOD_END(kInvalidObjectHandle)
 }
@@ -240,7 +421,7 @@ JNIEXPORT void JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWrapper_i
     jlong handle,
     jlong item) {
   JNI_METHOD_START
-  auto filter = ObjectStore::retrieve<velox::BloomFilter<std::allocator<uint64_t>>>(handle);
+  auto filter = ObjectStore::retrieve<JniBloomFilter>(handle);
   GLUTEN_CHECK(filter->isSet(), "Bloom-filter is not initialized");
   filter->insert(folly::hasher<int64_t>()(item));
   JNI_METHOD_END()
@@ -252,15 +433,115 @@ JNIEXPORT jboolean JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWrapp
     jlong handle,
     jlong item) {
   JNI_METHOD_START
-  auto filter = ObjectStore::retrieve<velox::BloomFilter<std::allocator<uint64_t>>>(handle);
+  auto filter = ObjectStore::retrieve<JniBloomFilter>(handle);
   GLUTEN_CHECK(filter->isSet(), "Bloom-filter is not initialized");
   bool out = filter->mayContain(folly::hasher<int64_t>()(item));
   return out;
   JNI_METHOD_END(false)
 }
 
+JNIEXPORT jlong JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWrapper_initFromAddress( // NOLINT
+    JNIEnv* env,
+    jobject wrapper,
+    jlong address,
+    jint size) {
+  JNI_METHOD_START
+  const auto* serialized = reinterpret_cast<const char*>(address);
+  checkSerializedBloomFilter(serialized, size);
+  auto ctx = getRuntime(env, wrapper);
+  auto filter = std::make_shared<JniBloomFilter>();
+  filter->merge(serialized);
+  return ctx->saveObject(filter);
+  JNI_METHOD_END(kInvalidObjectHandle)
+}
+
+JNIEXPORT void JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWrapper_insertLongs( // NOLINT
+    JNIEnv* env,
+    jobject wrapper,
+    jlong handle,
+    jlongArray items,
+    jint length) {
+  JNI_METHOD_START
+  auto filter = ObjectStore::retrieve<JniBloomFilter>(handle);
+  GLUTEN_CHECK(filter->isSet(), "Bloom-filter is not initialized");
+  auto safeArray = getLongArrayElementsSafe(env, items);
+  const int64_t* values = safeArray.elems();
+  for (jint i = 0; i < length; ++i) {
+    filter->insert(folly::hasher<int64_t>()(values[i]));
+  }
+  JNI_METHOD_END()
+}
+
+JNIEXPORT void JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWrapper_mightContainLongs( // NOLINT
+    JNIEnv* env,
+    jobject wrapper,
+    jlong handle,
+    jlongArray items,
+    jint length,
+    jbooleanArray out) {
+  JNI_METHOD_START
+  auto filter = ObjectStore::retrieve<JniBloomFilter>(handle);
+  GLUTEN_CHECK(filter->isSet(), "Bloom-filter is not initialized");
+  auto safeArray = getLongArrayElementsSafe(env, items);
+  const int64_t* values = safeArray.elems();
+  std::vector<jboolean> results(length);
+  for (jint i = 0; i < length; ++i) {
+    results[i] = filter->mayContain(folly::hasher<int64_t>()(values[i]));
+  }
+  env->SetBooleanArrayRegion(out, 0, length, results.data());
+  JNI_METHOD_END()
+}
+
 namespace {
-static std::vector<char> serialize(BloomFilter<std::allocator<uint64_t>>* bf) {
+// Arrow validity bitmaps are LSB-ordered, a null address means all values are valid.
+inline bool isValidAt(const uint8_t* validity, int32_t i) {
+  return validity == nullptr || (validity[i >> 3] >> (i & 7)) & 1;
+}
+} // namespace
+
+JNIEXPORT void JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWrapper_insertLongsFromAddress( // NOLINT
+    JNIEnv* env,
+    jobject wrapper,
+    jlong handle,
+    jlong dataAddress,
+    jlong validityAddress,
+    jint numValues) {
+  JNI_METHOD_START
+  auto filter = ObjectStore::retrieve<JniBloomFilter>(handle);
+  GLUTEN_CHECK(filter->isSet(), "Bloom-filter is not initialized");
+  const auto* values = reinterpret_cast<const int64_t*>(dataAddress);
+  const auto* validity = reinterpret_cast<const uint8_t*>(validityAddress);
+  for (jint i = 0; i < numValues; ++i) {
+    if (isValidAt(validity, i)) {
+      filter->insert(folly::hasher<int64_t>()(values[i]));
+    }
+  }
+  JNI_METHOD_END()
+}
+
+JNIEXPORT void JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWrapper_mightContainLongsFromAddress( // NOLINT
+    JNIEnv* env,
+    jobject wrapper,
+    jlong handle,
+    jlong dataAddress,
+    jlong validityAddress,
+    jint numValues,
+    jbooleanArray out) {
+  JNI_METHOD_START
+  auto filter = ObjectStore::retrieve<JniBloomFilter>(handle);
+  GLUTEN_CHECK(filter->isSet(), "Bloom-filter is not initialized");
+  const auto* values = reinterpret_cast<const int64_t*>(dataAddress);
+  const auto* validity = reinterpret_cast<const uint8_t*>(validityAddress);
+  std::vector<jboolean> results(numValues);
+  for (jint i = 0; i < numValues; ++i) {
+    results[i] = isValidAt(validity, i) && filter->mayContain(folly::hasher<int64_t>()(values[i]));
+  }
+  env->SetBooleanArrayRegion(out, 0, numValues, results.data());
+  JNI_METHOD_END()
+}
+
+namespace {
+static std::vector<char> serialize(JniBloomFilter* bf) {
   uint32_t size = bf->serializedSize();
   std::vector<char> buffer;
   buffer.reserve(size);
@@ -276,8 +557,8 @@ JNIEXPORT void JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWrapper_m
     jlong handle,
     jlong other) {
   JNI_METHOD_START
-  auto to = ObjectStore::retrieve<velox::BloomFilter<std::allocator<uint64_t>>>(handle);
-  auto from = ObjectStore::retrieve<velox::BloomFilter<std::allocator<uint64_t>>>(other);
+  auto to = ObjectStore::retrieve<JniBloomFilter>(handle);
+  auto from = ObjectStore::retrieve<JniBloomFilter>(other);
   GLUTEN_CHECK(to->isSet(), "Bloom-filter is not initialized");
   GLUTEN_CHECK(from->isSet(), "Bloom-filter is not initialized");
   std::vector<char> serialized = serialize(from.get());
@@ -290,7 +571,7 @@ JNIEXPORT jbyteArray JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWra
     jobject wrapper,
     jlong handle) {
   JNI_METHOD_START
-  auto filter = ObjectStore::retrieve<velox::BloomFilter<std::allocator<uint64_t>>>(handle);
+  auto filter = ObjectStore::retrieve<JniBloomFilter>(handle);
   GLUTEN_CHECK(filter->isSet(), "Bloom-filter is not initialized");
   std::vector<char> buffer = serialize(filter.get());
   auto size = buffer.capacity();
@@ -300,6 +581,28 @@ JNIEXPORT jbyteArray JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWra
   JNI_METHOD_END(nullptr)
 }
 
+JNIEXPORT jlong JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWrapper_bitSize( // NOLINT
+    JNIEnv* env,
+    jobject wrapper,
+    jlong handle) {
+  JNI_METHOD_START
+  auto filter = ObjectStore::retrieve<JniBloomFilter>(handle);
+  GLUTEN_CHECK(filter->isSet(), "Bloom-filter is not initialized");
+  return (static_cast<int64_t>(filter->serializedSize()) - kBloomFilterHeaderSize) * 8;
+  JNI_METHOD_END(-1)
+}
+
+JNIEXPORT jlong JNICALL Java_org_apache_gluten_utils_VeloxBloomFilterJniWrapper_cardinality( // NOLINT
+    JNIEnv* env,
+    jobject wrapper,
+    jlong handle) {
+  JNI_METHOD_START
+  auto filter = ObjectStore::retrieve<JniBloomFilter>(handle);
+  GLUTEN_CHECK(filter->isSet(), "Bloom-filter is not initialized");
+  return filter->cardinality();
+  JNI_METHOD_END(-1)
+}
+
 JNIEXPORT jlong JNICALL Java_org_apache_gluten_utils_VeloxBatchResizerJniWrapper_create( // NOLINT
     JNIEnv* env,
     jobject wrapper,
@@ -537,6 +840,28 @@ JNIEXPORT jlong JNICALL Java_org_apache_gluten_columnarbatch_VeloxColumnarBatchJ
   JNI_METHOD_END(kInvalidObjectHandle)
 }
 
+JNIEXPORT jlongArray JNICALL Java_org_apache_gluten_columnarbatch_VeloxColumnarBatchJniWrapper_collectStats( // NOLINT
+    JNIEnv* env,
+    jobject wrapper,
+    jlong veloxBatchHandle) {
+  JNI_METHOD_START
+  auto batch = ObjectStore::retrieve<ColumnarBatch>(veloxBatchHandle);
+  auto veloxBatch = std::dynamic_pointer_cast<VeloxColumnarBatch>(batch);
+  VELOX_CHECK_NOT_NULL(veloxBatch, "Expected VeloxColumnarBatch but got a different type.");
+
+  auto rowVector = veloxBatch->getRowVector();
+  const auto numColumns = rowVector->childrenSize();
+  std::vector<int64_t> stats(numColumns * kNumStatsSlots);
+  for (size_t i = 0; i < numColumns; ++i) {
+    collectColumnStats(rowVector->childAt(i), stats.data() + i * kNumStatsSlots);
+  }
+
+  jlongArray statsArray = env->NewLongArray(stats.size());
+  env->SetLongArrayRegion(statsArray, 0, stats.size(), stats.data());
+  return statsArray;
+  JNI_METHOD_END(nullptr)
+}
+
 JNIEXPORT void JNICALL Java_org_apache_gluten_monitor_VeloxMemoryProfiler_start( // NOLINT
     JNIEnv* env,
     jclass) {
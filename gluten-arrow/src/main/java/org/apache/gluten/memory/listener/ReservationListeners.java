@@ -21,6 +21,7 @@ import org.apache.gluten.memory.MemoryUsageStatsBuilder;
 import org.apache.gluten.memory.SimpleMemoryUsageRecorder;
 import org.apache.gluten.memory.memtarget.*;
 
+import org.apache.spark.memory.GlobalOffHeapMemory;
 import org.apache.spark.memory.TaskMemoryManager;
 import org.apache.spark.task.TaskResources;
 
@@ -64,6 +65,20 @@ public final class ReservationListeners {
     return new ManagedReservationListener(target, TaskResources.getSharedUsage(), tmm);
   }
 
+  /**
+   * Creates a listener that reserves Spark's global off-heap memory, for native memory that is not
+   * owned by a single task. No spill is triggered for the reservations.
+   */
+  public static ReservationListener global() {
+    if (GlutenConfig.get().memoryUntracked()) {
+      return noop();
+    }
+    return new ManagedReservationListener(
+        MemoryTargets.throwOnOom(GlobalOffHeapMemory.memoryTarget()),
+        new SimpleMemoryUsageRecorder(),
+        new Object());
+  }
+
   private static ManagedReservationListener noop() {
     return new ManagedReservationListener(
         new NoopMemoryTarget(), new SimpleMemoryUsageRecorder(), new Object());
@@ -30,7 +30,9 @@ import java.nio.ByteBuffer;
 /**
  * This implementation is targeted to optimize against Spark's {@link
  * org.apache.spark.network.buffer.NettyManagedBuffer} to make sure shuffle data is shared over JNI
- * without unnecessary copy.
+ * without unnecessary copy. It also covers {@link
+ * org.apache.spark.network.buffer.NioManagedBuffer}, whose stream wraps a heap or direct {@link
+ * ByteBuffer}, and composite buffers assembled by the external shuffle service client.
  */
 public class LowCopyNettyJniByteInputStream implements JniByteInputStream {
 
@@ -81,11 +83,10 @@ public class LowCopyNettyJniByteInputStream implements JniByteInputStream {
     }
     ByteBufInputStream bbin = (ByteBufInputStream) in;
     try {
-      final ByteBuf byteBuf = (ByteBuf) FIELD_ByteBufInputStream_buffer.get(bbin);
-      if (!byteBuf.isDirect()) {
-        return false;
-      }
-      return true;
+      // Heap and composite buffers are accepted as well: ByteBuf#readBytes(ByteBuffer) copies
+      // them into the native destination in one pass, which still saves the intermediate heap
+      // array the on-heap fallback needs.
+      return FIELD_ByteBufInputStream_buffer.get(bbin) instanceof ByteBuf;
     } catch (IllegalAccessException e) {
       throw new GlutenException(e);
     }
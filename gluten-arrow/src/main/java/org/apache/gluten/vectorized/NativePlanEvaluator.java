@@ -83,21 +83,26 @@ public class NativePlanEvaluator {
     runtime
         .memoryManager()
         .addSpiller(
-            new Spiller() {
-              @Override
-              public long spill(MemoryTarget self, Spiller.Phase phase, long size) {
-                if (!Spillers.PHASE_SET_SPILL_ONLY.contains(phase)) {
-                  return 0L;
-                }
-                long spilled = out.spill(size);
-                LOGGER.info(
-                    "NativePlanEvaluator-{}: Spilled {} / {} bytes of data.",
-                    id.get(),
-                    spilled,
-                    size);
-                return spilled;
-              }
-            });
+            Spillers.withCost(
+                new Spiller() {
+                  @Override
+                  public long spill(MemoryTarget self, Spiller.Phase phase, long size) {
+                    if (!Spillers.PHASE_SET_SPILL_ONLY.contains(phase)) {
+                      return 0L;
+                    }
+                    long spilled = out.spill(size);
+                    LOGGER.info(
+                        "NativePlanEvaluator-{}: Spilled {} / {} bytes of data.",
+                        id.get(),
+                        spilled,
+                        size);
+                    return spilled;
+                  }
+                },
+                // Spilled operator state (hash tables, sort runs) has to be read back and
+                // rebuilt before the task can finish.
+                Spillers.EXPENSIVE_COST_PER_BYTE,
+                0L));
     return out;
   }
 
@@ -37,8 +37,9 @@ public class NativeRowToColumnarJniWrapper implements RuntimeAware {
 
   public native long init(long cSchema);
 
+  /** Converts the first {@code numRows} rows, whose lengths are the head of {@code rowLength}. */
   public native long nativeConvertRowToColumnar(
-      long r2cHandle, long[] rowLength, long bufferAddress);
+      long r2cHandle, long[] rowLength, int numRows, long bufferAddress);
 
   public native void close(long r2cHandle);
 }
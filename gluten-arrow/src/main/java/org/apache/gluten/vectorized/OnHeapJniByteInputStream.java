@@ -24,6 +24,9 @@ import java.io.InputStream;
 public class OnHeapJniByteInputStream implements JniByteInputStream {
   private final InputStream in;
   private long bytesRead = 0L;
+  // Reused across reads. The native reader asks for the same size repeatedly, so this
+  // is allocated once per stream rather than once per read.
+  private byte[] tmp = new byte[0];
 
   public OnHeapJniByteInputStream(InputStream in) {
     this.in = in;
@@ -32,11 +35,13 @@ public class OnHeapJniByteInputStream implements JniByteInputStream {
   @Override
   public long read(long destAddress, long maxSize) {
     int maxSize32 = Math.toIntExact(maxSize);
-    byte[] tmp = new byte[maxSize32];
+    if (tmp.length < maxSize32) {
+      tmp = new byte[maxSize32];
+    }
     try {
       // The code conducts copy as long as 'in' wraps off-heap data,
       // which is about to be moved to heap
-      int read = in.read(tmp);
+      int read = in.read(tmp, 0, maxSize32);
       if (read == -1 || read == 0) {
         return 0;
       }
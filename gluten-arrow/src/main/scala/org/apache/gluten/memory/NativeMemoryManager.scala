@@ -41,13 +41,17 @@ trait NativeMemoryManager {
 }
 
 object NativeMemoryManager {
-  private class Impl(backendName: String, name: String)
+  private class Impl(backendName: String, name: String, global: Boolean)
     extends NativeMemoryManager
     with TaskResource {
     private val LOGGER = LoggerFactory.getLogger(classOf[NativeMemoryManager])
     private val spillers = Spillers.appendable()
     private val mutableStats: mutable.Map[String, MemoryUsageStatsBuilder] = mutable.Map()
-    private val rl = ReservationListeners.create(name, spillers, mutableStats.asJava)
+    private val rl = if (global) {
+      ReservationListeners.global()
+    } else {
+      ReservationListeners.create(name, spillers, mutableStats.asJava)
+    }
     private val handle = NativeMemoryManagerJniWrapper.create(
       backendName,
       rl,
@@ -120,6 +124,15 @@ object NativeMemoryManager {
   }
 
   def apply(backendName: String, name: String): NativeMemoryManager = {
-    TaskResources.addAnonymousResource(new Impl(backendName, name))
+    TaskResources.addAnonymousResource(new Impl(backendName, name, global = false))
+  }
+
+  /**
+   * Creates a memory manager that is not bound to a task, for native data shared by the tasks of
+   * the executor. The memory is reserved from Spark's global off-heap memory. The memory manager is
+   * never released.
+   */
+  def global(backendName: String, name: String): NativeMemoryManager = {
+    new Impl(backendName, name, global = true)
   }
 }
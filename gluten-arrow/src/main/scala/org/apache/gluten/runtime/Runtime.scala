@@ -26,6 +26,7 @@ import org.apache.spark.task.TaskResource
 
 import org.slf4j.LoggerFactory
 
+import java.util
 import java.util.concurrent.atomic.AtomicBoolean
 
 trait Runtime {
@@ -35,20 +36,33 @@ trait Runtime {
 
 object Runtime {
   private[runtime] def apply(backendName: String, name: String): Runtime with TaskResource = {
-    new RuntimeImpl(backendName, name)
+    new RuntimeImpl(backendName, NativeMemoryManager(backendName, name), sessionConf(backendName))
   }
 
-  private class RuntimeImpl(backendName: String, name: String) extends Runtime with TaskResource {
-    private val LOGGER = LoggerFactory.getLogger(classOf[Runtime])
+  private[runtime] def global(
+      backendName: String,
+      name: String,
+      conf: util.Map[String, String]): Runtime = {
+    new RuntimeImpl(backendName, NativeMemoryManager.global(backendName, name), conf)
+  }
 
-    private val nmm: NativeMemoryManager = NativeMemoryManager(backendName, name)
-    private val handle = RuntimeJniWrapper.createRuntime(
+  /** The native configurations of the active session. */
+  private[runtime] def sessionConf(backendName: String): util.Map[String, String] = {
+    GlutenConfig.getNativeSessionConf(
       backendName,
-      nmm.getHandle(),
-      ConfigUtil.serialize(
-        GlutenConfig
-          .getNativeSessionConf(backendName, GlutenConfigUtil.parseConfig(SQLConf.get.getAllConfs)))
-    )
+      GlutenConfigUtil.parseConfig(SQLConf.get.getAllConfs))
+  }
+
+  private class RuntimeImpl(
+      backendName: String,
+      nmm: NativeMemoryManager,
+      conf: util.Map[String, String])
+    extends Runtime
+    with TaskResource {
+    private val LOGGER = LoggerFactory.getLogger(classOf[Runtime])
+
+    private val handle =
+      RuntimeJniWrapper.createRuntime(backendName, nmm.getHandle(), ConfigUtil.serialize(conf))
 
     private val released: AtomicBoolean = new AtomicBoolean(false)
 
@@ -18,7 +18,13 @@ package org.apache.gluten.runtime
 
 import org.apache.spark.task.{TaskResource, TaskResources}
 
+import java.util
+import java.util.concurrent.ConcurrentHashMap
+
 object Runtimes {
+  // Keyed by the resource name and the native configurations.
+  private val globalInstances =
+    new ConcurrentHashMap[(String, util.Map[String, String]), Runtime]()
 
   /** Get or create the runtime which bound with Spark TaskContext. */
   def contextInstance(backendName: String, name: String): Runtime = {
@@ -30,6 +36,18 @@ object Runtimes {
     TaskResources.addResourceIfNotRegistered(resourceName, () => create(backendName, name))
   }
 
+  /**
+   * Get or create the runtime which is shared by all tasks of the executor that run with the same
+   * native configurations as the active session. The runtime is never released, so objects created
+   * with it can outlive the tasks that created them.
+   */
+  def globalInstance(backendName: String, name: String): Runtime = {
+    val conf = Runtime.sessionConf(backendName)
+    globalInstances.computeIfAbsent(
+      (String.format("%s:%s", backendName, name), conf),
+      _ => Runtime.global(backendName, name, conf))
+  }
+
   private def create(backendName: String, name: String): Runtime with TaskResource = {
     Runtime(backendName, name)
   }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.vectorized
+
+import org.apache.spark.SparkFunSuite
+import org.apache.spark.network.buffer.NioManagedBuffer
+import org.apache.spark.unsafe.Platform
+
+import io.netty.buffer.{ByteBufInputStream, Unpooled}
+
+import java.io.{ByteArrayInputStream, InputStream}
+import java.nio.ByteBuffer
+import java.util.zip.{CheckedInputStream, CRC32}
+
+class JniByteInputStreamsSuite extends SparkFunSuite {
+  private val data: Array[Byte] = Array.tabulate(1000)(_.toByte)
+
+  // Reads the whole stream into native memory in chunks of `chunkSize` bytes.
+  private def readAll(in: JniByteInputStream, chunkSize: Int): Array[Byte] = {
+    val address = Platform.allocateMemory(data.length)
+    try {
+      var offset = 0L
+      var read = in.read(address, chunkSize)
+      while (read > 0) {
+        offset += read
+        read = in.read(address + offset, Math.min(chunkSize, data.length - offset))
+      }
+      assert(in.tell() == offset)
+      val out = new Array[Byte](offset.toInt)
+      Platform.copyMemory(null, address, out, Platform.BYTE_ARRAY_OFFSET, offset)
+      out
+    } finally {
+      Platform.freeMemory(address)
+      in.close()
+    }
+  }
+
+  private def checkLowCopy(in: InputStream): Unit = {
+    val jniIn = JniByteInputStreams.create(in)
+    assert(jniIn.isInstanceOf[LowCopyNettyJniByteInputStream])
+    assert(readAll(jniIn, 128).sameElements(data))
+  }
+
+  test("heap netty buffer is read with low copy") {
+    checkLowCopy(new ByteBufInputStream(Unpooled.wrappedBuffer(data)))
+  }
+
+  test("composite netty buffer is read with low copy") {
+    val direct = Unpooled.directBuffer(data.length - 300)
+    direct.writeBytes(data, 300, data.length - 300)
+    val composite = Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(data, 0, 300), direct)
+    checkLowCopy(new ByteBufInputStream(composite, true))
+  }
+
+  test("nio managed buffer is read with low copy") {
+    checkLowCopy(new NioManagedBuffer(ByteBuffer.wrap(data)).createInputStream())
+  }
+
+  test("checked input stream is unwrapped") {
+    checkLowCopy(
+      new CheckedInputStream(new ByteBufInputStream(Unpooled.wrappedBuffer(data)), new CRC32()))
+  }
+
+  test("other streams fall back to on-heap copy") {
+    val jniIn = JniByteInputStreams.create(new ByteArrayInputStream(data))
+    assert(jniIn.isInstanceOf[OnHeapJniByteInputStream])
+    // The staging array is reused and only grows, shorter reads must not copy stale bytes.
+    assert(readAll(jniIn, 300).sameElements(data))
+  }
+}
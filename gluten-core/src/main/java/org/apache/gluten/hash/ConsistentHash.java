@@ -22,8 +22,6 @@ import org.apache.commons.codec.digest.MurmurHash3;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.util.*;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -37,20 +35,28 @@ import java.util.stream.IntStream;
  * partition. It allocates the partition to the ring by hashing the partition key to a slot in the
  * ring.
  *
+ * <p>Lookups are lock-free: every mutation publishes an immutable snapshot of the ring, backed by a
+ * sorted array of slots searched with binary search.
+ *
  * @param <T> the type of node to be used in the ring.
  */
 @ThreadSafe
 public class ConsistentHash<T extends ConsistentHash.Node> {
 
-  // read-write lock for the ring.
-  private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
+  // serializes the mutations of the ring.
+  private final Object writeLock = new Object();
 
-  // keep the mapping of node to its partitions, each partition is a slot in the ring.
+  // keep the mapping of node to its partitions, each partition is a slot in the ring. Guarded by
+  // the write lock.
   private final Map<T, Set<Partition<T>>> nodes = new HashMap<>();
 
-  // keep the mapping of slot to partition, the partition actually is a virtual node.
+  // keep the mapping of slot to partition, the partition actually is a virtual node. Guarded by
+  // the write lock.
   private final SortedMap<Long, Partition<T>> ring = new TreeMap<>();
 
+  // the snapshot of the ring read by lookups, replaced on every mutation.
+  private volatile Snapshot<T> snapshot = new Snapshot<>(new long[0], new Node[0], new HashMap<>());
+
   // the number of virtual nodes for each physical node.
   private final int replicate;
 
@@ -81,11 +87,12 @@ public class ConsistentHash<T extends ConsistentHash.Node> {
    * @return true if the node is added successfully, false otherwise.
    */
   public boolean addNode(T node) {
-    lock.writeLock().lock();
-    try {
-      return add(node);
-    } finally {
-      lock.writeLock().unlock();
+    synchronized (writeLock) {
+      boolean added = add(node);
+      if (added) {
+        publish();
+      }
+      return added;
     }
   }
 
@@ -96,18 +103,15 @@ public class ConsistentHash<T extends ConsistentHash.Node> {
    * @return true if the node is removed successfully, false otherwise.
    */
   public boolean removeNode(T node) {
-    lock.writeLock().lock();
-    boolean removed = false;
-    try {
-      if (nodes.containsKey(node)) {
-        Set<Partition<T>> partitions = nodes.remove(node);
-        partitions.forEach(p -> ring.remove(p.getSlot()));
-        removed = true;
+    synchronized (writeLock) {
+      if (!nodes.containsKey(node)) {
+        return false;
       }
-    } finally {
-      lock.writeLock().unlock();
+      Set<Partition<T>> partitions = nodes.remove(node);
+      partitions.forEach(p -> ring.remove(p.getSlot()));
+      publish();
+      return true;
     }
-    return removed;
   }
 
   /**
@@ -118,25 +122,26 @@ public class ConsistentHash<T extends ConsistentHash.Node> {
    * @return a set of nodes located by the key.
    */
   public Set<T> allocateNodes(String key, int count) {
-    lock.readLock().lock();
-    try {
-      Set<T> res = new HashSet<>();
-      if (key != null && count > 0) {
-        if (count < nodes.size()) {
-          long slot = hasher.hash(key, 0);
-          Iterator<Partition<T>> it = new AllocateIterator(slot);
-          while (it.hasNext() && res.size() < count) {
-            Partition<T> part = it.next();
-            res.add(part.getNode());
-          }
-        } else {
-          res.addAll(nodes.keySet());
-        }
-      }
-      return res;
-    } finally {
-      lock.readLock().unlock();
+    final Snapshot<T> current = snapshot;
+    if (key == null || count <= 0) {
+      return new HashSet<>();
     }
+    if (count >= current.nodes.size()) {
+      return new HashSet<>(current.nodes.keySet());
+    }
+    final long slot = hasher.hash(key, 0);
+    final int numSlots = current.slots.length;
+    // the first slot not less than the key's slot, wrapping around the ring.
+    int start = Arrays.binarySearch(current.slots, slot);
+    if (start < 0) {
+      start = -start - 1;
+    }
+    Set<T> res = new HashSet<>();
+    for (int i = 0; i < numSlots && res.size() < count; i++) {
+      int idx = start + i;
+      res.add(current.ownerAt(idx < numSlots ? idx : idx - numSlots));
+    }
+    return res;
   }
 
   /**
@@ -145,12 +150,7 @@ public class ConsistentHash<T extends ConsistentHash.Node> {
    * @return a set of nodes in the ring.
    */
   public Set<T> getNodes() {
-    lock.readLock().lock();
-    try {
-      return new HashSet<>(nodes.keySet());
-    } finally {
-      lock.readLock().unlock();
-    }
+    return new HashSet<>(snapshot.nodes.keySet());
   }
 
   /**
@@ -160,12 +160,7 @@ public class ConsistentHash<T extends ConsistentHash.Node> {
    * @return a set of partitions of the node.
    */
   public Set<Partition<T>> getPartition(T node) {
-    lock.readLock().lock();
-    try {
-      return nodes.get(node);
-    } finally {
-      lock.readLock().unlock();
-    }
+    return snapshot.nodes.get(node);
   }
 
   /**
@@ -175,12 +170,7 @@ public class ConsistentHash<T extends ConsistentHash.Node> {
    * @return true if the node is in the ring, false otherwise.
    */
   public boolean contains(T node) {
-    lock.readLock().lock();
-    try {
-      return nodes.containsKey(node);
-    } finally {
-      lock.readLock().unlock();
-    }
+    return snapshot.nodes.containsKey(node);
   }
 
   /**
@@ -190,12 +180,7 @@ public class ConsistentHash<T extends ConsistentHash.Node> {
    * @return true if the slot is in the ring, false otherwise.
    */
   public boolean ringContain(long slot) {
-    lock.readLock().lock();
-    try {
-      return ring.containsKey(slot);
-    } finally {
-      lock.readLock().unlock();
-    }
+    return Arrays.binarySearch(snapshot.slots, slot) >= 0;
   }
 
   private boolean add(T node) {
@@ -223,6 +208,22 @@ public class ConsistentHash<T extends ConsistentHash.Node> {
     return added;
   }
 
+  // Must be called with the write lock held.
+  private void publish() {
+    final long[] slots = new long[ring.size()];
+    final Node[] owners = new Node[ring.size()];
+    int i = 0;
+    for (Map.Entry<Long, Partition<T>> entry : ring.entrySet()) {
+      slots[i] = entry.getKey();
+      owners[i] = entry.getValue().getNode();
+      i++;
+    }
+    final Map<T, Set<Partition<T>>> nodesCopy = new HashMap<>();
+    nodes.forEach(
+        (node, partitions) -> nodesCopy.put(node, Collections.unmodifiableSet(partitions)));
+    snapshot = new Snapshot<>(slots, owners, nodesCopy);
+  }
+
   public static class Partition<T extends ConsistentHash.Node> {
     private final T node;
 
@@ -262,23 +263,25 @@ public class ConsistentHash<T extends ConsistentHash.Node> {
     long hash(String key, int seed);
   }
 
-  private class AllocateIterator implements Iterator<Partition<T>> {
-    private final Iterator<Partition<T>> head;
-    private final Iterator<Partition<T>> tail;
+  /** An immutable view of the ring. */
+  private static final class Snapshot<T extends ConsistentHash.Node> {
+    // the sorted slots of the ring.
+    private final long[] slots;
 
-    AllocateIterator(long slot) {
-      this.head = ring.headMap(slot).values().iterator();
-      this.tail = ring.tailMap(slot).values().iterator();
-    }
+    // the node owning the slot at the same index.
+    private final Node[] owners;
+
+    private final Map<T, Set<Partition<T>>> nodes;
 
-    @Override
-    public boolean hasNext() {
-      return head.hasNext() || tail.hasNext();
+    Snapshot(long[] slots, Node[] owners, Map<T, Set<Partition<T>>> nodes) {
+      this.slots = slots;
+      this.owners = owners;
+      this.nodes = Collections.unmodifiableMap(nodes);
     }
 
-    @Override
-    public Partition<T> next() {
-      return tail.hasNext() ? tail.next() : head.next();
+    @SuppressWarnings("unchecked")
+    T ownerAt(int idx) {
+      return (T) owners[idx];
     }
   }
 }
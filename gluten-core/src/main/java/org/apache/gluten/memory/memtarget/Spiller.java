@@ -16,9 +16,31 @@
  */
 package org.apache.gluten.memory.memtarget;
 
+import java.util.OptionalDouble;
+
 public interface Spiller {
+  double DEFAULT_COST_PER_BYTE = 1.0D;
+
   long spill(MemoryTarget self, Phase phase, long size);
 
+  /**
+   * Estimated relative cost of freeing one byte through this spiller. When a memory tree has to
+   * spill, children with lower costs are chosen as victims first. E.g. a shuffle buffer that can
+   * be flushed sequentially is cheaper than a hash table that has to be rebuilt after spilling.
+   * Empty if the spiller doesn't declare a cost, {@link #DEFAULT_COST_PER_BYTE} is assumed then.
+   */
+  default OptionalDouble costPerByte() {
+    return OptionalDouble.empty();
+  }
+
+  /**
+   * The least amount of memory the owning target should hold before spilling it is considered
+   * useful. Targets holding less than this are only spilled after all the others.
+   */
+  default long minUsefulSpillBytes() {
+    return 0L;
+  }
+
   // Order of the elements matters, since
   // consumer should call spillers with in the defined order.
   enum Phase {
@@ -29,8 +29,19 @@ public final class Spillers {
         public long spill(MemoryTarget self, Phase phase, long size) {
           return 0;
         }
+
+        @Override
+        public OptionalDouble costPerByte() {
+          // Never frees anything, so never worth choosing on its own.
+          return OptionalDouble.of(Double.POSITIVE_INFINITY);
+        }
       };
 
+  // Cost hints for withCost(). Cheap: data can be flushed out sequentially, e.g. shuffle
+  // buffers. Expensive: spilled state has to be read back and rebuilt, e.g. hash tables.
+  public static final double CHEAP_COST_PER_BYTE = 0.5D;
+  public static final double EXPENSIVE_COST_PER_BYTE = 2.0D;
+
   public static final Set<Spiller.Phase> PHASE_SET_ALL =
       Collections.unmodifiableSet(
           new HashSet<>(Arrays.asList(Spiller.Phase.SHRINK, Spiller.Phase.SPILL)));
@@ -45,6 +56,14 @@ public final class Spillers {
     return new WithMinSpillSize(spiller, minSize);
   }
 
+  /**
+   * Declares the spill cost of `spiller`. See {@link Spiller#costPerByte()} and {@link
+   * Spiller#minUsefulSpillBytes()}.
+   */
+  public static Spiller withCost(Spiller spiller, double costPerByte, long minUsefulSpillBytes) {
+    return new WithCost(spiller, costPerByte, minUsefulSpillBytes);
+  }
+
   public static AppendableSpillerList appendable() {
     return new AppendableSpillerList();
   }
@@ -65,6 +84,44 @@ public final class Spillers {
     public long spill(MemoryTarget self, Spiller.Phase phase, long size) {
       return delegated.spill(self, phase, Math.max(size, minSize));
     }
+
+    @Override
+    public OptionalDouble costPerByte() {
+      return delegated.costPerByte();
+    }
+
+    @Override
+    public long minUsefulSpillBytes() {
+      // A target holding less than the minimum spill size can't free a full block either.
+      return Math.max(delegated.minUsefulSpillBytes(), minSize);
+    }
+  }
+
+  private static class WithCost implements Spiller {
+    private final Spiller delegated;
+    private final double costPerByte;
+    private final long minUsefulSpillBytes;
+
+    private WithCost(Spiller delegated, double costPerByte, long minUsefulSpillBytes) {
+      this.delegated = delegated;
+      this.costPerByte = costPerByte;
+      this.minUsefulSpillBytes = minUsefulSpillBytes;
+    }
+
+    @Override
+    public long spill(MemoryTarget self, Spiller.Phase phase, long size) {
+      return delegated.spill(self, phase, size);
+    }
+
+    @Override
+    public OptionalDouble costPerByte() {
+      return OptionalDouble.of(costPerByte);
+    }
+
+    @Override
+    public long minUsefulSpillBytes() {
+      return minUsefulSpillBytes;
+    }
   }
 
   public static class AppendableSpillerList implements Spiller {
@@ -87,5 +144,22 @@ public final class Spillers {
       }
       return size - remainingBytes;
     }
+
+    // The list is as expensive to spill as its most expensive member that declares a cost.
+    // Members that declare no cost (e.g. the memory manager's own shrinker) or never free
+    // anything don't count.
+    @Override
+    public OptionalDouble costPerByte() {
+      return spillers.stream()
+          .map(Spiller::costPerByte)
+          .filter(c -> c.isPresent() && c.getAsDouble() != Double.POSITIVE_INFINITY)
+          .mapToDouble(OptionalDouble::getAsDouble)
+          .max();
+    }
+
+    @Override
+    public long minUsefulSpillBytes() {
+      return spillers.stream().mapToLong(Spiller::minUsefulSpillBytes).max().orElse(0L);
+    }
   }
 }
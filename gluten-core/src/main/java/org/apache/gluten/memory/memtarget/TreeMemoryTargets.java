@@ -18,9 +18,10 @@ package org.apache.gluten.memory.memtarget;
 
 import org.apache.gluten.memory.MemoryUsageStatsBuilder;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
 
 public class TreeMemoryTargets {
 
@@ -53,19 +54,21 @@ public class TreeMemoryTargets {
   }
 
   private static long spillTree(TreeMemoryTarget node, Spiller.Phase phase, final long bytes) {
-    // sort children by used bytes, descending
-    Queue<TreeMemoryTarget> q =
-        new PriorityQueue<>(
-            (o1, o2) -> {
-              long diff = o1.usedBytes() - o2.usedBytes();
-              return -(diff > 0 ? 1 : diff < 0 ? -1 : 0); // descending
-            });
-    q.addAll(node.children().values());
+    // Pick victims by estimated cost per byte freed. Children holding less than their declared
+    // minimum useful spill size go last, and among equally cheap children the larger ones go
+    // first so fewer of them have to be interrupted.
+    final List<Victim> victims = new ArrayList<>();
+    for (TreeMemoryTarget child : node.children().values()) {
+      victims.add(new Victim(child));
+    }
+    victims.sort(Victim.ORDER);
 
     long remainingBytes = bytes;
-    while (q.peek() != null && remainingBytes > 0) {
-      TreeMemoryTarget head = q.remove();
-      long spilled = spillTree(head, phase, remainingBytes);
+    for (Victim victim : victims) {
+      if (remainingBytes <= 0) {
+        break;
+      }
+      long spilled = spillTree(victim.target, phase, remainingBytes);
       remainingBytes -= spilled;
     }
 
@@ -78,4 +81,35 @@ public class TreeMemoryTargets {
 
     return bytes - remainingBytes;
   }
+
+  /**
+   * The cheapest cost per byte at which memory can be freed from the subtree of `node`, either by
+   * its own spiller or by one of its descendants.
+   */
+  private static double costPerByte(TreeMemoryTarget node) {
+    double cost = node.getNodeSpiller().costPerByte().orElse(Spiller.DEFAULT_COST_PER_BYTE);
+    for (TreeMemoryTarget child : node.children().values()) {
+      cost = Math.min(cost, costPerByte(child));
+    }
+    return cost;
+  }
+
+  private static class Victim {
+    private static final Comparator<Victim> ORDER =
+        Comparator.<Victim>comparingInt(v -> v.undersized ? 1 : 0)
+            .thenComparingDouble(v -> v.costPerByte)
+            .thenComparing(v -> v.usedBytes, Comparator.reverseOrder());
+
+    private final TreeMemoryTarget target;
+    private final long usedBytes;
+    private final double costPerByte;
+    private final boolean undersized;
+
+    private Victim(TreeMemoryTarget target) {
+      this.target = target;
+      this.usedBytes = target.usedBytes();
+      this.costPerByte = costPerByte(target);
+      this.undersized = usedBytes < target.getNodeSpiller().minUsefulSpillBytes();
+    }
+  }
 }
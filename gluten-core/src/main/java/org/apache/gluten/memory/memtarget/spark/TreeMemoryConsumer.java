@@ -31,7 +31,9 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.OptionalDouble;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -160,6 +162,8 @@ public class TreeMemoryConsumer extends MemoryConsumer implements TreeMemoryTarg
     private final Spiller spiller;
     private final Map<String, MemoryUsageStatsBuilder> virtualChildren;
     private final SimpleMemoryUsageRecorder selfRecorder = new SimpleMemoryUsageRecorder();
+    private final AtomicLong spillCount = new AtomicLong(0L);
+    private final AtomicLong spilledBytes = new AtomicLong(0L);
 
     private Node(
         TreeMemoryTarget parent,
@@ -175,7 +179,7 @@ public class TreeMemoryConsumer extends MemoryConsumer implements TreeMemoryTarg
       } else {
         this.name = String.format("%s, %s", uniqueName, Utils.bytesToString(capacity));
       }
-      this.spiller = spiller;
+      this.spiller = new CountingSpiller(spiller);
       this.virtualChildren = virtualChildren;
     }
 
@@ -264,7 +268,12 @@ public class TreeMemoryConsumer extends MemoryConsumer implements TreeMemoryTarg
         }
         childrenStats.put(entry.getKey(), entry.getValue().toStats());
       }
-      return selfRecorder.toStats(childrenStats);
+      return selfRecorder
+          .toStats(childrenStats)
+          .toBuilder()
+          .setSpillCount(spillCount.get())
+          .setSpilledBytes(spilledBytes.get())
+          .build();
     }
 
     @Override
@@ -291,5 +300,33 @@ public class TreeMemoryConsumer extends MemoryConsumer implements TreeMemoryTarg
     public TreeMemoryTarget parent() {
       return parent;
     }
+
+    private class CountingSpiller implements Spiller {
+      private final Spiller delegated;
+
+      private CountingSpiller(Spiller delegated) {
+        this.delegated = delegated;
+      }
+
+      @Override
+      public long spill(MemoryTarget self, Phase phase, long size) {
+        final long spilled = delegated.spill(self, phase, size);
+        if (spilled > 0) {
+          spillCount.incrementAndGet();
+          spilledBytes.addAndGet(spilled);
+        }
+        return spilled;
+      }
+
+      @Override
+      public OptionalDouble costPerByte() {
+        return delegated.costPerByte();
+      }
+
+      @Override
+      public long minUsefulSpillBytes() {
+        return delegated.minUsefulSpillBytes();
+      }
+    }
   }
 }
@@ -72,6 +72,15 @@ private[gluten] class GlutenDriverPlugin extends DriverPlugin with Logging {
     Component.sorted().foreach(_.registerMetrics(appId, pluginContext))
   }
 
+  override def receive(message: Any): AnyRef = {
+    Component
+      .sorted()
+      .iterator
+      .map(_.onDriverReceive(message))
+      .collectFirst { case Some(reply) => reply }
+      .getOrElse(throw new GlutenException(s"No component handles message $message"))
+  }
+
   override def shutdown(): Unit = {
     Component.sorted().reverse.foreach(_.onDriverShutdown())
   }
@@ -61,6 +61,12 @@ trait Component {
   def onExecutorStart(pc: PluginContext): Unit = {}
   def onExecutorShutdown(): Unit = {}
 
+  /**
+   * Handles a message sent by an executor through the plugin context. Returns None if the message
+   * is not for this component. Only called on Driver.
+   */
+  def onDriverReceive(message: Any): Option[AnyRef] = None
+
   /** Metrics register, only called on Driver. */
   def registerMetrics(appId: String, pluginContext: PluginContext): Unit = {}
 
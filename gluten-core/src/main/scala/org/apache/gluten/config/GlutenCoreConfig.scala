@@ -20,6 +20,8 @@ import org.apache.spark.internal.Logging
 import org.apache.spark.network.util.ByteUnit
 import org.apache.spark.sql.internal.{SQLConf, SQLConfProvider}
 
+import java.util.concurrent.TimeUnit
+
 class GlutenCoreConfig(conf: SQLConf) extends Logging {
   import GlutenCoreConfig._
 
@@ -36,6 +38,16 @@ class GlutenCoreConfig(conf: SQLConf) extends Logging {
 
   def rasCostModel: String = getConf(RAS_COST_MODEL)
 
+  def rasMaxPlanningTimeMs: Long = getConf(RAS_MAX_PLANNING_TIME)
+
+  def rasMaxMemoNodes: Int = getConf(RAS_MAX_MEMO_NODES)
+
+  def rasFragmentCacheEnabled: Boolean = getConf(RAS_FRAGMENT_CACHE_ENABLED)
+
+  def rasFragmentCacheMaxEntries: Int = getConf(RAS_FRAGMENT_CACHE_MAX_ENTRIES)
+
+  def rasParallelism: Int = getConf(RAS_PARALLELISM)
+
   def memoryUntracked: Boolean = getConf(COLUMNAR_MEMORY_UNTRACKED)
 
   def offHeapMemorySize: Long = getConf(COLUMNAR_OFFHEAP_SIZE_IN_BYTES)
@@ -105,6 +117,52 @@ object GlutenCoreConfig {
       .stringConf
       .createWithDefaultString("legacy")
 
+  val RAS_MAX_PLANNING_TIME =
+    buildConf("spark.gluten.ras.maxPlanningTime")
+      .doc(
+        "Time budget of RAS planning for a single query plan. Once exceeded, RAS stops exploring " +
+          "new alternatives and returns the best plan found so far. 0 means unlimited.")
+      .timeConf(TimeUnit.MILLISECONDS)
+      .checkValue(_ >= 0, "must not be negative.")
+      .createWithDefault(0L)
+
+  val RAS_MAX_MEMO_NODES =
+    buildConf("spark.gluten.ras.maxMemoNodes")
+      .doc(
+        "Maximum number of plan nodes RAS memorizes when planning a single query plan. Once " +
+          "exceeded, RAS stops exploring new alternatives and returns the best plan found so " +
+          "far. 0 means unlimited.")
+      .intConf
+      .checkValue(_ >= 0, "must not be negative.")
+      .createWithDefault(0)
+
+  val RAS_FRAGMENT_CACHE_ENABLED =
+    buildConf("spark.gluten.ras.fragmentCache.enabled")
+      .doc(
+        "Caches the best plans RAS found for sub-plans and reuses them for identical sub-plans " +
+          "planned later, e.g., when AQE plans the stages of a re-run query, instead of " +
+          "exploring them again. Sub-plans reading query stages, reused exchanges or subqueries " +
+          "are not cached. May miss better plans when the parent nodes of a sub-plan change.")
+      .booleanConf
+      .createWithDefault(false)
+
+  val RAS_FRAGMENT_CACHE_MAX_ENTRIES =
+    buildStaticConf("spark.gluten.ras.fragmentCache.maxEntries")
+      .doc("Maximum number of sub-plans kept in RAS fragment cache.")
+      .intConf
+      .checkValue(_ > 0, "must be positive.")
+      .createWithDefault(1000)
+
+  val RAS_PARALLELISM =
+    buildConf("spark.gluten.ras.parallelism")
+      .doc(
+        "Number of driver threads RAS uses to apply rules when planning a single query plan. " +
+          "Speeds up planning of wide plans, e.g., with many joins. 1 means RAS applies the " +
+          "rules on the planning thread only.")
+      .intConf
+      .checkValue(_ > 0, "must be positive.")
+      .createWithDefault(1)
+
   val COLUMNAR_MEMORY_UNTRACKED =
     buildStaticConf("spark.gluten.memory.untracked")
       .internal()
@@ -21,6 +21,8 @@ import org.apache.gluten.extension.caller.CallerInfo
 import org.apache.spark.sql.SparkSession
 import org.apache.spark.sql.execution.SparkPlan
 
+import java.util.concurrent.ConcurrentHashMap
+
 trait ColumnarRuleApplier {
   def apply(plan: SparkPlan, outputsColumnar: Boolean): SparkPlan
 }
@@ -31,5 +33,32 @@ object ColumnarRuleApplier {
       val caller: CallerInfo,
       val outputsColumnar: Boolean) {
     val sqlConf = session.sessionState.conf
+    private val memoized = new ConcurrentHashMap[String, AnyRef]()
+
+    /**
+     * Computes a value once for this rule call, e.g. something derived from the session conf that
+     * rules would otherwise recompute for every plan node.
+     */
+    def memoize[T <: AnyRef](key: String)(compute: => T): T = {
+      memoized.computeIfAbsent(key, _ => compute).asInstanceOf[T]
+    }
+  }
+
+  private val localCall: ThreadLocal[Option[ColumnarRuleCall]] =
+    new ThreadLocal[Option[ColumnarRuleCall]]() {
+      override def initialValue(): Option[ColumnarRuleCall] = None
+    }
+
+  /** The rule call being applied by the current thread, if any. */
+  def currentCall(): Option[ColumnarRuleCall] = localCall.get()
+
+  private[columnar] def withCall[T](call: ColumnarRuleCall)(body: => T): T = {
+    val prevCall = localCall.get()
+    localCall.set(Some(call))
+    try {
+      body
+    } finally {
+      localCall.set(prevCall)
+    }
   }
 }
@@ -43,12 +43,13 @@ class EnumeratedApplier(
 
   override def apply(plan: SparkPlan, outputsColumnar: Boolean): SparkPlan = {
     val call = new ColumnarRuleCall(session, CallerInfo.create(), outputsColumnar)
-    val finalPlan = apply0(
-      ruleBuilders
-        .map(b => b(call))
-        .map(r => ruleWrappers.foldLeft(r) { case (r, wrapper) => wrapper(r) }),
-      plan)
-    finalPlan
+    ColumnarRuleApplier.withCall(call) {
+      apply0(
+        ruleBuilders
+          .map(b => b(call))
+          .map(r => ruleWrappers.foldLeft(r) { case (r, wrapper) => wrapper(r) }),
+        plan)
+    }
   }
 
   private def apply0(rules: Seq[Rule[SparkPlan]], plan: SparkPlan): SparkPlan =
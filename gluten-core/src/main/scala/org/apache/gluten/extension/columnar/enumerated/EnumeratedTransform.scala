@@ -17,6 +17,7 @@
 package org.apache.gluten.extension.columnar.enumerated
 
 import org.apache.gluten.component.Component
+import org.apache.gluten.config.GlutenCoreConfig
 import org.apache.gluten.exception.GlutenException
 import org.apache.gluten.extension.caller.CallerInfo
 import org.apache.gluten.extension.columnar.ColumnarRuleApplier.ColumnarRuleCall
@@ -26,12 +27,16 @@ import org.apache.gluten.extension.columnar.enumerated.planner.property.Conv
 import org.apache.gluten.extension.injector.Injector
 import org.apache.gluten.logging.LogLevelUtil
 import org.apache.gluten.ras.{Cost, CostModel}
+import org.apache.gluten.ras.memo.FragmentCache
 import org.apache.gluten.ras.property.PropertySet
-import org.apache.gluten.ras.rule.RasRule
+import org.apache.gluten.ras.rule.{RasRule, Shape}
 
 import org.apache.spark.sql.{SparkSession, SparkSessionExtensions}
 import org.apache.spark.sql.catalyst.rules.Rule
 import org.apache.spark.sql.execution._
+import org.apache.spark.sql.execution.adaptive.QueryStageExec
+import org.apache.spark.sql.execution.exchange.ReusedExchangeExec
+import org.apache.spark.sql.internal.SQLConf
 
 /**
  * Rule to offload Spark query plan to Gluten query plan using a search algorithm and a defined cost
@@ -51,11 +56,32 @@ case class EnumeratedTransform(costModel: GlutenCostModel, rules: Seq[RasRule[Sp
   import EnumeratedTransform._
 
   private val optimization = {
-    GlutenOptimization
+    val conf = GlutenCoreConfig.get
+    val builder = GlutenOptimization
       .builder()
       .costModel(asRasCostModel(costModel))
       .addRules(rules)
+    if (conf.rasParallelism > 1) {
+      // Captures the session and the SQL configurations of each planning call.
+      builder.wrapRules {
+        rules =>
+          val session = SparkSession.getActiveSession
+          val sqlConf = SQLConf.get
+          rules.map(new SessionPreservingRule(_, session, sqlConf))
+      }
+    }
+    val optimization = builder
       .create()
+      .withNewConfig(
+        _.copy(
+          maxPlanningTimeMs = conf.rasMaxPlanningTimeMs,
+          maxMemoNodes = conf.rasMaxMemoNodes,
+          parallelism = conf.rasParallelism))
+    if (conf.rasFragmentCacheEnabled) {
+      optimization.withFragmentCache(fragmentCache.scoped(fragmentCacheScope(costModel)))
+    } else {
+      optimization
+    }
   }
 
   private val convReq = Conv.any
@@ -69,6 +95,42 @@ case class EnumeratedTransform(costModel: GlutenCostModel, rules: Seq[RasRule[Sp
 }
 
 object EnumeratedTransform {
+  // Shared by all EnumeratedTransform instances so that the best plans survive re-planning.
+  private lazy val fragmentCache: FragmentCache[SparkPlan] =
+    FragmentCache.lru(GlutenCoreConfig.get.rasFragmentCacheMaxEntries, SparkPlanTemplates)
+
+  /** Number of fragments reused from the fragment cache in this JVM so far. */
+  private[gluten] def fragmentCacheHits(): Long = fragmentCache.hitCount()
+
+  /**
+   * Fragments are keyed by their canonicalized form and their output, so a cached best plan only
+   * serves sub-plans with the same attributes visible to the parent. The cached plans are clones
+   * that no query executes, and each reuse gets its own clone, so that no two queries share the
+   * lazy state of a node, like the map output statistics of a shuffle or the partitions selected
+   * by a scan.
+   *
+   * Fragments over query stages, reused exchanges or subqueries aren't cached: their results
+   * belong to one execution and would be dropped by cloning.
+   */
+  private object SparkPlanTemplates extends FragmentCache.Templates[SparkPlan] {
+    override def cacheable(plan: SparkPlan): Boolean = plan.find {
+      case _: QueryStageExec | _: ReusedExchangeExec => true
+      case p => p.expressions.exists(_.find(_.isInstanceOf[ExecSubqueryExpression]).isDefined)
+    }.isEmpty
+
+    override def keyOf(plan: SparkPlan): Any = (plan.canonicalized, plan.output)
+
+    override def copy(plan: SparkPlan): SparkPlan = plan.clone()
+  }
+
+  // Best plans depend on the cost model and on the configurations that the offload rules read,
+  // most of which are Gluten's own. Only the ones set in the session are part of the scope.
+  private def fragmentCacheScope(costModel: GlutenCostModel): Any = {
+    val conf = SQLConf.get
+    val glutenConfs = conf.getAllConfs.filter { case (key, _) => key.startsWith("spark.gluten.") }
+    (costModel.getClass.getName, conf.ansiEnabled, glutenConfs)
+  }
+
   // Creates a static EnumeratedTransform rule for use in certain
   // places that requires to emulate the offloading of a Spark query plan.
   //
@@ -89,6 +151,32 @@ object EnumeratedTransform {
     new CostModelAdapter(gcm)
   }
 
+  /**
+   * Applies the rule with the session and the SQL configurations of the planning call this rule
+   * was created for. They are thread-local, so are otherwise missing when RAS applies the rule from
+   * its own threads.
+   */
+  private class SessionPreservingRule(
+      rule: RasRule[SparkPlan],
+      session: Option[SparkSession],
+      conf: SQLConf)
+    extends RasRule[SparkPlan] {
+    override def shift(node: SparkPlan): Iterable[SparkPlan] = {
+      val previous = SparkSession.getActiveSession
+      session.foreach(SparkSession.setActiveSession)
+      try {
+        SQLConf.withExistingConf(conf)(rule.shift(node).toList)
+      } finally {
+        previous match {
+          case Some(s) => SparkSession.setActiveSession(s)
+          case None => SparkSession.clearActiveSession()
+        }
+      }
+    }
+
+    override def shape(): Shape[SparkPlan] = rule.shape()
+  }
+
   /** The adapter to make GlutenCostModel comply with RAS cost model. */
   private class CostModelAdapter(gcm: GlutenCostModel) extends CostModel[SparkPlan] {
     override def costOf(node: SparkPlan): Cost = CostAdapter(gcm.costOf(node))
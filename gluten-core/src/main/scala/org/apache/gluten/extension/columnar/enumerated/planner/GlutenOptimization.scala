@@ -22,6 +22,7 @@ import org.apache.gluten.extension.columnar.enumerated.planner.property.GlutenPr
 import org.apache.gluten.ras.{CostModel, Optimization, RasExplain}
 import org.apache.gluten.ras.rule.RasRule
 
+import org.apache.spark.internal.Logging
 import org.apache.spark.sql.execution.SparkPlan
 
 import scala.collection.mutable
@@ -29,12 +30,26 @@ import scala.collection.mutable
 object GlutenOptimization {
   def builder(): Builder = new BuilderImpl
 
-  private object GlutenExplain extends RasExplain[SparkPlan] {
+  private object GlutenExplain extends RasExplain[SparkPlan] with Logging {
     override def describeNode(node: SparkPlan): String = node.nodeName
+
+    override def explainPlanning(stats: RasExplain.PlanningStats): Unit = {
+      if (stats.budgetExhausted) {
+        logWarning(s"RAS planning budget exhausted, returned the best plan found so far: $stats")
+        return
+      }
+      logDebug(s"RAS planning finished: $stats")
+    }
   }
 
   trait Builder {
     def addRules(rules: Seq[RasRule[SparkPlan]]): Builder
+
+    /**
+     * Wraps the added rules each time RAS creates a planner. The wrapper runs on the thread that
+     * creates the planner, so it can capture that thread's state for the planning call.
+     */
+    def wrapRules(wrapper: Seq[RasRule[SparkPlan]] => Seq[RasRule[SparkPlan]]): Builder
     def costModel(costModel: CostModel[SparkPlan]): Builder
     def create(): Optimization[SparkPlan]
   }
@@ -42,12 +57,18 @@ object GlutenOptimization {
   private class BuilderImpl extends Builder {
     private val rules: mutable.ListBuffer[RasRule[SparkPlan]] = mutable.ListBuffer()
     private var costModel: Option[CostModel[SparkPlan]] = None
+    private var ruleWrapper: Option[Seq[RasRule[SparkPlan]] => Seq[RasRule[SparkPlan]]] = None
 
     override def addRules(rules: Seq[RasRule[SparkPlan]]): Builder = {
       this.rules ++= rules
       this
     }
 
+    override def wrapRules(wrapper: Seq[RasRule[SparkPlan]] => Seq[RasRule[SparkPlan]]): Builder = {
+      this.ruleWrapper = Some(wrapper)
+      this
+    }
+
     override def costModel(costModel: CostModel[SparkPlan]): Builder = {
       this.costModel = Some(costModel)
       this
@@ -61,7 +82,19 @@ object GlutenOptimization {
         GlutenMetadataModel(),
         GlutenPropertyModel(),
         GlutenExplain,
-        RasRule.Factory.reuse(rules.toSeq))
+        ruleFactory())
+    }
+
+    private def ruleFactory(): RasRule.Factory[SparkPlan] = {
+      val rules = this.rules.toSeq
+      ruleWrapper match {
+        case Some(wrapper) =>
+          new RasRule.Factory[SparkPlan] {
+            override def create(): Seq[RasRule[SparkPlan]] = wrapper(rules)
+          }
+        case None =>
+          RasRule.Factory.reuse(rules)
+      }
     }
   }
 }
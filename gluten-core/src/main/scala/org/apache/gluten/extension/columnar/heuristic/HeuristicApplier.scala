@@ -42,7 +42,7 @@ class HeuristicApplier(
   with LogLevelUtil {
   override def apply(plan: SparkPlan, outputsColumnar: Boolean): SparkPlan = {
     val call = new ColumnarRuleCall(session, CallerInfo.create(), outputsColumnar)
-    makeRule(call).apply(plan)
+    ColumnarRuleApplier.withCall(call)(makeRule(call).apply(plan))
   }
 
   private def makeRule(call: ColumnarRuleCall): Rule[SparkPlan] = {
@@ -50,4 +50,7 @@ object GlobalOffHeapMemory {
   def currentBytes(): Long = {
     target.usedBytes()
   }
+
+  /** The memory target to reserve global off-heap memory through, without throwing OOM. */
+  def memoryTarget(): MemoryTarget = target
 }
@@ -157,6 +157,8 @@ object SparkMemoryUtil {
           case -1L => None
           case v => Some(v)
         },
+        mus.getSpillCount,
+        mus.getSpilledBytes,
         sortStats(
           mus.getChildrenMap
             .entrySet()
@@ -209,6 +211,11 @@ object SparkMemoryUtil {
             StringUtils.leftPad(String.valueOf(getBytes(stats.used)), usedWidth, ' '),
             StringUtils.leftPad(String.valueOf(getBytes(stats.peak)), peakWidth, ' ')
           ))
+      if (stats.spillCount > 0) {
+        sb.append(
+          ", spilled %d times, %s in total"
+            .format(stats.spillCount, Utils.bytesToString(stats.spilledBytes)))
+      }
 
       stats.children.zipWithIndex.foreach {
         case (child, i) =>
@@ -234,5 +241,7 @@ object SparkMemoryUtil {
       name: String,
       used: Option[Long],
       peak: Option[Long],
+      spillCount: Long,
+      spilledBytes: Long,
       children: Iterable[PrintableMemoryUsageStats])
 }
@@ -123,6 +123,21 @@ object TaskResources extends TaskListener with Logging {
     }
   }
 
+  // Run code on behalf of a running Spark task from another thread, e.g. a timer reporting the
+  // progress of the task. The caller has to make sure the task doesn't complete meanwhile.
+  def runAs[T](context: TaskContext)(body: => T): T = {
+    if (inSparkTask()) {
+      throw new UnsupportedOperationException(
+        "TaskResources#runAs should only be used outside Spark task")
+    }
+    TaskContext.setTaskContext(context)
+    try {
+      body
+    } finally {
+      TaskContext.unset()
+    }
+  }
+
   private val RESOURCE_REGISTRIES =
     new java.util.IdentityHashMap[TaskContext, TaskResourceRegistry]()
 
@@ -16,12 +16,17 @@
  */
 package org.apache.gluten.hash;
 
+import org.apache.commons.codec.digest.MurmurHash3;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -115,6 +120,40 @@ public class ConsistentHashTest {
     }
   }
 
+  @Test
+  public void testAllocateNodesWalksRingClockwise() {
+    final ConsistentHash.Hasher hasher =
+        (key, seed) -> {
+          byte[] data = key.getBytes();
+          return MurmurHash3.hash32x86(data, 0, data.length, seed);
+        };
+    final ConsistentHash<ConsistentHash.Node> ring = new ConsistentHash<>(REPLICAS, hasher);
+    IntStream.range(0, 20)
+        .mapToObj(i -> new ConsistentHashTest.HostNode(String.format("executor-%d", i)))
+        .forEach(ring::addNode);
+    ring.removeNode(new HostNode("executor-7"));
+
+    // Reference ring walk on a sorted map, starting at the first slot not less than the key's.
+    final TreeMap<Long, ConsistentHash.Node> reference = new TreeMap<>();
+    for (ConsistentHash.Node node : ring.getNodes()) {
+      ring.getPartition(node).forEach(p -> reference.put(p.getSlot(), node));
+    }
+    for (int i = 0; i < 1000; i++) {
+      final String key = String.format("part-%05d.parquet", i);
+      final long slot = hasher.hash(key, 0);
+      final Set<ConsistentHash.Node> expected = new HashSet<>();
+      for (Map<Long, ConsistentHash.Node> m :
+          Arrays.asList(reference.tailMap(slot), reference.headMap(slot))) {
+        for (ConsistentHash.Node node : m.values()) {
+          if (expected.size() < 3) {
+            expected.add(node);
+          }
+        }
+      }
+      Assert.assertEquals(expected, ring.allocateNodes(key, 3));
+    }
+  }
+
   private static class HostNode implements ConsistentHash.Node {
     private final String host;
 
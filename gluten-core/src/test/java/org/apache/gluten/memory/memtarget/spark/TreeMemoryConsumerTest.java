@@ -184,6 +184,64 @@ public class TreeMemoryConsumerTest {
         });
   }
 
+  @Test
+  public void testSpillCheapestFirst() {
+    test(
+        () -> {
+          final TreeMemoryTarget root =
+              TreeMemoryConsumers.factory(TaskContext.get().taskMemoryManager()).legacyRoot();
+          final Spillers.AppendableSpillerList expensiveSpillers = Spillers.appendable();
+          final Spillers.AppendableSpillerList cheapSpillers = Spillers.appendable();
+          final TreeMemoryTarget expensive =
+              root.newChild(
+                  "EXPENSIVE",
+                  TreeMemoryTarget.CAPACITY_UNLIMITED,
+                  Spillers.withCost(expensiveSpillers, Spillers.EXPENSIVE_COST_PER_BYTE, 0L),
+                  Collections.emptyMap());
+          final TreeMemoryTarget cheap =
+              root.newChild(
+                  "CHEAP",
+                  TreeMemoryTarget.CAPACITY_UNLIMITED,
+                  Spillers.withCost(cheapSpillers, Spillers.CHEAP_COST_PER_BYTE, 0L),
+                  Collections.emptyMap());
+          expensiveSpillers.append(
+              new Spiller() {
+                @Override
+                public long spill(MemoryTarget self, Phase phase, long size) {
+                  return expensive.repay(size);
+                }
+              });
+          cheapSpillers.append(
+              new Spiller() {
+                @Override
+                public long spill(MemoryTarget self, Phase phase, long size) {
+                  return cheap.repay(size);
+                }
+              });
+          Assert.assertEquals(250, expensive.borrow(250));
+          Assert.assertEquals(100, cheap.borrow(100));
+          // The smaller but cheaper consumer is spilled first.
+          Assert.assertEquals(100, expensive.borrow(100));
+          Assert.assertEquals(350, expensive.usedBytes());
+          Assert.assertEquals(50, cheap.usedBytes());
+          Assert.assertEquals(0, expensive.stats().getSpillCount());
+          Assert.assertEquals(1, cheap.stats().getSpillCount());
+          Assert.assertEquals(50, cheap.stats().getSpilledBytes());
+        });
+  }
+
+  @Test
+  public void testDeclaredDefaultCostCounts() {
+    final Spillers.AppendableSpillerList spillers = Spillers.appendable();
+    Assert.assertFalse(spillers.costPerByte().isPresent());
+    spillers.append(Spillers.NOOP);
+    Assert.assertFalse(spillers.costPerByte().isPresent());
+    spillers.append(Spillers.withCost(Spillers.NOOP, Spillers.CHEAP_COST_PER_BYTE, 0L));
+    // A cost declared equal to the default one is not mistaken for an undeclared cost.
+    spillers.append(Spillers.withCost(Spillers.NOOP, Spiller.DEFAULT_COST_PER_BYTE, 0L));
+    Assert.assertEquals(Spiller.DEFAULT_COST_PER_BYTE, spillers.costPerByte().getAsDouble(), 0D);
+  }
+
   private void test(Runnable r) {
     TaskResources$.MODULE$.runUnsafe(
         new Function0<Object>() {
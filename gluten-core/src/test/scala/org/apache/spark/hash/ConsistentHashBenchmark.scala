@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.spark.hash
+
+import org.apache.gluten.hash.ConsistentHash
+
+import org.apache.spark.benchmark.{Benchmark, BenchmarkBase}
+import org.apache.spark.util.ThreadUtils
+
+import org.apache.commons.codec.digest.MurmurHash3
+
+import java.util
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.locks.ReentrantReadWriteLock
+
+/**
+ * Benchmarks soft affinity lookups on [[ConsistentHash]] against the previous ring, a `TreeMap`
+ * guarded by a fair read-write lock.
+ *
+ * To run this benchmark:
+ * {{{
+ *   bin/spark-submit --class <this class> <gluten-core test jar>
+ * }}}
+ */
+object ConsistentHashBenchmark extends BenchmarkBase {
+  private val numExecutors = 500
+  private val replicate = 100
+  private val numFiles = 1000000
+  private val count = 2
+
+  private case class Executor(key: String) extends ConsistentHash.Node {
+    override def toString: String = key
+  }
+
+  private def hash(key: String, seed: Int): Long = {
+    val data = key.getBytes
+    MurmurHash3.hash32x86(data, 0, data.length, seed)
+  }
+
+  /** The previous implementation of [[ConsistentHash.allocateNodes]]. */
+  private class TreeMapRing {
+    private val lock = new ReentrantReadWriteLock(true)
+    private val ring = new util.TreeMap[java.lang.Long, Executor]()
+    private val nodes = new util.HashSet[Executor]()
+
+    def addNode(node: Executor): Unit = {
+      lock.writeLock().lock()
+      try {
+        nodes.add(node)
+        (0 until replicate).foreach {
+          idx =>
+            var seed = 0
+            var slot = hash(s"$node:$idx", seed)
+            while (ring.containsKey(slot)) {
+              seed += 1
+              slot = hash(s"$node:$idx", seed)
+            }
+            ring.put(slot, node)
+        }
+      } finally {
+        lock.writeLock().unlock()
+      }
+    }
+
+    def allocateNodes(key: String, count: Int): util.Set[Executor] = {
+      lock.readLock().lock()
+      try {
+        val res = new util.HashSet[Executor]()
+        val slot = hash(key, 0)
+        val tail = ring.tailMap(slot).values().iterator()
+        val head = ring.headMap(slot).values().iterator()
+        while ((tail.hasNext || head.hasNext) && res.size() < count) {
+          res.add(if (tail.hasNext) tail.next() else head.next())
+        }
+        res
+      } finally {
+        lock.readLock().unlock()
+      }
+    }
+  }
+
+  override def runBenchmarkSuite(mainArgs: Array[String]): Unit = {
+    val executors = (0 until numExecutors).map(i => Executor(s"executor-$i"))
+    val files = (0 until numFiles).map(i => s"hdfs://warehouse/t/part-$i.parquet").toArray
+    val treeMapRing = new TreeMapRing
+    val snapshotRing = new ConsistentHash[Executor](replicate, (key, seed) => hash(key, seed))
+    executors.foreach {
+      e =>
+        treeMapRing.addNode(e)
+        snapshotRing.addNode(e)
+    }
+    assert(files.take(1000).forall {
+      f => treeMapRing.allocateNodes(f, count) == snapshotRing.allocateNodes(f, count)
+    })
+
+    def runThreads(threads: Int)(lookup: String => util.Set[Executor]): Unit = {
+      val pool = ThreadUtils.newDaemonFixedThreadPool(threads, "ConsistentHashBenchmark")
+      try {
+        (0 until threads)
+          .map {
+            t =>
+              pool.submit(new Runnable {
+                override def run(): Unit = {
+                  var i = t
+                  while (i < files.length) {
+                    lookup(files(i))
+                    i += threads
+                  }
+                }
+              })
+          }
+          .foreach(_.get())
+      } finally {
+        pool.shutdown()
+        pool.awaitTermination(1, TimeUnit.MINUTES)
+      }
+    }
+
+    Seq(1, 8).foreach {
+      threads =>
+        runBenchmark(s"Allocate $count of $numExecutors executors, $threads threads") {
+          val benchmark =
+            new Benchmark(s"allocateNodes, $threads threads", numFiles, output = output)
+          benchmark.addCase("TreeMap ring with read-write lock") {
+            _ => runThreads(threads)(treeMapRing.allocateNodes(_, count))
+          }
+          benchmark.addCase("Snapshot ring") {
+            _ => runThreads(threads)(snapshotRing.allocateNodes(_, count))
+          }
+          benchmark.run()
+        }
+    }
+  }
+}
@@ -35,6 +35,7 @@ import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.dag.Transformation;
 import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.configuration.ReadableConfig;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
 import org.apache.flink.streaming.api.transformations.OneInputTransformation;
 import org.apache.flink.streaming.api.transformations.PartitionTransformation;
@@ -160,8 +161,16 @@ public class StreamExecExchange extends CommonExecExchange implements StreamExec
                   "REPARTITION",
                   false,
                   partitionFunctionSpec);
-          PlanNode exchange =
-              new StreamPartitionNode(id, localPartition, inputTransform.getParallelism());
+          // Each native partition is a key group, the partitioner maps it to the target channel.
+          // Splits into as many key groups as the job's max parallelism, so that every downstream
+          // channel gets records and keyed state can be rescaled.
+          int numKeyGroups = planner.getExecEnv().getConfig().getMaxParallelism();
+          if (numKeyGroups <= 0) {
+            numKeyGroups =
+                KeyGroupRangeAssignment.computeDefaultMaxParallelism(
+                    Math.max(planner.getExecEnv().getParallelism(), 1));
+          }
+          PlanNode exchange = new StreamPartitionNode(id, localPartition, numKeyGroups);
           final OneInputStreamOperator exchangeKeyGenerator =
               new GlutenSingleInputOperator(
                   new StatefulPlanNode(id, exchange), id, glutenInputType, Map.of(id, outputType));
@@ -174,7 +183,7 @@ public class StreamExecExchange extends CommonExecExchange implements StreamExec
                   parallelism,
                   false);
           partitioner =
-              new GlutenKeyGroupStreamPartitioner(keySelector, DEFAULT_LOWER_BOUND_MAX_PARALLELISM);
+              new GlutenKeyGroupStreamPartitioner(keySelector, numKeyGroups, numKeyGroups);
         } else {
           partitioner =
               new KeyGroupStreamPartitioner<>(keySelector, DEFAULT_LOWER_BOUND_MAX_PARALLELISM);
@@ -31,7 +31,11 @@ import java.util.Objects;
 /**
  * Partitioner selects the target channel based on the key group index.
  *
- * @param <T> Type of the elements in the Stream being partitioned
+ * <p>The input vectors are already split natively into {@code numKeyGroups} partitions by hashing
+ * the key columns, and the key of each {@link StatefulRecord} is its partition index. Every
+ * partition is treated as a key group, so a whole vector is routed to one channel and stays
+ * columnar across the exchange. The number of partitions should be the job's max parallelism, which
+ * is never less than the downstream parallelism, so that every channel gets records.
  */
 @Internal
 public class GlutenKeyGroupStreamPartitioner extends StreamPartitioner<StatefulRecord>
@@ -40,12 +44,16 @@ public class GlutenKeyGroupStreamPartitioner extends StreamPartitioner<StatefulR
 
   private final KeySelector<StatefulRecord, Integer> keySelector;
 
+  private final int numKeyGroups;
+
   private int maxParallelism;
 
   public GlutenKeyGroupStreamPartitioner(
-      KeySelector<StatefulRecord, Integer> keySelector, int maxParallelism) {
+      KeySelector<StatefulRecord, Integer> keySelector, int numKeyGroups, int maxParallelism) {
+    Preconditions.checkArgument(numKeyGroups > 0, "Number of native partitions must be > 0!");
     Preconditions.checkArgument(maxParallelism > 0, "Number of key-groups must be > 0!");
     this.keySelector = Preconditions.checkNotNull(keySelector);
+    this.numKeyGroups = numKeyGroups;
     this.maxParallelism = maxParallelism;
   }
 
@@ -53,11 +61,16 @@ public class GlutenKeyGroupStreamPartitioner extends StreamPartitioner<StatefulR
     return maxParallelism;
   }
 
+  public int getNumKeyGroups() {
+    return numKeyGroups;
+  }
+
   @Override
   public int selectChannel(SerializationDelegate<StreamRecord<StatefulRecord>> record) {
     try {
-      int channel = keySelector.getKey(record.getInstance().getValue());
-      return channel;
+      int keyGroup = keySelector.getKey(record.getInstance().getValue());
+      return KeyGroupRangeAssignment.computeOperatorIndexForKeyGroup(
+          numKeyGroups, numberOfChannels, keyGroup);
     } catch (Exception e) {
       throw new RuntimeException(
           "Could not extract key from " + record.getInstance().getValue(), e);
@@ -102,11 +115,13 @@ public class GlutenKeyGroupStreamPartitioner extends StreamPartitioner<StatefulR
       return false;
     }
     final GlutenKeyGroupStreamPartitioner that = (GlutenKeyGroupStreamPartitioner) o;
-    return maxParallelism == that.maxParallelism && keySelector.equals(that.keySelector);
+    return numKeyGroups == that.numKeyGroups
+        && maxParallelism == that.maxParallelism
+        && keySelector.equals(that.keySelector);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), keySelector, maxParallelism);
+    return Objects.hash(super.hashCode(), keySelector, numKeyGroups, maxParallelism);
   }
 }
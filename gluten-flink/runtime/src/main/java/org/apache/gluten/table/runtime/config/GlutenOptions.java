@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.table.runtime.config;
+
+import org.apache.flink.configuration.ConfigOption;
+import org.apache.flink.configuration.ConfigOptions;
+
+import java.time.Duration;
+
+/** Configuration options of gluten flink operators. */
+public class GlutenOptions {
+
+  public static final ConfigOption<Integer> INPUT_BATCH_SIZE =
+      ConfigOptions.key("gluten.operator.input-batch.size")
+          .intType()
+          .defaultValue(1)
+          .withDescription(
+              "The max number of input rows a gluten operator buffers before converting them into"
+                  + " one velox vector. A value of 1 disables micro-batching and converts every"
+                  + " record on its own.");
+
+  public static final ConfigOption<Duration> INPUT_BATCH_INTERVAL =
+      ConfigOptions.key("gluten.operator.input-batch.interval")
+          .durationType()
+          .defaultValue(Duration.ofMillis(100))
+          .withDescription(
+              "The max time a buffered input row waits before the batch is flushed to velox. Only"
+                  + " takes effect when "
+                  + INPUT_BATCH_SIZE.key()
+                  + " is greater than 1. A value of 0 disables time-based flushing.");
+
+  private GlutenOptions() {}
+}
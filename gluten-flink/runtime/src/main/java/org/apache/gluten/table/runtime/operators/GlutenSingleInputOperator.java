@@ -17,7 +17,9 @@
 package org.apache.gluten.table.runtime.operators;
 
 import org.apache.gluten.streaming.api.operators.GlutenOperator;
+import org.apache.gluten.table.runtime.config.GlutenOptions;
 import org.apache.gluten.vectorized.FlinkRowToVLVectorConvertor;
+import org.apache.gluten.vectorized.RowDataBatchWriter;
 
 import io.github.zhztheplayer.velox4j.Velox4j;
 import io.github.zhztheplayer.velox4j.config.Config;
@@ -38,7 +40,13 @@ import io.github.zhztheplayer.velox4j.session.Session;
 import io.github.zhztheplayer.velox4j.stateful.StatefulElement;
 import io.github.zhztheplayer.velox4j.type.RowType;
 
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.api.watermark.Watermark;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.runtime.operators.TableStreamOperator;
@@ -48,15 +56,32 @@ import org.apache.arrow.memory.RootAllocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
 
 /** Calculate operator in gluten, which will call Velox to run. */
 public class GlutenSingleInputOperator extends TableStreamOperator<RowData>
-    implements OneInputStreamOperator<RowData, RowData>, GlutenOperator {
+    implements OneInputStreamOperator<RowData, RowData>, BoundedOneInput, GlutenOperator {
 
   private static final Logger LOG = LoggerFactory.getLogger(GlutenSingleInputOperator.class);
 
+  /** Reasons for flushing the buffered input rows to velox, reported as metrics. */
+  enum FlushCause {
+    SIZE("glutenFlushBySize"),
+    TIMER("glutenFlushByTimer"),
+    WATERMARK("glutenFlushByWatermark"),
+    CHECKPOINT("glutenFlushByCheckpoint"),
+    END_INPUT("glutenFlushByEndInput");
+
+    private final String metricName;
+
+    FlushCause(String metricName) {
+      this.metricName = metricName;
+    }
+  }
+
   private final StatefulPlanNode glutenPlan;
   private final String id;
   private final RowType inputType;
@@ -71,6 +96,13 @@ public class GlutenSingleInputOperator extends TableStreamOperator<RowData>
   private BufferAllocator allocator;
   private SerialTask task;
 
+  private int batchSize;
+  private long batchIntervalMs;
+  private RowDataBatchWriter batchWriter;
+  private ScheduledFuture<?> flushTimer;
+  private Histogram batchSizeHistogram;
+  private Map<FlushCause, Counter> flushCounters;
+
   public GlutenSingleInputOperator(
       StatefulPlanNode plan, String id, RowType inputType, Map<String, RowType> outputTypes) {
     this.glutenPlan = plan;
@@ -106,25 +138,86 @@ public class GlutenSingleInputOperator extends TableStreamOperator<RowData>
         new ExternalStreamConnectorSplit("connector-external-stream", inputQueue.id());
     task.addSplit(id, split);
     task.noMoreSplits(id);
+
+    Configuration jobConf = getContainingTask().getEnvironment().getJobConfiguration();
+    batchSize = jobConf.get(GlutenOptions.INPUT_BATCH_SIZE);
+    batchIntervalMs = jobConf.get(GlutenOptions.INPUT_BATCH_INTERVAL).toMillis();
+    if (batchSize > 1) {
+      LOG.debug("Input batching enabled, size: {}, interval: {}ms", batchSize, batchIntervalMs);
+      batchWriter = new RowDataBatchWriter(allocator, session, inputType);
+      batchSizeHistogram =
+          getMetricGroup()
+              .histogram("glutenInputBatchSize", new DescriptiveStatisticsHistogram(1000));
+      flushCounters = new EnumMap<>(FlushCause.class);
+      for (FlushCause cause : FlushCause.values()) {
+        flushCounters.put(cause, getMetricGroup().counter(cause.metricName));
+      }
+    }
   }
 
   @Override
   public void processElement(StreamRecord<RowData> element) {
-    try (RowVector inRv =
-        FlinkRowToVLVectorConvertor.fromRowData(
-            element.getValue(), allocator, session, inputType)) {
+    if (batchWriter == null) {
+      processVector(
+          FlinkRowToVLVectorConvertor.fromRowData(
+              element.getValue(), allocator, session, inputType));
+      return;
+    }
+    batchWriter.append(element.getValue());
+    if (batchWriter.size() >= batchSize) {
+      flush(FlushCause.SIZE);
+    } else if (batchIntervalMs > 0 && flushTimer == null) {
+      long now = getProcessingTimeService().getCurrentProcessingTime();
+      flushTimer =
+          getProcessingTimeService()
+              .registerTimer(now + batchIntervalMs, timestamp -> flush(FlushCause.TIMER));
+    }
+  }
+
+  @Override
+  public void processWatermark(Watermark mark) throws Exception {
+    flush(FlushCause.WATERMARK);
+    super.processWatermark(mark);
+  }
+
+  @Override
+  public void prepareSnapshotPreBarrier(long checkpointId) throws Exception {
+    flush(FlushCause.CHECKPOINT);
+    super.prepareSnapshotPreBarrier(checkpointId);
+  }
+
+  @Override
+  public void endInput() {
+    flush(FlushCause.END_INPUT);
+  }
+
+  private void flush(FlushCause cause) {
+    if (flushTimer != null) {
+      flushTimer.cancel(false);
+      flushTimer = null;
+    }
+    if (batchWriter == null || batchWriter.isEmpty()) {
+      return;
+    }
+    batchSizeHistogram.update(batchWriter.size());
+    flushCounters.get(cause).inc();
+    try {
+      processVector(batchWriter.toRowVector());
+    } finally {
+      batchWriter.reset();
+    }
+  }
+
+  private void processVector(RowVector vector) {
+    try (RowVector inRv = vector) {
       inputQueue.put(inRv);
       UpIterator.State state = task.advance();
       if (state == UpIterator.State.AVAILABLE) {
         final StatefulElement statefulElement = task.statefulGet();
 
         try (RowVector outRv = statefulElement.asRecord().getRowVector()) {
-          List<RowData> rows =
-              FlinkRowToVLVectorConvertor.toRowData(
-                  outRv, allocator, outputTypes.values().iterator().next());
-          for (RowData row : rows) {
-            output.collect(outElement.replace(row));
-          }
+          FlinkRowToVLVectorConvertor.forEachRowData(
+              outRv, allocator, row -> output.collect(outElement.replace(row)));
         }
       }
     }
@@ -132,6 +225,12 @@ public class GlutenSingleInputOperator extends TableStreamOperator<RowData>
 
   @Override
   public void close() throws Exception {
+    if (flushTimer != null) {
+      flushTimer.cancel(false);
+    }
+    if (batchWriter != null) {
+      batchWriter.close();
+    }
     inputQueue.close();
     task.close();
     session.close();
@@ -42,7 +42,6 @@ import org.apache.arrow.memory.RootAllocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
 import java.util.Map;
 
 /** Gluten legacy source function, call velox plan to execute. */
@@ -98,25 +97,24 @@ public class GlutenSourceFunction extends RichParallelSourceFunction<RowData> {
     SerialTask task = session.queryOps().execute(query);
     task.addSplit(id, split);
     task.noMoreSplits(id);
+    SourceIdleStrategy idleStrategy = new SourceIdleStrategy(getRuntimeContext().getMetricGroup());
     while (isRunning) {
       UpIterator.State state = task.advance();
       if (state == UpIterator.State.AVAILABLE) {
+        idleStrategy.reset();
         final StatefulElement element = task.statefulGet();
         try (final RowVector outRv = element.asRecord().getRowVector()) {
-          List<RowData> rows =
-              FlinkRowToVLVectorConvertor.toRowData(
-                  outRv, allocator, outputTypes.values().iterator().next());
-          for (RowData row : rows) {
-            sourceContext.collect(row);
-          }
+          FlinkRowToVLVectorConvertor.forEachRowData(outRv, allocator, sourceContext::collect);
         }
       } else if (state == UpIterator.State.BLOCKED) {
         LOG.debug("Get empty row");
+        idleStrategy.idle();
       } else {
         LOG.info("Velox task finished");
         break;
       }
     }
+    idleStrategy.close();
 
     task.close();
     session.close();
@@ -97,19 +97,23 @@ public class GlutenVectorSourceFunction extends RichParallelSourceFunction<State
     SerialTask task = session.queryOps().execute(query);
     task.addSplit(id, split);
     task.noMoreSplits(id);
+    SourceIdleStrategy idleStrategy = new SourceIdleStrategy(getRuntimeContext().getMetricGroup());
     while (isRunning) {
       UpIterator.State state = task.advance();
       if (state == UpIterator.State.AVAILABLE) {
+        idleStrategy.reset();
         final StatefulElement element = task.statefulGet();
         sourceContext.collect(element);
         element.close();
       } else if (state == UpIterator.State.BLOCKED) {
         LOG.debug("Get empty row");
+        idleStrategy.idle();
       } else {
         LOG.info("Velox task finished");
         break;
       }
     }
+    idleStrategy.close();
 
     task.close();
     session.close();
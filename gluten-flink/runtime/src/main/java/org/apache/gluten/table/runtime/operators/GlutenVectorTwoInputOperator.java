@@ -49,7 +49,6 @@ import org.apache.arrow.memory.RootAllocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -144,12 +143,8 @@ public class GlutenVectorTwoInputOperator extends AbstractStreamOperator<RowData
         } else {
           final StatefulRecord statefulRecord = element.asRecord();
           final RowVector outRv = statefulRecord.getRowVector();
-          List<RowData> rows =
-              FlinkRowToVLVectorConvertor.toRowData(
-                  outRv, allocator, outputTypes.get(statefulRecord.getNodeId()));
-          for (RowData row : rows) {
-            output.collect(outElement.replace(row));
-          }
+          FlinkRowToVLVectorConvertor.forEachRowData(
+              outRv, allocator, row -> output.collect(outElement.replace(row)));
           outRv.close();
         }
       } else {
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.table.runtime.operators;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Wait strategy used by gluten sources when the velox task is blocked. It spins for a few rounds
+ * to keep latency low when data arrives soon, then parks the thread with an exponentially growing
+ * backoff so an idle source doesn't burn a full core.
+ */
+class SourceIdleStrategy {
+  static final int MAX_SPINS = 16;
+  static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+  static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final LongSupplier nanoClock;
+  private final LongConsumer parker;
+  private final Counter wakeups;
+
+  private int spins = 0;
+  private long parkNanos = MIN_PARK_NANOS;
+  // Written by the source thread only, read by metric reporters as well.
+  private volatile long blockedSinceNanos = -1;
+  private long blockedNanos = 0;
+
+  SourceIdleStrategy(MetricGroup metricGroup) {
+    this(metricGroup, System::nanoTime, LockSupport::parkNanos);
+  }
+
+  SourceIdleStrategy(MetricGroup metricGroup, LongSupplier nanoClock, LongConsumer parker) {
+    this.nanoClock = nanoClock;
+    this.parker = parker;
+    // Includes the time the source has been blocked so far, so that a source which stays blocked
+    // doesn't report 0.
+    metricGroup.gauge("glutenSourceBlockedTimeMs", (Gauge<Long>) this::blockedTimeMs);
+    this.wakeups = metricGroup.counter("glutenSourceWakeups");
+  }
+
+  /** Called when the task reports it is blocked, waits before the next poll. */
+  void idle() {
+    if (blockedSinceNanos < 0) {
+      blockedSinceNanos = nanoClock.getAsLong();
+    }
+    if (spins < MAX_SPINS) {
+      spins++;
+      Thread.onSpinWait();
+      return;
+    }
+    parker.accept(parkNanos);
+    parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+  }
+
+  /** Called when the task produced data, resets the backoff. */
+  void reset() {
+    if (blockedSinceNanos >= 0) {
+      endBlocked();
+      wakeups.inc();
+    }
+    spins = 0;
+    parkNanos = MIN_PARK_NANOS;
+  }
+
+  /** Called when the source stops, credits the time it has been blocked until now. */
+  void close() {
+    if (blockedSinceNanos >= 0) {
+      endBlocked();
+    }
+  }
+
+  synchronized long blockedTimeMs() {
+    long nanos = blockedNanos;
+    long since = blockedSinceNanos;
+    if (since >= 0) {
+      nanos += nanoClock.getAsLong() - since;
+    }
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+
+  private synchronized void endBlocked() {
+    blockedNanos += nanoClock.getAsLong() - blockedSinceNanos;
+    blockedSinceNanos = -1;
+  }
+}
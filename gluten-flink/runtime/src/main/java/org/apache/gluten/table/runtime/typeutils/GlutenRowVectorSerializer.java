@@ -32,6 +32,7 @@ import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /** Serializer for {@link RowVector}. */
 @Internal
@@ -40,6 +41,7 @@ public class GlutenRowVectorSerializer extends TypeSerializer<StatefulRecord> {
   private final RowType rowType;
   private MemoryManager memoryManager;
   private Session session;
+  private transient byte[] readBuffer = new byte[0];
 
   public GlutenRowVectorSerializer(RowType rowType) {
     this.rowType = rowType;
@@ -57,9 +59,11 @@ public class GlutenRowVectorSerializer extends TypeSerializer<StatefulRecord> {
 
   @Override
   public void serialize(StatefulRecord record, DataOutputView target) throws IOException {
-    String vectorStr = record.getRowVector().serialize();
-    target.writeInt(vectorStr.getBytes().length);
-    target.write(vectorStr.getBytes());
+    // The serialized vector only contains ascii characters, so latin1 maps each char to one byte
+    // and avoids the charset encoding of the default charset.
+    byte[] bytes = record.getRowVector().serialize().getBytes(StandardCharsets.ISO_8859_1);
+    target.writeInt(bytes.length);
+    target.write(bytes);
   }
 
   @Override
@@ -69,9 +73,15 @@ public class GlutenRowVectorSerializer extends TypeSerializer<StatefulRecord> {
       session = Velox4j.newSession(memoryManager);
     }
     int len = source.readInt();
-    byte[] str = new byte[len];
-    source.readFully(str);
-    RowVector rowVector = session.baseVectorOps().deserializeOne(new String(str)).asRowVector();
+    if (readBuffer == null || readBuffer.length < len) {
+      readBuffer = new byte[len];
+    }
+    source.readFully(readBuffer, 0, len);
+    RowVector rowVector =
+        session
+            .baseVectorOps()
+            .deserializeOne(new String(readBuffer, 0, len, StandardCharsets.ISO_8859_1))
+            .asRowVector();
     StatefulRecord record = new StatefulRecord(null, 0, 0, false, -1);
     record.setRowVector(rowVector);
     return record;
@@ -94,7 +104,9 @@ public class GlutenRowVectorSerializer extends TypeSerializer<StatefulRecord> {
 
   @Override
   public void copy(DataInputView source, DataOutputView target) throws IOException {
-    throw new RuntimeException("Not implemented for gluten");
+    int len = source.readInt();
+    target.writeInt(len);
+    target.write(source, len);
   }
 
   @Override
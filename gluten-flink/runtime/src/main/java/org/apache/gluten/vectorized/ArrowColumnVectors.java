@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.vectorized;
+
+import org.apache.flink.table.data.ArrayData;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.MapData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.data.columnar.ColumnarArrayData;
+import org.apache.flink.table.data.columnar.ColumnarMapData;
+import org.apache.flink.table.data.columnar.ColumnarRowData;
+import org.apache.flink.table.data.columnar.vector.ArrayColumnVector;
+import org.apache.flink.table.data.columnar.vector.BooleanColumnVector;
+import org.apache.flink.table.data.columnar.vector.BytesColumnVector;
+import org.apache.flink.table.data.columnar.vector.ColumnVector;
+import org.apache.flink.table.data.columnar.vector.DecimalColumnVector;
+import org.apache.flink.table.data.columnar.vector.DoubleColumnVector;
+import org.apache.flink.table.data.columnar.vector.IntColumnVector;
+import org.apache.flink.table.data.columnar.vector.LongColumnVector;
+import org.apache.flink.table.data.columnar.vector.MapColumnVector;
+import org.apache.flink.table.data.columnar.vector.RowColumnVector;
+import org.apache.flink.table.data.columnar.vector.TimestampColumnVector;
+import org.apache.flink.table.data.columnar.vector.VectorizedColumnBatch;
+
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.MapVector;
+import org.apache.arrow.vector.complex.StructVector;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+ * This module wraps arrow vectors as flink column vectors, so that a ColumnarRowData can read the
+ * fields of an arrow batch directly without materializing a GenericRowData for every row.
+ */
+public class ArrowColumnVectors {
+
+  // Exact class matches
+  private static final Map<Class<? extends FieldVector>, Function<FieldVector, ColumnVector>>
+      columnVectorBuilders =
+          Map.ofEntries(
+              Map.entry(BitVector.class, vector -> new ArrowBooleanColumnVector(vector)),
+              Map.entry(IntVector.class, vector -> new ArrowIntColumnVector(vector)),
+              Map.entry(BigIntVector.class, vector -> new ArrowBigIntColumnVector(vector)),
+              Map.entry(Float8Vector.class, vector -> new ArrowDoubleColumnVector(vector)),
+              Map.entry(DecimalVector.class, vector -> new ArrowDecimalColumnVector(vector)),
+              Map.entry(VarCharVector.class, vector -> new ArrowVarCharColumnVector(vector)),
+              Map.entry(StructVector.class, vector -> new ArrowRowColumnVector(vector)),
+              Map.entry(ListVector.class, vector -> new ArrowArrayColumnVector(vector)),
+              Map.entry(DateDayVector.class, vector -> new ArrowDateDayColumnVector(vector)),
+              Map.entry(
+                  TimeStampMicroVector.class,
+                  vector -> new ArrowTimeStampMicroColumnVector(vector)),
+              Map.entry(MapVector.class, vector -> new ArrowMapColumnVector(vector)));
+
+  public static ColumnVector create(FieldVector vector) {
+    if (vector == null) {
+      throw new IllegalArgumentException(
+          "ArrowColumnVectors. Cannot create column vector for null vector.");
+    }
+    Function<FieldVector, ColumnVector> builder = columnVectorBuilders.get(vector.getClass());
+    if (builder == null) {
+      throw new UnsupportedOperationException(
+          "ArrowColumnVectors. Unsupported vector type: " + vector.getClass().getName());
+    }
+    return builder.apply(vector);
+  }
+
+  /** Wraps the given arrow vectors as the columns of one flink batch. */
+  public static VectorizedColumnBatch createBatch(List<FieldVector> vectors, int numRows) {
+    ColumnVector[] columns = new ColumnVector[vectors.size()];
+    for (int i = 0; i < vectors.size(); ++i) {
+      columns[i] = create(vectors.get(i));
+    }
+    VectorizedColumnBatch batch = new VectorizedColumnBatch(columns);
+    batch.setNumRows(numRows);
+    return batch;
+  }
+}
+
+abstract class BaseArrowColumnVector<T extends FieldVector> implements ColumnVector {
+  protected final T typedVector;
+
+  protected BaseArrowColumnVector(FieldVector vector) {
+    this.typedVector = (T) vector;
+  }
+
+  @Override
+  public boolean isNullAt(int i) {
+    return typedVector.isNull(i);
+  }
+}
+
+class ArrowBooleanColumnVector extends BaseArrowColumnVector<BitVector>
+    implements BooleanColumnVector {
+  ArrowBooleanColumnVector(FieldVector vector) {
+    super(vector);
+  }
+
+  @Override
+  public boolean getBoolean(int i) {
+    return typedVector.get(i) != 0;
+  }
+}
+
+class ArrowIntColumnVector extends BaseArrowColumnVector<IntVector> implements IntColumnVector {
+  ArrowIntColumnVector(FieldVector vector) {
+    super(vector);
+  }
+
+  @Override
+  public int getInt(int i) {
+    return typedVector.get(i);
+  }
+}
+
+class ArrowBigIntColumnVector extends BaseArrowColumnVector<BigIntVector>
+    implements LongColumnVector {
+  ArrowBigIntColumnVector(FieldVector vector) {
+    super(vector);
+  }
+
+  @Override
+  public long getLong(int i) {
+    return typedVector.get(i);
+  }
+}
+
+class ArrowDoubleColumnVector extends BaseArrowColumnVector<Float8Vector>
+    implements DoubleColumnVector {
+  ArrowDoubleColumnVector(FieldVector vector) {
+    super(vector);
+  }
+
+  @Override
+  public double getDouble(int i) {
+    return typedVector.get(i);
+  }
+}
+
+class ArrowDecimalColumnVector extends BaseArrowColumnVector<DecimalVector>
+    implements DecimalColumnVector {
+  ArrowDecimalColumnVector(FieldVector vector) {
+    super(vector);
+  }
+
+  @Override
+  public DecimalData getDecimal(int i, int precision, int scale) {
+    return DecimalData.fromBigDecimal(typedVector.getObject(i), precision, scale);
+  }
+}
+
+class ArrowDateDayColumnVector extends BaseArrowColumnVector<DateDayVector>
+    implements IntColumnVector {
+  ArrowDateDayColumnVector(FieldVector vector) {
+    super(vector);
+  }
+
+  @Override
+  public int getInt(int i) {
+    return typedVector.get(i);
+  }
+}
+
+class ArrowVarCharColumnVector extends BaseArrowColumnVector<VarCharVector>
+    implements BytesColumnVector {
+  // The values of all rows, copied from the arrow data buffer at once on the first read.
+  private byte[] data;
+  // Bytes can't be repointed, so there is one holder per row, created on the first read of it.
+  private Bytes[] holders;
+
+  ArrowVarCharColumnVector(FieldVector vector) {
+    super(vector);
+  }
+
+  @Override
+  public Bytes getBytes(int i) {
+    if (data == null) {
+      int valueCount = typedVector.getValueCount();
+      data = new byte[typedVector.getStartOffset(valueCount)];
+      typedVector.getDataBuffer().getBytes(0, data);
+      holders = new Bytes[valueCount];
+    }
+    Bytes bytes = holders[i];
+    if (bytes == null) {
+      int start = typedVector.getStartOffset(i);
+      bytes = new Bytes(data, start, typedVector.getStartOffset(i + 1) - start);
+      holders[i] = bytes;
+    }
+    return bytes;
+  }
+}
+
+class ArrowTimeStampMicroColumnVector extends BaseArrowColumnVector<TimeStampMicroVector>
+    implements TimestampColumnVector {
+  ArrowTimeStampMicroColumnVector(FieldVector vector) {
+    super(vector);
+  }
+
+  @Override
+  public TimestampData getTimestamp(int i, int precision) {
+    return TimestampData.fromEpochMillis(typedVector.get(i) / 1000);
+  }
+}
+
+class ArrowRowColumnVector extends BaseArrowColumnVector<StructVector> implements RowColumnVector {
+  private final VectorizedColumnBatch fieldsBatch;
+
+  ArrowRowColumnVector(FieldVector vector) {
+    super(vector);
+    ColumnVector[] fieldVectors = new ColumnVector[typedVector.size()];
+    for (int i = 0; i < fieldVectors.length; i++) {
+      fieldVectors[i] = ArrowColumnVectors.create((FieldVector) typedVector.getChildByOrdinal(i));
+    }
+    this.fieldsBatch = new VectorizedColumnBatch(fieldVectors);
+  }
+
+  @Override
+  public ColumnarRowData getRow(int i) {
+    return new ColumnarRowData(fieldsBatch, i);
+  }
+}
+
+class ArrowArrayColumnVector extends BaseArrowColumnVector<ListVector>
+    implements ArrayColumnVector {
+  private final ColumnVector elementVector;
+
+  ArrowArrayColumnVector(FieldVector vector) {
+    super(vector);
+    this.elementVector = ArrowColumnVectors.create(typedVector.getDataVector());
+  }
+
+  @Override
+  public ArrayData getArray(int i) {
+    int startIndex = typedVector.getElementStartIndex(i);
+    int endIndex = typedVector.getElementEndIndex(i);
+    return new ColumnarArrayData(elementVector, startIndex, endIndex - startIndex);
+  }
+}
+
+// In Arrow, the internal implementation of a map vector is an array vector.
+class ArrowMapColumnVector extends BaseArrowColumnVector<MapVector> implements MapColumnVector {
+  private final ColumnVector keyVector;
+  private final ColumnVector valueVector;
+
+  ArrowMapColumnVector(FieldVector vector) {
+    super(vector);
+    StructVector entriesVector = (StructVector) typedVector.getDataVector();
+    this.keyVector = ArrowColumnVectors.create(entriesVector.getChild(MapVector.KEY_NAME));
+    this.valueVector = ArrowColumnVectors.create(entriesVector.getChild(MapVector.VALUE_NAME));
+  }
+
+  @Override
+  public MapData getMap(int i) {
+    int startIndex = typedVector.getElementStartIndex(i);
+    int endIndex = typedVector.getElementEndIndex(i);
+    return new ColumnarMapData(keyVector, valueVector, startIndex, endIndex - startIndex);
+  }
+}
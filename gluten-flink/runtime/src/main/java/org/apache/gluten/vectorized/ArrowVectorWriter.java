@@ -23,6 +23,7 @@ import org.apache.flink.table.data.DecimalData;
 import org.apache.flink.table.data.MapData;
 import org.apache.flink.table.data.RowData;
 
+import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.*;
 import org.apache.arrow.vector.DateDayVector;
@@ -33,6 +34,7 @@ import org.apache.arrow.vector.types.DateUnit;
 import org.apache.arrow.vector.types.FloatingPointPrecision;
 import org.apache.arrow.vector.types.TimeUnit;
 import org.apache.arrow.vector.types.pojo.*;
+import org.apache.arrow.vector.util.TransferPair;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -124,6 +126,10 @@ public abstract class ArrowVectorWriter {
     throw new UnsupportedOperationException("writeArray is not supported");
   }
 
+  void writeNull() {
+    throw new UnsupportedOperationException("writeNull is not supported");
+  }
+
   int getValueCount() {
     return valueCount;
   }
@@ -135,6 +141,38 @@ public abstract class ArrowVectorWriter {
   void finish() {
     vector.setValueCount(valueCount);
   }
+
+  /**
+   * Returns a vector sharing the buffers written so far, so that the batch can be handed over
+   * without copying while this writer keeps its own references to the buffers.
+   */
+  FieldVector share() {
+    TransferPair transferPair = vector.getTransferPair(vector.getAllocator());
+    transferPair.splitAndTransfer(0, valueCount);
+    return (FieldVector) transferPair.getTo();
+  }
+
+  /**
+   * Prepares this writer for the next batch. The buffers are zeroed and kept if no one else holds
+   * them any more, otherwise they are left to the other holders and reallocated on the next write.
+   */
+  void reset() {
+    if (isShared()) {
+      vector.clear();
+    } else {
+      vector.reset();
+    }
+    valueCount = 0;
+  }
+
+  private boolean isShared() {
+    for (ArrowBuf buffer : vector.getBuffers(false)) {
+      if (buffer.getReferenceManager().getRefCount() > 1) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
 
 // Build FieldVector from Type.
@@ -240,21 +278,31 @@ abstract class BaseVectorWriter<T extends FieldVector, V> extends ArrowVectorWri
 
   protected abstract void setValue(int index, V value);
 
+  protected void setNull(int index) {
+    this.typedVector.setNull(index);
+  }
+
   @Override
   public void write(int fieldIndex, RowData rowData) {
     if (rowData.isNullAt(fieldIndex)) {
-      this.typedVector.setNull(valueCount);
+      setNull(valueCount);
     } else {
       setValue(valueCount, getValue(rowData, fieldIndex));
     }
     valueCount++;
   }
 
+  @Override
+  void writeNull() {
+    setNull(valueCount);
+    valueCount++;
+  }
+
   @Override
   public void writeArray(ArrayData arrayData) {
     for (int i = 0; i < arrayData.size(); i++) {
       if (arrayData.isNullAt(i)) {
-        this.typedVector.setNull(valueCount);
+        setNull(valueCount);
       } else {
         setValue(valueCount, getValue(arrayData, i));
       }
@@ -478,6 +526,16 @@ class StructVectorWriter extends BaseVectorWriter<StructVector, RowData> {
     }
   }
 
+  @Override
+  protected void setNull(int index) {
+    super.setNull(index);
+    // The field writers only advance when written, so null structs must be written to them too to
+    // keep the fields aligned with the struct.
+    for (int i = 0; i < fieldCount; ++i) {
+      fieldWriters.get(i).writeNull();
+    }
+  }
+
   @Override
   public void finish() {
     this.typedVector.setValueCount(valueCount);
@@ -485,6 +543,14 @@ class StructVectorWriter extends BaseVectorWriter<StructVector, RowData> {
       fieldWriters.get(i).finish();
     }
   }
+
+  @Override
+  void reset() {
+    super.reset();
+    for (int i = 0; i < fieldCount; ++i) {
+      fieldWriters.get(i).reset();
+    }
+  }
 }
 
 class ArrayVectorWriter extends BaseVectorWriter<ListVector, ArrayData> {
@@ -524,6 +590,12 @@ class ArrayVectorWriter extends BaseVectorWriter<ListVector, ArrayData> {
     this.typedVector.setValueCount(valueCount);
     elementWriter.finish();
   }
+
+  @Override
+  void reset() {
+    super.reset();
+    elementWriter.reset();
+  }
 }
 
 class MapVectorWriter extends BaseVectorWriter<MapVector, MapData> {
@@ -577,4 +649,11 @@ class MapVectorWriter extends BaseVectorWriter<MapVector, MapData> {
     keyWriter.finish();
     valueWriter.finish();
   }
+
+  @Override
+  void reset() {
+    super.reset();
+    keyWriter.reset();
+    valueWriter.reset();
+  }
 }
@@ -25,6 +25,7 @@ import io.github.zhztheplayer.velox4j.type.Type;
 
 import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.columnar.ColumnarRowData;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.FieldVector;
@@ -32,6 +33,7 @@ import org.apache.arrow.vector.table.Table;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /** Converter between velox RowVector and Flink RowData. */
 public class FlinkRowToVLVectorConvertor {
@@ -86,6 +88,42 @@ public class FlinkRowToVLVectorConvertor {
     }
   }
 
+  /**
+   * Passes every row of the vector to the consumer through one reusable columnar view backed by
+   * the arrow vectors, so no row is materialized.
+   *
+   * <p>The consumer is handed the same {@link ColumnarRowData} instance for every row, which is
+   * moved to the next row once the consumer returns, and the arrow vectors behind it are released
+   * after the last row. Neither the row nor the strings, arrays, maps and rows read from it may be
+   * kept after the consumer returns, they must be copied, e.g., by the row serializer, instead.
+   */
+  public static void forEachRowData(
+      RowVector rowVector, BufferAllocator allocator, Consumer<RowData> consumer) {
+    BaseVector loadedVector = null;
+    FieldVector structVector = null;
+
+    try {
+      loadedVector = rowVector.loadedVector();
+      // The result is StructVector
+      structVector = Arrow.toArrowVector(allocator, loadedVector);
+      final int numRows = rowVector.getSize();
+      ColumnarRowData row =
+          new ColumnarRowData(
+              ArrowColumnVectors.createBatch(structVector.getChildrenFromFields(), numRows));
+      for (int j = 0; j < numRows; j++) {
+        row.setRowId(j);
+        consumer.accept(row);
+      }
+    } finally {
+      if (structVector != null) {
+        structVector.close();
+      }
+      if (loadedVector != null) {
+        loadedVector.close();
+      }
+    }
+  }
+
   private static List<ArrowVectorAccessor> buildArrowVectorAccessors(List<FieldVector> vectors) {
     List<ArrowVectorAccessor> accessors = new ArrayList<>(vectors.size());
     for (int i = 0; i < vectors.size(); ++i) {
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.vectorized;
+
+import io.github.zhztheplayer.velox4j.data.RowVector;
+import io.github.zhztheplayer.velox4j.session.Session;
+import io.github.zhztheplayer.velox4j.type.RowType;
+import io.github.zhztheplayer.velox4j.type.Type;
+
+import org.apache.flink.table.data.RowData;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.table.Table;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accumulates Flink RowData into a set of reusable ArrowVectorWriters, and converts the buffered
+ * rows into a single velox RowVector on demand.
+ */
+public class RowDataBatchWriter implements AutoCloseable {
+  private final BufferAllocator allocator;
+  private final Session session;
+  private final List<ArrowVectorWriter> writers;
+  private int numRows = 0;
+
+  public RowDataBatchWriter(BufferAllocator allocator, Session session, RowType rowType) {
+    this.allocator = allocator;
+    this.session = session;
+    List<String> fieldNames = rowType.getNames();
+    List<Type> fieldTypes = rowType.getChildren();
+    this.writers = new ArrayList<>(rowType.size());
+    for (int i = 0; i < rowType.size(); i++) {
+      writers.add(ArrowVectorWriter.create(fieldNames.get(i), fieldTypes.get(i), allocator));
+    }
+  }
+
+  public void append(RowData row) {
+    for (int i = 0; i < writers.size(); i++) {
+      writers.get(i).write(i, row);
+    }
+    numRows++;
+  }
+
+  public int size() {
+    return numRows;
+  }
+
+  public boolean isEmpty() {
+    return numRows == 0;
+  }
+
+  /**
+   * Converts the buffered rows into a RowVector sharing the buffers of the writers. {@link #reset()}
+   * must be called once the batch is processed, before appending the rows of the next batch.
+   */
+  public RowVector toRowVector() {
+    List<FieldVector> arrowVectors = new ArrayList<>(writers.size());
+    for (ArrowVectorWriter writer : writers) {
+      writer.finish();
+      arrowVectors.add(writer.share());
+    }
+    return session.arrowOps().fromArrowTable(allocator, new Table(arrowVectors));
+  }
+
+  /**
+   * Resets the writers for the next batch. The buffers are kept for the next batch if the RowVector
+   * of the last batch has been closed and velox holds no reference to them any more.
+   */
+  public void reset() {
+    for (ArrowVectorWriter writer : writers) {
+      writer.reset();
+    }
+    numRows = 0;
+  }
+
+  @Override
+  public void close() {
+    for (ArrowVectorWriter writer : writers) {
+      writer.getVector().close();
+    }
+    numRows = 0;
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.streaming.api.operators;
+
+import org.apache.gluten.rexnode.Utils;
+import org.apache.gluten.table.runtime.config.GlutenOptions;
+import org.apache.gluten.table.runtime.operators.GlutenSingleInputOperator;
+import org.apache.gluten.util.PlanNodeIdGenerator;
+
+import io.github.zhztheplayer.velox4j.plan.EmptyNode;
+import io.github.zhztheplayer.velox4j.plan.FilterNode;
+import io.github.zhztheplayer.velox4j.plan.PlanNode;
+
+import org.apache.flink.api.common.serialization.SerializerConfigImpl;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.gluten.streaming.api.operators.utils.RowDataTestUtils.checkEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Tests the micro-batching of the input rows of GlutenSingleInputOperator. */
+public class GlutenStreamBatchingTest extends GlutenStreamOperatorTestBase {
+
+  private static final RowType ID_ROW_TYPE =
+      RowType.of(new LogicalType[] {new IntType()}, new String[] {"id"});
+  private static final TypeInformation<RowData> ID_TYPE_INFO = InternalTypeInfo.of(ID_ROW_TYPE);
+
+  @Test
+  public void testFlushBySize() throws Exception {
+    OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+        createBatchingHarness(3, Duration.ZERO);
+
+    processIds(harness, 1, 2);
+    assertThat(extractOutputFromHarness(harness)).isEmpty();
+    processIds(harness, 3);
+    checkOutput(harness, 1, 2, 3);
+
+    // The writers are reused for the next batch.
+    processIds(harness, 4, 5);
+    assertThat(extractOutputFromHarness(harness)).isEmpty();
+    processIds(harness, 6);
+    checkOutput(harness, 4, 5, 6);
+
+    harness.close();
+  }
+
+  @Test
+  public void testFlushByTimer() throws Exception {
+    OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+        createBatchingHarness(100, Duration.ofMillis(50));
+
+    harness.setProcessingTime(0L);
+    processIds(harness, 1, 2);
+    harness.setProcessingTime(49L);
+    assertThat(extractOutputFromHarness(harness)).isEmpty();
+    harness.setProcessingTime(50L);
+    checkOutput(harness, 1, 2);
+
+    // A new timer is registered by the first row of the next batch.
+    processIds(harness, 3);
+    harness.setProcessingTime(99L);
+    assertThat(extractOutputFromHarness(harness)).isEmpty();
+    harness.setProcessingTime(100L);
+    checkOutput(harness, 3);
+
+    harness.close();
+  }
+
+  @Test
+  public void testFlushBySizeBeforeTimer() throws Exception {
+    OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+        createBatchingHarness(2, Duration.ofMillis(50));
+
+    harness.setProcessingTime(0L);
+    processIds(harness, 1, 2);
+    checkOutput(harness, 1, 2);
+    // The timer of the flushed batch is cancelled.
+    harness.setProcessingTime(50L);
+    assertThat(extractOutputFromHarness(harness)).isEmpty();
+
+    harness.close();
+  }
+
+  @Test
+  public void testFlushOnEndInput() throws Exception {
+    OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+        createBatchingHarness(100, Duration.ZERO);
+
+    processIds(harness, 1, 2);
+    assertThat(extractOutputFromHarness(harness)).isEmpty();
+    harness.endInput();
+    checkOutput(harness, 1, 2);
+
+    harness.close();
+  }
+
+  private OneInputStreamOperatorTestHarness<RowData, RowData> createBatchingHarness(
+      int batchSize, Duration batchInterval) throws Exception {
+    GlutenSingleInputOperator operator =
+        createTestOperator(createPassThroughPlan(), ID_TYPE_INFO, ID_TYPE_INFO);
+    OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+        new OneInputStreamOperatorTestHarness<>(
+            operator, ID_TYPE_INFO.createSerializer(new SerializerConfigImpl()));
+    Configuration jobConf = harness.getEnvironment().getJobConfiguration();
+    jobConf.set(GlutenOptions.INPUT_BATCH_SIZE, batchSize);
+    jobConf.set(GlutenOptions.INPUT_BATCH_INTERVAL, batchInterval);
+    harness.setup(ID_TYPE_INFO.createSerializer(new SerializerConfigImpl()));
+    harness.open();
+    return harness;
+  }
+
+  /** Filters on id > 0, which passes all rows of these tests through. */
+  private PlanNode createPassThroughPlan() {
+    RexNode condition =
+        rexBuilder.makeCall(
+            SqlStdOperatorTable.GREATER_THAN,
+            rexBuilder.makeInputRef(typeFactory.createSqlType(SqlTypeName.INTEGER), 0),
+            rexBuilder.makeLiteral(0, typeFactory.createSqlType(SqlTypeName.INTEGER), false));
+    return new FilterNode(
+        PlanNodeIdGenerator.newId(),
+        List.of(new EmptyNode(convertToVeloxType(ID_ROW_TYPE))),
+        convertRexToVelox(condition, Utils.getNamesFromRowType(ID_ROW_TYPE)));
+  }
+
+  private static void processIds(
+      OneInputStreamOperatorTestHarness<RowData, RowData> harness, int... ids) throws Exception {
+    for (int id : ids) {
+      harness.processElement(new StreamRecord<>(GenericRowData.of(id), id));
+    }
+  }
+
+  private void checkOutput(
+      OneInputStreamOperatorTestHarness<RowData, RowData> harness, int... ids) {
+    List<RowData> expected = new ArrayList<>(ids.length);
+    for (int id : ids) {
+      expected.add(GenericRowData.of(id));
+    }
+    checkEquals(extractOutputFromHarness(harness), expected, ID_ROW_TYPE.getChildren());
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.runtime.partitioner;
+
+import io.github.zhztheplayer.velox4j.stateful.StatefulRecord;
+
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.runtime.plugable.SerializationDelegate;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GlutenKeyGroupStreamPartitionerTest {
+
+  /** Returns the native partition index set by the test as the key of any record. */
+  private static class FixedKeySelector implements KeySelector<StatefulRecord, Integer> {
+    private int key;
+
+    @Override
+    public Integer getKey(StatefulRecord value) {
+      return key;
+    }
+  }
+
+  private static SerializationDelegate<StreamRecord<StatefulRecord>> newRecord() {
+    SerializationDelegate<StreamRecord<StatefulRecord>> record = new SerializationDelegate<>(null);
+    record.setInstance(new StreamRecord<>(null));
+    return record;
+  }
+
+  private static Set<Integer> selectAllChannels(
+      GlutenKeyGroupStreamPartitioner partitioner, FixedKeySelector keySelector, int numKeyGroups) {
+    SerializationDelegate<StreamRecord<StatefulRecord>> record = newRecord();
+    Set<Integer> channels = new HashSet<>();
+    for (int keyGroup = 0; keyGroup < numKeyGroups; keyGroup++) {
+      keySelector.key = keyGroup;
+      channels.add(partitioner.selectChannel(record));
+    }
+    return channels;
+  }
+
+  @Test
+  public void testKeyGroupsRoutedLikeFlink() {
+    int maxParallelism = KeyGroupRangeAssignment.computeDefaultMaxParallelism(4);
+    int numberOfChannels = 3;
+    FixedKeySelector keySelector = new FixedKeySelector();
+    GlutenKeyGroupStreamPartitioner partitioner =
+        new GlutenKeyGroupStreamPartitioner(keySelector, maxParallelism, maxParallelism);
+    partitioner.setup(numberOfChannels);
+
+    SerializationDelegate<StreamRecord<StatefulRecord>> record = newRecord();
+    for (int keyGroup = 0; keyGroup < maxParallelism; keyGroup++) {
+      keySelector.key = keyGroup;
+      assertThat(partitioner.selectChannel(record))
+          .isEqualTo(
+              KeyGroupRangeAssignment.computeOperatorIndexForKeyGroup(
+                  maxParallelism, numberOfChannels, keyGroup));
+    }
+  }
+
+  @Test
+  public void testAllChannelsUsedWhenDownstreamIsWider() {
+    // The upstream runs with parallelism 2 while the downstream runs with 16.
+    int maxParallelism = KeyGroupRangeAssignment.computeDefaultMaxParallelism(2);
+    int numberOfChannels = 16;
+    FixedKeySelector keySelector = new FixedKeySelector();
+    GlutenKeyGroupStreamPartitioner partitioner =
+        new GlutenKeyGroupStreamPartitioner(keySelector, maxParallelism, maxParallelism);
+    partitioner.setup(numberOfChannels);
+
+    assertThat(selectAllChannels(partitioner, keySelector, maxParallelism))
+        .hasSize(numberOfChannels);
+  }
+}
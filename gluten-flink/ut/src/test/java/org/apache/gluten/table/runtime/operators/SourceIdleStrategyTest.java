@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.table.runtime.operators;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Metric;
+import org.apache.flink.metrics.SimpleCounter;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SourceIdleStrategyTest {
+
+  private final Map<String, Metric> metrics = new HashMap<>();
+  private final List<Long> parks = new ArrayList<>();
+  private long nowNanos;
+  private SourceIdleStrategy idleStrategy;
+
+  @BeforeEach
+  public void setup() {
+    metrics.clear();
+    parks.clear();
+    nowNanos = 0;
+    idleStrategy = new SourceIdleStrategy(new CapturingMetricGroup(), () -> nowNanos, parks::add);
+  }
+
+  @Test
+  public void testSpinThenBackOff() {
+    for (int i = 0; i < SourceIdleStrategy.MAX_SPINS; i++) {
+      idleStrategy.idle();
+    }
+    assertThat(parks).isEmpty();
+
+    long expected = SourceIdleStrategy.MIN_PARK_NANOS;
+    List<Long> expectedParks = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      idleStrategy.idle();
+      expectedParks.add(expected);
+      expected = Math.min(expected * 2, SourceIdleStrategy.MAX_PARK_NANOS);
+    }
+    assertThat(parks).isEqualTo(expectedParks);
+    assertThat(parks.get(parks.size() - 1)).isEqualTo(SourceIdleStrategy.MAX_PARK_NANOS);
+  }
+
+  @Test
+  public void testResetRestartsSpinning() {
+    for (int i = 0; i < SourceIdleStrategy.MAX_SPINS + 3; i++) {
+      idleStrategy.idle();
+    }
+    assertThat(parks).hasSize(3);
+
+    idleStrategy.reset();
+    parks.clear();
+    for (int i = 0; i < SourceIdleStrategy.MAX_SPINS; i++) {
+      idleStrategy.idle();
+    }
+    assertThat(parks).isEmpty();
+    idleStrategy.idle();
+    assertThat(parks).containsExactly(SourceIdleStrategy.MIN_PARK_NANOS);
+  }
+
+  @Test
+  public void testBlockedTime() {
+    // Data without blocking in between is no wakeup.
+    idleStrategy.reset();
+    assertThat(wakeups()).isZero();
+
+    idleStrategy.idle();
+    advanceMillis(30);
+    idleStrategy.idle();
+    advanceMillis(20);
+    idleStrategy.reset();
+    assertThat(blockedTimeMs()).isEqualTo(50);
+    assertThat(wakeups()).isEqualTo(1);
+
+    // Time between blocked periods is not counted.
+    advanceMillis(100);
+    idleStrategy.reset();
+    assertThat(blockedTimeMs()).isEqualTo(50);
+    assertThat(wakeups()).isEqualTo(1);
+  }
+
+  @Test
+  public void testBlockedTimeOfBlockedSource() {
+    idleStrategy.idle();
+    advanceMillis(40);
+    // A source which stays blocked reports the time blocked so far.
+    assertThat(blockedTimeMs()).isEqualTo(40);
+    advanceMillis(60);
+    assertThat(blockedTimeMs()).isEqualTo(100);
+    assertThat(wakeups()).isZero();
+
+    idleStrategy.close();
+    advanceMillis(1000);
+    assertThat(blockedTimeMs()).isEqualTo(100);
+    assertThat(wakeups()).isZero();
+  }
+
+  private void advanceMillis(long millis) {
+    nowNanos += TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  private long blockedTimeMs() {
+    return ((Gauge<Long>) metrics.get("glutenSourceBlockedTimeMs")).getValue();
+  }
+
+  private long wakeups() {
+    return ((Counter) metrics.get("glutenSourceWakeups")).getCount();
+  }
+
+  private class CapturingMetricGroup extends UnregisteredMetricsGroup {
+    @Override
+    public Counter counter(String name) {
+      return counter(name, new SimpleCounter());
+    }
+
+    @Override
+    public <C extends Counter> C counter(String name, C counter) {
+      metrics.put(name, counter);
+      return counter;
+    }
+
+    @Override
+    public <T, G extends Gauge<T>> G gauge(String name, G gauge) {
+      metrics.put(name, gauge);
+      return gauge;
+    }
+  }
+}
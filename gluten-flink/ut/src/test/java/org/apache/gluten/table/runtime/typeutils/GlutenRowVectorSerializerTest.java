@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.table.runtime.typeutils;
+
+import org.apache.gluten.table.runtime.stream.common.Velox4jEnvironment;
+import org.apache.gluten.util.LogicalTypeConverter;
+import org.apache.gluten.vectorized.FlinkRowToVLVectorConvertor;
+import org.apache.gluten.vectorized.RowDataBatchWriter;
+
+import io.github.zhztheplayer.velox4j.Velox4j;
+import io.github.zhztheplayer.velox4j.data.RowVector;
+import io.github.zhztheplayer.velox4j.memory.AllocationListener;
+import io.github.zhztheplayer.velox4j.memory.MemoryManager;
+import io.github.zhztheplayer.velox4j.session.Session;
+import io.github.zhztheplayer.velox4j.stateful.StatefulRecord;
+
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.gluten.streaming.api.operators.utils.RowDataTestUtils.checkEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GlutenRowVectorSerializerTest {
+
+  private static final RowType ROW_TYPE =
+      RowType.of(
+          new LogicalType[] {new IntType(), new VarCharType(VarCharType.MAX_LENGTH)},
+          new String[] {"id", "name"});
+
+  private static final List<RowData> TEST_DATA =
+      Arrays.asList(
+          GenericRowData.of(1, StringData.fromString("Alice")),
+          GenericRowData.of(2, null),
+          GenericRowData.of(null, StringData.fromString("Bob")));
+
+  private io.github.zhztheplayer.velox4j.type.RowType veloxType;
+  private MemoryManager memoryManager;
+  private Session session;
+  private BufferAllocator allocator;
+
+  @BeforeAll
+  public static void setupEnvironment() {
+    Velox4jEnvironment.initializeOnce();
+  }
+
+  @BeforeEach
+  public void setup() {
+    veloxType =
+        (io.github.zhztheplayer.velox4j.type.RowType) LogicalTypeConverter.toVLType(ROW_TYPE);
+    memoryManager = MemoryManager.create(AllocationListener.NOOP);
+    session = Velox4j.newSession(memoryManager);
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @AfterEach
+  public void cleanup() {
+    session.close();
+    memoryManager.close();
+    allocator.close();
+  }
+
+  @Test
+  public void testSerializeRoundTrip() throws Exception {
+    GlutenRowVectorSerializer serializer = new GlutenRowVectorSerializer(veloxType);
+    DataOutputSerializer out = new DataOutputSerializer(1024);
+    serialize(serializer, out);
+    serialize(serializer, out);
+
+    DataInputDeserializer in = new DataInputDeserializer(out.getCopyOfBuffer());
+    for (int i = 0; i < 2; i++) {
+      try (RowVector rowVector = serializer.deserialize(in).getRowVector()) {
+        checkEquals(
+            FlinkRowToVLVectorConvertor.toRowData(rowVector, allocator, veloxType),
+            TEST_DATA,
+            ROW_TYPE.getChildren());
+      }
+    }
+    assertThat(in.available()).isZero();
+  }
+
+  @Test
+  public void testCopy() throws Exception {
+    GlutenRowVectorSerializer serializer = new GlutenRowVectorSerializer(veloxType);
+    DataOutputSerializer out = new DataOutputSerializer(1024);
+    serialize(serializer, out);
+    byte[] serialized = out.getCopyOfBuffer();
+
+    DataOutputSerializer copied = new DataOutputSerializer(1024);
+    serializer.copy(new DataInputDeserializer(serialized), copied);
+    assertThat(copied.getCopyOfBuffer()).isEqualTo(serialized);
+  }
+
+  private void serialize(GlutenRowVectorSerializer serializer, DataOutputSerializer out)
+      throws Exception {
+    try (RowDataBatchWriter writer = new RowDataBatchWriter(allocator, session, veloxType);
+        RowVector rowVector = writeTestData(writer)) {
+      StatefulRecord record = new StatefulRecord(null, 0, 0, false, -1);
+      record.setRowVector(rowVector);
+      serializer.serialize(record, out);
+    }
+  }
+
+  private static RowVector writeTestData(RowDataBatchWriter writer) {
+    TEST_DATA.forEach(writer::append);
+    return writer.toRowVector();
+  }
+}
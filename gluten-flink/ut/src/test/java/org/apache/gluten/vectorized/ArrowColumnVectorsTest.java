@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.vectorized;
+
+import org.apache.gluten.util.LogicalTypeConverter;
+
+import org.apache.flink.table.data.ArrayData;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.GenericArrayData;
+import org.apache.flink.table.data.GenericMapData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.MapData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.columnar.ColumnarRowData;
+import org.apache.flink.table.data.columnar.vector.BytesColumnVector;
+import org.apache.flink.table.types.logical.ArrayType;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.BooleanType;
+import org.apache.flink.table.types.logical.DateType;
+import org.apache.flink.table.types.logical.DecimalType;
+import org.apache.flink.table.types.logical.DoubleType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.MapType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArrowColumnVectorsTest {
+
+  private static final RowType ROW_TYPE =
+      RowType.of(
+          new LogicalType[] {
+            new BooleanType(),
+            new IntType(),
+            new BigIntType(),
+            new DoubleType(),
+            new DecimalType(10, 2),
+            new VarCharType(VarCharType.MAX_LENGTH),
+            new DateType(),
+            RowType.of(
+                new LogicalType[] {new IntType(), new VarCharType(VarCharType.MAX_LENGTH)},
+                new String[] {"a", "b"}),
+            new ArrayType(new IntType()),
+            new MapType(new VarCharType(VarCharType.MAX_LENGTH), new IntType())
+          },
+          new String[] {
+            "bool", "int", "bigint", "double", "decimal", "varchar", "date", "row", "array", "map"
+          });
+
+  private static final List<RowData> TEST_DATA =
+      Arrays.asList(
+          GenericRowData.of(
+              true,
+              1,
+              10L,
+              1.5,
+              DecimalData.fromBigDecimal(new BigDecimal("12.34"), 10, 2),
+              StringData.fromString("Alice"),
+              19000,
+              GenericRowData.of(7, StringData.fromString("x")),
+              new GenericArrayData(new Object[] {1, 2}),
+              new GenericMapData(Map.of(StringData.fromString("k"), 1))),
+          new GenericRowData(10),
+          GenericRowData.of(
+              false,
+              -1,
+              Long.MAX_VALUE,
+              -0.25,
+              DecimalData.fromBigDecimal(new BigDecimal("-0.01"), 10, 2),
+              StringData.fromString(""),
+              0,
+              GenericRowData.of(null, null),
+              new GenericArrayData(new Object[] {3, null}),
+              new GenericMapData(Map.of())));
+
+  private BufferAllocator allocator;
+  private List<FieldVector> vectors;
+
+  @BeforeEach
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    vectors = new ArrayList<>();
+  }
+
+  @AfterEach
+  public void cleanup() {
+    vectors.forEach(FieldVector::close);
+    allocator.close();
+  }
+
+  @Test
+  public void testScalarAccessors() {
+    ColumnarRowData row = createRow();
+
+    row.setRowId(0);
+    assertThat(row.getBoolean(0)).isTrue();
+    assertThat(row.getInt(1)).isEqualTo(1);
+    assertThat(row.getLong(2)).isEqualTo(10L);
+    assertThat(row.getDouble(3)).isEqualTo(1.5);
+    assertThat(row.getDecimal(4, 10, 2).toBigDecimal()).isEqualTo(new BigDecimal("12.34"));
+    assertThat(row.getString(5).toString()).isEqualTo("Alice");
+    assertThat(row.getInt(6)).isEqualTo(19000);
+
+    row.setRowId(2);
+    assertThat(row.getBoolean(0)).isFalse();
+    assertThat(row.getInt(1)).isEqualTo(-1);
+    assertThat(row.getLong(2)).isEqualTo(Long.MAX_VALUE);
+    assertThat(row.getDouble(3)).isEqualTo(-0.25);
+    assertThat(row.getDecimal(4, 10, 2).toBigDecimal()).isEqualTo(new BigDecimal("-0.01"));
+    assertThat(row.getString(5).toString()).isEmpty();
+    assertThat(row.getInt(6)).isZero();
+  }
+
+  @Test
+  public void testNestedAccessors() {
+    ColumnarRowData row = createRow();
+
+    row.setRowId(0);
+    RowData struct = row.getRow(7, 2);
+    assertThat(struct.getInt(0)).isEqualTo(7);
+    assertThat(struct.getString(1).toString()).isEqualTo("x");
+    ArrayData array = row.getArray(8);
+    assertThat(array.size()).isEqualTo(2);
+    assertThat(array.getInt(0)).isEqualTo(1);
+    assertThat(array.getInt(1)).isEqualTo(2);
+    MapData map = row.getMap(9);
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.keyArray().getString(0).toString()).isEqualTo("k");
+    assertThat(map.valueArray().getInt(0)).isEqualTo(1);
+
+    row.setRowId(2);
+    struct = row.getRow(7, 2);
+    assertThat(struct.isNullAt(0)).isTrue();
+    assertThat(struct.isNullAt(1)).isTrue();
+    array = row.getArray(8);
+    assertThat(array.size()).isEqualTo(2);
+    assertThat(array.getInt(0)).isEqualTo(3);
+    assertThat(array.isNullAt(1)).isTrue();
+    assertThat(row.getMap(9).size()).isZero();
+  }
+
+  @Test
+  public void testNulls() {
+    ColumnarRowData row = createRow();
+    row.setRowId(1);
+    for (int i = 0; i < ROW_TYPE.getFieldCount(); i++) {
+      assertThat(row.isNullAt(i)).as(ROW_TYPE.getFieldNames().get(i)).isTrue();
+    }
+    row.setRowId(0);
+    for (int i = 0; i < ROW_TYPE.getFieldCount(); i++) {
+      assertThat(row.isNullAt(i)).as(ROW_TYPE.getFieldNames().get(i)).isFalse();
+    }
+  }
+
+  @Test
+  public void testTimestampAccessor() {
+    TimeStampMicroVector vector =
+        new TimeStampMicroVector(
+            "ts",
+            FieldType.nullable(new ArrowType.Timestamp(TimeUnit.MICROSECOND, null)),
+            allocator);
+    vectors.add(vector);
+    vector.setSafe(0, 1_500_000L);
+    vector.setNull(1);
+    vector.setValueCount(2);
+    ColumnarRowData row = new ColumnarRowData(ArrowColumnVectors.createBatch(List.of(vector), 2));
+
+    row.setRowId(0);
+    assertThat(row.getTimestamp(0, 6).getMillisecond()).isEqualTo(1500L);
+    row.setRowId(1);
+    assertThat(row.isNullAt(0)).isTrue();
+  }
+
+  @Test
+  public void testBytesOfVarChar() {
+    VarCharVector vector = new VarCharVector("varchar", allocator);
+    vectors.add(vector);
+    vector.setSafe(0, "Alice".getBytes(StandardCharsets.UTF_8));
+    vector.setNull(1);
+    vector.setSafe(2, "Bob".getBytes(StandardCharsets.UTF_8));
+    vector.setValueCount(3);
+    BytesColumnVector column = (BytesColumnVector) ArrowColumnVectors.create(vector);
+
+    BytesColumnVector.Bytes alice = column.getBytes(0);
+    BytesColumnVector.Bytes bob = column.getBytes(2);
+    assertThat(column.isNullAt(1)).isTrue();
+    assertThat(column.getBytes(0)).isSameAs(alice);
+    // Reading another row doesn't overwrite the bytes of a row read before.
+    assertThat(new String(alice.getBytes(), StandardCharsets.UTF_8)).isEqualTo("Alice");
+    assertThat(new String(bob.getBytes(), StandardCharsets.UTF_8)).isEqualTo("Bob");
+  }
+
+  private ColumnarRowData createRow() {
+    for (int i = 0; i < ROW_TYPE.getFieldCount(); i++) {
+      ArrowVectorWriter writer =
+          ArrowVectorWriter.create(
+              ROW_TYPE.getFieldNames().get(i),
+              LogicalTypeConverter.toVLType(ROW_TYPE.getTypeAt(i)),
+              allocator);
+      for (RowData row : TEST_DATA) {
+        writer.write(i, row);
+      }
+      writer.finish();
+      vectors.add(writer.getVector());
+    }
+    return new ColumnarRowData(ArrowColumnVectors.createBatch(vectors, TEST_DATA.size()));
+  }
+}
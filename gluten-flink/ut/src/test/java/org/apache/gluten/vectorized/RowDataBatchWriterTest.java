@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.vectorized;
+
+import org.apache.gluten.table.runtime.stream.common.Velox4jEnvironment;
+import org.apache.gluten.util.LogicalTypeConverter;
+
+import io.github.zhztheplayer.velox4j.Velox4j;
+import io.github.zhztheplayer.velox4j.data.RowVector;
+import io.github.zhztheplayer.velox4j.memory.AllocationListener;
+import io.github.zhztheplayer.velox4j.memory.MemoryManager;
+import io.github.zhztheplayer.velox4j.session.Session;
+
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.gluten.streaming.api.operators.utils.RowDataTestUtils.checkEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RowDataBatchWriterTest {
+
+  private static final RowType ROW_TYPE =
+      RowType.of(
+          new LogicalType[] {new IntType(), new VarCharType(VarCharType.MAX_LENGTH)},
+          new String[] {"id", "name"});
+
+  private static final List<RowData> FIRST_BATCH =
+      Arrays.asList(
+          GenericRowData.of(1, StringData.fromString("Alice")),
+          GenericRowData.of(2, StringData.fromString("Bob")),
+          GenericRowData.of(3, StringData.fromString("Charlie")));
+
+  private static final List<RowData> SECOND_BATCH =
+      Arrays.asList(
+          GenericRowData.of(null, StringData.fromString("Eve")), GenericRowData.of(5, null));
+
+  private io.github.zhztheplayer.velox4j.type.RowType veloxType;
+  private MemoryManager memoryManager;
+  private Session session;
+  private BufferAllocator allocator;
+
+  @BeforeAll
+  public static void setupEnvironment() {
+    Velox4jEnvironment.initializeOnce();
+  }
+
+  @BeforeEach
+  public void setup() {
+    veloxType =
+        (io.github.zhztheplayer.velox4j.type.RowType) LogicalTypeConverter.toVLType(ROW_TYPE);
+    memoryManager = MemoryManager.create(AllocationListener.NOOP);
+    session = Velox4j.newSession(memoryManager);
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @AfterEach
+  public void cleanup() {
+    session.close();
+    memoryManager.close();
+    allocator.close();
+  }
+
+  @Test
+  public void testConsecutiveBatches() {
+    try (RowDataBatchWriter writer = new RowDataBatchWriter(allocator, session, veloxType)) {
+      assertThat(writer.isEmpty()).isTrue();
+      FIRST_BATCH.forEach(writer::append);
+      assertThat(writer.size()).isEqualTo(3);
+      checkBatch(writer, FIRST_BATCH);
+      assertThat(writer.isEmpty()).isTrue();
+
+      // Nulls and shorter strings must not pick up values of the previous batch.
+      SECOND_BATCH.forEach(writer::append);
+      assertThat(writer.size()).isEqualTo(2);
+      checkBatch(writer, SECOND_BATCH);
+    }
+  }
+
+  @Test
+  public void testKeepBuffersAcrossBatches() {
+    try (RowDataBatchWriter writer = new RowDataBatchWriter(allocator, session, veloxType)) {
+      FIRST_BATCH.forEach(writer::append);
+      checkBatch(writer, FIRST_BATCH);
+      long allocated = allocator.getAllocatedMemory();
+      assertThat(allocated).isPositive();
+
+      FIRST_BATCH.forEach(writer::append);
+      checkBatch(writer, FIRST_BATCH);
+      assertThat(allocator.getAllocatedMemory()).isEqualTo(allocated);
+    }
+  }
+
+  @Test
+  public void testResetWhileBatchIsInUse() {
+    try (RowDataBatchWriter writer = new RowDataBatchWriter(allocator, session, veloxType)) {
+      FIRST_BATCH.forEach(writer::append);
+      try (RowVector first = writer.toRowVector()) {
+        writer.reset();
+        SECOND_BATCH.forEach(writer::append);
+        // The buffers of the first batch are still held by velox, so the second batch must not
+        // be written into them.
+        checkEquals(
+            FlinkRowToVLVectorConvertor.toRowData(first, allocator, veloxType),
+            FIRST_BATCH,
+            ROW_TYPE.getChildren());
+      }
+      checkBatch(writer, SECOND_BATCH);
+    }
+  }
+
+  private void checkBatch(RowDataBatchWriter writer, List<RowData> expected) {
+    try (RowVector rowVector = writer.toRowVector()) {
+      checkEquals(
+          FlinkRowToVLVectorConvertor.toRowData(rowVector, allocator, veloxType),
+          expected,
+          ROW_TYPE.getChildren());
+    } finally {
+      writer.reset();
+    }
+  }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.gluten.ras
 
+import org.apache.gluten.ras.memo.FragmentCache
 import org.apache.gluten.ras.property.{MemoRole, PropertySet, PropertySetFactory}
 import org.apache.gluten.ras.property.MemoRole.PropertySetFactoryWithMemoRole
 import org.apache.gluten.ras.rule.{EnforcerRuleFactory, RasRule}
@@ -26,6 +27,8 @@ import org.apache.gluten.ras.rule.{EnforcerRuleFactory, RasRule}
  */
 trait Optimization[T <: AnyRef] {
   def newPlanner(plan: T, constraintSet: PropertySet[T]): RasPlanner[T]
+  def withNewConfig(confFunc: RasConfig => RasConfig): Optimization[T]
+  def withFragmentCache(cache: FragmentCache[T]): Optimization[T]
 }
 
 object Optimization {
@@ -47,7 +50,8 @@ class Ras[T <: AnyRef] private (
     val metadataModel: MetadataModel[T],
     private val propertyModel: PropertyModel[T],
     val explain: RasExplain[T],
-    val ruleFactory: RasRule.Factory[T])
+    val ruleFactory: RasRule.Factory[T],
+    val fragmentCache: Option[FragmentCache[T]])
   extends Optimization[T] {
   import Ras._
 
@@ -99,7 +103,7 @@ class Ras[T <: AnyRef] private (
     RasPlanner(this, userConstraintSet(), plan)
   }
 
-  def withNewConfig(confFunc: RasConfig => RasConfig): Ras[T] = {
+  override def withNewConfig(confFunc: RasConfig => RasConfig): Ras[T] = {
     new Ras(
       confFunc(config),
       planModel,
@@ -107,7 +111,20 @@ class Ras[T <: AnyRef] private (
       metadataModel,
       propertyModel,
       explain,
-      ruleFactory)
+      ruleFactory,
+      fragmentCache)
+  }
+
+  override def withFragmentCache(cache: FragmentCache[T]): Ras[T] = {
+    new Ras(
+      config,
+      planModel,
+      costModel,
+      metadataModel,
+      propertyModel,
+      explain,
+      ruleFactory,
+      Some(cache))
   }
 
   private[ras] def withUserConstraint(from: PropertySet[T]): PropertySet[T] = {
@@ -193,7 +210,8 @@ object Ras {
       metadataModel,
       propertyModel,
       explain,
-      ruleFactory)
+      ruleFactory,
+      None)
   }
 
   trait UnsafeHashKey[T]
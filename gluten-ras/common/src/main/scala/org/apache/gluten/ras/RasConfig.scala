@@ -18,8 +18,26 @@ package org.apache.gluten.ras
 
 import org.apache.gluten.ras.RasConfig._
 
+/**
+ * Configurations of RAS.
+ *
+ * @param plannerType
+ *   The search algorithm to use.
+ * @param maxPlanningTimeMs
+ *   Exploration budget of the DP planner in milliseconds, 0 for unlimited. Once exceeded, the
+ *   planner stops applying rules and returns the best plan among the alternatives explored so far.
+ * @param maxMemoNodes
+ *   Exploration budget of the DP planner in number of nodes memorized, 0 for unlimited. Works the
+ *   same way as `maxPlanningTimeMs`.
+ * @param parallelism
+ *   Number of threads the DP planner uses to apply rules on memo clusters, 1 to apply them on the
+ *   caller thread only. When greater than 1, the rules must be safe to call concurrently.
+ */
 case class RasConfig(
-    plannerType: PlannerType = PlannerType.Dp
+    plannerType: PlannerType = PlannerType.Dp,
+    maxPlanningTimeMs: Long = 0L,
+    maxMemoNodes: Int = 0,
+    parallelism: Int = 1
 )
 
 object RasConfig {
@@ -18,4 +18,28 @@ package org.apache.gluten.ras
 
 trait RasExplain[T <: AnyRef] {
   def describeNode(node: T): String
+
+  /** Called by the planner each time it has found the best plan for an input plan. */
+  def explainPlanning(stats: RasExplain.PlanningStats): Unit = {}
+}
+
+object RasExplain {
+
+  /**
+   * Statistics of a single planning.
+   *
+   * @param planningTimeMs
+   *   Time spent on exploring the memo and finding the best plan.
+   * @param memoNodes
+   *   Number of nodes memorized.
+   * @param budgetExhausted
+   *   Whether the exploration was stopped early by the configured budget.
+   * @param reusedFragments
+   *   Number of input sub-plans whose best plans were taken from the fragment cache.
+   */
+  case class PlanningStats(
+      planningTimeMs: Long,
+      memoNodes: Int,
+      budgetExhausted: Boolean,
+      reusedFragments: Int)
 }
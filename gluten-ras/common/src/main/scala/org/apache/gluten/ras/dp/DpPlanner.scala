@@ -20,29 +20,52 @@ import org.apache.gluten.ras._
 import org.apache.gluten.ras.Best.KnownCostPath
 import org.apache.gluten.ras.best.BestFinder
 import org.apache.gluten.ras.dp.DpZipperAlgo.Adjustment.Panel
-import org.apache.gluten.ras.memo.{Memo, MemoTable}
+import org.apache.gluten.ras.RasExplain.PlanningStats
+import org.apache.gluten.ras.memo.{FragmentCache, Memo, MemoTable}
 import org.apache.gluten.ras.path._
 import org.apache.gluten.ras.property.PropertySet
 import org.apache.gluten.ras.rule.{EnforcerRuleSet, RuleApplier, Shape}
 
+import java.util
+import java.util.concurrent.{Callable, ExecutionException, ForkJoinPool}
+
+import scala.collection.mutable
+
 // TODO: Branch and bound pruning.
 private class DpPlanner[T <: AnyRef] private (ras: Ras[T], constraintSet: PropertySet[T], plan: T)
   extends RasPlanner[T] {
   import DpPlanner._
 
+  private val startNanos = System.nanoTime()
   private val memo = Memo.unsafe(ras)
   private val rules = ras.ruleFactory.create().map(rule => RuleApplier.regular(ras, memo, rule))
   private val enforcerRuleSetFactory = EnforcerRuleSet.Factory.regular(ras, memo)
   private val deriverRuleSetFactory = EnforcerRuleSet.Factory.derive(ras, memo)
+  private val budget = new Budget(ras.config, memo.table(), startNanos)
+  // Clusters of the fragments reused from the fragment cache. No rules are applied on them.
+  private val reusedClusters = mutable.Set[RasClusterKey]()
+  private var reusedFragments: Int = 0
 
   private lazy val rootGroupId: Int = {
-    memo.memorize(plan, constraintSet).id()
+    val rootGroup = memo.memorize(plan, constraintSet)
+    ras.fragmentCache.foreach(cache => reuseFragments(cache, plan, constraintSet))
+    rootGroup.id()
   }
 
   private lazy val best: (Best[T], KnownCostPath[T]) = {
     val groupId = rootGroupId
     val memoTable = memo.table()
     val best = findBest(memoTable, groupId)
+    if (!budget.wasExhausted()) {
+      // Plans found with an exhausted budget are not necessarily the best ones, don't cache them.
+      ras.fragmentCache.foreach(cache => cacheFragments(cache, best))
+    }
+    ras.explain.explainPlanning(
+      PlanningStats(
+        (System.nanoTime() - startNanos) / 1000000L,
+        memoTable.writeCount(),
+        budget.wasExhausted(),
+        reusedFragments))
     (best, best.path())
   }
 
@@ -57,13 +80,85 @@ private class DpPlanner[T <: AnyRef] private (ras: Ras[T], constraintSet: Proper
 
   private def findBest(memoTable: MemoTable[T], groupId: Int): Best[T] = {
     val cKey = memoTable.asGroupSupplier()(groupId).clusterKey()
+    val shouldApplyRules: RasClusterKey => Boolean =
+      key => !budget.exhausted() && !reusedClusters.contains(key)
+    if (ras.config.parallelism > 1) {
+      // Owned by this planner, so that no idle threads are left behind once planning is done.
+      val pool = new ForkJoinPool(ras.config.parallelism)
+      try {
+        new ParallelExplorer(ras, memoTable, rules, shouldApplyRules, pool).explore()
+      } finally {
+        pool.shutdownNow()
+      }
+    }
     val algoDef = new DpExploreAlgoDef[T]
     val adjustment =
-      new ExploreAdjustment(ras, memoTable, rules, enforcerRuleSetFactory, deriverRuleSetFactory)
+      new ExploreAdjustment(
+        ras,
+        memoTable,
+        rules,
+        enforcerRuleSetFactory,
+        deriverRuleSetFactory,
+        shouldApplyRules)
     DpClusterAlgo.resolve(memoTable, algoDef, adjustment, cKey)
     val finder = BestFinder(ras, memoTable.newState())
     finder.bestOf(groupId)
   }
+
+  // Adds the cached best plans of the input's sub-plans to the clusters of the sub-plans, top-down.
+  private def reuseFragments(
+      cache: FragmentCache[T],
+      node: T,
+      constraintSet: PropertySet[T]): Unit = {
+    cache.get(node, constraintSet) match {
+      case Some(cachedBest) =>
+        val cKey = memo.memorize(node, constraintSet).clusterKey()
+        memo.openFor(cKey).memorize(cachedBest, constraintSet)
+        markReused(node, constraintSet)
+        markReused(cachedBest, constraintSet)
+        reusedFragments += 1
+      case None =>
+        forEachChild(node, constraintSet)(reuseFragments(cache, _, _))
+    }
+  }
+
+  private def markReused(node: T, constraintSet: PropertySet[T]): Unit = {
+    // The node is already memorized so this only looks up its group.
+    reusedClusters += memo.memorize(node, constraintSet).clusterKey()
+    forEachChild(node, constraintSet)(markReused)
+  }
+
+  // Caches the best plans of all the input's sub-plans whose groups are on the best path.
+  private def cacheFragments(cache: FragmentCache[T], best: Best[T]): Unit = {
+    val bestPlans = mutable.Map[Int, T]()
+    def collect(groupId: Int, cursor: RasPath.PathNode[T]): T = {
+      val children = cursor.zipChildrenWithGroupIds().map {
+        case (childPathNode, childGroupId) => collect(childGroupId, childPathNode)
+      }
+      val bestPlan = ras.withNewChildren(cursor.self().self(), children)
+      bestPlans += groupId -> bestPlan
+      bestPlan
+    }
+    collect(best.rootGroupId(), best.path().rasPath.node())
+
+    def put(node: T, constraintSet: PropertySet[T]): Unit = {
+      val groupId = memo.memorize(node, constraintSet).id()
+      bestPlans.get(groupId).foreach(bestPlan => cache.put(node, constraintSet, bestPlan))
+      forEachChild(node, constraintSet)(put)
+    }
+    put(plan, constraintSet)
+  }
+
+  private def forEachChild(node: T, constraintSet: PropertySet[T])(
+      func: (T, PropertySet[T]) => Unit): Unit = {
+    ras.planModel
+      .childrenOf(node)
+      .zip(ras.childrenConstraintSets(node, constraintSet))
+      .foreach {
+        case (child, childConstraintSet) =>
+          func(child, childConstraintSet)
+      }
+  }
 }
 
 object DpPlanner {
@@ -71,6 +166,21 @@ object DpPlanner {
     new DpPlanner(ras, constraintSet, plan)
   }
 
+  private class Budget[T <: AnyRef](config: RasConfig, memoTable: MemoTable[T], startNanos: Long) {
+    private var exhausted0: Boolean = false
+
+    def exhausted(): Boolean = {
+      if (!exhausted0) {
+        exhausted0 = (config.maxMemoNodes > 0 && memoTable.writeCount() >= config.maxMemoNodes) ||
+          (config.maxPlanningTimeMs > 0 &&
+            System.nanoTime() - startNanos >= config.maxPlanningTimeMs * 1000000L)
+      }
+      exhausted0
+    }
+
+    def wasExhausted(): Boolean = exhausted0
+  }
+
   // Visited flag.
   sealed private trait SolvedFlag
   private case object Solved extends SolvedFlag
@@ -91,10 +201,9 @@ object DpPlanner {
       memoTable: MemoTable[T],
       rules: Seq[RuleApplier[T]],
       enforcerRuleSetFactory: EnforcerRuleSet.Factory[T],
-      deriverRuleSetFactory: EnforcerRuleSet.Factory[T])
+      deriverRuleSetFactory: EnforcerRuleSet.Factory[T],
+      shouldApplyRules: RasClusterKey => Boolean)
     extends DpClusterAlgo.Adjustment[T] {
-    import ExploreAdjustment._
-
     private val ruleShapes: Seq[Shape[T]] = rules.map(_.shape())
 
     override def exploreChildX(
@@ -121,11 +230,11 @@ object DpPlanner {
         panel: Panel[InClusterNode[T], RasClusterKey],
         cKey: RasClusterKey,
         can: CanonicalNode[T]): Unit = {
-      if (rules.isEmpty) {
+      if (rules.isEmpty || !shouldApplyRules(cKey)) {
         return
       }
-      val hubGroup = memoTable.getHubGroup(cKey)
-      findPaths(GroupNode(ras, hubGroup), ruleShapes, List(new FromSingleNode[T](can))) {
+      val hubGroup = GroupNode(ras, memoTable.getHubGroup(cKey))
+      findPaths(ras, memoTable, hubGroup, ruleShapes, List(new FromSingleNode[T](can))) {
         path =>
           val rootNode = path.node().self()
           if (rootNode.isCanonical) {
@@ -146,33 +255,13 @@ object DpPlanner {
           val enforcerRules = enforcerRuleSet.rules()
           if (enforcerRules.nonEmpty) {
             val enforcerRuleShapes = enforcerRuleSet.shapes()
-            findPaths(GroupNode(ras, hubGroup), enforcerRuleShapes, List.empty) {
+            findPaths(ras, memoTable, GroupNode(ras, hubGroup), enforcerRuleShapes, List.empty) {
               path => enforcerRules.foreach(rule => applyRule(panel, cKey, rule, path))
             }
           }
       }
     }
 
-    private def findPaths(gn: GroupNode[T], shapes: Seq[Shape[T]], filters: Seq[FilterWizard[T]])(
-        onFound: RasPath[T] => Unit): Unit = {
-      val finderBuilder = shapes
-        .foldLeft(
-          PathFinder
-            .builder(ras, memoTable)) {
-          case (builder, shape) =>
-            builder.output(shape.wizard())
-        }
-
-      val finder = filters
-        .foldLeft(finderBuilder) {
-          case (builder, filter) =>
-            builder.filter(filter)
-        }
-        .build()
-
-      finder.find(gn).foreach(path => onFound(path))
-    }
-
     private def applyRule(
         panel: Panel[InClusterNode[T], RasClusterKey],
         thisClusterKey: RasClusterKey,
@@ -203,22 +292,112 @@ object DpPlanner {
     }
   }
 
-  private object ExploreAdjustment {
-    private class FromSingleNode[T <: AnyRef](from: CanonicalNode[T]) extends FilterWizard[T] {
-      override def omit(can: CanonicalNode[T]): FilterWizard.FilterAction[T] = {
-        if (can eq from) {
-          return FilterWizard.FilterAction.Continue(this)
+  // Applies the regular rules on all memo clusters in rounds, before the sequential DP search.
+  // In a round, the rules are shifted concurrently on the nodes not explored by former rounds,
+  // while memo is not written. The shifted plans are then written into memo on the caller thread
+  // in the order of the nodes, so that memo, hence the best plan found, doesn't depend on thread
+  // scheduling. The DP search later skips the plans that were already shifted here.
+  private class ParallelExplorer[T <: AnyRef](
+      ras: Ras[T],
+      memoTable: MemoTable[T],
+      rules: Seq[RuleApplier[T]],
+      shouldApplyRules: RasClusterKey => Boolean,
+      pool: ForkJoinPool) {
+    private val ruleShapes: Seq[Shape[T]] = rules.map(_.shape())
+    private val explored = mutable.Set[Any]()
+
+    def explore(): Unit = {
+      if (rules.isEmpty) {
+        return
+      }
+      var nodes = unexploredNodes()
+      while (nodes.nonEmpty) {
+        val writes = invokeAll(nodes.map(node => () => prepare(node)))
+        nodes.zip(writes).foreach {
+          case (node, nodeWrites) =>
+            // Re-check since the budget may run out in the middle of the writes.
+            if (shouldApplyRules(node.clusterKey)) {
+              nodeWrites.foreach(write => write())
+            }
         }
-        FilterWizard.FilterAction.omit
+        nodes = unexploredNodes()
+      }
+    }
+
+    private def unexploredNodes(): Seq[InClusterNode[T]] = {
+      // Merged clusters share one cluster object, visit them once.
+      val clusters =
+        util.Collections.newSetFromMap(new util.IdentityHashMap[AnyRef, java.lang.Boolean]())
+      memoTable
+        .allClusterKeys()
+        .filter(cKey => clusters.add(memoTable.getCluster(cKey)))
+        .filter(shouldApplyRules)
+        .flatMap(cKey => memoTable.getCluster(cKey).nodes().map(can => InClusterNode(cKey, can)))
+        .filter(node => explored.add(node.toUniqueKey))
+    }
+
+    private def prepare(node: InClusterNode[T]): Seq[() => Unit] = {
+      val writes = mutable.ListBuffer[() => Unit]()
+      val hubGroup = GroupNode(ras, memoTable.getHubGroup(node.clusterKey))
+      findPaths(ras, memoTable, hubGroup, ruleShapes, List(new FromSingleNode[T](node.can))) {
+        path => rules.foreach(rule => writes += rule.prepare(InClusterPath(node.clusterKey, path)))
       }
+      writes
+    }
+
+    private def invokeAll[R](tasks: Seq[() => R]): Seq[R] = {
+      val callables = new util.ArrayList[Callable[R]]()
+      tasks.foreach(task => callables.add(() => task()))
+      val futures = pool.invokeAll(callables)
+      (0 until futures.size()).map {
+        i =>
+          try {
+            futures.get(i).get()
+          } catch {
+            case e: ExecutionException => throw e.getCause
+          }
+      }
+    }
+  }
+
+  private def findPaths[T <: AnyRef](
+      ras: Ras[T],
+      memoTable: MemoTable[T],
+      gn: GroupNode[T],
+      shapes: Seq[Shape[T]],
+      filters: Seq[FilterWizard[T]])(onFound: RasPath[T] => Unit): Unit = {
+    val finderBuilder = shapes
+      .foldLeft(
+        PathFinder
+          .builder(ras, memoTable)) {
+        case (builder, shape) =>
+          builder.output(shape.wizard())
+      }
+
+    val finder = filters
+      .foldLeft(finderBuilder) {
+        case (builder, filter) =>
+          builder.filter(filter)
+      }
+      .build()
 
-      override def omit(group: GroupNode[T]): FilterWizard.FilterAction[T] =
-        FilterWizard.FilterAction.Continue(this)
+    finder.find(gn).foreach(path => onFound(path))
+  }
 
-      override def advance(offset: Int, count: Int): FilterWizard.FilterAdvanceAction[T] = {
-        // We only filter on nodes from the root group. So continue with a noop filter.
-        FilterWizard.FilterAdvanceAction.Continue(FilterWizards.none())
+  private class FromSingleNode[T <: AnyRef](from: CanonicalNode[T]) extends FilterWizard[T] {
+    override def omit(can: CanonicalNode[T]): FilterWizard.FilterAction[T] = {
+      if (can eq from) {
+        return FilterWizard.FilterAction.Continue(this)
       }
+      FilterWizard.FilterAction.omit
+    }
+
+    override def omit(group: GroupNode[T]): FilterWizard.FilterAction[T] =
+      FilterWizard.FilterAction.Continue(this)
+
+    override def advance(offset: Int, count: Int): FilterWizard.FilterAdvanceAction[T] = {
+      // We only filter on nodes from the root group. So continue with a noop filter.
+      FilterWizard.FilterAdvanceAction.Continue(FilterWizards.none())
     }
   }
 }
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.ras.memo
+
+import org.apache.gluten.ras.property.{MemoRole, PropertySet}
+
+import java.util
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Cache of the best plans found for input sub-plans, shared by different planner runs.
+ *
+ * When a planner meets an input sub-plan that is cached under the same constraint set, it adds
+ * the cached best plan to the sub-plan's cluster and doesn't apply rules on the clusters of that
+ * fragment again. This way re-planning a mostly unchanged query doesn't explore the unchanged
+ * fragments from scratch.
+ *
+ * Entries outlive the planner runs that put them, so they never reference the plans of a run: the
+ * keys and the cached plans are made by [[FragmentCache.Templates]].
+ */
+trait FragmentCache[T <: AnyRef] {
+  def get(plan: T, constraintSet: PropertySet[T]): Option[T]
+  def put(plan: T, constraintSet: PropertySet[T], best: T): Unit
+
+  /** Number of lookups that found a cached best plan, across all scopes. */
+  def hitCount(): Long
+
+  /**
+   * Returns a view of this cache whose entries are isolated from entries of other scopes. Useful
+   * when the best plans depend on settings that are not part of the plans themselves.
+   */
+  def scoped(scope: Any): FragmentCache[T]
+}
+
+object FragmentCache {
+
+  /**
+   * Decides what is cached of the plans. A plan node may hold state of the execution it was planned
+   * for, e.g., lazily computed statistics or the result of a finished stage, which must neither be
+   * kept alive by the cache nor be handed to another execution.
+   */
+  trait Templates[T <: AnyRef] {
+
+    /** Whether the best plan of the fragment rooted at the plan may be cached and reused. */
+    def cacheable(plan: T): Boolean
+
+    /** A key equal for the fragments that may share a best plan, not referencing the plan. */
+    def keyOf(plan: T): Any
+
+    /** Makes a copy of a plan that shares no per-execution state with it, down to the leaves. */
+    def copy(plan: T): T
+  }
+
+  def lru[T <: AnyRef](maxEntries: Int, templates: Templates[T]): FragmentCache[T] = {
+    assert(maxEntries > 0)
+    new ScopedCache[T](new Storage(maxEntries), templates, None)
+  }
+
+  // Hashes the scope once rather than on every lookup.
+  private class Scope(val value: Any) {
+    private val hash = value.##
+
+    override def hashCode(): Int = hash
+
+    override def equals(obj: Any): Boolean = obj match {
+      case other: Scope => hash == other.hash && value == other.value
+      case _ => false
+    }
+  }
+
+  private case class Key(scope: Option[Scope], plan: Any, constraints: Set[Any])
+
+  private object Key {
+    def apply[T <: AnyRef](
+        scope: Option[Scope],
+        templates: Templates[T],
+        plan: T,
+        constraintSet: PropertySet[T]): Key = {
+      // Memo roles are defined per RAS instance so only their kinds are comparable across
+      // planner runs.
+      val constraints: Set[Any] = constraintSet.asMap.values.map {
+        case role: MemoRole[_] => role.getClass
+        case other => other
+      }.toSet
+      Key(scope, templates.keyOf(plan), constraints)
+    }
+  }
+
+  private class Storage(maxEntries: Int) {
+    private val entries = new util.LinkedHashMap[Key, AnyRef](16, 0.75f, true) {
+      override def removeEldestEntry(eldest: util.Map.Entry[Key, AnyRef]): Boolean = {
+        size() > maxEntries
+      }
+    }
+    val hits = new AtomicLong(0L)
+
+    def get(key: Key): Option[AnyRef] = entries.synchronized {
+      Option(entries.get(key))
+    }
+
+    def put(key: Key, value: AnyRef): Unit = entries.synchronized {
+      entries.put(key, value)
+    }
+  }
+
+  private class ScopedCache[T <: AnyRef](
+      storage: Storage,
+      templates: Templates[T],
+      scope: Option[Scope])
+    extends FragmentCache[T] {
+    override def get(plan: T, constraintSet: PropertySet[T]): Option[T] = {
+      if (!templates.cacheable(plan)) {
+        return None
+      }
+      val cached = storage.get(Key(scope, templates, plan, constraintSet))
+      cached.foreach(_ => storage.hits.incrementAndGet())
+      // Every lookup gets its own copy of the template.
+      cached.map(template => templates.copy(template.asInstanceOf[T]))
+    }
+
+    override def put(plan: T, constraintSet: PropertySet[T], best: T): Unit = {
+      if (!templates.cacheable(plan) || !templates.cacheable(best)) {
+        return
+      }
+      // The best plan itself is handed to the query, so a copy is cached.
+      storage.put(Key(scope, templates, plan, constraintSet), templates.copy(best))
+    }
+
+    override def hitCount(): Long = storage.hits.get()
+
+    override def scoped(scope: Any): FragmentCache[T] = {
+      new ScopedCache[T](storage, templates, Some(new Scope(scope)))
+    }
+  }
+}
@@ -28,6 +28,14 @@ import scala.collection.mutable
 
 trait RuleApplier[T <: AnyRef] {
   def apply(icp: InClusterPath[T]): Unit
+
+  /**
+   * Does the same as [[apply]], in two steps. This method shifts the plan without writing memo and
+   * returns the function that writes the shifted plans into memo. Calls to this method can run
+   * concurrently, as long as memo is not written at the same time.
+   */
+  def prepare(icp: InClusterPath[T]): () => Unit
+
   def shape(): Shape[T]
 }
 
@@ -60,8 +68,25 @@ object RuleApplier {
       }
     }
 
+    override def prepare(icp: InClusterPath[T]): () => Unit = {
+      if (!shape.identify(icp.path())) {
+        return () => {}
+      }
+      val cKey = icp.cluster()
+      val plan = icp.path().plan()
+      if (deDup.contains(cKey, plan)) {
+        return () => {}
+      }
+      // Materialize the shifted plans in case the rule returns a lazy collection.
+      val equivalents = rule.shift(plan).toList
+      () => deDup.run(cKey, plan)(memorize(cKey, equivalents))
+    }
+
     private def apply0(cKey: RasClusterKey, plan: T): Unit = {
-      val equivalents = rule.shift(plan)
+      memorize(cKey, rule.shift(plan))
+    }
+
+    private def memorize(cKey: RasClusterKey, equivalents: Iterable[T]): Unit = {
       equivalents.foreach {
         equiv =>
           closure
@@ -97,8 +122,32 @@ object RuleApplier {
       }
     }
 
+    override def prepare(icp: InClusterPath[T]): () => Unit = {
+      if (!shape.identify(icp.path())) {
+        return () => {}
+      }
+      val cKey = icp.cluster()
+      val path = icp.path()
+      val propSet = path.node().self().propSet()
+      if (propSet.satisfies(constraintSet)) {
+        return () => {}
+      }
+      val plan = path.plan()
+      if (deDup.contains(cKey, plan)) {
+        return () => {}
+      }
+      val equivalents = rule.shift(plan).toList
+      () => deDup.run(cKey, plan)(memorize(cKey, constraintSet, equivalents))
+    }
+
     private def apply0(cKey: RasClusterKey, constraintSet: PropertySet[T], plan: T): Unit = {
-      val equivalents = rule.shift(plan)
+      memorize(cKey, constraintSet, rule.shift(plan))
+    }
+
+    private def memorize(
+        cKey: RasClusterKey,
+        constraintSet: PropertySet[T],
+        equivalents: Iterable[T]): Unit = {
       equivalents.foreach {
         equiv =>
           closure
@@ -112,6 +161,8 @@ object RuleApplier {
 
   private trait DeDup[T <: AnyRef] {
     def run(cKey: RasClusterKey, plan: T)(computation: => Unit): Unit
+    // Read-only. Returns true if the computation was once run on the plan.
+    def contains(cKey: RasClusterKey, plan: T): Boolean
   }
 
   private object DeDup {
@@ -151,6 +202,13 @@ object RuleApplier {
         // All cache missed, apply the computation on the plan.
         computation
       }
+
+      override def contains(cKey: RasClusterKey, plan: T): Boolean = {
+        if (layerOne.get(cKey).exists(_.containsKey(plan))) {
+          return true
+        }
+        layerTwo.get(cKey).exists(_.contains(ras.toHashKey(plan)))
+      }
     }
   }
 }
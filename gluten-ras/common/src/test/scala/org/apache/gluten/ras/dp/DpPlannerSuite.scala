@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.ras.dp
+
+import org.apache.gluten.ras._
+import org.apache.gluten.ras.RasConfig.PlannerType
+import org.apache.gluten.ras.RasExplain.PlanningStats
+import org.apache.gluten.ras.RasSuiteBase._
+import org.apache.gluten.ras.memo.FragmentCache
+import org.apache.gluten.ras.rule.{RasRule, Shape, Shapes}
+
+import org.scalatest.funsuite.AnyFunSuite
+
+import scala.collection.mutable
+
+class DpPlannerSuite extends AnyFunSuite {
+  import DpPlannerSuite._
+
+  private def newRas(rule: RasRule[TestNode], explain: StatsCollector): Ras[TestNode] = {
+    newRas(List(rule), explain)
+  }
+
+  private def newRas(rules: Seq[RasRule[TestNode]], explain: StatsCollector): Ras[TestNode] = {
+    Ras[TestNode](
+      PlanModelImpl,
+      CostModelImpl,
+      MetadataModelImpl,
+      PropertyModelImpl,
+      explain,
+      RasRule.Factory.reuse(rules))
+      .withNewConfig(_ => RasConfig(plannerType = PlannerType.Dp))
+  }
+
+  test("Exploration budget - memo nodes") {
+    val explain = new StatsCollector()
+    val ras = newRas(new DecreaseUnaryCost(), explain)
+    val plan = Unary(50, Unary(90, Leaf(70)))
+
+    assert(ras.newPlanner(plan).plan() == Unary(50, Unary(70, Leaf(70))))
+    assert(!explain.stats.last.budgetExhausted)
+
+    val budgeted = ras.withNewConfig(_.copy(maxMemoNodes = 1))
+    assert(budgeted.newPlanner(plan).plan() == plan)
+    assert(explain.stats.last.budgetExhausted)
+  }
+
+  test("Exploration budget - planning time") {
+    val plan = Unary(90, Unary(90, Unary(90, Leaf(70))))
+    val optimized = Unary(70, Unary(70, Unary(70, Leaf(70))))
+
+    val explain = new StatsCollector()
+    val ras = newRas(new DecreaseUnaryCost(delayMs = 50), explain)
+    assert(ras.newPlanner(plan).plan() == optimized)
+    assert(!explain.stats.last.budgetExhausted)
+
+    // The first rule call alone exceeds the budget, so the remaining clusters are not explored.
+    val budgeted = ras.withNewConfig(_.copy(maxPlanningTimeMs = 10))
+    assert(budgeted.newPlanner(plan).plan() != optimized)
+    assert(explain.stats.last.budgetExhausted)
+  }
+
+  test("Fragment cache - reuse best plans of unchanged sub-plans") {
+    val cache = FragmentCache.lru[TestNode](100, new TestTemplates())
+
+    val explain1 = new StatsCollector()
+    val rule1 = new DecreaseUnaryCost()
+    val ras1 = newRas(rule1, explain1).withFragmentCache(cache)
+    val plan1 = Unary(50, Unary(90, Leaf(70)))
+    assert(ras1.newPlanner(plan1).plan() == Unary(50, Unary(70, Leaf(70))))
+    assert(explain1.stats.last.reusedFragments == 0)
+    assert(rule1.shiftedCosts.contains(90))
+
+    // A new RAS instance sharing the cache, with a changed root and an unchanged sub-plan.
+    val explain2 = new StatsCollector()
+    val rule2 = new DecreaseUnaryCost()
+    val ras2 = newRas(rule2, explain2).withFragmentCache(cache)
+    val plan2 = Unary(60, Unary(90, Leaf(70)))
+    assert(ras2.newPlanner(plan2).plan() == Unary(60, Unary(70, Leaf(70))))
+    assert(explain2.stats.last.reusedFragments == 1)
+    assert(cache.hitCount() == 1)
+    assert(!rule2.shiftedCosts.contains(90))
+    assert(rule2.shiftedCosts.contains(60))
+
+    // Scoped caches don't share entries.
+    val explain3 = new StatsCollector()
+    val ras3 = newRas(new DecreaseUnaryCost(), explain3).withFragmentCache(cache.scoped("other"))
+    assert(ras3.newPlanner(plan2).plan() == Unary(60, Unary(70, Leaf(70))))
+    assert(explain3.stats.last.reusedFragments == 0)
+  }
+
+  test("Fragment cache - skip uncacheable fragments") {
+    val cache = FragmentCache.lru[TestNode](100, new TestTemplates(_ == Leaf(71)))
+    val plan = Unary(50, Binary(10, Unary(90, Leaf(70)), Unary(90, Leaf(71))))
+    val optimized = Unary(50, Binary(10, Unary(70, Leaf(70)), Unary(70, Leaf(71))))
+
+    val ras1 = newRas(new DecreaseUnaryCost(), new StatsCollector()).withFragmentCache(cache)
+    assert(ras1.newPlanner(plan).plan() == optimized)
+
+    // Only the fragment not containing the uncacheable leaf is reused.
+    val explain2 = new StatsCollector()
+    val rule2 = new DecreaseUnaryCost()
+    val ras2 = newRas(rule2, explain2).withFragmentCache(cache)
+    assert(ras2.newPlanner(plan).plan() == optimized)
+    assert(explain2.stats.last.reusedFragments == 1)
+    assert(rule2.shiftedCosts.count(_ == 90) == 1)
+  }
+
+  test("Parallel exploration") {
+    // A wide plan with many independent clusters.
+    val plan = (0 until 8)
+      .map(i => Unary(90, Leaf(70 + i)): TestNode)
+      .reduce((left, right) => Binary(10, left, right))
+    val expected = (0 until 8)
+      .map(i => Unary(70, Leaf(70 + i)): TestNode)
+      .reduce((left, right) => Binary(10, left, right))
+
+    val ras = newRas(new DecreaseUnaryCost(), new StatsCollector())
+    assert(ras.newPlanner(plan).plan() == expected)
+    val parallelRas = ras.withNewConfig(_.copy(parallelism = 4))
+    assert(parallelRas.newPlanner(plan).plan() == expected)
+
+    // Swapped joins cost the same. The plan selected among them should be stable between runs.
+    val rules = List(new DecreaseUnaryCost(), new SwapBinary())
+    val parallelRasWithTies =
+      newRas(rules, new StatsCollector()).withNewConfig(_.copy(parallelism = 4))
+    val first = parallelRasWithTies.newPlanner(plan).plan()
+    (0 until 10).foreach(_ => assert(parallelRasWithTies.newPlanner(plan).plan() == first))
+  }
+}
+
+object DpPlannerSuite {
+  case class Unary(override val selfCost: Long, override val child: TestNode) extends UnaryLike {
+    override def withNewChildren(child: TestNode): UnaryLike = copy(child = child)
+  }
+
+  case class Binary(
+      override val selfCost: Long,
+      override val left: TestNode,
+      override val right: TestNode)
+    extends BinaryLike {
+    override def withNewChildren(left: TestNode, right: TestNode): BinaryLike =
+      copy(left = left, right = right)
+  }
+
+  case class Leaf(override val selfCost: Long) extends LeafLike {
+    override def makeCopy(): LeafLike = copy()
+  }
+
+  class DecreaseUnaryCost(delayMs: Long = 0L) extends RasRule[TestNode] {
+    val shiftedCosts: mutable.ListBuffer[Long] = mutable.ListBuffer()
+
+    override def shift(node: TestNode): Iterable[TestNode] = node match {
+      case Unary(cost, child) =>
+        shiftedCosts.synchronized {
+          shiftedCosts += cost
+        }
+        if (delayMs > 0) {
+          Thread.sleep(delayMs)
+        }
+        if (cost >= 80) {
+          List(Unary(cost - 20, child))
+        } else {
+          List.empty
+        }
+      case other => List.empty
+    }
+
+    override def shape(): Shape[TestNode] = Shapes.fixedHeight(1)
+  }
+
+  class SwapBinary extends RasRule[TestNode] {
+    override def shift(node: TestNode): Iterable[TestNode] = node match {
+      case Binary(cost, left, right) => List(Binary(cost, right, left))
+      case other => List.empty
+    }
+
+    override def shape(): Shape[TestNode] = Shapes.fixedHeight(1)
+  }
+
+  /** Caches the test nodes as they are, except for the ones containing an uncacheable node. */
+  class TestTemplates(uncacheable: TestNode => Boolean = _ => false)
+    extends FragmentCache.Templates[TestNode] {
+    override def cacheable(plan: TestNode): Boolean = {
+      !uncacheable(plan) && plan.children().forall(cacheable)
+    }
+
+    override def keyOf(plan: TestNode): Any = plan
+
+    override def copy(plan: TestNode): TestNode = plan.withNewChildren(plan.children().map(copy))
+  }
+
+  class StatsCollector extends RasExplain[TestNode] {
+    val stats: mutable.ListBuffer[PlanningStats] = mutable.ListBuffer()
+
+    override def describeNode(node: TestNode): String = ExplainImpl.describeNode(node)
+
+    override def explainPlanning(stats: PlanningStats): Unit = {
+      this.stats += stats
+    }
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.gluten.substrait.rel.LocalFilesNode.ReadFileFormat
 import org.apache.gluten.substrait.rel.SplitInfo
 
 import org.apache.spark._
+import org.apache.spark.rdd.RDD
 import org.apache.spark.sql.connector.read.InputPartition
 import org.apache.spark.sql.execution.metric.SQLMetric
 import org.apache.spark.sql.types.StructType
@@ -53,6 +54,14 @@ trait IteratorApi {
       splitInfos: Seq[Seq[SplitInfo]],
       leaves: Seq[LeafTransformSupport]): Seq[BaseGlutenPartition]
 
+  /**
+   * Decorate the RDD whose batches are fed into a native pipeline through an input iterator, e.g.
+   * to prefetch the batches ahead of native consumption. `metrics` are the input iterator's.
+   */
+  def genInputIteratorRDD(
+      rdd: RDD[ColumnarBatch],
+      metrics: Map[String, SQLMetric]): RDD[ColumnarBatch] = rdd
+
   /**
    * Inject the task attempt temporary path for native write files, this method should be called
    * before `genFirstStageIterator` or `genFinalStageIterator`
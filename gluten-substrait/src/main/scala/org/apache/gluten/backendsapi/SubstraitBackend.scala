@@ -19,20 +19,24 @@ package org.apache.gluten.backendsapi
 import org.apache.gluten.GlutenBuildInfo
 import org.apache.gluten.backend.Backend
 import org.apache.gluten.config.GlutenConfig
-import org.apache.gluten.config.GlutenConfig.GLUTEN_SOFT_AFFINITY_ENABLED
+import org.apache.gluten.config.GlutenConfig.{GLUTEN_SOFT_AFFINITY_CACHE_DIGEST_ENABLED, GLUTEN_SOFT_AFFINITY_ENABLED}
 import org.apache.gluten.events.GlutenBuildInfoEvent
+import org.apache.gluten.execution.NativeValidationCache
 import org.apache.gluten.extension.columnar.LoggedRule
 import org.apache.gluten.extension.injector.Injector
+import org.apache.gluten.softaffinity.SoftAffinityManager
 
 import org.apache.spark.{SparkConf, SparkContext}
 import org.apache.spark.api.plugin.PluginContext
 import org.apache.spark.internal.Logging
-import org.apache.spark.softaffinity.SoftAffinityListener
+import org.apache.spark.softaffinity.{CacheDigestTracker, ExecutorCacheDigest, SoftAffinityListener}
 import org.apache.spark.sql.execution.adaptive.GlutenCostEvaluator
 import org.apache.spark.sql.execution.ui.{GlutenSQLAppStatusListener, GlutenUIUtils}
 import org.apache.spark.sql.internal.SparkConfigUtil._
 import org.apache.spark.sql.internal.SQLConf
 
+import com.codahale.metrics.Gauge
+
 import java.util.Collections
 
 import scala.collection.mutable
@@ -61,14 +65,26 @@ trait SubstraitBackend extends Backend with Logging {
   }
 
   final override def onDriverShutdown(): Unit = {
+    NativeValidationCache.invalidateAll()
     listenerApi().onDriverShutdown()
   }
   final override def onExecutorStart(pc: PluginContext): Unit = {
+    val conf = pc.conf()
+    if (usingCacheDigest(conf)) {
+      CacheDigestTracker.start(pc)
+    }
     listenerApi().onExecutorStart(pc)
   }
   final override def onExecutorShutdown(): Unit = {
+    CacheDigestTracker.stop()
     listenerApi().onExecutorShutdown()
   }
+  override def onDriverReceive(message: Any): Option[AnyRef] = message match {
+    case digest: ExecutorCacheDigest =>
+      SoftAffinityManager.updateCacheDigest(digest.executorId, digest.toBloomFilter)
+      Some(java.lang.Boolean.TRUE)
+    case _ => None
+  }
   final override def injectRules(injector: Injector): Unit = {
     injector.gluten.legacy.injectRuleWrapper(r => new LoggedRule(r))
     injector.gluten.ras.injectRuleWrapper(r => new LoggedRule(r))
@@ -83,6 +99,39 @@ trait SubstraitBackend extends Backend with Logging {
           logInfo("Gluten SQL Tab has been attached.")
         }
     }
+    val registry = pluginContext.metricRegistry()
+    registry.register(
+      "nativeValidationCache.hits",
+      new Gauge[Long] {
+        override def getValue: Long = NativeValidationCache.stats().hitCount()
+      })
+    registry.register(
+      "nativeValidationCache.misses",
+      new Gauge[Long] {
+        override def getValue: Long = NativeValidationCache.stats().missCount()
+      })
+    registry.register(
+      "nativeValidationCache.hitRate",
+      new Gauge[Double] {
+        override def getValue: Double = NativeValidationCache.stats().hitRate()
+      })
+    registry.register(
+      "nativeValidationCache.size",
+      new Gauge[Long] {
+        override def getValue: Long = NativeValidationCache.size()
+      })
+    if (usingCacheDigest(pluginContext.conf())) {
+      registry.register(
+        "softAffinity.cacheDigest.lookups",
+        new Gauge[Long] {
+          override def getValue: Long = SoftAffinityManager.cacheDigestStats._1
+        })
+      registry.register(
+        "softAffinity.cacheDigest.hits",
+        new Gauge[Long] {
+          override def getValue: Long = SoftAffinityManager.cacheDigestStats._2
+        })
+    }
   }
 
   def iteratorApi(): IteratorApi
@@ -97,6 +146,10 @@ trait SubstraitBackend extends Backend with Logging {
 
 object SubstraitBackend extends Logging {
 
+  private def usingCacheDigest(conf: SparkConf): Boolean = {
+    conf.get(GLUTEN_SOFT_AFFINITY_ENABLED) && conf.get(GLUTEN_SOFT_AFFINITY_CACHE_DIGEST_ENABLED)
+  }
+
   /** Since https://github.com/apache/incubator-gluten/pull/2247. */
   private def postBuildInfoEvent(sc: SparkContext): Unit = {
     // export gluten version to property to spark
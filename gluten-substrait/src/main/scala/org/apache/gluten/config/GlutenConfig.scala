@@ -26,6 +26,7 @@ import org.apache.hadoop.security.UserGroupInformation
 
 import java.util
 import java.util.Locale
+import java.util.concurrent.TimeUnit
 
 import scala.collection.JavaConverters._
 
@@ -44,6 +45,8 @@ class GlutenConfig(conf: SQLConf) extends GlutenCoreConfig(conf) {
   // FIXME the option currently controls both JVM and native validation against a Substrait plan.
   def enableNativeValidation: Boolean = getConf(NATIVE_VALIDATION_ENABLED)
 
+  def enableNativeValidationCache: Boolean = getConf(NATIVE_VALIDATION_CACHE_ENABLED)
+
   def enableColumnarBatchScan: Boolean = getConf(COLUMNAR_BATCHSCAN_ENABLED)
 
   def enableColumnarFileScan: Boolean = getConf(COLUMNAR_FILESCAN_ENABLED)
@@ -727,6 +730,29 @@ object GlutenConfig {
       .intConf
       .createWithDefault(10000)
 
+  val GLUTEN_SOFT_AFFINITY_CACHE_DIGEST_ENABLED =
+    buildConf("spark.gluten.soft-affinity.cacheDigest.enabled")
+      .doc(
+        "If true, executors periodically report a digest of the files they have read recently " +
+          "to the driver, and Soft Affinity prefers the executors whose digest contains a file.")
+      .booleanConf
+      .createWithDefault(false)
+
+  val GLUTEN_SOFT_AFFINITY_CACHE_DIGEST_INTERVAL =
+    buildConf("spark.gluten.soft-affinity.cacheDigest.interval")
+      .doc("The interval at which executors report their cache digest.")
+      .timeConf(TimeUnit.MILLISECONDS)
+      .createWithDefaultString("60s")
+
+  val GLUTEN_SOFT_AFFINITY_CACHE_DIGEST_MAX_FILES =
+    buildConf("spark.gluten.soft-affinity.cacheDigest.maxFiles")
+      .doc(
+        "The number of recently read files tracked by each executor for its cache digest. " +
+          "Set it close to the number of files the executor's local cache can hold.")
+      .intConf
+      .checkValue(_ > 0, "must be positive.")
+      .createWithDefault(100000)
+
   val GLUTEN_LIB_NAME =
     buildConf("spark.gluten.sql.columnar.libname")
       .doc("The gluten library name.")
@@ -756,6 +782,22 @@ object GlutenConfig {
       .booleanConf
       .createWithDefault(true)
 
+  val NATIVE_VALIDATION_CACHE_ENABLED =
+    buildConf("spark.gluten.sql.native.validation.cache.enabled")
+      .doc(
+        "Whether to cache native validation results on the driver. Plan fragments which only " +
+          "differ in numeric or temporal literal values compared against or combined " +
+          "arithmetically with other values share the cached result.")
+      .booleanConf
+      .createWithDefault(true)
+
+  val NATIVE_VALIDATION_CACHE_MAX_ENTRIES =
+    buildStaticConf("spark.gluten.sql.native.validation.cache.maxEntries")
+      .doc("The maximum number of native validation results cached on the driver.")
+      .intConf
+      .checkValue(_ > 0, "must be positive.")
+      .createWithDefault(10000)
+
   val COLUMNAR_BATCHSCAN_ENABLED =
     buildConf("spark.gluten.sql.columnar.batchscan")
       .doc("Enable or disable columnar batchscan.")
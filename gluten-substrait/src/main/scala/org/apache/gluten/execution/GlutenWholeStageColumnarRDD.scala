@@ -21,6 +21,7 @@ import org.apache.gluten.config.GlutenConfig
 import org.apache.gluten.metrics.{GlutenTimeMetric, IMetrics}
 
 import org.apache.spark.{Partition, SparkContext, SparkException, TaskContext}
+import org.apache.spark.broadcast.Broadcast
 import org.apache.spark.rdd.RDD
 import org.apache.spark.sql.connector.read.InputPartition
 import org.apache.spark.sql.execution.metric.SQLMetric
@@ -44,6 +45,23 @@ case class GlutenPartition(
   override def preferredLocations(): Array[String] = locations
 }
 
+/**
+ * Same as [[GlutenPartition]] but references a plan broadcast once for all partitions of the
+ * stage. Each task is serialized separately, so an embedded plan would otherwise be shipped once
+ * per task.
+ */
+case class BroadcastPlanGlutenPartition(
+    index: Int,
+    planBroadcast: Broadcast[Array[Byte]],
+    splitInfosByteArray: Array[Array[Byte]] = Array.empty[Array[Byte]],
+    locations: Array[String] = Array.empty[String])
+  extends BaseGlutenPartition {
+
+  override def plan: Array[Byte] = planBroadcast.value
+
+  override def preferredLocations(): Array[String] = locations
+}
+
 case class FirstZippedPartitionsPartition(
     index: Int,
     inputPartition: InputPartition,
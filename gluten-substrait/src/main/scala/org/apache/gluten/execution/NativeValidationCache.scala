@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.execution
+
+import org.apache.gluten.backendsapi.BackendsApiManager
+import org.apache.gluten.config.GlutenConfig
+import org.apache.gluten.expression.ExpressionNames
+import org.apache.gluten.extension.columnar.ColumnarRuleApplier
+import org.apache.gluten.substrait.plan.PlanNode
+
+import org.apache.spark.SparkEnv
+import org.apache.spark.internal.Logging
+import org.apache.spark.sql.internal.{GlutenConfigUtil, SQLConf}
+import org.apache.spark.sql.internal.SparkConfigUtil._
+
+import com.google.common.cache.{Cache, CacheBuilder, CacheStats}
+import com.google.common.hash.{HashCode, Hashing}
+import com.google.protobuf.Descriptors.FieldDescriptor
+import com.google.protobuf.Message
+import io.substrait.proto.Expression.Literal
+import io.substrait.proto.Expression.Literal.LiteralTypeCase
+import io.substrait.proto.Expression.ScalarFunction
+import io.substrait.proto.{FunctionArgument, Plan}
+
+import java.nio.charset.StandardCharsets
+
+import scala.collection.JavaConverters._
+
+/**
+ * Driver side cache of native validation results. Plan fragments built again by repeated queries
+ * and AQE re-planning are validated once: the key is a fingerprint of the Substrait plan together
+ * with the session configurations passed to the native validator. Numeric and temporal literal
+ * values are left out where they are direct arguments of comparisons and arithmetic, whose
+ * validation only depends on the argument types, so that queries which only differ in such
+ * literals share a result. Other literals are kept, since native validation checks some of them,
+ * e.g. the scale of round or regular expression patterns.
+ *
+ * Entries never go stale by themselves, since the fingerprint covers everything the validation
+ * depends on. [[invalidateAll]] is still there for code that changes the native function registry
+ * at runtime.
+ */
+object NativeValidationCache extends Logging {
+  private lazy val cache: Cache[HashCode, ValidationResult] = CacheBuilder
+    .newBuilder()
+    .maximumSize(maxEntries)
+    .recordStats()
+    .build[HashCode, ValidationResult]()
+
+  // read from the Spark conf, as metrics may look into the cache from threads without a session
+  private def maxEntries: Int = {
+    Option(SparkEnv.get)
+      .map(_.conf.get(GlutenConfig.NATIVE_VALIDATION_CACHE_MAX_ENTRIES))
+      .getOrElse(GlutenConfig.NATIVE_VALIDATION_CACHE_MAX_ENTRIES.defaultValue.get)
+  }
+
+  // Functions whose native validation doesn't depend on literal argument values.
+  private val valueInsensitiveFunctions = Set(
+    ExpressionNames.EQUAL,
+    ExpressionNames.EQUAL_NULL_SAFE,
+    ExpressionNames.LESS_THAN,
+    ExpressionNames.LESS_THAN_OR_EQUAL,
+    ExpressionNames.GREATER_THAN,
+    ExpressionNames.GREATER_THAN_OR_EQUAL,
+    ExpressionNames.ADD,
+    ExpressionNames.SUBTRACT,
+    ExpressionNames.MULTIPLY,
+    ExpressionNames.DIVIDE
+  )
+
+  private val strippedLiterals = Set(
+    LiteralTypeCase.BOOLEAN,
+    LiteralTypeCase.I8,
+    LiteralTypeCase.I16,
+    LiteralTypeCase.I32,
+    LiteralTypeCase.I64,
+    LiteralTypeCase.FP32,
+    LiteralTypeCase.FP64,
+    LiteralTypeCase.TIMESTAMP,
+    LiteralTypeCase.TIMESTAMP_TZ,
+    LiteralTypeCase.DATE,
+    LiteralTypeCase.TIME,
+    LiteralTypeCase.INTERVAL_YEAR_TO_MONTH,
+    LiteralTypeCase.INTERVAL_DAY_TO_SECOND,
+    LiteralTypeCase.DECIMAL
+  )
+
+  def validate(plan: PlanNode)(validation: => ValidationResult): ValidationResult = {
+    if (!GlutenConfig.get.enableNativeValidationCache) {
+      return validation
+    }
+    val key = fingerprint(plan)
+    val cached = cache.getIfPresent(key)
+    if (cached != null) {
+      return cached
+    }
+    val result = validation
+    cache.put(key, result)
+    result
+  }
+
+  def stats(): CacheStats = cache.stats()
+
+  def size(): Long = cache.size()
+
+  def invalidateAll(): Unit = {
+    logInfo("Invalidating all cached native validation results.")
+    cache.invalidateAll()
+  }
+
+  private def fingerprint(plan: PlanNode): HashCode = {
+    val pb = plan.toProtobuf
+    val hasher = Hashing.murmur3_128().newHasher()
+    hasher.putBytes(normalize(pb, functionNames(pb)).toByteArray)
+    hasher.putBytes(sessionConfFingerprint().asBytes())
+    hasher.hash()
+  }
+
+  // The session conf doesn't change while a plan is being transformed, so it's hashed once per
+  // columnar rule call rather than for every validated fragment.
+  private def sessionConfFingerprint(): HashCode = {
+    ColumnarRuleApplier.currentCall() match {
+      case Some(call) =>
+        call.memoize("NativeValidationCache.sessionConf")(sessionConfFingerprint(call.sqlConf))
+      case None =>
+        sessionConfFingerprint(SQLConf.get)
+    }
+  }
+
+  private def sessionConfFingerprint(conf: SQLConf): HashCode = {
+    val hasher = Hashing.murmur3_128().newHasher()
+    val nativeConf = GlutenConfig.getNativeSessionConf(
+      BackendsApiManager.getBackendName,
+      GlutenConfigUtil.parseConfig(conf.getAllConfs))
+    nativeConf.asScala.toSeq.sorted.foreach {
+      case (k, v) =>
+        hasher.putString(k, StandardCharsets.UTF_8)
+        hasher.putString(v, StandardCharsets.UTF_8)
+    }
+    hasher.hash()
+  }
+
+  // Function anchor -> function name without the argument type signature.
+  private def functionNames(plan: Plan): Map[Int, String] = {
+    plan.getExtensionsList.asScala
+      .filter(_.hasExtensionFunction)
+      .map(_.getExtensionFunction)
+      .map(f => f.getFunctionAnchor -> f.getName.takeWhile(_ != ':'))
+      .toMap
+  }
+
+  private def normalize(message: Message, functionNames: Map[Int, String]): Message = {
+    message match {
+      case function: ScalarFunction
+          if functionNames
+            .get(function.getFunctionReference)
+            .exists(valueInsensitiveFunctions.contains) =>
+        val builder = function.toBuilder
+        function.getArgumentsList.asScala.zipWithIndex.foreach {
+          case (arg, i) if isStrippedLiteral(arg) =>
+            val value = arg.getValue.toBuilder.setLiteral(stripValue(arg.getValue.getLiteral))
+            builder.setArguments(i, arg.toBuilder.setValue(value))
+          case (arg, i) =>
+            builder.setArguments(i, normalize(arg, functionNames).asInstanceOf[FunctionArgument])
+        }
+        builder.build()
+      case _ =>
+        val builder = message.toBuilder
+        message.getAllFields.asScala.foreach {
+          case (field, value) if field.getJavaType == FieldDescriptor.JavaType.MESSAGE =>
+            if (field.isRepeated) {
+              builder.clearField(field)
+              value
+                .asInstanceOf[java.util.List[Message]]
+                .asScala
+                .foreach(v => builder.addRepeatedField(field, normalize(v, functionNames)))
+            } else {
+              builder.setField(field, normalize(value.asInstanceOf[Message], functionNames))
+            }
+          case _ =>
+        }
+        builder.build()
+    }
+  }
+
+  private def isStrippedLiteral(arg: FunctionArgument): Boolean = {
+    arg.hasValue && arg.getValue.hasLiteral &&
+    strippedLiterals.contains(arg.getValue.getLiteral.getLiteralTypeCase)
+  }
+
+  /** Keeps the type of a literal, including decimal precision and scale, but not its value. */
+  private def stripValue(literal: Literal): Literal = {
+    val builder = literal.toBuilder
+    literal.getLiteralTypeCase match {
+      case LiteralTypeCase.DECIMAL =>
+        builder.setDecimal(literal.getDecimal.toBuilder.clearValue())
+      case typeCase =>
+        val field = Literal.getDescriptor.findFieldByNumber(typeCase.getNumber)
+        if (field.getJavaType == FieldDescriptor.JavaType.MESSAGE) {
+          builder.setField(field, builder.newBuilderForField(field).build())
+        } else {
+          builder.setField(field, field.getDefaultValue)
+        }
+    }
+    builder.build()
+  }
+}
@@ -92,8 +92,10 @@ trait TransformSupport extends ValidatablePlan {
   protected def doNativeValidation(context: SubstraitContext, node: RelNode): ValidationResult = {
     if (node != null && enableNativeValidation) {
       val planNode = PlanBuilder.makePlan(context, Lists.newArrayList(node))
-      BackendsApiManager.getValidatorApiInstance
-        .doNativeValidateWithFailureReason(planNode)
+      NativeValidationCache.validate(planNode) {
+        BackendsApiManager.getValidatorApiInstance
+          .doNativeValidateWithFailureReason(planNode)
+      }
     } else {
       ValidationResult.succeeded
     }
@@ -25,11 +25,14 @@ import org.apache.gluten.sql.shims.SparkShimLoader
 import org.apache.spark.SparkEnv
 import org.apache.spark.internal.Logging
 import org.apache.spark.scheduler.{SparkListenerStageCompleted, SparkListenerStageSubmitted, SparkListenerTaskEnd}
+import org.apache.spark.sql.catalyst.catalog.ExternalCatalogUtils
 import org.apache.spark.sql.execution.datasources.FilePartition
+import org.apache.spark.util.sketch.BloomFilter
 
 import com.google.common.cache.{CacheBuilder, CacheLoader, LoadingCache}
 
-import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.{AtomicInteger, AtomicLong}
 import java.util.concurrent.locks.ReentrantReadWriteLock
 
 import scala.collection.mutable
@@ -52,6 +55,9 @@ abstract class AffinityManager extends LogLevelUtil with Logging {
   lazy val duplicateReadingMaxCacheItems: Int =
     GlutenConfig.GLUTEN_SOFT_AFFINITY_DUPLICATE_READING_MAX_CACHE_ITEMS.defaultValue.get
 
+  lazy val usingCacheDigest: Boolean =
+    GlutenConfig.GLUTEN_SOFT_AFFINITY_CACHE_DIGEST_ENABLED.defaultValue.get
+
   // (execId, host) list
   private val idForExecutors = new mutable.ListBuffer[(String, String)]()
   var sortedIdForExecutors = new mutable.ListBuffer[(String, String)]()
@@ -96,6 +102,11 @@ abstract class AffinityManager extends LogLevelUtil with Logging {
 
   private val rand = new Random(System.currentTimeMillis)
 
+  // execId -> digest of the files cached by the executor, see CacheDigestTracker
+  private val cacheDigests = new ConcurrentHashMap[String, BloomFilter]()
+  private val cacheDigestLookups = new AtomicLong(0)
+  private val cacheDigestHits = new AtomicLong(0)
+
   def totalExecutors(): Int = totalRegisteredExecutors.intValue()
 
   def handleExecutorAdded(execHostId: (String, String)): Unit = {
@@ -147,6 +158,7 @@ abstract class AffinityManager extends LogLevelUtil with Logging {
         }
         sortedIdForExecutors = idForExecutors.sortBy(_._2)
         hashRing.removeNode(ExecutorNode(execId, findedExecId._2))
+        cacheDigests.remove(execId)
         totalRegisteredExecutors.addAndGet(-1)
       }
       logOnLevel(
@@ -162,6 +174,21 @@ abstract class AffinityManager extends LogLevelUtil with Logging {
     }
   }
 
+  def updateCacheDigest(execId: String, digest: BloomFilter): Unit = {
+    resourceRWLock.readLock().lock()
+    try {
+      // ignore digests of removed executors that were sent before their removal
+      if (idForExecutors.exists(_._1 == execId)) {
+        cacheDigests.put(execId, digest)
+      }
+    } finally {
+      resourceRWLock.readLock().unlock()
+    }
+  }
+
+  /** Number of files allocated with cache digests, and how many of them hit a digest. */
+  def cacheDigestStats: (Long, Long) = (cacheDigestLookups.get(), cacheDigestHits.get())
+
   def updateStageMap(event: SparkListenerStageSubmitted): Unit = {
     if (!detectDuplicateReading) {
       return
@@ -244,6 +271,8 @@ abstract class AffinityManager extends LogLevelUtil with Logging {
     try {
       if (nodesExecutorsMap.size < 1) {
         Array.empty
+      } else if (usingCacheDigest && !cacheDigests.isEmpty) {
+        allocateCachingExecs(file)
       } else {
         softAffinityStrategy.allocateExecs(file, softAffinityReplicationNum)
       }
@@ -252,6 +281,33 @@ abstract class AffinityManager extends LogLevelUtil with Logging {
     }
   }
 
+  /**
+   * Puts the executors whose cache digest contains the file before the ones chosen by consistent
+   * hashing. The candidates extend a bit further along the ring, as the file may have been cached
+   * by an executor that is no longer among its first ones after other executors were added.
+   */
+  private def allocateCachingExecs(file: String): Array[(String, String)] = {
+    val preferred = softAffinityStrategy.allocateExecs(file, softAffinityReplicationNum)
+    val candidates = softAffinityStrategy.allocateExecs(
+      file,
+      softAffinityReplicationNum * AffinityManager.CACHE_DIGEST_CANDIDATES_FACTOR)
+    // executors read unescaped paths, see CacheDigestTracker
+    val path = ExternalCatalogUtils.unescapePathName(file)
+    val caching = candidates.filter {
+      case (execId, _) =>
+        val digest = cacheDigests.get(execId)
+        digest != null && digest.mightContainString(path)
+    }
+    cacheDigestLookups.incrementAndGet()
+    if (caching.nonEmpty) {
+      cacheDigestHits.incrementAndGet()
+    }
+    logOnLevel(
+      GlutenConfig.get.softAffinityLogLevel,
+      s"SAMetrics=File $file - the executors caching it are ${caching.mkString("_")}")
+    (caching ++ preferred.filterNot(caching.contains)).take(softAffinityReplicationNum)
+  }
+
   def askExecutors(f: FilePartition): Array[(String, String)] = {
     resourceRWLock.readLock().lock()
     try {
@@ -304,6 +360,10 @@ abstract class AffinityManager extends LogLevelUtil with Logging {
   }
 }
 
+object AffinityManager {
+  private val CACHE_DIGEST_CANDIDATES_FACTOR = 2
+}
+
 object SoftAffinityManager extends AffinityManager {
   override lazy val usingSoftAffinity: Boolean = SparkEnv.get.conf.getBoolean(
     GlutenConfig.GLUTEN_SOFT_AFFINITY_ENABLED.key,
@@ -329,4 +389,9 @@ object SoftAffinityManager extends AffinityManager {
     GlutenConfig.GLUTEN_SOFT_AFFINITY_DUPLICATE_READING_MAX_CACHE_ITEMS.key,
     GlutenConfig.GLUTEN_SOFT_AFFINITY_DUPLICATE_READING_MAX_CACHE_ITEMS.defaultValue.get
   )
+
+  override lazy val usingCacheDigest: Boolean = SparkEnv.get.conf.getBoolean(
+    GlutenConfig.GLUTEN_SOFT_AFFINITY_CACHE_DIGEST_ENABLED.key,
+    GlutenConfig.GLUTEN_SOFT_AFFINITY_CACHE_DIGEST_ENABLED.defaultValue.get
+  )
 }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.spark.softaffinity
+
+import org.apache.gluten.config.GlutenConfig
+
+import org.apache.spark.api.plugin.PluginContext
+import org.apache.spark.internal.Logging
+import org.apache.spark.sql.internal.SparkConfigUtil._
+import org.apache.spark.util.ThreadUtils
+import org.apache.spark.util.sketch.BloomFilter
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+import java.util
+import java.util.concurrent.{ScheduledExecutorService, TimeUnit}
+
+/** A digest of the files an executor has read recently, sent to the driver periodically. */
+case class ExecutorCacheDigest(executorId: String, digest: Array[Byte]) {
+  def toBloomFilter: BloomFilter = BloomFilter.readFrom(new ByteArrayInputStream(digest))
+}
+
+/**
+ * Tracks the files read on the executor and reports their digest to the driver. The files are
+ * kept in LRU order and bounded, approximating the content of the executor's local cache.
+ *
+ * Paths are recorded unescaped, as the native scan reads them.
+ */
+object CacheDigestTracker extends Logging {
+  private val FPP = 0.03
+  private val MIN_EXPECTED_FILES = 1024
+
+  @volatile private var maxFiles: Int = 0
+  private var reporter: Option[ScheduledExecutorService] = None
+
+  private val files = new util.LinkedHashMap[String, java.lang.Boolean](16, 0.75f, true) {
+    override def removeEldestEntry(eldest: util.Map.Entry[String, java.lang.Boolean]): Boolean =
+      size() > maxFiles
+  }
+
+  def isEnabled: Boolean = maxFiles > 0
+
+  def recordRead(paths: Iterable[String]): Unit = {
+    if (isEnabled) {
+      files.synchronized {
+        paths.foreach(files.put(_, java.lang.Boolean.TRUE))
+      }
+    }
+  }
+
+  def digest(): BloomFilter = {
+    val paths = files.synchronized {
+      files.keySet().toArray(new Array[String](files.size()))
+    }
+    val filter = BloomFilter.create(math.max(paths.length, MIN_EXPECTED_FILES), FPP)
+    paths.foreach(filter.putString)
+    filter
+  }
+
+  def start(pc: PluginContext): Unit = synchronized {
+    val conf = pc.conf()
+    maxFiles = conf.get(GlutenConfig.GLUTEN_SOFT_AFFINITY_CACHE_DIGEST_MAX_FILES)
+    val interval = conf.get(GlutenConfig.GLUTEN_SOFT_AFFINITY_CACHE_DIGEST_INTERVAL)
+    val executor = ThreadUtils.newDaemonSingleThreadScheduledExecutor("gluten-cache-digest")
+    executor.scheduleWithFixedDelay(
+      () => report(pc),
+      interval,
+      interval,
+      TimeUnit.MILLISECONDS)
+    reporter = Some(executor)
+  }
+
+  def stop(): Unit = synchronized {
+    reporter.foreach(_.shutdownNow())
+    reporter = None
+    maxFiles = 0
+    files.synchronized {
+      files.clear()
+    }
+  }
+
+  private def report(pc: PluginContext): Unit = {
+    try {
+      val out = new ByteArrayOutputStream()
+      digest().writeTo(out)
+      pc.send(ExecutorCacheDigest(pc.executorID(), out.toByteArray))
+    } catch {
+      case e: Exception => logWarning("Failed to report the cache digest", e)
+    }
+  }
+}
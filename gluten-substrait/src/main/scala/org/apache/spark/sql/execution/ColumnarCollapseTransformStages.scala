@@ -45,7 +45,9 @@ import scala.collection.JavaConverters._
  * `ReadRel` for the child columnar iterator, so that the [[TransformSupport]] always has input. It
  * would be transformed to `ValueStreamNode` at native side.
  */
-case class InputIteratorTransformer(child: SparkPlan) extends UnaryTransformSupport {
+case class InputIteratorTransformer(child: SparkPlan)
+  extends TransformSupport
+  with UnaryExecNode {
 
   @transient
   override lazy val metrics: Map[String, SQLMetric] =
@@ -66,6 +68,15 @@ case class InputIteratorTransformer(child: SparkPlan) extends UnaryTransformSupp
   override def outputPartitioning: Partitioning = child.outputPartitioning
   override def outputOrdering: Seq[SortOrder] = child.outputOrdering
 
+  override def columnarInputRDDs: Seq[RDD[ColumnarBatch]] = {
+    if (forBroadcast()) {
+      getColumnarInputRDDs(child)
+    } else {
+      getColumnarInputRDDs(child).map(
+        BackendsApiManager.getIteratorApiInstance.genInputIteratorRDD(_, metrics))
+    }
+  }
+
   override def doExecuteBroadcast[T](): Broadcast[T] = {
     assert(child.isInstanceOf[ColumnarInputAdapter])
     child.doExecuteBroadcast()
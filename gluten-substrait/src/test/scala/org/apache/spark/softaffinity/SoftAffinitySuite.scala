@@ -18,7 +18,7 @@ package org.apache.spark.softaffinity
 
 import org.apache.gluten.config.GlutenConfig
 import org.apache.gluten.execution.GlutenPartition
-import org.apache.gluten.softaffinity.SoftAffinityManager
+import org.apache.gluten.softaffinity.{AffinityManager, SoftAffinityManager}
 import org.apache.gluten.sql.shims.SparkShimLoader
 import org.apache.gluten.substrait.plan.PlanBuilder
 
@@ -30,6 +30,7 @@ import org.apache.spark.sql.catalyst.InternalRow
 import org.apache.spark.sql.catalyst.expressions.PredicateHelper
 import org.apache.spark.sql.execution.datasources.FilePartition
 import org.apache.spark.sql.test.SharedSparkSession
+import org.apache.spark.util.sketch.BloomFilter
 
 import scala.collection.mutable.ListBuffer
 
@@ -320,4 +321,29 @@ class SoftAffinitySuite extends QueryTest with SharedSparkSession with Predicate
           ("4", "host-3"))
       ))
   }
+
+  test("Prefer executors whose cache digest contains the file") {
+    val manager = new AffinityManager {
+      override lazy val usingCacheDigest: Boolean = true
+    }
+    (0 until 4).foreach(i => manager.handleExecutorAdded((s"$i", s"host-$i")))
+    val file = "hdfs://cluster/warehouse/t/part-00000.parquet"
+    val preferred = manager.askExecutors(file)
+    assert(preferred.length == 2)
+    assert(manager.cacheDigestStats == (0L, 0L))
+
+    val caching = manager.sortedIdForExecutors.find(e => !preferred.contains(e)).get
+    val digest = BloomFilter.create(1024, 0.03)
+    digest.putString(file)
+    manager.updateCacheDigest(caching._1, digest)
+    val located = manager.askExecutors(file)
+    assert(located.length == 2)
+    assert(located.head == caching)
+    assert(manager.cacheDigestStats == (1L, 1L))
+
+    // the digest goes away with its executor
+    manager.handleExecutorRemoved(caching._1)
+    manager.updateCacheDigest(caching._1, digest)
+    assert(!manager.askExecutors(file).contains(caching))
+  }
 }
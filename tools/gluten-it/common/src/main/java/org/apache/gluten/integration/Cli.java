@@ -21,11 +21,12 @@ import org.apache.gluten.integration.command.Parameterized;
 import org.apache.gluten.integration.command.Queries;
 import org.apache.gluten.integration.command.QueriesCompare;
 import org.apache.gluten.integration.command.SparkShell;
+import org.apache.gluten.integration.command.Throughput;
 import picocli.CommandLine;
 
 @CommandLine.Command(name = "gluten-it", mixinStandardHelpOptions = true,
     showDefaultValues = true,
-    subcommands = {DataGenOnly.class, Queries.class, QueriesCompare.class, SparkShell.class, Parameterized.class},
+    subcommands = {DataGenOnly.class, Queries.class, QueriesCompare.class, SparkShell.class, Parameterized.class, Throughput.class},
     description = "Gluten integration test using various of benchmark's data and queries.")
 public class Cli {
 
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.integration.command;
+
+import org.apache.gluten.integration.BaseMixin;
+import org.apache.commons.lang3.ArrayUtils;
+import picocli.CommandLine;
+
+import java.util.concurrent.Callable;
+
+@CommandLine.Command(name = "throughput", mixinStandardHelpOptions = true,
+    showDefaultValues = true,
+    description = "Run queries in concurrent streams and report throughput and latency percentiles.")
+public class Throughput implements Callable<Integer> {
+  @CommandLine.Mixin
+  private BaseMixin mixin;
+
+  @CommandLine.Mixin
+  private DataGenMixin dataGenMixin;
+
+  @CommandLine.Mixin
+  private QueriesMixin queriesMixin;
+
+  @CommandLine.Option(names = {"--streams"}, description = "Number of concurrent query streams. Each stream except the first one runs the queries in its own permuted order", defaultValue = "4")
+  private int streams;
+
+  @CommandLine.Option(names = {"--isolated-sessions"}, description = "Run every stream in a Spark session of its own, sharing the same Spark context", defaultValue = "false")
+  private boolean isolatedSessions;
+
+  @CommandLine.Option(names = {"--ram-sample-interval"}, description = "Interval in milliseconds to sample RAM usage during the run", defaultValue = "5000")
+  private long ramSampleIntervalMillis;
+
+  @Override
+  public Integer call() throws Exception {
+    org.apache.gluten.integration.action.Throughput throughput =
+        new org.apache.gluten.integration.action.Throughput(dataGenMixin.getScale(), dataGenMixin.genPartitionedData(), queriesMixin.queries(),
+            streams, isolatedSessions, queriesMixin.iterations(), ramSampleIntervalMillis);
+    return mixin.runActions(ArrayUtils.addAll(dataGenMixin.makeActions(), throughput));
+  }
+}
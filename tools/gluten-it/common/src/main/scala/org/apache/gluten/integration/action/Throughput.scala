@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.integration.action
+
+import org.apache.gluten.integration.{QueryRunner, Suite}
+import org.apache.gluten.integration.QueryRunner.QueryResult
+import org.apache.gluten.integration.action.Actions.QuerySelector
+import org.apache.gluten.integration.action.TableRender.RowParser.FieldAppender.RowAppender
+import org.apache.gluten.integration.stat.RamStat
+
+import org.apache.spark.SparkContext
+import org.apache.spark.scheduler.{SparkListener, SparkListenerExecutorMetricsUpdate}
+
+import java.util.concurrent.{Callable, ConcurrentHashMap, Executors, ScheduledExecutorService, TimeUnit}
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+import scala.util.Random
+
+/**
+ * Runs the selected queries in a number of concurrent streams, each of them in its own permuted
+ * order as TPC-DS throughput tests do, then reports the throughput, the latency percentiles of
+ * every query and the RAM usage sampled during the run.
+ */
+case class Throughput(
+    scale: Double,
+    genPartitionedData: Boolean,
+    queries: QuerySelector,
+    streams: Int,
+    isolatedSessions: Boolean,
+    iterations: Int,
+    ramSampleIntervalMillis: Long)
+  extends Action {
+  import Throughput._
+
+  override def execute(suite: Suite): Boolean = {
+    val runQueryIds = queries.select(suite)
+    val runner: QueryRunner =
+      new QueryRunner(suite.queryResource(), suite.dataWritePath(scale, genPartitionedData))
+    val sessionSwitcher = suite.sessionSwitcher
+    sessionSwitcher.useSession("test", "Run Throughput")
+    val spark = sessionSwitcher.spark()
+    runner.createTables(suite.tableCreator(), spark)
+
+    val sampler = new RamSampler(spark.sparkContext, ramSampleIntervalMillis)
+    val pool = Executors.newFixedThreadPool(streams)
+    val startNanos = System.nanoTime()
+    sampler.start()
+    val results =
+      try {
+        val futures = (0 until streams).map {
+          stream =>
+            val order = permute(runQueryIds, stream)
+            println(s"Stream $stream runs queries: ${order.mkString(", ")}")
+            pool.submit(new Callable[Seq[StreamResultLine]] {
+              override def call(): Seq[StreamResultLine] = {
+                // sessions created by newSession() still share the SparkContext and the catalog
+                val session = if (isolatedSessions) spark.newSession() else spark
+                (0 until iterations).flatMap {
+                  iteration =>
+                    order.map {
+                      queryId =>
+                        val result = runner.runQuery(
+                          session,
+                          "Query %s [%s] (stream %d)".format(suite.desc(), queryId, stream),
+                          queryId,
+                          sqlMetricMapper = suite.getTestMetricMapper())
+                        StreamResultLine(stream, iteration, result)
+                    }
+                }
+              }
+            })
+        }
+        futures.flatMap(_.get()).toList
+      } finally {
+        pool.shutdownNow()
+        sampler.stop()
+      }
+    val elapsedMillis = (System.nanoTime() - startNanos) / 1000000L
+
+    val passedCount = results.count(_.queryResult.succeeded())
+    val count = results.size
+    val succeeded = results.filter(_.queryResult.succeeded())
+
+    println("Test report: ")
+    println("")
+    printf("Summary: %d out of %d queries passed. \n", passedCount, count)
+    val queriesPerHour = passedCount * 3600000d / elapsedMillis.max(1L)
+    printf(
+      "Throughput: %d streams ran %d queries in %.3f s, %.2f queries per hour, " +
+        "%.2f at scale factor %s. \n",
+      streams,
+      passedCount,
+      elapsedMillis / 1000d,
+      queriesPerHour,
+      queriesPerHour * scale,
+      scale
+    )
+    println("")
+
+    val latencies = succeeded
+      .groupBy(_.queryResult.caseId())
+      .map {
+        case (queryId, lines) =>
+          LatencyLine(queryId, lines.map(l => latencyMillisOf(l.queryResult)).toArray.sorted)
+      }
+      .toSeq
+      .sortBy(l => runQueryIds.indexOf(l.queryId))
+    printLatencies(latencies)
+    println("")
+
+    println("RAM statistics: ")
+    println("")
+    printRamSamples(sampler.samples())
+    println("")
+
+    if (passedCount == count) {
+      println("No failed queries. ")
+      println("")
+    } else {
+      println("Failed queries: ")
+      println("")
+      printFailures(results.filter(!_.queryResult.succeeded()))
+      println("")
+    }
+
+    passedCount == count
+  }
+}
+
+object Throughput {
+  case class StreamResultLine(stream: Int, iteration: Int, queryResult: QueryResult)
+
+  object StreamResultLine {
+    implicit object Parser extends TableRender.RowParser[StreamResultLine] {
+      override def parse(rowAppender: RowAppender, line: StreamResultLine): Unit = {
+        val inc = rowAppender.incremental()
+        inc.next().write(line.stream)
+        inc.next().write(line.iteration)
+        inc.next().write(line.queryResult.caseId())
+      }
+    }
+  }
+
+  case class LatencyLine(queryId: String, sortedMillis: Array[Long])
+
+  object LatencyLine {
+    implicit object Parser extends TableRender.RowParser[LatencyLine] {
+      override def parse(rowAppender: RowAppender, line: LatencyLine): Unit = {
+        val inc = rowAppender.incremental()
+        inc.next().write(line.queryId)
+        inc.next().write(line.sortedMillis.length)
+        inc.next().write(percentile(line.sortedMillis, 50))
+        inc.next().write(percentile(line.sortedMillis, 95))
+        inc.next().write(percentile(line.sortedMillis, 99))
+        inc.next().write(line.sortedMillis.last)
+      }
+    }
+  }
+
+  case class RamSample(
+      elapsedMillis: Long,
+      jvmHeapUsed: Long,
+      processRamUsed: Long,
+      executorJvmHeapUsed: Long,
+      executorRssUsed: Long)
+
+  object RamSample {
+    implicit object Parser extends TableRender.RowParser[RamSample] {
+      override def parse(rowAppender: RowAppender, line: RamSample): Unit = {
+        val inc = rowAppender.incremental()
+        inc.next().write(line.elapsedMillis / 1000d)
+        inc.next().write(line.jvmHeapUsed)
+        inc.next().write(line.processRamUsed)
+        inc.next().write(line.executorJvmHeapUsed)
+        inc.next().write(line.executorRssUsed)
+      }
+    }
+  }
+
+  /**
+   * Every stream gets its own order of the queries, the same one on every run. Stream 0 keeps the
+   * selected order.
+   */
+  private def permute(queryIds: Seq[String], stream: Int): Seq[String] = {
+    if (stream == 0) {
+      queryIds
+    } else {
+      new Random(stream).shuffle(queryIds)
+    }
+  }
+
+  private def latencyMillisOf(result: QueryResult): Long = {
+    val runResult = result.asSuccess().runResult
+    runResult.planningTimeMillis + runResult.executionTimeMillis
+  }
+
+  /** Nearest-rank percentile of sorted values. */
+  private def percentile(sorted: Array[Long], p: Int): Long = {
+    val rank = math.ceil(p / 100d * sorted.length).toInt
+    sorted((rank - 1).max(0))
+  }
+
+  private def printLatencies(lines: Seq[LatencyLine]): Unit = {
+    val render = TableRender.plain[LatencyLine](
+      "Query ID",
+      "Runs",
+      "P50 (Millis)",
+      "P95 (Millis)",
+      "P99 (Millis)",
+      "Max (Millis)")
+    lines.foreach(line => render.appendRow(line))
+    render.print(System.out)
+  }
+
+  private def printRamSamples(samples: Seq[RamSample]): Unit = {
+    val render = TableRender.plain[RamSample](
+      "Elapsed (Sec)",
+      "JVM Heap Used (KiB)",
+      "Process RSS (KiB)",
+      "Executor JVM Heap Used (KiB)",
+      "Executor RSS (KiB)")
+    samples.foreach(sample => render.appendRow(sample))
+    render.print(System.out)
+  }
+
+  private def printFailures(lines: Seq[StreamResultLine]): Unit = {
+    val render = TableRender.plain[StreamResultLine]("Stream", "Iteration", "Query ID")
+    lines.foreach(line => render.appendRow(line))
+    render.print(System.out)
+  }
+
+  /**
+   * Samples the RAM usage of the driver process, which runs the executors as well in local mode,
+   * and the latest memory metrics the executors reported with their heartbeats, summed up over
+   * executors. Executor RSS is only reported with spark.executor.processTreeMetrics.enabled.
+   */
+  private class RamSampler(sc: SparkContext, intervalMillis: Long) extends SparkListener {
+    private val executorHeap = new ConcurrentHashMap[String, Long]()
+    private val executorRss = new ConcurrentHashMap[String, Long]()
+    private val collected = mutable.ArrayBuffer[RamSample]()
+    private var scheduler: ScheduledExecutorService = _
+    private var startNanos: Long = _
+
+    override def onExecutorMetricsUpdate(update: SparkListenerExecutorMetricsUpdate): Unit = {
+      val metrics = update.executorUpdates.values
+      if (metrics.nonEmpty) {
+        executorHeap.put(update.execId, metrics.map(_.getMetricValue("JVMHeapMemory")).max)
+        executorRss.put(
+          update.execId,
+          metrics.map(_.getMetricValue("ProcessTreeJVMRSSMemory")).max)
+      }
+    }
+
+    def start(): Unit = {
+      sc.addSparkListener(this)
+      startNanos = System.nanoTime()
+      scheduler = Executors.newSingleThreadScheduledExecutor()
+      scheduler.scheduleAtFixedRate(
+        new Runnable {
+          override def run(): Unit = sample()
+        },
+        0L,
+        intervalMillis,
+        TimeUnit.MILLISECONDS)
+    }
+
+    def stop(): Unit = {
+      scheduler.shutdownNow()
+      scheduler.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS)
+      sc.removeSparkListener(this)
+      sample()
+    }
+
+    def samples(): Seq[RamSample] = collected.synchronized {
+      collected.toList
+    }
+
+    private def sample(): Unit = {
+      val sample = RamSample(
+        (System.nanoTime() - startNanos) / 1000000L,
+        RamStat.getJvmHeapUsed(),
+        RamStat.getProcessRamUsed(),
+        executorHeap.values().asScala.sum / 1024L,
+        executorRss.values().asScala.sum / 1024L
+      )
+      collected.synchronized {
+        collected += sample
+      }
+    }
+  }
+}
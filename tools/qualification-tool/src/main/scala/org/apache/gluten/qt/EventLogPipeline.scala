@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.qt
+
+import EventLogPipeline._
+import ReflectionUtils.privateObjectMethod
+
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException
+import org.apache.hadoop.fs.Path
+
+import java.util.concurrent.{Callable, ExecutionException, Executors, Future, LinkedBlockingQueue, ThreadFactory, TimeUnit}
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.collection.mutable.ArrayBuffer
+import scala.io.BufferedSource
+
+/**
+ * Decodes the event log files of the replayed applications on worker threads shared by all of
+ * them.
+ *
+ * Every file, that is every segment of a rolling event log, is decompressed and split into lines by
+ * a reader thread of its own, at most `readAhead` files ahead of the one being replayed. The lines
+ * are handed in chunks to a fixed pool of `parseThreads` parser threads, and the parsed chunks come
+ * back in file and line order, so listeners see the events of an application in the order they
+ * were logged.
+ *
+ * Lines of events no status listener consumes are dropped by [[EventLogPipeline.isReplayed]] before
+ * they are parsed.
+ *
+ * @param parseThreads
+ *   the number of threads decoding JSON events
+ * @param readAhead
+ *   the number of files of an application read at the same time
+ * @param chunkLines
+ *   the number of lines handed to a parser thread at once
+ */
+class EventLogPipeline(parseThreads: Int, readAhead: Int = 2, chunkLines: Int = 256) {
+  // readers block while the files before theirs are replayed, so they can't share a bounded pool
+  private val readers = Executors.newCachedThreadPool(daemonThreads("event-log-reader"))
+  private val parsers =
+    Executors.newFixedThreadPool(parseThreads, daemonThreads("event-log-parser"))
+  private val sparkEventFromJson =
+    privateObjectMethod("org.apache.spark.util.JsonProtocol", "sparkEventFromJson", classOf[String])
+
+  /**
+   * Returns the parsed events of the given files in order. The returned iterator must be closed if
+   * it's not consumed to the end.
+   */
+  def read(
+      paths: Seq[Path],
+      open: Path => BufferedSource): Iterator[ParsedChunk] with AutoCloseable = {
+    new Replay(paths, open)
+  }
+
+  def close(): Unit = {
+    readers.shutdownNow()
+    parsers.shutdownNow()
+  }
+
+  private def parse(lines: Seq[String]): Seq[AnyRef] = lines.flatMap {
+    line =>
+      try {
+        Some(sparkEventFromJson(Seq(line)))
+      } catch {
+        // Ignore unknown events, as Spark's ReplayListenerBus does
+        case _: ClassNotFoundException => None
+        case e: UnrecognizedPropertyException
+            if e.getMessage != null && e.getMessage.startsWith("Unrecognized field \"Event\"") =>
+          None
+      }
+  }
+
+  private class Replay(paths: Seq[Path], open: Path => BufferedSource)
+    extends Iterator[ParsedChunk]
+    with AutoCloseable {
+    private val pending = paths.iterator
+    private val window = new java.util.ArrayDeque[SegmentReader]()
+    private var nextChunk: ParsedChunk = _
+
+    override def hasNext: Boolean = {
+      if (nextChunk == null) {
+        nextChunk = fetch()
+      }
+      nextChunk != null
+    }
+
+    override def next(): ParsedChunk = {
+      if (!hasNext) {
+        throw new NoSuchElementException
+      }
+      val chunk = nextChunk
+      nextChunk = null
+      chunk
+    }
+
+    override def close(): Unit = {
+      while (!window.isEmpty) {
+        window.poll().cancel()
+      }
+    }
+
+    private def fetch(): ParsedChunk = {
+      startReaders()
+      while (!window.isEmpty) {
+        window.peek().take() match {
+          case Parsing(lines, events) =>
+            try {
+              return ParsedChunk(lines, events.get())
+            } catch {
+              case e: ExecutionException =>
+                close()
+                throw e.getCause
+            }
+          case End =>
+            window.poll()
+            startReaders()
+          case Failed(e) =>
+            close()
+            throw e
+        }
+      }
+      null
+    }
+
+    private def startReaders(): Unit = {
+      while (window.size < readAhead && pending.hasNext) {
+        val reader = new SegmentReader(pending.next(), open)
+        readers.execute(reader)
+        window.add(reader)
+      }
+    }
+  }
+
+  private class SegmentReader(path: Path, open: Path => BufferedSource) extends Runnable {
+    private val items = new LinkedBlockingQueue[Item](2 * parseThreads)
+    @volatile private var cancelled = false
+
+    override def run(): Unit = {
+      try {
+        val source = open(path)
+        try {
+          val lines = source.getLines()
+          while (!cancelled && lines.hasNext) {
+            val chunk = new ArrayBuffer[String](chunkLines)
+            var read = 0
+            while (read < chunkLines && lines.hasNext) {
+              val line = lines.next()
+              read += 1
+              if (isReplayed(line)) {
+                chunk += line
+              }
+            }
+            val events = parsers.submit(new Callable[Seq[AnyRef]] {
+              override def call(): Seq[AnyRef] = parse(chunk)
+            })
+            put(Parsing(read, events))
+          }
+        } finally {
+          source.close()
+        }
+        put(End)
+      } catch {
+        case e: Throwable => put(Failed(new Exception(s"Failed to read $path", e)))
+      }
+    }
+
+    def take(): Item = items.take()
+
+    def cancel(): Unit = {
+      cancelled = true
+      items.clear()
+    }
+
+    private def put(item: Item): Unit = {
+      while (!cancelled && !items.offer(item, 100, TimeUnit.MILLISECONDS)) {}
+    }
+  }
+}
+
+object EventLogPipeline {
+  private val EventPrefix = "{\"Event\":\""
+
+  /**
+   * Events none of the status listeners handles. Streaming query progress events in particular can
+   * make up most of the log of a streaming application. SparkListenerLogStart is replayed, as
+   * AppStatusListener takes the Spark version of the application from it.
+   */
+  private val skippedEvents = Seq(
+    "SparkListenerUnschedulableTaskSetAdded",
+    "SparkListenerUnschedulableTaskSetRemoved",
+    "org.apache.spark.sql.streaming.StreamingQueryListener$QueryStartedEvent",
+    "org.apache.spark.sql.streaming.StreamingQueryListener$QueryProgressEvent",
+    "org.apache.spark.sql.streaming.StreamingQueryListener$QueryIdleEvent",
+    "org.apache.spark.sql.streaming.StreamingQueryListener$QueryTerminatedEvent"
+  )
+
+  /**
+   * Checks the event name at the start of a line, as written by Spark's JsonProtocol, without
+   * parsing the line. Lines that don't look like events are replayed and fail to parse as before.
+   */
+  def isReplayed(line: String): Boolean = {
+    !line.startsWith(EventPrefix) || !skippedEvents.exists {
+      event =>
+        val end = EventPrefix.length + event.length
+        line.length > end && line.charAt(end) == '"' && line.startsWith(event, EventPrefix.length)
+    }
+  }
+
+  /** The events parsed from `lines` consecutive lines of an event log. */
+  case class ParsedChunk(lines: Int, events: Seq[AnyRef])
+
+  private sealed trait Item
+  private case class Parsing(lines: Int, events: Future[Seq[AnyRef]]) extends Item
+  private case object End extends Item
+  private case class Failed(e: Throwable) extends Item
+
+  private def daemonThreads(prefix: String): ThreadFactory = new ThreadFactory {
+    private val count = new AtomicInteger(0)
+
+    override def newThread(r: Runnable): Thread = {
+      val thread = new Thread(r, s"$prefix-${count.getAndIncrement()}")
+      thread.setDaemon(true)
+      thread
+    }
+  }
+}
@@ -36,6 +36,7 @@ object QualificationTool {
     val operatorImpactReportWriter = writer.OperatorImpactReportWriter(conf)
     val fileSource = file.HadoopFileSource(conf)
     val executor = execution.Executor(conf)
+    val eventLogPipeline = new EventLogPipeline(conf.parseThreads)
 
     executor.submitTask(
       PriorityTask(
@@ -49,16 +50,11 @@ object QualificationTool {
                 PriorityTask(
                   TaskContext(10, fileStatuses.head.getPath.toString, EVENT_FILE_PROCESS_TASK),
                   () => {
-                    val replayBus = new ReplayListenerBus()
+                    val replayBus = new ReplayListenerBus(eventLogPipeline)
                     val kvStore = new InMemoryStore()
                     replayBus.addListener(new SQLAppStatusListener(sparkConf, kvStore))
                     replayBus.addListener(new AppStatusListener(sparkConf, kvStore))
-                    fileStatuses
-                      .map(_.getPath)
-                      .foreach {
-                        eventPath =>
-                          replayBus.replay(fileSource.getSource(eventPath), eventPath.toString)
-                      }
+                    replayBus.replay(fileStatuses.map(_.getPath), fileSource.getSource)
                     generateReport(conf, kvStore, primaryReportWriter, operatorImpactReportWriter)
                   }
                 ))
@@ -69,6 +65,7 @@ object QualificationTool {
     executor.waitAndDisplayStatus()
     primaryReportWriter.closeFile()
     operatorImpactReportWriter.closeFile()
+    eventLogPipeline.close()
     fileSource.close()
     println(s"Report has been written to ${primaryReportWriter.getFileString}")
     println(
@@ -29,6 +29,7 @@ case class QualificationToolConfiguration(
     gcsKeys: String = "",
     outputPath: Path,
     threads: Int,
+    parseThreads: Int,
     dateFilter: Long,
     project: String
 )
@@ -41,6 +42,7 @@ object QualificationToolConfiguration {
     options.addOption("k", "gcsKey", true, "Provide the path to GCS keys")
     options.addOption("o", "output", true, "Path to write output")
     options.addOption("t", "threads", true, "Processing Threads")
+    options.addOption("j", "parseThreads", true, "Event Parsing Threads")
     options.addOption("v", "verbose", false, "non verbose output")
     options.addOption("p", "project", true, "Project Id")
     options.addOption("d", "dateFilter", true, "Do not analyze files created before this date")
@@ -70,6 +72,9 @@ object QualificationToolConfiguration {
     val gcsKeys = cmd.getOptionValue("k")
 
     val threads = Option(cmd.getOptionValue("threads")).map(_.toInt).getOrElse(4)
+    val parseThreads = Option(cmd.getOptionValue("parseThreads"))
+      .map(_.toInt)
+      .getOrElse(Runtime.getRuntime.availableProcessors())
     val dateFilter = Option(cmd.getOptionValue("dateFilter"))
       .map(df => Instant.parse(df + "T00:00:00.00Z").toEpochMilli)
       .getOrElse {
@@ -85,6 +90,7 @@ object QualificationToolConfiguration {
       gcsKeys = gcsKeys,
       outputPath = outputPath,
       threads = threads,
+      parseThreads = parseThreads,
       dateFilter = dateFilter,
       project)
   }
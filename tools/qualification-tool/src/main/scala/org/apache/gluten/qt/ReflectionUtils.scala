@@ -16,6 +16,8 @@
  */
 package org.apache.gluten.qt
 
+import java.lang.reflect.{InvocationTargetException, Method}
+
 import scala.reflect.runtime.{universe => ru}
 import scala.reflect.runtime.currentMirror
 import scala.util.{Failure, Success, Try}
@@ -57,4 +59,33 @@ object ReflectionUtils {
       }
   }
 
+  /**
+   * Resolves a method of a Scala object once, for callers on a hot path where looking it up on
+   * every call like [[accessPrivateMethod]] does would dominate.
+   */
+  def privateObjectMethod(
+      objectName: String,
+      methodName: String,
+      parameterTypes: Class[_]*): Seq[AnyRef] => AnyRef = {
+    val moduleClass = Class.forName(objectName + "$")
+    val module = moduleClass.getField("MODULE$").get(null)
+    invoker(module, moduleClass.getMethod(methodName, parameterTypes: _*))
+  }
+
+  /** Resolves a method of an instance once, see [[privateObjectMethod]]. */
+  def privateInstanceMethod(
+      instance: Any,
+      methodName: String,
+      parameterTypes: Class[_]*): Seq[AnyRef] => AnyRef = {
+    invoker(instance, instance.getClass.getMethod(methodName, parameterTypes: _*))
+  }
+
+  private def invoker(instance: Any, method: Method): Seq[AnyRef] => AnyRef = {
+    args =>
+      try {
+        method.invoke(instance, args: _*)
+      } catch {
+        case e: InvocationTargetException => throw e.getCause
+      }
+  }
 }
@@ -18,34 +18,35 @@ package org.apache.gluten.qt
 
 import org.apache.gluten.qt.execution.{Executor, Progress, RunState}
 
-import ReflectionUtils.{accessPrivateClass, accessPrivateMethod}
+import ReflectionUtils.{accessPrivateClass, accessPrivateMethod, privateInstanceMethod}
+
+import org.apache.hadoop.fs.Path
 
 import scala.io.BufferedSource
 
-class ReplayListenerBus {
+class ReplayListenerBus(pipeline: EventLogPipeline) {
   private val replayBus = accessPrivateClass("org.apache.spark.scheduler.ReplayListenerBus")
+  private val postToAll = privateInstanceMethod(replayBus, "postToAll", classOf[Object])
 
   def addListener(listener: SparkListener): Unit = {
     accessPrivateMethod(replayBus, "addListener", listener.getListener)
   }
 
-  def replay(source: BufferedSource, file: String): Boolean = {
+  /** Replays the event log files of an application, in order. */
+  def replay(paths: Seq[Path], open: Path => BufferedSource): Unit = {
+    Executor.updateState(RunState("DOWNLOADING"))
+    val chunks = pipeline.read(paths, open)
     try {
-      Executor.updateState(RunState("DOWNLOADING"))
-      val lines = source.getLines()
       Executor.updateState(RunState("PARSING", Progress()))
-      val processedLines = lines.map {
-        line =>
-          Executor.incrementState()
-          line
+      chunks.foreach {
+        chunk =>
+          Executor.incrementState(chunk.lines)
+          chunk.events.foreach(event => postToAll(Seq(event)))
       }
-      val replayEventsFilter: String => Boolean = (_: String) => true
-      accessPrivateMethod(replayBus, "replay", processedLines, file, false, replayEventsFilter)
-        .asInstanceOf[Boolean]
     } catch {
       case e: Throwable => throw new Exception("Failed to process file", e)
     } finally {
-      source.close()
+      chunks.close()
     }
   }
 }
@@ -151,11 +151,13 @@ object Executor {
     stateStore.compute(Thread.currentThread(), (_, _) => runState)
   }
 
-  def incrementState(): Unit = {
+  def incrementState(): Unit = incrementState(1L)
+
+  def incrementState(count: Long): Unit = {
     stateStore.compute(
       Thread.currentThread(),
       (_, s) => {
-        s.progress.foreach(_.increment())
+        s.progress.foreach(_.increment(count))
         s
       })
   }
@@ -204,8 +206,10 @@ object RunState {
 case class Progress(end: Option[Long]) {
   private var current = 0L
 
-  def increment(): Unit = {
-    current = current + 1
+  def increment(): Unit = increment(1L)
+
+  def increment(count: Long): Unit = {
+    current = current + count
   }
 
   def update(newValue: Long): Unit = {
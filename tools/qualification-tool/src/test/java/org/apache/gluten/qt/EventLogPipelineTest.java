@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gluten.qt;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.spark.scheduler.SparkListenerLogStart;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import scala.collection.JavaConverters;
+import scala.collection.Seq;
+import scala.io.BufferedSource;
+import scala.io.Source$;
+import scala.runtime.AbstractFunction1;
+
+public class EventLogPipelineTest {
+  private static final String UNSCHEDULABLE =
+      "{\"Event\":\"SparkListenerUnschedulableTaskSetAdded\",\"stageId\":0,\"stageAttemptId\":0}";
+  private static final String UNKNOWN = "{\"Event\":\"org.example.UnknownEvent\"}";
+
+  private final EventLogPipeline pipeline = new EventLogPipeline(2, 2, 3);
+
+  @After
+  public void tearDown() {
+    pipeline.close();
+  }
+
+  private static String logStart(String version) {
+    return "{\"Event\":\"SparkListenerLogStart\",\"Spark Version\":\"" + version + "\"}";
+  }
+
+  private static final AbstractFunction1<Path, BufferedSource> OPEN =
+      new AbstractFunction1<Path, BufferedSource>() {
+        @Override
+        public BufferedSource apply(Path path) {
+          return Source$.MODULE$.fromFile(new File(path.toUri()), "UTF-8");
+        }
+      };
+
+  private static Path write(String... lines) throws IOException {
+    File file = File.createTempFile("event-log", ".json");
+    file.deleteOnExit();
+    Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+    return new Path(file.toURI());
+  }
+
+  private static Seq<Path> seq(Path... paths) {
+    return JavaConverters.asScalaBuffer(Arrays.asList(paths)).toSeq();
+  }
+
+  @Test
+  public void testIsReplayed() {
+    Assert.assertTrue(EventLogPipeline.isReplayed(logStart("3.5.1")));
+    Assert.assertTrue(EventLogPipeline.isReplayed("{\"Event\":\"SparkListenerJobStart\"}"));
+    Assert.assertTrue(EventLogPipeline.isReplayed("not an event"));
+    Assert.assertFalse(EventLogPipeline.isReplayed(UNSCHEDULABLE));
+    Assert.assertFalse(
+        EventLogPipeline.isReplayed(
+            "{\"Event\":\"org.apache.spark.sql.streaming."
+                + "StreamingQueryListener$QueryProgressEvent\",\"progress\":{}}"));
+    // Only whole event names are skipped
+    Assert.assertTrue(
+        EventLogPipeline.isReplayed("{\"Event\":\"SparkListenerUnschedulableTaskSetAddedX\"}"));
+  }
+
+  @Test
+  public void testEventsInFileAndLineOrder() throws IOException {
+    Path first =
+        write(logStart("1"), logStart("2"), UNSCHEDULABLE, logStart("3"), UNKNOWN, logStart("4"));
+    Path second = write(logStart("5"));
+    Path third = write(logStart("6"), logStart("7"), logStart("8"), logStart("9"));
+
+    int lines = 0;
+    List<String> versions = new ArrayList<>();
+    scala.collection.Iterator<EventLogPipeline.ParsedChunk> chunks =
+        pipeline.read(seq(first, second, third), OPEN);
+    while (chunks.hasNext()) {
+      EventLogPipeline.ParsedChunk chunk = chunks.next();
+      lines += chunk.lines();
+      for (Object event : JavaConverters.seqAsJavaList(chunk.events())) {
+        versions.add(((SparkListenerLogStart) event).sparkVersion());
+      }
+    }
+
+    Assert.assertEquals(11, lines);
+    Assert.assertEquals(Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8", "9"), versions);
+  }
+
+  @Test
+  public void testMissingFileFails() throws IOException {
+    Path missing = new Path(write() + ".missing");
+    scala.collection.Iterator<EventLogPipeline.ParsedChunk> chunks =
+        pipeline.read(seq(write(logStart("1")), missing), OPEN);
+
+    Assert.assertTrue(chunks.hasNext());
+    Assert.assertEquals(1, chunks.next().events().size());
+    try {
+      chunks.hasNext();
+      Assert.fail("Expected the missing file to fail the replay");
+    } catch (Exception e) {
+      Assert.assertTrue(e.getMessage().startsWith("Failed to read"));
+    }
+  }
+}